@@ -0,0 +1,22 @@
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * In-memory MongoDB (mongo-java-server, a test dependency) for running the
+ * load test without a database server. Its numbers are not the numbers of a
+ * real mongod; use a real database for capacity planning.
+ *
+ * Usage: java -cp <test classpath> loadtest/InMemoryMongo.java [port]
+ */
+public class InMemoryMongo {
+
+	public static void main(String[] args) throws InterruptedException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 27017;
+		MongoServer server = new MongoServer(new MemoryBackend());
+		server.bind("127.0.0.1", port);
+		System.out.println("InMemoryMongo :: main : listening on 127.0.0.1:" + port);
+		Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown));
+		Thread.currentThread().join();
+	}
+
+}
@@ -0,0 +1,189 @@
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OCPP burst against a running station service: every worker thread plays
+ * chargers that send heartbeats (40%), status notifications (40%) and
+ * active flag checks (20%) back to back. Reports throughput, latency
+ * percentiles, errors and the heap and thread count of the service (from
+ * actuator metrics) at the end of the run.
+ *
+ * Usage: java loadtest/OcppLoad.java [url] [chargers] [concurrency] [seconds] [seed]
+ *
+ * url          service base URL (http://localhost:8096)
+ * chargers     serial numbers LT-0 .. LT-n-1 (1000)
+ * concurrency  worker threads (200)
+ * seconds      measured duration after a 10 s warm up (30)
+ * seed         true to bulk import one station per charger first (true)
+ */
+public class OcppLoad {
+
+	private static final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+	public static void main(String[] args) throws Exception {
+		String url = args.length > 0 ? args[0] : "http://localhost:8096";
+		int chargers = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+		int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+		boolean seed = args.length > 4 ? Boolean.parseBoolean(args[4]) : true;
+
+		if (seed)
+			seed(url, chargers);
+		System.out.println("OcppLoad :: warm up 10 s");
+		run(url, chargers, concurrency, 10);
+		Map<String, Object> result = run(url, chargers, concurrency, seconds);
+		result.put("heapUsedMB", metric(url, "jvm.memory.used?tag=area:heap") / (1024 * 1024));
+		result.put("liveThreads", metric(url, "jvm.threads.live"));
+		System.out.println("OcppLoad :: result " + result);
+	}
+
+	private static void seed(String url, int chargers) throws Exception {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < chargers; i++) {
+			ndjson.append("{\"stationName\":\"load test ").append(i).append("\",\"stationHostId\":\"HOST\",")
+					.append("\"stationVendorId\":\"VENDOR\",\"stationArea\":\"Baner\",")
+					.append("\"stationAddressLineOne\":\"Road 1\",\"stationAddressLineTwo\":\"Baner\",")
+					.append("\"stationZipCode\":\"411045\",\"stationCity\":\"Pune\",\"stationLatitude\":18.55,")
+					.append("\"stationLongitude\":73.78,\"stationLocationURL\":\"https://maps.example.com/lt\",")
+					.append("\"stationParkingArea\":\"100\",\"stationContactNumber\":\"9876543210\",")
+					.append("\"stationOpeningTime\":\"06:00\",\"stationClosingTime\":\"22:00\",")
+					.append("\"stationParkingType\":\"Open\",\"stationStatus\":\"Active\",")
+					.append("\"stationPowerStandard\":\"AC\",\"chargers\":[{\"chargerName\":\"LT\",")
+					.append("\"chargerInputVoltage\":\"230\",\"chargerOutputVoltage\":\"230\",")
+					.append("\"chargerMinInputAmpere\":\"16\",\"chargerMaxInputAmpere\":\"32\",")
+					.append("\"chargerOutputAmpere\":\"32\",\"chargerInputFrequency\":\"50\",")
+					.append("\"chargerOutputFrequency\":\"50\",\"chargerIPRating\":\"IP65\",")
+					.append("\"chargerMountType\":\"Wall\",\"isRFID\":\"Yes\",\"chargerPointSerialNumber\":\"LT-")
+					.append(i).append("\",\"chargerOCPPProtocol\":\"1.6\",\"chargerConnectorType\":\"Type2\",")
+					.append("\"isAppSupport\":\"Yes\",\"isTBCutOff\":\"Yes\",\"isAntitheft\":\"Yes\",")
+					.append("\"isLEDDisplay\":\"Yes\",\"isLEDIndications\":\"Yes\",\"isSmart\":\"Yes\",")
+					.append("\"chargerSerialNumber\":\"LT-").append(i).append("\",\"connectors\":[")
+					.append("{\"connectorNumber\":1,\"connectorType\":\"Type2\"},")
+					.append("{\"connectorNumber\":2,\"connectorType\":\"Type2\"}]}]}\n");
+		}
+		HttpResponse<String> response = client.send(
+				HttpRequest.newBuilder(URI.create(url + "/manageStation/bulkImport"))
+						.header("Content-Type", "application/x-ndjson")
+						.POST(HttpRequest.BodyPublishers.ofString(ndjson.toString())).build(),
+				HttpResponse.BodyHandlers.ofString());
+		String body = response.body();
+		System.out.println("OcppLoad :: seed " + response.statusCode() + " "
+				+ body.substring(0, Math.min(200, body.length())));
+	}
+
+	private static Map<String, Object> run(String url, int chargers, int concurrency, int seconds)
+			throws InterruptedException {
+		AtomicBoolean running = new AtomicBoolean(true);
+		long[][] latencies = new long[concurrency][];
+		int[] counts = new int[concurrency];
+		int[] errors = new int[concurrency];
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < concurrency; t++) {
+			int worker = t;
+			Thread thread = new Thread(() -> {
+				long[] own = new long[1024];
+				int count = 0;
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (running.get()) {
+					String serialNumber = URLEncoder.encode("LT-" + random.nextInt(chargers), StandardCharsets.UTF_8);
+					int operation = random.nextInt(10);
+					HttpRequest request;
+					if (operation < 4)
+						request = HttpRequest.newBuilder(URI.create(url + "/manageCharger/heartbeatStatus"
+								+ "?chargerSerialNumber=" + serialNumber + "&chargerTimeStamp="
+								+ URLEncoder.encode(Instant.now().toString(), StandardCharsets.UTF_8))).GET().build();
+					else if (operation < 8)
+						request = HttpRequest
+								.newBuilder(URI.create(url + "/manageCharger/chargerStatusNotification"
+										+ "?chargerSerialNumber=" + serialNumber))
+								.header("Content-Type", "application/json")
+								.POST(HttpRequest.BodyPublishers.ofString("{\"connectorNumber\":"
+										+ (1 + random.nextInt(2)) + ",\"connectorStatus\":\""
+										+ (random.nextBoolean() ? "Available" : "Charging")
+										+ "\",\"connectorErrorCode\":\"NoError\",\"connectorInfo\":\"\","
+										+ "\"connectorTimeStamp\":\"" + Instant.now() + "\"}"))
+								.build();
+					else
+						request = HttpRequest.newBuilder(URI.create(url
+								+ "/manageCharger/getChargerStatusByChargerSerialNumber?chargerSerialNumber="
+								+ serialNumber)).GET().build();
+					long started = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() >= 300)
+							errors[worker]++;
+					} catch (Exception e) {
+						errors[worker]++;
+					}
+					if (count == own.length)
+						own = Arrays.copyOf(own, count * 2);
+					own[count++] = System.nanoTime() - started;
+				}
+				latencies[worker] = own;
+				counts[worker] = count;
+			}, "ocpp-load-" + t);
+			workers.add(thread);
+			thread.start();
+		}
+		Thread.sleep(seconds * 1000L);
+		running.set(false);
+		for (Thread thread : workers)
+			thread.join();
+
+		int total = 0;
+		int failed = 0;
+		for (int t = 0; t < concurrency; t++) {
+			total += counts[t];
+			failed += errors[t];
+		}
+		long[] all = new long[total];
+		int offset = 0;
+		for (int t = 0; t < concurrency; t++) {
+			System.arraycopy(latencies[t], 0, all, offset, counts[t]);
+			offset += counts[t];
+		}
+		Arrays.sort(all);
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("requests", total);
+		result.put("errors", failed);
+		result.put("requestsPerSecond", Math.round(total / (double) seconds));
+		result.put("p50ms", percentile(all, 0.50));
+		result.put("p95ms", percentile(all, 0.95));
+		result.put("p99ms", percentile(all, 0.99));
+		result.put("maxms", total == 0 ? 0 : all[total - 1] / 1_000_000);
+		return result;
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0)
+			return 0;
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1_000_000;
+	}
+
+	private static long metric(String url, String name) {
+		try {
+			String body = client.send(HttpRequest.newBuilder(URI.create(url + "/actuator/metrics/" + name)).build(),
+					HttpResponse.BodyHandlers.ofString()).body();
+			Matcher matcher = Pattern.compile("\"value\":([0-9.E]+)").matcher(body);
+			return matcher.find() ? (long) Double.parseDouble(matcher.group(1)) : -1;
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+}
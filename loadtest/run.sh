@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+#
+# Load test of the OCPP endpoints: builds the service, starts it with the
+# loadtest profile and runs OcppLoad against it.
+#
+# Usage: loadtest/run.sh [chargers] [concurrency] [seconds] [-- extra service arguments]
+#
+# MONGO_URI points the service at a database (default: an in-memory
+# mongo-java-server started by this script). Extra service arguments select
+# the mode under test, e.g. -- --station.ocpp.reactive=true
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CHARGERS=${1:-1000}
+CONCURRENCY=${2:-200}
+SECONDS_MEASURED=${3:-30}
+shift $(( $# < 3 ? $# : 3 ))
+[ "${1:-}" = "--" ] && shift
+PORT=${PORT:-8096}
+HEAP=${HEAP:-512m}
+
+mvn -B -q -DskipTests -Djacoco.skip=true package
+mvn -B -q dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/loadtest.classpath
+
+pids=()
+trap 'kill "${pids[@]}" 2>/dev/null || true' EXIT
+
+if [ -z "${MONGO_URI:-}" ]; then
+	java -cp "src/test/resources:$(cat target/loadtest.classpath)" loadtest/InMemoryMongo.java 27117 &
+	pids+=($!)
+	MONGO_URI="mongodb://127.0.0.1:27117/vCharge"
+	sleep 5
+fi
+
+java -Xmx"$HEAP" -jar target/station-0.0.1-SNAPSHOT.jar --server.port="$PORT" \
+	--spring.profiles.active=loadtest --spring.data.mongodb.uri="$MONGO_URI" "$@" > target/loadtest-service.log 2>&1 &
+pids+=($!)
+for _ in $(seq 1 120); do
+	curl -sf "http://localhost:$PORT/actuator/health" > /dev/null && break
+	sleep 1
+done
+
+java loadtest/OcppLoad.java "http://localhost:$PORT" "$CHARGERS" "$CONCURRENCY" "$SECONDS_MEASURED" true
@@ -0,0 +1,131 @@
+package com.vst.station.converter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.dto.ChargerDTO;
+import com.vst.station.dto.ChargerGetDTO;
+import com.vst.station.dto.ConnectorDTO;
+import com.vst.station.dto.StationDTO;
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.dto.StationFindDTO;
+import com.vst.station.dto.StationHostDTO;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Connector;
+import com.vst.station.model.Station;
+
+/**
+ * A station of 50 chargers with 2 connectors each mapped to every station,
+ * charger and connector DTO, by the converters and by the
+ * BeanUtils.copyProperties calls they replaced.
+ *
+ * Usage: mvn -Pjmh test-compile exec:exec -Dbenchmark=ConverterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+	private final ConnectorConverter connectorConverter = new ConnectorConverter();
+
+	private final ChargerConverter chargerConverter = new ChargerConverter();
+
+	private final StationConveter stationConveter = new StationConveter();
+
+	private final Station station = new Station();
+
+	@Setup
+	public void station() {
+		ReflectionTestUtils.setField(chargerConverter, "connectorConverter", connectorConverter);
+		ReflectionTestUtils.setField(stationConveter, "chargerConverter", chargerConverter);
+
+		station.setStationId("STN20240301120000000042");
+		station.setStationName("Baner Charging Hub");
+		station.setStationArea("Baner");
+		station.setStationCity("Pune");
+		station.setStationZipCode("411045");
+		station.setStationLatitude(18.559);
+		station.setStationLongitude(73.786);
+		station.setStationStatus("Active");
+		station.setCreatedDate(new Date());
+		station.setActive(true);
+		List<Charger> chargers = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			Charger charger = new Charger();
+			charger.setChargerId("CHG2024030112000000" + i);
+			charger.setChargerName("Charger " + i);
+			charger.setChargerSerialNumber("SN" + i);
+			charger.setChargerOCPPProtocol("1.6J");
+			charger.setChargerStatus("Available");
+			charger.setChargerLastHeartBeatTimeStamp("2024-03-01T12:00:00Z");
+			charger.setCreatedDate(new Date());
+			charger.setActive(true);
+			List<Connector> connectors = new ArrayList<>();
+			for (int c = 1; c <= 2; c++) {
+				Connector connector = new Connector();
+				connector.setConnectorId("CON" + i + c);
+				connector.setConnectorNumber(c);
+				connector.setConnectorStatus("Available");
+				connector.setCreatedDate(new Date());
+				connector.setActive(true);
+				connectors.add(connector);
+			}
+			charger.setConnectors(connectors);
+			chargers.add(charger);
+		}
+		station.setChargers(chargers);
+	}
+
+	@Benchmark
+	public void converters(Blackhole blackhole) {
+		blackhole.consume(stationConveter.entityToDto(station));
+		blackhole.consume(stationConveter.entitytoStationDTO1(station));
+		blackhole.consume(stationConveter.entitytoStationFind(station));
+		blackhole.consume(stationConveter.stationEntitytoHostDTO(station));
+		for (Charger charger : station.getChargers()) {
+			blackhole.consume(chargerConverter.entityToDto(charger));
+			blackhole.consume(chargerConverter.entityToDto1(charger));
+			for (Connector connector : charger.getConnectors())
+				blackhole.consume(connectorConverter.entityToDto(connector));
+		}
+	}
+
+	@Benchmark
+	public void copyProperties(Blackhole blackhole) {
+		blackhole.consume(copy(station, new StationDTO()));
+		blackhole.consume(copy(station, new StationDTO1()));
+		blackhole.consume(copy(station, new StationFindDTO()));
+		blackhole.consume(copy(station, new StationHostDTO()));
+		for (Charger charger : station.getChargers()) {
+			blackhole.consume(copy(charger, new ChargerDTO()));
+			blackhole.consume(copy(charger, new ChargerGetDTO()));
+			for (Connector connector : charger.getConnectors())
+				blackhole.consume(copy(connector, new ConnectorDTO()));
+		}
+	}
+
+	private static <T> T copy(Object source, T target) {
+		BeanUtils.copyProperties(source, target);
+		return target;
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.vst.station.error;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vst.station.exception.InValidIdExcepetion;
+import com.vst.station.exception.StationIdNotAcceptableException;
+import com.vst.station.exception.StationNotFoundException;
+
+/**
+ * The 404 and 406 paths: a business exception thrown at the bottom of a call
+ * stack of the given depth (a request thread is 100+ frames deep below the
+ * service), caught by the service, and turned into the error body by
+ * StationApiError. The stackful variants capture a stack trace like the
+ * exceptions did before they became stackless.
+ *
+ * Usage: mvn -Pjmh test-compile exec:exec -Dbenchmark=StationApiErrorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StationApiErrorBenchmark {
+
+	@Param({ "20", "120" })
+	public int depth;
+
+	private final StationApiError stationApiError = new StationApiError();
+
+	private static class StackfulNotFoundException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		StackfulNotFoundException(String message) {
+			super(message);
+		}
+	}
+
+	private static void throwAt(int depth, boolean stackful) {
+		if (depth > 0) {
+			throwAt(depth - 1, stackful);
+			return;
+		}
+		if (stackful)
+			throw new StackfulNotFoundException("Station Not Found, Please Check and try again");
+		throw new StationNotFoundException("Station Not Found, Please Check and try again");
+	}
+
+	private static void throwInvalidAt(int depth) {
+		if (depth > 0) {
+			throwInvalidAt(depth - 1);
+			return;
+		}
+		throw new InValidIdExcepetion("Invalid ID, please provide valid data and try again");
+	}
+
+	@Benchmark
+	public Map<String, Object> notFound() {
+		try {
+			throwAt(depth, false);
+			return null;
+		} catch (StationNotFoundException e) {
+			return stationApiError.userNotFound(e);
+		}
+	}
+
+	@Benchmark
+	public Map<String, Object> stackfulNotFound() {
+		try {
+			throwAt(depth, true);
+			return null;
+		} catch (StackfulNotFoundException e) {
+			return stationApiError.userNotFound(new StationNotFoundException(e.getMessage()));
+		}
+	}
+
+	@Benchmark
+	public Map<String, Object> notAcceptable() {
+		try {
+			throwInvalidAt(depth);
+			return null;
+		} catch (InValidIdExcepetion e) {
+			try {
+				throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			} catch (StationIdNotAcceptableException translated) {
+				return stationApiError.idNotFound(translated);
+			}
+		}
+	}
+
+}
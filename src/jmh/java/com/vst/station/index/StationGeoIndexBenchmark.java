@@ -0,0 +1,112 @@
+package com.vst.station.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.model.Station;
+
+/**
+ * The map screen queries (stations within 5 km, the 20 nearest within 50 km)
+ * on a fleet spread over India, against a scan of every station. Sample time,
+ * so the output carries the p99 of each query.
+ *
+ * Usage: mvn -Pjmh test-compile exec:exec -Dbenchmark=StationGeoIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StationGeoIndexBenchmark {
+
+	private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+	@Param({ "1000", "10000", "100000" })
+	public int stations;
+
+	private final StationGeoIndex index = new StationGeoIndex();
+
+	private final List<Station> fleet = new ArrayList<>();
+
+	private final Random random = new Random(3);
+
+	@Setup
+	public void load() {
+		ReflectionTestUtils.setField(index, "enabled", true);
+		ReflectionTestUtils.setField(index, "cellSize", 0.1);
+		for (int i = 0; i < stations; i++) {
+			Station station = new Station();
+			station.setStationId("STN" + i);
+			station.setStationLatitude(latitude());
+			station.setStationLongitude(longitude());
+			station.setActive(true);
+			fleet.add(station);
+			index.refreshStation(station);
+		}
+	}
+
+	private double latitude() {
+		return 8 + 27 * random.nextDouble();
+	}
+
+	private double longitude() {
+		return 68 + 29 * random.nextDouble();
+	}
+
+	@Benchmark
+	public List<StationDTO1> radius() {
+		return index.radius(latitude(), longitude(), 5000, 0, 100);
+	}
+
+	@Benchmark
+	public List<StationDTO1> nearest() {
+		return index.nearest(latitude(), longitude(), 20, 50000);
+	}
+
+	@Benchmark
+	public List<String> scanRadius() {
+		double latitude = latitude();
+		double longitude = longitude();
+		return fleet.stream().filter(station -> distance(latitude, longitude, station) <= 5000)
+				.sorted(Comparator.comparingDouble(station -> distance(latitude, longitude, station))).limit(100)
+				.map(Station::getStationId).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<String> scanNearest() {
+		double latitude = latitude();
+		double longitude = longitude();
+		return fleet.stream().filter(station -> distance(latitude, longitude, station) <= 50000)
+				.sorted(Comparator.comparingDouble(station -> distance(latitude, longitude, station))).limit(20)
+				.map(Station::getStationId).collect(Collectors.toList());
+	}
+
+	private static double distance(double latitude, double longitude, Station station) {
+		double deltaLatitude = Math.toRadians(station.getStationLatitude() - latitude);
+		double deltaLongitude = Math.toRadians(station.getStationLongitude() - longitude);
+		double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+				+ Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(station.getStationLatitude()))
+						* Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+		return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.vst.station.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.vst.station.MongoTestSupport;
+import com.vst.station.converter.ChargerConverter;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Connector;
+import com.vst.station.model.Station;
+import com.vst.station.repository.StationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * One OCPP heartbeat on a station of the given number of chargers: the
+ * positional findAndModify of heartbeatNotification against the find and
+ * whole-station save it replaced, on the in-memory Mongo. The writeBytes
+ * counter is the size of the write commands sent per heartbeat.
+ *
+ * Usage: mvn -Pjmh test-compile exec:exec -Dbenchmark=HeartbeatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeartbeatBenchmark {
+
+	private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "findAndModify");
+
+	@Param({ "10", "50" })
+	public int chargers;
+
+	private MongoTestSupport mongo;
+
+	private StationRepository stationRepository;
+
+	private ChargerServiceImpl chargerService;
+
+	private volatile long writeBytes;
+
+	private volatile long heartbeats;
+
+	private long second;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Written {
+
+		private HeartbeatBenchmark benchmark;
+
+		@Setup(Level.Iteration)
+		public void reset(HeartbeatBenchmark benchmark) {
+			this.benchmark = benchmark;
+			benchmark.writeBytes = 0;
+			benchmark.heartbeats = 0;
+		}
+
+		public long writeBytes() {
+			return benchmark.heartbeats == 0 ? 0 : benchmark.writeBytes / benchmark.heartbeats;
+		}
+
+	}
+
+	@Setup
+	public void start() {
+		mongo = new MongoTestSupport(new CommandListener() {
+			@Override
+			public void commandStarted(CommandStartedEvent event) {
+				if (WRITE_COMMANDS.contains(event.getCommandName()))
+					writeBytes += size(event.getCommand());
+			}
+		});
+		MongoTemplate mongoTemplate = mongo.getMongoTemplate();
+		stationRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(StationRepository.class);
+
+		ChargerSerialNumberIndex chargerSerialNumberIndex = new ChargerSerialNumberIndex();
+		ReflectionTestUtils.setField(chargerSerialNumberIndex, "mongoTemplate", mongoTemplate);
+
+		StationLookupCache stationLookupCache = new StationLookupCache();
+		ReflectionTestUtils.setField(stationLookupCache, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(stationLookupCache, "stationRepository", stationRepository);
+		ReflectionTestUtils.setField(stationLookupCache, "chargerSerialNumberIndex", chargerSerialNumberIndex);
+		ReflectionTestUtils.setField(stationLookupCache, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(stationLookupCache, "maximumSize", 100L);
+		ReflectionTestUtils.setField(stationLookupCache, "expireAfterWriteSeconds", 300L);
+		stationLookupCache.init();
+
+		chargerService = new ChargerServiceImpl();
+		ReflectionTestUtils.setField(chargerService, "stationRepository", stationRepository);
+		ReflectionTestUtils.setField(chargerService, "chargerConverter", new ChargerConverter());
+		ReflectionTestUtils.setField(chargerService, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(chargerService, "chargerSerialNumberIndex", chargerSerialNumberIndex);
+		ReflectionTestUtils.setField(chargerService, "stationLookupCache", stationLookupCache);
+		ReflectionTestUtils.setField(chargerService, "connectorStateStore", new ConnectorStateStore());
+
+		Station station = new Station();
+		station.setStationId("STN1");
+		station.setStationName("Baner Charging Hub");
+		station.setStationCity("Pune");
+		station.setActive(true);
+		for (int i = 0; i < chargers; i++)
+			station.getChargers().add(charger(i));
+		mongoTemplate.save(station);
+		chargerSerialNumberIndex.rebuild();
+	}
+
+	private static Charger charger(int i) {
+		Charger charger = new Charger();
+		charger.setChargerId("CHG" + i);
+		charger.setChargerSerialNumber("SN" + i);
+		charger.setChargerName("Charger " + i);
+		charger.setChargerOCPPProtocol("1.6J");
+		charger.setChargerStatus("Available");
+		charger.setChargerLastHeartBeatTimeStamp(Instant.parse("2024-03-01T10:00:00Z").toString());
+		charger.setActive(true);
+		List<Connector> connectors = new ArrayList<>();
+		for (int number = 1; number <= 2; number++) {
+			Connector connector = new Connector();
+			connector.setConnectorId("CHG" + i + "CON" + number);
+			connector.setConnectorNumber(number);
+			connector.setConnectorStatus("Available");
+			connector.setActive(true);
+			connectors.add(connector);
+		}
+		charger.setConnectors(connectors);
+		return charger;
+	}
+
+	@TearDown
+	public void stop() {
+		mongo.close();
+	}
+
+	// heartbeats a second apart on the last charger, so the station never deactivates
+	private String nextTimeStamp() {
+		heartbeats++;
+		return Instant.parse("2024-03-01T10:00:00Z").plusSeconds(++second % 300).toString();
+	}
+
+	@Benchmark
+	public boolean positionalUpdate(Written written) {
+		return chargerService.heartbeatNotification("SN" + (chargers - 1), nextTimeStamp());
+	}
+
+	@Benchmark
+	public Station wholeStationSave(Written written) {
+		String chargerSerialNumber = "SN" + (chargers - 1);
+		String chargerTimeStamp = nextTimeStamp();
+		Station station = stationRepository.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
+		for (Charger charger : station.getChargers()) {
+			if (chargerSerialNumber.equals(charger.getChargerSerialNumber()))
+				charger.setChargerLastHeartBeatTimeStamp(chargerTimeStamp);
+		}
+		return stationRepository.save(station);
+	}
+
+	private static int size(BsonDocument command) {
+		return new RawBsonDocument(command, new BsonDocumentCodec()).getByteBuffer().remaining();
+	}
+
+}
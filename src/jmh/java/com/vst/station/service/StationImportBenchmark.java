@@ -0,0 +1,185 @@
+package com.vst.station.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.Validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.vst.station.MongoTestSupport;
+import com.vst.station.converter.ChargerConverter;
+import com.vst.station.converter.ConnectorConverter;
+import com.vst.station.converter.StationConveter;
+import com.vst.station.dto.StationImportReportDTO;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.index.StationAutocompleteIndex;
+import com.vst.station.index.StationGeoIndex;
+
+/**
+ * A bulk import of the given number of stations (NDJSON, one charger with two
+ * connectors each) into an empty station collection, timed once per
+ * iteration. The geo and autocomplete indexes are disabled, so the time is
+ * parsing, validation and the unordered bulk writes.
+ *
+ * Runs on the in-memory Mongo, or on a real server with MONGO_URI set (a
+ * stationImportBenchmark database is created and dropped).
+ *
+ * Usage: MONGO_URI=mongodb://localhost:27017 mvn -Pjmh test-compile exec:exec -Dbenchmark=StationImportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class StationImportBenchmark {
+
+	@Param({ "50000" })
+	public int stations;
+
+	@Param({ "1000" })
+	public int chunkSize;
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private MongoTestSupport mongo;
+
+	private MongoClient client;
+
+	private MongoTemplate mongoTemplate;
+
+	private StationImportServiceImpl importService;
+
+	private byte[] ndjson;
+
+	@Setup
+	public void start() throws IOException {
+		String mongoUri = System.getenv("MONGO_URI");
+		if (mongoUri == null) {
+			mongo = new MongoTestSupport();
+			mongoTemplate = mongo.getMongoTemplate();
+		} else {
+			client = MongoClients.create(mongoUri);
+			mongoTemplate = new MongoTemplate(client, "stationImportBenchmark");
+		}
+
+		ConnectorConverter connectorConverter = new ConnectorConverter();
+		ChargerConverter chargerConverter = new ChargerConverter();
+		ReflectionTestUtils.setField(chargerConverter, "connectorConverter", connectorConverter);
+		StationConveter stationConveter = new StationConveter();
+		ReflectionTestUtils.setField(stationConveter, "chargerConverter", chargerConverter);
+		ChargerSerialNumberIndex chargerSerialNumberIndex = new ChargerSerialNumberIndex();
+		ReflectionTestUtils.setField(chargerSerialNumberIndex, "mongoTemplate", mongoTemplate);
+
+		importService = new StationImportServiceImpl();
+		ReflectionTestUtils.setField(importService, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(importService, "validator",
+				Validation.buildDefaultValidatorFactory().getValidator());
+		ReflectionTestUtils.setField(importService, "objectMapper", objectMapper);
+		ReflectionTestUtils.setField(importService, "stationConveter", stationConveter);
+		ReflectionTestUtils.setField(importService, "chargerConverter", chargerConverter);
+		ReflectionTestUtils.setField(importService, "connectorConverter", connectorConverter);
+		ReflectionTestUtils.setField(importService, "chargerSerialNumberIndex", chargerSerialNumberIndex);
+		ReflectionTestUtils.setField(importService, "stationGeoIndex", new StationGeoIndex());
+		ReflectionTestUtils.setField(importService, "stationAutocompleteIndex", new StationAutocompleteIndex());
+		ReflectionTestUtils.setField(importService, "chunkSize", chunkSize);
+		ReflectionTestUtils.setField(importService, "maxErrors", 1000);
+
+		ByteArrayOutputStream lines = new ByteArrayOutputStream();
+		for (int i = 0; i < stations; i++) {
+			objectMapper.writeValue(lines, station(i));
+			lines.write('\n');
+		}
+		ndjson = lines.toByteArray();
+	}
+
+	private static Map<String, Object> station(int i) {
+		Map<String, Object> station = new LinkedHashMap<>();
+		station.put("stationName", "hub " + i);
+		station.put("stationHostId", "HOST1");
+		station.put("stationVendorId", "VENDOR1");
+		station.put("stationArea", "Baner");
+		station.put("stationAddressLineOne", "Road " + i);
+		station.put("stationAddressLineTwo", "Near Baner Square");
+		station.put("stationZipCode", "411045");
+		station.put("stationCity", "pune");
+		station.put("stationLatitude", 18.55);
+		station.put("stationLongitude", 73.78);
+		station.put("stationLocationURL", "https://maps.example.com/baner");
+		station.put("stationParkingArea", "120");
+		station.put("stationContactNumber", "9876543210");
+		station.put("stationOpeningTime", "06:00");
+		station.put("stationClosingTime", "22:00");
+		station.put("stationParkingType", "Open");
+		station.put("stationStatus", "Active");
+		station.put("stationPowerStandard", "AC");
+		station.put("stationAmenity", List.of("wifi", "cafe"));
+
+		Map<String, Object> charger = new LinkedHashMap<>();
+		for (String field : List.of("chargerInputVoltage", "chargerOutputVoltage", "chargerMinInputAmpere",
+				"chargerMaxInputAmpere", "chargerOutputAmpere", "chargerInputFrequency", "chargerOutputFrequency",
+				"chargerMountType", "isRFID", "chargerPointSerialNumber", "chargerOCPPProtocol",
+				"chargerConnectorType", "isAppSupport", "isTBCutOff", "isAntitheft", "isLEDDisplay",
+				"isLEDIndications", "isSmart"))
+			charger.put(field, "1");
+		charger.put("chargerName", "Charger " + i);
+		charger.put("chargerIPRating", "IP65");
+		charger.put("chargerSerialNumber", "SNB" + i);
+		List<Map<String, Object>> connectors = new ArrayList<>();
+		for (int number = 1; number <= 2; number++)
+			connectors.add(Map.of("connectorNumber", number, "connectorType", "CCS2"));
+		charger.put("connectors", connectors);
+		station.put("chargers", List.of(charger));
+		return station;
+	}
+
+	@Setup(Level.Iteration)
+	public void empty() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@TearDown
+	public void stop() {
+		if (mongo != null) {
+			mongo.close();
+		} else {
+			mongoTemplate.getDb().drop();
+			client.close();
+		}
+	}
+
+	@Benchmark
+	public StationImportReportDTO bulkImport() throws IOException {
+		StationImportReportDTO report = importService.bulkImport(new ByteArrayInputStream(ndjson),
+				"application/x-ndjson");
+		if (report.getImported() != stations)
+			throw new IllegalStateException(report.getFailed() + " stations not imported: " + report.getErrors());
+		return report;
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.vst.station.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.vst.station.MongoTestSupport;
+import com.vst.station.configuration.MongoIndexInitializer;
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.index.StationSearchTokens;
+import com.vst.station.model.Station;
+import com.vst.station.repository.StationRepository;
+
+/**
+ * The search bar keyword on the given number of stations: the case
+ * insensitive substring query over five fields that stationforApplication
+ * used to run, the anchored prefix match on searchTokens it falls back to,
+ * and the text index it tries first.
+ *
+ * Runs on the in-memory Mongo, which evaluates every query by a collection
+ * scan and has no $text; the textIndex benchmark needs a real server:
+ * MONGO_URI=mongodb://localhost:27017 mvn -Pjmh test-compile exec:exec
+ * -Dbenchmark=StationSearchBenchmark (a stationSearchBenchmark database is
+ * created and dropped).
+ *
+ * Usage: mvn -Pjmh test-compile exec:exec -Dbenchmark='StationSearchBenchmark.(contains|prefix)'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StationSearchBenchmark {
+
+	private static final String[] AREAS = { "Baner", "Aundh", "Kothrud", "Hinjewadi", "Wakad", "Koramangala",
+			"Indiranagar", "Whitefield", "Andheri", "Powai", "Bandra", "Salt Lake", "Gachibowli", "Madhapur",
+			"Velachery", "Adyar", "Sector 62", "Dwarka", "Saket", "Navrangpura" };
+
+	private static final String[] CITIES = { "Pune", "Bengaluru", "Mumbai", "Kolkata", "Hyderabad", "Chennai",
+			"Noida", "Delhi", "Ahmedabad" };
+
+	@Param({ "10000", "100000" })
+	public int stations;
+
+	// a partly typed word, a whole word the text index can match, and a word
+	// no station has, which cannot stop early at the limit
+	@Param({ "koram", "whitefield", "nagpur" })
+	public String keyword;
+
+	private MongoTestSupport mongo;
+
+	private MongoClient client;
+
+	private MongoTemplate mongoTemplate;
+
+	private StationRepository stationRepository;
+
+	private StationServiceImpl stationService;
+
+	@Setup
+	public void load() {
+		String mongoUri = System.getenv("MONGO_URI");
+		if (mongoUri == null) {
+			mongo = new MongoTestSupport();
+			mongoTemplate = mongo.getMongoTemplate();
+		} else {
+			client = MongoClients.create(mongoUri);
+			mongoTemplate = new MongoTemplate(client, "stationSearchBenchmark");
+			mongoTemplate.getDb().drop();
+		}
+		stationRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(StationRepository.class);
+		MongoIndexInitializer mongoIndexInitializer = new MongoIndexInitializer();
+		ReflectionTestUtils.setField(mongoIndexInitializer, "mongoTemplate", mongoTemplate);
+		mongoIndexInitializer.ensureIndexes();
+
+		stationService = new StationServiceImpl();
+		ReflectionTestUtils.setField(stationService, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(stationService, "stationRepository", stationRepository);
+		ReflectionTestUtils.setField(stationService, "searchDefaultLimit", 20);
+		ReflectionTestUtils.setField(stationService, "searchMaxLimit", 100);
+
+		Random random = new Random(5);
+		List<Station> batch = new ArrayList<>();
+		for (int i = 0; i < stations; i++) {
+			Station station = new Station();
+			station.setStationId("STN" + i);
+			station.setStationArea(AREAS[random.nextInt(AREAS.length)]);
+			station.setStationCity(CITIES[random.nextInt(CITIES.length)]);
+			station.setStationName(station.getStationArea() + " Charging Hub " + i);
+			station.setStationZipCode(String.valueOf(400000 + random.nextInt(200000)));
+			station.setStationStatus(random.nextInt(10) == 0 ? "Inactive" : "Active");
+			station.setActive(true);
+			station.setSearchTokens(StationSearchTokens.tokens(station.getStationName(), station.getStationArea(),
+					station.getStationZipCode(), station.getStationCity(), station.getStationStatus()));
+			batch.add(station);
+			if (batch.size() == 1000 || i == stations - 1) {
+				mongoTemplate.insert(batch, Station.class);
+				batch.clear();
+			}
+		}
+	}
+
+	@TearDown
+	public void stop() {
+		if (mongo != null) {
+			mongo.close();
+		} else {
+			mongoTemplate.getDb().drop();
+			client.close();
+		}
+	}
+
+	@Benchmark
+	public List<StationDTO1> containsIgnoreCase() {
+		return stationRepository
+				.findStationDTO1ByStationNameContainingIgnoreCaseAndIsActiveTrueOrStationAreaContainingIgnoreCaseAndIsActiveTrueOrStationZipCodeContainingIgnoreCaseAndIsActiveTrueOrStationCityContainingIgnoreCaseAndIsActiveTrueOrStationStatusContainingIgnoreCaseAndIsActiveTrue(
+						keyword, keyword, keyword, keyword, keyword, PageRequest.of(0, 20));
+	}
+
+	@Benchmark
+	public List<StationDTO1> prefixTokens() {
+		return ReflectionTestUtils.invokeMethod(stationService, "prefixSearch", keyword, 20);
+	}
+
+	@Benchmark
+	public List<StationDTO1> textIndex() {
+		return stationService.stationforApplication(keyword, 20);
+	}
+
+}
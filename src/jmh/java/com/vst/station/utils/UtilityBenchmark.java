@@ -0,0 +1,77 @@
+package com.vst.station.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Station ids and names through the string utilities, against the regex and
+ * char array implementations they replaced.
+ *
+ * Usage: mvn -Pjmh test-compile exec:exec -Dbenchmark=UtilityBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilityBenchmark {
+
+	private static final Utility utility = new Utility();
+
+	@State(Scope.Benchmark)
+	public static class Ids {
+
+		@Param({ "STN20240301120000000042", "STN-2024/03/01 12:00" })
+		public String id;
+	}
+
+	@State(Scope.Benchmark)
+	public static class Names {
+
+		@Param({ "Baner Charging Hub", "baner charging hub" })
+		public String name;
+	}
+
+	@Benchmark
+	public String stringSanitization(Ids ids) {
+		return utility.stringSanitization(ids.id);
+	}
+
+	@Benchmark
+	public String legacyStringSanitization(Ids ids) {
+		return ids.id.replaceAll("[^a-zA-Z0-9]", "");
+	}
+
+	@Benchmark
+	public String toTitleCase(Names names) {
+		return utility.toTitleCase(names.name);
+	}
+
+	@Benchmark
+	public String legacyToTitleCase(Names names) {
+		String name = names.name;
+		StringBuilder titleCase = new StringBuilder(name.length());
+		boolean nextTitleCase = true;
+		for (char c : name.toCharArray()) {
+			if (Character.isSpaceChar(c)) {
+				nextTitleCase = true;
+			} else if (nextTitleCase) {
+				c = Character.toTitleCase(c);
+				nextTitleCase = false;
+			}
+			titleCase.append(c);
+		}
+		return titleCase.toString();
+	}
+
+}
@@ -3,8 +3,16 @@ package com.vst.station;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+/**
+ * The reactive Mongo auto-configurations are excluded here and imported by
+ * ReactiveMongoConfiguration when station.ocpp.reactive=true.
+ */
+@SpringBootApplication(exclude = { MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class })
+@EnableScheduling
 public class StationApplication {
 	
 	public static void main(String[] args) {
@@ -0,0 +1,116 @@
+package com.vst.station.configuration;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.vst.station.service.ScheduledJobLock;
+import com.vst.station.utils.IdAndDateGenerator;
+
+/**
+ * Applies the node id of this replica to the id generator.
+ *
+ * A configured node id (station.idGenerator.nodeId) is used as is. Otherwise
+ * the replica leases a free node id from Mongo ("idGeneratorNode-<n>" locks in
+ * the "scheduledJobLock" collection) and renews the lease while it runs, so
+ * two live replicas never share a node id. Startup fails when no node id can
+ * be leased.
+ *
+ * A renewal that fails on a Mongo error keeps the node id and is retried on
+ * the next run; the id generator stops issuing ids once the last renewed
+ * lease ends. Only a lease taken over by another replica makes this replica
+ * lease a new node id, which it applies once the new lease is held.
+ */
+@Component
+public class IdGeneratorInitializer {
+
+	public static final Logger logger = LogManager.getLogger(IdGeneratorInitializer.class);
+
+	private static final String NODE_LOCK = "idGeneratorNode-";
+
+	private static final int NODE_RANGE = 1000;
+
+	@Value("${station.idGenerator.nodeId:-1}")
+	private int nodeId;
+
+	@Value("${station.idGenerator.leaseMs:600000}")
+	private long leaseMs;
+
+	@Autowired
+	private ScheduledJobLock scheduledJobLock;
+
+	private volatile int leasedNodeId = -1;
+
+	@PostConstruct
+	public void init() {
+		if (nodeId >= 0) {
+			IdAndDateGenerator.setNodeId(nodeId);
+			logger.info("IdGeneratorInitializer :: init : node id " + nodeId);
+			return;
+		}
+		lease();
+	}
+
+	/**
+	 * Usage: lease the first free node id and apply it
+	 *
+	 * @return leased node id
+	 */
+	public int lease() {
+		for (int candidate = 0; candidate < NODE_RANGE; candidate++) {
+			long leasedAt = System.currentTimeMillis();
+			if (scheduledJobLock.lock(NODE_LOCK + candidate, leaseMs)) {
+				IdAndDateGenerator.setNodeId(candidate, leasedAt + leaseMs);
+				leasedNodeId = candidate;
+				logger.info("IdGeneratorInitializer :: lease : leased node id " + candidate);
+				return candidate;
+			}
+		}
+		throw new IllegalStateException("No free id generator node id, set station.idGenerator.nodeId");
+	}
+
+	@Scheduled(fixedDelayString = "${station.idGenerator.renewIntervalMs:60000}")
+	public void renew() {
+		if (nodeId >= 0)
+			return;
+		int current = leasedNodeId;
+		try {
+			if (current >= 0) {
+				long leasedAt = System.currentTimeMillis();
+				if (scheduledJobLock.lock(NODE_LOCK + current, leaseMs)) {
+					IdAndDateGenerator.setNodeId(current, leasedAt + leaseMs);
+					return;
+				}
+				logger.warn("IdGeneratorInitializer :: renew : node id " + current
+						+ " leased by another replica, leasing again");
+				IdAndDateGenerator.expireNodeId();
+				leasedNodeId = -1;
+			}
+			lease();
+		} catch (Exception e) {
+			logger.error("IdGeneratorInitializer :: renew : lease of node id " + current
+					+ " not renewed, retrying, " + e.getLocalizedMessage());
+		}
+	}
+
+	@PreDestroy
+	public void release() {
+		int current = leasedNodeId;
+		if (current >= 0) {
+			IdAndDateGenerator.expireNodeId();
+			leasedNodeId = -1;
+			scheduledJobLock.unlock(NODE_LOCK + current);
+		}
+	}
+
+	public int getLeasedNodeId() {
+		return leasedNodeId;
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.vst.station.configuration;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.stereotype.Component;
+
+import com.vst.station.model.Station;
+
+/**
+ * Creates the station indexes that are not declared on the mapped fields
+ * before the application starts serving requests.
+ */
+@Component
+public class MongoIndexInitializer {
+
+	public static final Logger logger = LogManager.getLogger(MongoIndexInitializer.class);
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@PostConstruct
+	public void ensureIndexes() {
+		try {
+			mongoTemplate.indexOps(Station.class)
+					.ensureIndex(new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE));
+			logger.info("MongoIndexInitializer :: ensureIndexes : 2dsphere index on location ensured");
+		} catch (Exception e) {
+			logger.error("MongoIndexInitializer :: ensureIndexes : 2dsphere index on location not created, "
+					+ e.getLocalizedMessage());
+		}
+		try {
+			mongoTemplate.indexOps(Station.class).ensureIndex(new Index().on("stationLatitude", Direction.ASC)
+					.on("stationLongitude", Direction.ASC).named("station_viewport"));
+			logger.info("MongoIndexInitializer :: ensureIndexes : viewport index ensured");
+		} catch (Exception e) {
+			logger.error("MongoIndexInitializer :: ensureIndexes : viewport index not created, "
+					+ e.getLocalizedMessage());
+		}
+		try {
+			mongoTemplate.indexOps(Station.class).ensureIndex(new Index().on("searchTokens", Direction.ASC)
+					.on("isActive", Direction.ASC).named("station_search_tokens"));
+			logger.info("MongoIndexInitializer :: ensureIndexes : search token index ensured");
+		} catch (Exception e) {
+			logger.error("MongoIndexInitializer :: ensureIndexes : search token index not created, "
+					+ e.getLocalizedMessage());
+		}
+		try {
+			mongoTemplate.indexOps(Station.class)
+					.ensureIndex(new TextIndexDefinitionBuilder().named("station_text").withDefaultLanguage("none")
+							.onField("stationName", 5F).onField("stationCity", 3F).onField("stationArea", 3F)
+							.onField("stationZipCode", 2F).onField("stationStatus").build());
+			logger.info("MongoIndexInitializer :: ensureIndexes : text index ensured");
+		} catch (Exception e) {
+			logger.error("MongoIndexInitializer :: ensureIndexes : text index not created, "
+					+ e.getLocalizedMessage());
+		}
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.vst.station.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The reactive Mongo client and ReactiveMongoTemplate, only created when the
+ * reactive OCPP endpoints are enabled (station.ocpp.reactive=true).
+ *
+ * StationApplication excludes both auto-configurations, so the servlet only
+ * mode does not open a second connection pool with its own monitor threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "station.ocpp.reactive", havingValue = "true")
+@Import({ MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class })
+public class ReactiveMongoConfiguration {
+
+}
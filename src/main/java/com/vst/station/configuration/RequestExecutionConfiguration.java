@@ -0,0 +1,144 @@
+package com.vst.station.configuration;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Selects the threads blocking controller methods run on
+ * (station.requestExecution.mode).
+ *
+ * platform (default): the Tomcat worker thread that accepted the request runs
+ * the controller method, so every request waiting on Mongo or on the user
+ * service holds one of server.tomcat.threads.max threads.
+ *
+ * async: the Tomcat thread only starts an asynchronous request; the controller
+ * method (argument binding included) runs on a pool of
+ * station.requestExecution.async.threads threads sized to the Mongo pool, and
+ * the response is written on the async dispatch. A burst of OCPP calls
+ * (chargers rebooting after a power restoration) then waits in the queue of
+ * that pool instead of holding Tomcat threads. When the queue is full the
+ * request runs on the Tomcat thread as in platform mode; requests still
+ * waiting after station.requestExecution.async.timeoutMs answer 503.
+ *
+ * Controller methods that are already asynchronous (Mono, Callable,
+ * DeferredResult, ...) and the actuator endpoints are left as they are.
+ * Virtual threads would serve the same purpose without the pool but need a
+ * Java 21 baseline; this mode works on Java 17.
+ */
+@Configuration
+@ConditionalOnProperty(name = "station.requestExecution.mode", havingValue = "async")
+public class RequestExecutionConfiguration implements WebMvcConfigurer {
+
+	public static final Logger logger = LogManager.getLogger(RequestExecutionConfiguration.class);
+
+	private static final List<Class<?>> ASYNC_RETURN_TYPES = List.of(Callable.class, DeferredResult.class,
+			WebAsyncTask.class, CompletionStage.class, ListenableFuture.class, ResponseBodyEmitter.class,
+			StreamingResponseBody.class);
+
+	private final ThreadPoolTaskExecutor requestExecutor = new ThreadPoolTaskExecutor();
+
+	@Value("${station.requestExecution.async.timeoutMs:30000}")
+	private long timeoutMs;
+
+	public RequestExecutionConfiguration(@Value("${station.requestExecution.async.threads:100}") int threads,
+			@Value("${station.requestExecution.async.queueCapacity:10000}") int queueCapacity) {
+		requestExecutor.setCorePoolSize(threads);
+		requestExecutor.setMaxPoolSize(threads);
+		requestExecutor.setQueueCapacity(queueCapacity);
+		requestExecutor.setThreadNamePrefix("request-");
+		// a full queue falls back to the Tomcat thread instead of refusing the request
+		requestExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		requestExecutor.initialize();
+		logger.info("RequestExecutionConfiguration :: RequestExecutionConfiguration : controller methods run on "
+				+ threads + " request threads, " + queueCapacity + " queued at most");
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(requestExecutor);
+		configurer.setDefaultTimeout(timeoutMs);
+	}
+
+	@Bean
+	public WebMvcRegistrations requestExecutionRegistrations() {
+		return new WebMvcRegistrations() {
+			@Override
+			public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+				return new OffloadingHandlerAdapter();
+			}
+		};
+	}
+
+	/**
+	 * Usage: whether a controller method is run on the request pool
+	 *
+	 * @param handlerMethod
+	 * @return true for synchronous methods of the application's controllers
+	 */
+	static boolean offloaded(HandlerMethod handlerMethod) {
+		if (!AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), RestController.class))
+			return false;
+		Class<?> returnType = handlerMethod.getReturnType().getParameterType();
+		for (Class<?> asyncType : ASYNC_RETURN_TYPES) {
+			if (asyncType.isAssignableFrom(returnType))
+				return false;
+		}
+		return ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType) == null;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		requestExecutor.shutdown();
+	}
+
+	/**
+	 * Returns a Callable in place of the result of an offloaded method, which
+	 * Spring MVC runs on the request pool and then dispatches like the result
+	 * of a method declared to return Callable.
+	 */
+	static class OffloadingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+		@Override
+		protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+			if (!offloaded(handlerMethod))
+				return super.createInvocableHandlerMethod(handlerMethod);
+			return new ServletInvocableHandlerMethod(handlerMethod) {
+				@Override
+				public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer,
+						Object... providedArgs) {
+					return (Callable<Object>) () -> super.invokeForRequest(request, mavContainer, providedArgs);
+				}
+			};
+		}
+
+	}
+
+}
@@ -20,6 +20,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.vst.station.dto.ChargerDTO;
+import com.vst.station.dto.ChargerStatusBatchDTO;
+import com.vst.station.dto.ChargerStatusOutcomeDTO;
 import com.vst.station.dto.ChargerUpdateDTO;
 import com.vst.station.dto.connectorStatusNotificationDTO;
 import com.vst.station.dto.ocppVerificationDTO;
@@ -142,8 +144,21 @@ public class ChargerController {
 			return new ResponseEntity<>("Charger "+status + "updated Successfully", HttpStatus.OK);
 		}else 
 		return new ResponseEntity<>("Charger not "+status , HttpStatus.NOT_MODIFIED);
-		
+	}
 
+	/**
+	 * Usage: update the status of chargers of many stations to active/inactive
+	 * in one call
+	 * 
+	 * HTTP method : PUT and URL : manageCharger/updateChargerStatusBatch
+	 * 
+	 * @param chargerStatusBatchDTO
+	 * @return Http response and outcome per charger
+	 */
+	@PutMapping("/updateChargerStatusBatch")
+	public ResponseEntity<List<ChargerStatusOutcomeDTO>> updateChargerStatusBatch(
+			@Valid @RequestBody ChargerStatusBatchDTO chargerStatusBatchDTO) {
+		return new ResponseEntity<>(chargerServiceImpl.updateChargerStatusBatch(chargerStatusBatchDTO),
+				HttpStatus.OK);
 	}
 }
-
@@ -1,5 +1,6 @@
 package com.vst.station.controller;
 
+import java.util.Date;
 import java.util.List;
 
 import javax.validation.Valid;
@@ -8,6 +9,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators.Add;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -22,9 +25,11 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.vst.station.dto.ConnectorDTO;
 import com.vst.station.dto.ConnectorUpdateDTO;
+import com.vst.station.dto.MeterValueHistoryDTO;
 import com.vst.station.model.Connector;
 import com.vst.station.service.ChargerServiceImpl;
 import com.vst.station.service.ConnectorServiceImpl;
+import com.vst.station.service.MeterValueHistoryServiceImpl;
 
 @RequestMapping("/manageConnector")
 @CrossOrigin(origins = "*")
@@ -34,6 +39,9 @@ public class ConnectorController {
 	@Autowired
 	ConnectorServiceImpl connectorServiceImpl;
 
+	@Autowired
+	MeterValueHistoryServiceImpl meterValueHistoryServiceImpl;
+
 	boolean flag = false;
 
 	public static final Logger logger = LogManager.getLogger(ConnectorController.class);
@@ -120,4 +128,23 @@ public class ConnectorController {
 			return new ResponseEntity<>("Connector Not Deleted. Please try again", HttpStatus.NOT_FOUND);
 	}
 
+	/**
+	 * Usage: Get the meter value history of a connector between two instants,
+	 * read from the finest rollup (1m, 15m or 1h) that fits the window
+	 * 
+	 * HTTP method : GET and URL : manageConnector/meterHistory
+	 * 
+	 * @param chargerSerialNumber, connectorNumber, from, to (ISO date time)
+	 * @return Http response and list of meter value buckets
+	 */
+	@GetMapping("/meterHistory")
+	public ResponseEntity<List<MeterValueHistoryDTO>> getMeterHistory(
+			@RequestParam("chargerSerialNumber") String chargerSerialNumber,
+			@RequestParam("connectorNumber") Integer connectorNumber,
+			@RequestParam("from") @DateTimeFormat(iso = ISO.DATE_TIME) Date from,
+			@RequestParam("to") @DateTimeFormat(iso = ISO.DATE_TIME) Date to) {
+		return ResponseEntity
+				.ok(meterValueHistoryServiceImpl.getMeterHistory(chargerSerialNumber, connectorNumber, from, to));
+	}
+
 }
@@ -1,6 +1,7 @@
 package com.vst.station.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -18,6 +19,7 @@ import com.vst.station.service.ChargerServiceImpl;
 @RequestMapping("/manageCharger")
 @CrossOrigin(origins = "*")
 @RestController
+@ConditionalOnProperty(name = "station.ocpp.reactive", havingValue = "false", matchIfMissing = true)
 public class OCPPChargerController {
 
 	@Autowired
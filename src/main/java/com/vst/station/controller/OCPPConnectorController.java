@@ -1,6 +1,7 @@
 package com.vst.station.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -13,6 +14,7 @@ import com.vst.station.service.ConnectorServiceImpl;
 
 @RestController
 @RequestMapping("/manageConnector")
+@ConditionalOnProperty(name = "station.ocpp.reactive", havingValue = "false", matchIfMissing = true)
 public class OCPPConnectorController {
 
 	@Autowired
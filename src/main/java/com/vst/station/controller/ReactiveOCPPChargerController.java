@@ -0,0 +1,72 @@
+package com.vst.station.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.vst.station.dto.connectorStatusNotificationDTO;
+import com.vst.station.dto.ocppVerificationDTO;
+import com.vst.station.service.ReactiveOcppServiceInterface;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Same URLs and responses as OCPPChargerController, answered without holding
+ * a request thread while Mongo works (station.ocpp.reactive=true).
+ */
+@RequestMapping("/manageCharger")
+@CrossOrigin(origins = "*")
+@RestController
+@ConditionalOnProperty(name = "station.ocpp.reactive", havingValue = "true")
+public class ReactiveOCPPChargerController {
+
+	@Autowired
+	ReactiveOcppServiceInterface reactiveOcppService;
+
+	@GetMapping("/getChargerStatusByChargerSerialNumber")
+	public Mono<ResponseEntity<Boolean>> getChargerStatus(
+			@RequestParam("chargerSerialNumber") String chargerSerialNumber) {
+		return reactiveOcppService.getChargerStatusByChargerSerialNumber(chargerSerialNumber).map(ResponseEntity::ok);
+	}
+
+	@PostMapping("/chargerVerification")
+	public Mono<ResponseEntity<Boolean>> getVerification(
+			@RequestParam("chargerSerialNumber") String chargerSerialNumber,
+			@RequestBody ocppVerificationDTO ocppVerificationDTO) {
+		return reactiveOcppService.initialVerification(chargerSerialNumber, ocppVerificationDTO)
+				.map(ResponseEntity::ok);
+	}
+
+	@GetMapping("/chargerOCPPVersion")
+	public Mono<ResponseEntity<String>> getOCPPProtocol(
+			@RequestParam("chargerSerialNumber") String chargerSerialNumber) {
+		return reactiveOcppService.getChargerOCPPProtocol(chargerSerialNumber)
+				.map(protocol -> new ResponseEntity<>(protocol, HttpStatus.OK))
+				.defaultIfEmpty(new ResponseEntity<>(HttpStatus.OK));
+	}
+
+	@PostMapping("/chargerStatusNotification")
+	public Mono<ResponseEntity<Boolean>> getStatusNotification(
+			@RequestParam("chargerSerialNumber") String chargerPointSerialNumber,
+			@RequestBody connectorStatusNotificationDTO connectorStatusNotificationDTO) {
+		return reactiveOcppService.statusNotification(chargerPointSerialNumber, connectorStatusNotificationDTO)
+				.map(ResponseEntity::ok);
+	}
+
+	@GetMapping("/heartbeatStatus")
+	public Mono<ResponseEntity<Boolean>> getHeartBeatStatus(
+			@RequestParam("chargerSerialNumber") String chargerSerialNumber,
+			@RequestParam("chargerTimeStamp") String chargerTimeStamp) {
+		return reactiveOcppService.heartbeatNotification(chargerSerialNumber, chargerTimeStamp)
+				.map(ResponseEntity::ok);
+	}
+
+}
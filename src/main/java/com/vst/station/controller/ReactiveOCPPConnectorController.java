@@ -0,0 +1,35 @@
+package com.vst.station.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.service.ReactiveOcppServiceInterface;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Same URL and response as OCPPConnectorController, answered without holding
+ * a request thread while Mongo works (station.ocpp.reactive=true).
+ */
+@RestController
+@RequestMapping("/manageConnector")
+@ConditionalOnProperty(name = "station.ocpp.reactive", havingValue = "true")
+public class ReactiveOCPPConnectorController {
+
+	@Autowired
+	ReactiveOcppServiceInterface reactiveOcppService;
+
+	@PostMapping("/meterValue")
+	public Mono<ResponseEntity<Boolean>> setMeterValues(
+			@RequestParam("chargerSerialNumber") String chargerSerialNumber, @RequestBody MeterValueDTO meterValue) {
+		return reactiveOcppService.initialRequest(chargerSerialNumber, meterValue).map(ResponseEntity::ok);
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.vst.station.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import javax.validation.Valid;
@@ -9,6 +11,7 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,17 +19,22 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.vst.station.dto.StationDTO;
 import com.vst.station.dto.StationDTO1;
 import com.vst.station.dto.StationFindDTO;
+import com.vst.station.dto.StationImportReportDTO;
 import com.vst.station.dto.StationUpdateDTO;
+import com.vst.station.dto.StationViewportDTO;
 import com.vst.station.exception.InValidDataException;
 import com.vst.station.exception.StationException;
 import com.vst.station.model.Station;
+import com.vst.station.service.StationImportServiceInterface;
 import com.vst.station.service.StationServiceImpl;
 
 @RequestMapping("/manageStation")
@@ -37,6 +45,9 @@ public class StationController {
 	@Autowired
 	StationServiceImpl stationServiceImpl;
 
+	@Autowired
+	StationImportServiceInterface stationImportService;
+
 //	boolean flag=false;
 
 	public static final Logger logger = LogManager.getLogger(StationController.class);
@@ -58,6 +69,21 @@ public class StationController {
 			return new ResponseEntity<>("Something Went Wrong", HttpStatus.BAD_REQUEST);
 	}
 
+	/**
+	 * Usage: Add many new stations with their chargers and connectors, one
+	 * station per NDJSON line or CSV station row
+	 * 
+	 * HTTP method : POST and URL : manageStation/bulkImport
+	 * 
+	 * @param inputStream, contentType (application/x-ndjson or text/csv)
+	 * @return Http response and import report with the errors per line
+	 */
+	@PostMapping(value = "/bulkImport", consumes = { "application/x-ndjson", "text/csv" })
+	public ResponseEntity<StationImportReportDTO> bulkImport(InputStream inputStream,
+			@RequestHeader("Content-Type") String contentType) throws IOException {
+		return new ResponseEntity<>(stationImportService.bulkImport(inputStream, contentType), HttpStatus.OK);
+	}
+
 	/**
 	 * Usage: update the station details
 	 * 
@@ -112,17 +138,35 @@ public class StationController {
 	}
 
 	/**
-	 * Usage: Get/read the details of all the available Station
+	 * Usage: Get/read the details of all the available Station, or one page of
+	 * them when after or limit is given
 	 * 
 	 * HTTP method : GET and URL : manageStation/getStations
 	 * 
+	 * @param after (station id of the last station of the previous page), limit
 	 * @return Http response and list of Station object
 	 */
 	@GetMapping("/getStations")
-	public ResponseEntity<List<?>> getAllStation() {
-		
-		return ResponseEntity.ok(stationServiceImpl.showAll());
+	public ResponseEntity<List<?>> getAllStation(@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "limit", required = false) Integer limit) {
+		if (after == null && limit == null)
+			return ResponseEntity.ok(stationServiceImpl.showAll());
+		return ResponseEntity.ok(stationServiceImpl.showAll(after, limit));
+
+	}
 
+	/**
+	 * Usage: Stream the details of all the available Station as newline
+	 * delimited JSON
+	 * 
+	 * HTTP method : GET and URL : manageStation/getStations/stream
+	 * 
+	 * @return Http response and one Station object per line
+	 */
+	@GetMapping("/getStations/stream")
+	public ResponseEntity<StreamingResponseBody> streamAllStation() {
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson"))
+				.body(outputStream -> stationServiceImpl.streamStations(outputStream));
 	}
 
 	/**
@@ -187,12 +231,31 @@ public class StationController {
 	 * 
 	 * HTTP method : GET and URL : manageStation/getStationInterface
 	 * 
+	 * @param after (station id of the last station of the previous page), limit
 	 * @return Http response and list of Station object without chargers and
 	 *         connectors
 	 */
 	@GetMapping("/getStationInterface")
-	public ResponseEntity<List<StationDTO1>> getRequiredStationData() {
-		return ResponseEntity.ok(stationServiceImpl.getRequiredStationData());
+	public ResponseEntity<List<StationDTO1>> getRequiredStationData(
+			@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "limit", required = false) Integer limit) {
+		if (after == null && limit == null)
+			return ResponseEntity.ok(stationServiceImpl.getRequiredStationData());
+		return ResponseEntity.ok(stationServiceImpl.getRequiredStationData(after, limit));
+	}
+
+	/**
+	 * Usage: Stream the required (variable) details of all the available Station
+	 * as newline delimited JSON
+	 * 
+	 * HTTP method : GET and URL : manageStation/getStationInterface/stream
+	 * 
+	 * @return Http response and one StationDTO1 object per line
+	 */
+	@GetMapping("/getStationInterface/stream")
+	public ResponseEntity<StreamingResponseBody> streamRequiredStationData() {
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson"))
+				.body(outputStream -> stationServiceImpl.streamRequiredStationData(outputStream));
 	}
 
 	/**
@@ -200,13 +263,29 @@ public class StationController {
 	 * 
 	 * HTTP method : GET and URL : manageStation/getStationsByKeyword
 	 * 
-	 * @param query(keyword)
+	 * @param query(keyword), limit
 	 * @return Http response and list of Station object without chargers and
-	 *         connectors
+	 *         connectors, most relevant first
 	 */
 	@GetMapping("/getStationsByKeyword")
-	public ResponseEntity<List<StationDTO1>> searchStation(@RequestParam("query") String query) {
-		return ResponseEntity.ok(stationServiceImpl.stationforApplication(query));
+	public ResponseEntity<List<StationDTO1>> searchStation(@RequestParam("query") String query,
+			@RequestParam(value = "limit", required = false) Integer limit) {
+		return ResponseEntity.ok(stationServiceImpl.stationforApplication(query, limit));
+	}
+
+	/**
+	 * Usage: Get station suggestions for the keyword typed so far in the search
+	 * bar, tolerating small typos
+	 * 
+	 * HTTP method : GET and URL : manageStation/autocomplete
+	 * 
+	 * @param prefix, limit
+	 * @return Http response and list of Station object, closest matches first
+	 */
+	@GetMapping("/autocomplete")
+	public ResponseEntity<List<StationDTO1>> autocomplete(@RequestParam("prefix") String prefix,
+			@RequestParam(value = "limit", required = false) Integer limit) {
+		return ResponseEntity.ok(stationServiceImpl.autocomplete(prefix, limit));
 	}
 
 	@GetMapping("/test")
@@ -220,14 +299,48 @@ public class StationController {
 	 * 
 	 * HTTP method : GET and URL : manageStation/getStationsLocation
 	 * 
-	 * @param longitude, latitude, maxDistance
+	 * @param longitude, latitude, maxDistance, limit
 	 * @return Http response and list of Station object present in that particular
-	 *         radius
+	 *         radius, nearest first
 	 */
 	@GetMapping("/getStationsLocation")
 	public ResponseEntity<List<StationDTO1>> geoLocation(@RequestParam("longitude") double longitude,
-			@RequestParam("latitude") double latitude, @RequestParam("maxDistance") double maxDistance) {
-		return ResponseEntity.ok(stationServiceImpl.getAllStationforRadius(longitude, latitude, maxDistance));
+			@RequestParam("latitude") double latitude, @RequestParam("maxDistance") double maxDistance,
+			@RequestParam(value = "limit", required = false) Integer limit) {
+		return ResponseEntity.ok(stationServiceImpl.getAllStationforRadius(longitude, latitude, maxDistance, limit));
+	}
+
+	/**
+	 * Usage: Get the nearest Station object/ details to a point of map
+	 * 
+	 * HTTP method : GET and URL : manageStation/getNearestStations
+	 * 
+	 * @param longitude, latitude, count, maxDistance
+	 * @return Http response and list of Station object, nearest first
+	 */
+	@GetMapping("/getNearestStations")
+	public ResponseEntity<List<StationDTO1>> nearestStations(@RequestParam("longitude") double longitude,
+			@RequestParam("latitude") double latitude,
+			@RequestParam(value = "count", required = false, defaultValue = "10") int count,
+			@RequestParam(value = "maxDistance", required = false) Double maxDistance) {
+		return ResponseEntity.ok(stationServiceImpl.getNearestStations(longitude, latitude, count, maxDistance));
+	}
+
+	/**
+	 * Usage: Get the Station clusters (low zoom) or Station object/ details (high
+	 * zoom) inside a map viewport
+	 * 
+	 * HTTP method : GET and URL : manageStation/getStationsInViewport
+	 * 
+	 * @param minLat, minLng, maxLat, maxLng, zoom
+	 * @return Http response and clusters or list of Station object
+	 */
+	@GetMapping("/getStationsInViewport")
+	public ResponseEntity<StationViewportDTO> stationsInViewport(@RequestParam("minLat") double minLatitude,
+			@RequestParam("minLng") double minLongitude, @RequestParam("maxLat") double maxLatitude,
+			@RequestParam("maxLng") double maxLongitude, @RequestParam("zoom") int zoom) {
+		return ResponseEntity.ok(stationServiceImpl.getStationsInViewport(minLatitude, minLongitude, maxLatitude,
+				maxLongitude, zoom));
 	}
 
 	/**
@@ -1,14 +1,18 @@
 package com.vst.station.converter;
 
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
 
 import com.vst.station.dto.ChargerDTO;
 import com.vst.station.dto.ChargerGetDTO;
 import com.vst.station.dto.ChargerUpdateDTO;
 import com.vst.station.model.Charger;
 
+/**
+ * Field by field charger mappings, same rules as BeanUtils.copyProperties:
+ * null values are copied, connectors (DTO list vs entity list) are not.
+ */
 @Component
 public class ChargerConverter {
 	
@@ -16,26 +20,159 @@ public class ChargerConverter {
 	ConnectorConverter connectorConverter;
 	
 	public Charger dtoToEntity(ChargerDTO chargerDTO) {
+		Assert.notNull(chargerDTO, "Source must not be null");
 		Charger charger = new Charger();
-		BeanUtils.copyProperties(chargerDTO, charger);
+		charger.setChargerId(chargerDTO.getChargerId());
+		charger.setChargerName(chargerDTO.getChargerName());
+		charger.setChargerNumber(chargerDTO.getChargerNumber());
+		charger.setChargerInputVoltage(chargerDTO.getChargerInputVoltage());
+		charger.setChargerOutputVoltage(chargerDTO.getChargerOutputVoltage());
+		charger.setChargerMinInputAmpere(chargerDTO.getChargerMinInputAmpere());
+		charger.setChargerMaxInputAmpere(chargerDTO.getChargerMaxInputAmpere());
+		charger.setChargerOutputAmpere(chargerDTO.getChargerOutputAmpere());
+		charger.setChargerInputFrequency(chargerDTO.getChargerInputFrequency());
+		charger.setChargerOutputFrequency(chargerDTO.getChargerOutputFrequency());
+		charger.setChargerIPRating(chargerDTO.getChargerIPRating());
+		charger.setChargerMountType(chargerDTO.getChargerMountType());
+		charger.setChargerNumberOfConnector(chargerDTO.getChargerNumberOfConnector());
+		charger.setChargerLastHeartBeatTimeStamp(chargerDTO.getChargerLastHeartBeatTimeStamp());
+		charger.setIsRFID(chargerDTO.getIsRFID());
+		charger.setChargerPointSerialNumber(chargerDTO.getChargerPointSerialNumber());
+		charger.setChargerOCPPProtocol(chargerDTO.getChargerOCPPProtocol());
+		charger.setChargerConnectorType(chargerDTO.getChargerConnectorType());
+		charger.setIsAppSupport(chargerDTO.getIsAppSupport());
+		charger.setIsTBCutOff(chargerDTO.getIsTBCutOff());
+		charger.setIsAntitheft(chargerDTO.getIsAntitheft());
+		charger.setIsLEDDisplay(chargerDTO.getIsLEDDisplay());
+		charger.setIsLEDIndications(chargerDTO.getIsLEDIndications());
+		charger.setIsSmart(chargerDTO.getIsSmart());
+		charger.setChargerStatus(chargerDTO.getChargerStatus());
+		charger.setChargePointVendor(chargerDTO.getChargePointVendor());
+		charger.setChargePointModel(chargerDTO.getChargePointModel());
+		charger.setChargeBoxSerialNumber(chargerDTO.getChargeBoxSerialNumber());
+		charger.setMeterType(chargerDTO.getMeterType());
+		charger.setFirmwareVersion(chargerDTO.getFirmwareVersion());
+		charger.setChargerSerialNumber(chargerDTO.getChargerSerialNumber());
+		charger.setCreatedDate(chargerDTO.getCreatedDate());
+		charger.setModifiedDate(chargerDTO.getModifiedDate());
+		charger.setCreatedBy(chargerDTO.getCreatedBy());
+		charger.setModifiedBy(chargerDTO.getModifiedBy());
+		charger.setActive(chargerDTO.isActive());
 		return charger;
 	}
 	
 	public ChargerDTO entityToDto(Charger charger) {
+		Assert.notNull(charger, "Source must not be null");
 		ChargerDTO chargerDTO = new ChargerDTO();
-		BeanUtils.copyProperties(charger, chargerDTO);
+		chargerDTO.setChargerId(charger.getChargerId());
+		chargerDTO.setChargerName(charger.getChargerName());
+		chargerDTO.setChargerNumber(charger.getChargerNumber());
+		chargerDTO.setChargerInputVoltage(charger.getChargerInputVoltage());
+		chargerDTO.setChargerOutputVoltage(charger.getChargerOutputVoltage());
+		chargerDTO.setChargerMinInputAmpere(charger.getChargerMinInputAmpere());
+		chargerDTO.setChargerMaxInputAmpere(charger.getChargerMaxInputAmpere());
+		chargerDTO.setChargerOutputAmpere(charger.getChargerOutputAmpere());
+		chargerDTO.setChargerInputFrequency(charger.getChargerInputFrequency());
+		chargerDTO.setChargerOutputFrequency(charger.getChargerOutputFrequency());
+		chargerDTO.setChargerIPRating(charger.getChargerIPRating());
+		chargerDTO.setChargerMountType(charger.getChargerMountType());
+		chargerDTO.setChargerNumberOfConnector(charger.getChargerNumberOfConnector());
+		chargerDTO.setChargerLastHeartBeatTimeStamp(charger.getChargerLastHeartBeatTimeStamp());
+		chargerDTO.setIsRFID(charger.getIsRFID());
+		chargerDTO.setChargerPointSerialNumber(charger.getChargerPointSerialNumber());
+		chargerDTO.setChargerOCPPProtocol(charger.getChargerOCPPProtocol());
+		chargerDTO.setChargerConnectorType(charger.getChargerConnectorType());
+		chargerDTO.setIsAppSupport(charger.getIsAppSupport());
+		chargerDTO.setIsTBCutOff(charger.getIsTBCutOff());
+		chargerDTO.setIsAntitheft(charger.getIsAntitheft());
+		chargerDTO.setIsLEDDisplay(charger.getIsLEDDisplay());
+		chargerDTO.setIsLEDIndications(charger.getIsLEDIndications());
+		chargerDTO.setIsSmart(charger.getIsSmart());
+		chargerDTO.setChargerStatus(charger.getChargerStatus());
+		chargerDTO.setChargePointVendor(charger.getChargePointVendor());
+		chargerDTO.setChargePointModel(charger.getChargePointModel());
+		chargerDTO.setChargeBoxSerialNumber(charger.getChargeBoxSerialNumber());
+		chargerDTO.setMeterType(charger.getMeterType());
+		chargerDTO.setFirmwareVersion(charger.getFirmwareVersion());
+		chargerDTO.setChargerSerialNumber(charger.getChargerSerialNumber());
+		chargerDTO.setCreatedDate(charger.getCreatedDate());
+		chargerDTO.setModifiedDate(charger.getModifiedDate());
+		chargerDTO.setCreatedBy(charger.getCreatedBy());
+		chargerDTO.setModifiedBy(charger.getModifiedBy());
+		chargerDTO.setActive(charger.isActive());
 		return chargerDTO;
 	}
 	
 	public ChargerGetDTO entityToDto1(Charger charger) {
+		Assert.notNull(charger, "Source must not be null");
 		ChargerGetDTO chargerGetDTO = new ChargerGetDTO();
-		BeanUtils.copyProperties(charger, chargerGetDTO);
+		chargerGetDTO.setChargerId(charger.getChargerId());
+		chargerGetDTO.setChargerName(charger.getChargerName());
+		chargerGetDTO.setChargerNumber(charger.getChargerNumber());
+		chargerGetDTO.setChargerInputVoltage(charger.getChargerInputVoltage());
+		chargerGetDTO.setChargerOutputVoltage(charger.getChargerOutputVoltage());
+		chargerGetDTO.setChargerMinInputAmpere(charger.getChargerMinInputAmpere());
+		chargerGetDTO.setChargerMaxInputAmpere(charger.getChargerMaxInputAmpere());
+		chargerGetDTO.setChargerOutputAmpere(charger.getChargerOutputAmpere());
+		chargerGetDTO.setChargerInputFrequency(charger.getChargerInputFrequency());
+		chargerGetDTO.setChargerOutputFrequency(charger.getChargerOutputFrequency());
+		chargerGetDTO.setChargerIPRating(charger.getChargerIPRating());
+		chargerGetDTO.setChargerMountType(charger.getChargerMountType());
+		chargerGetDTO.setIsRFID(charger.getIsRFID());
+		chargerGetDTO.setChargerSerialNumber(charger.getChargerSerialNumber());
+		chargerGetDTO.setChargerOCPPProtocol(charger.getChargerOCPPProtocol());
+		chargerGetDTO.setChargerConnectorType(charger.getChargerConnectorType());
+		chargerGetDTO.setIsAppSupport(charger.getIsAppSupport());
+		chargerGetDTO.setIsTBCutOff(charger.getIsTBCutOff());
+		chargerGetDTO.setIsAntitheft(charger.getIsAntitheft());
+		chargerGetDTO.setIsLEDDisplay(charger.getIsLEDDisplay());
+		chargerGetDTO.setIsLEDIndications(charger.getIsLEDIndications());
+		chargerGetDTO.setIsSmart(charger.getIsSmart());
+		chargerGetDTO.setCreatedDate(charger.getCreatedDate());
+		chargerGetDTO.setModifiedDate(charger.getModifiedDate());
+		chargerGetDTO.setCreatedBy(charger.getCreatedBy());
+		chargerGetDTO.setModifiedBy(charger.getModifiedBy());
 		return chargerGetDTO;
 	}
 	
 	public Charger dtoToEntity1(ChargerUpdateDTO chargerDTO) {
+		Assert.notNull(chargerDTO, "Source must not be null");
 		Charger charger = new Charger();
-		BeanUtils.copyProperties(chargerDTO, charger);
+		charger.setChargerId(chargerDTO.getChargerId());
+		charger.setChargerName(chargerDTO.getChargerName());
+		charger.setChargerNumber(chargerDTO.getChargerNumber());
+		charger.setChargerInputVoltage(chargerDTO.getChargerInputVoltage());
+		charger.setChargerOutputVoltage(chargerDTO.getChargerOutputVoltage());
+		charger.setChargerMinInputAmpere(chargerDTO.getChargerMinInputAmpere());
+		charger.setChargerMaxInputAmpere(chargerDTO.getChargerMaxInputAmpere());
+		charger.setChargerOutputAmpere(chargerDTO.getChargerOutputAmpere());
+		charger.setChargerInputFrequency(chargerDTO.getChargerInputFrequency());
+		charger.setChargerOutputFrequency(chargerDTO.getChargerOutputFrequency());
+		charger.setChargerIPRating(chargerDTO.getChargerIPRating());
+		charger.setChargerMountType(chargerDTO.getChargerMountType());
+		charger.setChargerNumberOfConnector(chargerDTO.getChargerNumberOfConnector());
+		charger.setIsRFID(chargerDTO.getIsRFID());
+		charger.setChargerPointSerialNumber(chargerDTO.getChargerPointSerialNumber());
+		charger.setChargerOCPPProtocol(chargerDTO.getChargerOCPPProtocol());
+		charger.setChargerConnectorType(chargerDTO.getChargerConnectorType());
+		charger.setIsAppSupport(chargerDTO.getIsAppSupport());
+		charger.setIsTBCutOff(chargerDTO.getIsTBCutOff());
+		charger.setIsAntitheft(chargerDTO.getIsAntitheft());
+		charger.setIsLEDDisplay(chargerDTO.getIsLEDDisplay());
+		charger.setIsLEDIndications(chargerDTO.getIsLEDIndications());
+		charger.setIsSmart(chargerDTO.getIsSmart());
+		charger.setChargerStatus(chargerDTO.getChargerStatus());
+		charger.setChargePointVendor(chargerDTO.getChargePointVendor());
+		charger.setChargePointModel(chargerDTO.getChargePointModel());
+		charger.setChargeBoxSerialNumber(chargerDTO.getChargeBoxSerialNumber());
+		charger.setMeterType(chargerDTO.getMeterType());
+		charger.setFirmwareVersion(chargerDTO.getFirmwareVersion());
+		charger.setChargerSerialNumber(chargerDTO.getChargerSerialNumber());
+		charger.setCreatedDate(chargerDTO.getCreatedDate());
+		charger.setModifiedDate(chargerDTO.getModifiedDate());
+		charger.setCreatedBy(chargerDTO.getCreatedBy());
+		charger.setModifiedBy(chargerDTO.getModifiedBy());
+		charger.setActive(chargerDTO.isActive());
 		return charger;
 	}
 }
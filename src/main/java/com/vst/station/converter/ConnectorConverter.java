@@ -1,41 +1,83 @@
 package com.vst.station.converter;
 
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
 
 import com.vst.station.dto.ConnectorDTO;
 import com.vst.station.dto.ConnectorUpdateDTO;
-import com.vst.station.dto.MeterValueDTO;
 import com.vst.station.model.Connector;
 
+/**
+ * Field by field connector mappings, same rules as BeanUtils.copyProperties:
+ * null values are copied, the DTO time stamps (Date) and meter value (Integer)
+ * do not match the entity types and are not copied.
+ */
 @Component
 public class ConnectorConverter {
 
 	
 	public Connector dtoToEntity(ConnectorDTO connectorDTO ) {
+		Assert.notNull(connectorDTO, "Source must not be null");
 		Connector connector = new Connector();
-		BeanUtils.copyProperties(connectorDTO, connector);
+		connector.setConnectorId(connectorDTO.getConnectorId());
+		connector.setConnectorNumber(connectorDTO.getConnectorNumber());
+		connector.setConnectorType(connectorDTO.getConnectorType());
+		connector.setConnectorSocket(connectorDTO.getConnectorSocket());
+		connector.setConnectorStatus(connectorDTO.getConnectorStatus());
+		connector.setConnectorOutputPower(connectorDTO.getConnectorOutputPower());
+		connector.setConnectorCharges(connectorDTO.getConnectorCharges());
+		connector.setConnectorErrorCode(connectorDTO.getConnectorErrorCode());
+		connector.setConnectorInfo(connectorDTO.getConnectorInfo());
+		connector.setConnectorTimeStamp(connectorDTO.getConnectorTimeStamp());
+		connector.setConnectorMeterRequestTimeStamp(connectorDTO.getConnectorMeterRequestTimeStamp());
+		connector.setConnectorUnitType(connectorDTO.getConnectorUnitType());
+		connector.setCreatedDate(connectorDTO.getCreatedDate());
+		connector.setModifiedDate(connectorDTO.getModifiedDate());
+		connector.setCreatedBy(connectorDTO.getCreatedBy());
+		connector.setModifiedBy(connectorDTO.getModifiedBy());
+		connector.setActive(connectorDTO.isActive());
 		return connector;
 	}
 	
 	public ConnectorDTO entityToDto(Connector connector) {
+		Assert.notNull(connector, "Source must not be null");
 		ConnectorDTO connectorDTO = new ConnectorDTO();
-		BeanUtils.copyProperties(connector, connectorDTO);
+		connectorDTO.setConnectorId(connector.getConnectorId());
+		connectorDTO.setConnectorNumber(connector.getConnectorNumber());
+		connectorDTO.setConnectorType(connector.getConnectorType());
+		connectorDTO.setConnectorSocket(connector.getConnectorSocket());
+		connectorDTO.setConnectorStatus(connector.getConnectorStatus());
+		connectorDTO.setConnectorOutputPower(connector.getConnectorOutputPower());
+		connectorDTO.setConnectorCharges(connector.getConnectorCharges());
+		connectorDTO.setConnectorErrorCode(connector.getConnectorErrorCode());
+		connectorDTO.setConnectorInfo(connector.getConnectorInfo());
+		connectorDTO.setConnectorTimeStamp(connector.getConnectorTimeStamp());
+		connectorDTO.setConnectorMeterRequestTimeStamp(connector.getConnectorMeterRequestTimeStamp());
+		connectorDTO.setConnectorUnitType(connector.getConnectorUnitType());
+		connectorDTO.setCreatedDate(connector.getCreatedDate());
+		connectorDTO.setModifiedDate(connector.getModifiedDate());
+		connectorDTO.setCreatedBy(connector.getCreatedBy());
+		connectorDTO.setModifiedBy(connector.getModifiedBy());
+		connectorDTO.setActive(connector.isActive());
 		return connectorDTO;
 	}
 	
 	public Connector dtoToEntity1(ConnectorUpdateDTO connectorDTO ) {
+		Assert.notNull(connectorDTO, "Source must not be null");
 		Connector connector = new Connector();
-		BeanUtils.copyProperties(connectorDTO, connector);
+		connector.setConnectorId(connectorDTO.getConnectorId());
+		connector.setConnectorNumber(connectorDTO.getConnectorNumber());
+		connector.setConnectorType(connectorDTO.getConnectorType());
+		connector.setConnectorSocket(connectorDTO.getConnectorSocket());
+		connector.setConnectorStatus(connectorDTO.getConnectorStatus());
+		connector.setConnectorOutputPower(connectorDTO.getConnectorOutputPower());
+		connector.setConnectorCharges(connectorDTO.getConnectorCharges());
+		connector.setCreatedDate(connectorDTO.getCreatedDate());
+		connector.setModifiedDate(connectorDTO.getModifiedDate());
+		connector.setCreatedBy(connectorDTO.getCreatedBy());
+		connector.setModifiedBy(connectorDTO.getModifiedBy());
+		connector.setActive(connectorDTO.isActive());
 		return connector;
 	}
 	
-//	public MeterValueDTO entityToMeterDTO(MeterValueDTO meterValueDTO) {
-//		
-//		MeterValueDTO dto = new MeterValueDTO();
-//		BeanUtils.copyProperties(meterValueDTO, dto);
-//		System.out.println("converter DTO:--"+dto);
-//		return dto;	
-//	}
-	
 }
@@ -3,26 +3,25 @@ package com.vst.station.converter;
 /**
 * Station converter class is to convert the data of dto class to entity and entity class to dto to not expose the sensitive information.
 *
+* Properties are copied field by field with the same rules as
+* BeanUtils.copyProperties: null values are copied, properties whose types do
+* not match (e.g. chargers as DTO list vs entity list) are left untouched.
+*
 * @author Nikita Chakole <nikita.chakole@vpel.in>
-* @since  21/12/2022
+* @since  21/12/2022
 */
 
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
 
-import com.vst.station.dto.ChargerDTO;
 import com.vst.station.dto.StationDTO1;
 import com.vst.station.dto.StationFindDTO;
 import com.vst.station.dto.StationHostDTO;
 import com.vst.station.dto.StationUpdateDTO;
 import com.vst.station.dto.StationDTO;
-import com.vst.station.model.Charger;
 import com.vst.station.model.Station;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Component
 public class StationConveter {
 
@@ -30,39 +29,132 @@ public class StationConveter {
 	ChargerConverter chargerConverter;
 
 	public Station dtoToEntity(StationDTO stationDTO) {
+		Assert.notNull(stationDTO, "Source must not be null");
 		Station station = new Station();
-		BeanUtils.copyProperties(stationDTO, station);
+		station.setStationId(stationDTO.getStationId());
+		station.setStationName(stationDTO.getStationName());
+		station.setStationHostId(stationDTO.getStationHostId());
+		station.setStationVendorId(stationDTO.getStationVendorId());
+		station.setStationArea(stationDTO.getStationArea());
+		station.setStationAddressLineOne(stationDTO.getStationAddressLineOne());
+		station.setStationAddressLineTwo(stationDTO.getStationAddressLineTwo());
+		station.setStationZipCode(stationDTO.getStationZipCode());
+		station.setStationCity(stationDTO.getStationCity());
+		station.setStationLatitude(stationDTO.getStationLatitude());
+		station.setStationLongitude(stationDTO.getStationLongitude());
+		station.setStationLocationURL(stationDTO.getStationLocationURL());
+		station.setStationParkingArea(stationDTO.getStationParkingArea());
+		station.setStationContactNumber(stationDTO.getStationContactNumber());
+		station.setStationOpeningTime(stationDTO.getStationOpeningTime());
+		station.setStationClosingTime(stationDTO.getStationClosingTime());
+		station.setChargerNumber(stationDTO.getChargerNumber());
+		station.setStationParkingType(stationDTO.getStationParkingType());
+		station.setStationStatus(stationDTO.getStationStatus());
+		station.setStationPowerStandard(stationDTO.getStationPowerStandard());
+		station.setStationAmenity(stationDTO.getStationAmenity());
+		station.setUserAccessList(stationDTO.getUserAccessList());
+		station.setCreatedDate(stationDTO.getCreatedDate());
+		station.setModifiedDate(stationDTO.getModifiedDate());
+		station.setCreatedBy(stationDTO.getCreatedBy());
+		station.setModifiedBy(stationDTO.getModifiedBy());
+		station.setActive(stationDTO.isActive());
 		return station;
 	}
 
 	public StationDTO entityToDto(Station station) {
+		Assert.notNull(station, "Source must not be null");
 		StationDTO stationDTO = new StationDTO();
-		BeanUtils.copyProperties(station, stationDTO);
+		stationDTO.setStationId(station.getStationId());
+		stationDTO.setStationName(station.getStationName());
+		stationDTO.setStationHostId(station.getStationHostId());
+		stationDTO.setStationVendorId(station.getStationVendorId());
+		stationDTO.setStationArea(station.getStationArea());
+		stationDTO.setStationAddressLineOne(station.getStationAddressLineOne());
+		stationDTO.setStationAddressLineTwo(station.getStationAddressLineTwo());
+		stationDTO.setStationZipCode(station.getStationZipCode());
+		stationDTO.setStationCity(station.getStationCity());
+		stationDTO.setStationLatitude(station.getStationLatitude());
+		stationDTO.setStationLongitude(station.getStationLongitude());
+		stationDTO.setStationLocationURL(station.getStationLocationURL());
+		stationDTO.setStationParkingArea(station.getStationParkingArea());
+		stationDTO.setStationContactNumber(station.getStationContactNumber());
+		stationDTO.setStationOpeningTime(station.getStationOpeningTime());
+		stationDTO.setStationClosingTime(station.getStationClosingTime());
+		stationDTO.setChargerNumber(station.getChargerNumber());
+		stationDTO.setStationParkingType(station.getStationParkingType());
+		stationDTO.setStationStatus(station.getStationStatus());
+		stationDTO.setStationPowerStandard(station.getStationPowerStandard());
+		stationDTO.setStationAmenity(station.getStationAmenity());
+		stationDTO.setUserAccessList(station.getUserAccessList());
+		stationDTO.setCreatedDate(station.getCreatedDate());
+		stationDTO.setModifiedDate(station.getModifiedDate());
+		stationDTO.setCreatedBy(station.getCreatedBy());
+		stationDTO.setModifiedBy(station.getModifiedBy());
+		stationDTO.setActive(station.isActive());
 		return stationDTO;
 	}
 
 	public StationDTO1 entitytoStationDTO1(Station station) {
+		Assert.notNull(station, "Source must not be null");
 		StationDTO1 stationDTO1 = new StationDTO1();
-		BeanUtils.copyProperties(station, stationDTO1);
+		stationDTO1.setStationId(station.getStationId());
+		stationDTO1.setStationName(station.getStationName());
+		stationDTO1.setStationArea(station.getStationArea());
+		stationDTO1.setStationCity(station.getStationCity());
+		stationDTO1.setStationLatitude(station.getStationLatitude());
+		stationDTO1.setStationLongitude(station.getStationLongitude());
+		stationDTO1.setStationStatus(station.getStationStatus());
 		return stationDTO1;
 	}
 
 	public Station updateDtoToEntity(StationUpdateDTO stationUpdateDTO) {
+		Assert.notNull(stationUpdateDTO, "Source must not be null");
 		Station station = new Station();
-		BeanUtils.copyProperties(stationUpdateDTO, station);
+		station.setStationName(stationUpdateDTO.getStationName());
+		station.setStationHostId(stationUpdateDTO.getStationHostId());
+		station.setStationVendorId(stationUpdateDTO.getStationVendorId());
+		station.setStationArea(stationUpdateDTO.getStationArea());
+		station.setStationAddressLineOne(stationUpdateDTO.getStationAddressLineOne());
+		station.setStationAddressLineTwo(stationUpdateDTO.getStationAddressLineTwo());
+		station.setStationZipCode(stationUpdateDTO.getStationZipCode());
+		station.setStationCity(stationUpdateDTO.getStationCity());
+		station.setStationLatitude(stationUpdateDTO.getStationLatitude());
+		station.setStationLongitude(stationUpdateDTO.getStationLongitude());
+		station.setStationLocationURL(stationUpdateDTO.getStationLocationURL());
+		station.setStationParkingArea(stationUpdateDTO.getStationParkingArea());
+		station.setStationContactNumber(stationUpdateDTO.getStationContactNumber());
+		station.setStationOpeningTime(stationUpdateDTO.getStationOpeningTime());
+		station.setStationClosingTime(stationUpdateDTO.getStationClosingTime());
+		station.setChargerNumber(stationUpdateDTO.getChargerNumber());
+		station.setStationParkingType(stationUpdateDTO.getStationParkingType());
+		station.setStationAmenity(stationUpdateDTO.getStationAmenity());
+		station.setStationShareId(stationUpdateDTO.getStationShareId());
+		station.setStationStatus(stationUpdateDTO.getStationStatus());
+		station.setStationPowerStandard(stationUpdateDTO.getStationPowerStandard());
 		return station;
 	}
 
 	public StationFindDTO entitytoStationFind(Station station) {
+		Assert.notNull(station, "Source must not be null");
 		StationFindDTO dto = new StationFindDTO();
-		BeanUtils.copyProperties(station, dto);
+		dto.setStationName(station.getStationName());
+		dto.setStationArea(station.getStationArea());
+		dto.setStationAddressLineOne(station.getStationAddressLineOne());
+		dto.setStationAddressLineTwo(station.getStationAddressLineTwo());
+		dto.setStationZipCode(station.getStationZipCode());
+		dto.setStationCity(station.getStationCity());
 		return dto;
 
 	}
 
 	public StationHostDTO stationEntitytoHostDTO(Station station) {
+		Assert.notNull(station, "Source must not be null");
 		StationHostDTO dto = new StationHostDTO();
-		BeanUtils.copyProperties(station, dto);
+		dto.setStationId(station.getStationId());
+		dto.setStationLatitude(station.getStationLatitude());
+		dto.setStationLongitude(station.getStationLongitude());
+		dto.setStationName(station.getStationName());
+		dto.setStationStatus(station.getStationStatus());
 		return dto;
 
 	}
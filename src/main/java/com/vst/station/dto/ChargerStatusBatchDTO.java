@@ -0,0 +1,27 @@
+package com.vst.station.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChargerStatusBatchDTO {
+
+	@Pattern(regexp = "(?i)active|inactive", message = "Charger status must be Active or Inactive")
+	@NotEmpty(message = "Charger status is required")
+	private String chargerStatus;
+
+	@Valid
+	@NotEmpty(message = "At least one station is required")
+	private List<StationChargerIdsDTO> stations = new ArrayList<>();
+
+}
@@ -0,0 +1,21 @@
+package com.vst.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChargerStatusOutcomeDTO {
+
+	public static final String UPDATED = "Updated";
+	public static final String STATION_NOT_FOUND = "StationNotFound";
+	public static final String CHARGER_NOT_FOUND = "ChargerNotFound";
+	public static final String CHARGER_INACTIVE = "ChargerInactive";
+
+	private String stationId;
+	private String chargerId;
+	private String outcome;
+
+}
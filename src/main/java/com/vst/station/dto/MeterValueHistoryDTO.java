@@ -0,0 +1,22 @@
+package com.vst.station.dto;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MeterValueHistoryDTO {
+
+	private String resolution;
+	private Date bucketStart;
+	private double minMeterValue;
+	private double maxMeterValue;
+	private double avgMeterValue;
+	private double lastMeterValue;
+	private long readings;
+
+}
@@ -0,0 +1,24 @@
+package com.vst.station.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationChargerIdsDTO {
+
+	@NotBlank(message = "Station id is required")
+	private String stationId;
+
+	@NotEmpty(message = "At least one charger id is required")
+	private List<String> chargerIds = new ArrayList<>();
+
+}
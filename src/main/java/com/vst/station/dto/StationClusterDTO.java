@@ -0,0 +1,18 @@
+package com.vst.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationClusterDTO {
+
+	private long count;
+	private double latitude;
+	private double longitude;
+	private long availableConnectors;
+	private String stationId;
+
+}
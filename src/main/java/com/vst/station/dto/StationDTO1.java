@@ -26,6 +26,7 @@ public class StationDTO1 {
     private double stationLatitude;
     private double stationLongitude;
     private String stationStatus;
+    private Double distance;
 
     
     
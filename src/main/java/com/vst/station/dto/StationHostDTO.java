@@ -1,5 +1,6 @@
 package com.vst.station.dto;
 
+import org.springframework.data.annotation.Id;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,6 +17,7 @@ import lombok.ToString;
 @NoArgsConstructor
 public class StationHostDTO {
 
+	@Id
 	private String stationId;
 	private double stationLatitude;
 	private double stationLongitude;
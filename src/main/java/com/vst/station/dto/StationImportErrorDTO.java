@@ -0,0 +1,18 @@
+package com.vst.station.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationImportErrorDTO {
+
+	private long line;
+	private String stationName;
+	private List<String> messages;
+
+}
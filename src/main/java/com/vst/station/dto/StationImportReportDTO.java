@@ -0,0 +1,21 @@
+package com.vst.station.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationImportReportDTO {
+
+	private long stations;
+	private long imported;
+	private long failed;
+	private long elapsedMillis;
+	private List<StationImportErrorDTO> errors = new ArrayList<>();
+
+}
@@ -0,0 +1,21 @@
+package com.vst.station.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationViewportDTO {
+
+	private int zoom;
+	private List<StationClusterDTO> clusters = new ArrayList<>();
+	private List<StationDTO1> stations = new ArrayList<>();
+	private boolean truncated;
+	private Long totalStations;
+
+}
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import com.vst.station.exception.ChargerNotFoundException;
 import com.vst.station.exception.InValidDataException;
 import com.vst.station.exception.InValidIdExcepetion;
+import com.vst.station.exception.StationBusinessException;
 import com.vst.station.exception.StationException;
 import com.vst.station.exception.StationIdNotAcceptableException;
 import com.vst.station.exception.StationNotFoundException;
@@ -25,40 +26,19 @@ public class StationApiError {
 	@ExceptionHandler(StationNotFoundException.class)
 	@ResponseStatus(HttpStatus.NOT_FOUND)
 	public Map<String, Object> userNotFound(StationNotFoundException ex) {
-		Map<String, Object> errorMap = new HashMap<>();
-		StationErrorResponse response = new StationErrorResponse();
-		response.setMessage(ex.getMessage());
-		response.setStatus(HttpStatus.NOT_FOUND);
-		response.setStatusCode("404");
-		response.setTimeStamp(LocalDateTime.now());
-		errorMap.put(message, response);
-		return errorMap;
+		return errorResponse(HttpStatus.NOT_FOUND, ex);
 	}
 
 	@ExceptionHandler(StationIdNotAcceptableException.class)
 	@ResponseStatus(HttpStatus.NOT_ACCEPTABLE)
 	public Map<String, Object> idNotFound(StationIdNotAcceptableException ex) {
-		Map<String, Object> errorMap = new HashMap<>();
-		StationErrorResponse response = new StationErrorResponse();
-		response.setMessage(ex.getMessage());
-		response.setStatus(HttpStatus.NOT_ACCEPTABLE);
-		response.setStatusCode("406");
-		response.setTimeStamp(LocalDateTime.now());
-		errorMap.put(message, response);
-		return errorMap;
+		return errorResponse(HttpStatus.NOT_ACCEPTABLE, ex);
 	}
 
 	@ExceptionHandler(InValidIdExcepetion.class)
 	@ResponseStatus(HttpStatus.NOT_ACCEPTABLE)
 	public Map<String, Object> idNotValied(InValidIdExcepetion ex) {
-		Map<String, Object> errorMap = new HashMap<>();
-		StationErrorResponse response = new StationErrorResponse();
-		response.setMessage(ex.getMessage());
-		response.setStatus(HttpStatus.NOT_ACCEPTABLE);
-		response.setStatusCode("406");
-		response.setTimeStamp(LocalDateTime.now());
-		errorMap.put(message, response);
-		return errorMap;
+		return errorResponse(HttpStatus.NOT_ACCEPTABLE, ex);
 	}
 	
 	@ExceptionHandler(MethodArgumentNotValidException.class)
@@ -74,28 +54,14 @@ public class StationApiError {
 	@ExceptionHandler(InValidDataException.class)
 	@ResponseStatus(HttpStatus.NOT_FOUND)
 	public Map<String, Object> inValidData(InValidDataException ex) {
-		Map<String, Object> errorMap = new HashMap<>();
-		StationErrorResponse response = new StationErrorResponse();
-		response.setMessage(ex.getMessage());
-		response.setStatus(HttpStatus.NOT_FOUND);
-		response.setStatusCode("404");
-		response.setTimeStamp(LocalDateTime.now());
-		errorMap.put(message, response);
-		return errorMap;
+		return errorResponse(HttpStatus.NOT_FOUND, ex);
 	}
 	
 	
 	@ExceptionHandler(ChargerNotFoundException.class)
 	@ResponseStatus(HttpStatus.NOT_FOUND)
 	public Map<String, Object> chargerNotFound(ChargerNotFoundException ex) {
-		Map<String, Object> errorMap = new HashMap<>();
-		StationErrorResponse response = new StationErrorResponse();
-		response.setMessage(ex.getMessage());
-		response.setStatus(HttpStatus.NOT_FOUND);
-		response.setStatusCode("404");
-		response.setTimeStamp(LocalDateTime.now());
-		errorMap.put(message, response);
-		return errorMap;
+		return errorResponse(HttpStatus.NOT_FOUND, ex);
 	}
 	
 	@ExceptionHandler(StationException.class)
@@ -118,9 +84,23 @@ public class StationApiError {
 		errorMap.put(message, response);
 		return errorMap;
 	}
-	
-	
-	
-	
+
+	/**
+	 * Usage: the error body shared by the business exceptions, built from the
+	 * message only as they carry no stack trace
+	 * 
+	 * @param status, ex
+	 * @return error map
+	 */
+	private Map<String, Object> errorResponse(HttpStatus status, StationBusinessException ex) {
+		Map<String, Object> errorMap = new HashMap<>();
+		StationErrorResponse response = new StationErrorResponse();
+		response.setMessage(ex.getMessage());
+		response.setStatus(status);
+		response.setStatusCode(String.valueOf(status.value()));
+		response.setTimeStamp(LocalDateTime.now());
+		errorMap.put(message, response);
+		return errorMap;
+	}
 
 }
@@ -1,6 +1,6 @@
 package com.vst.station.exception;
 
-public class ChargerNotFoundException extends RuntimeException {
+public class ChargerNotFoundException extends StationBusinessException {
 	
 	
 	private static final long serialVersionUID = -7136395761401538992L;
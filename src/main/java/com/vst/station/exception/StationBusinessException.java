@@ -0,0 +1,27 @@
+package com.vst.station.exception;
+
+/**
+ * Base of the exceptions that signal an expected business outcome (invalid
+ * id, station or charger not found, ...). They are translated to an HTTP
+ * response by StationApiError and never need a stack trace, so none is
+ * captured: creating and throwing one costs about as much as any other
+ * object, even when clients send invalid ids at a high rate.
+ */
+public abstract class StationBusinessException extends RuntimeException {
+
+	private static final long serialVersionUID = -7136395761401538992L;
+
+	protected StationBusinessException() {
+		super();
+	}
+
+	protected StationBusinessException(String message) {
+		super(message);
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
+}
@@ -23,6 +23,23 @@ public class StationException extends RuntimeException {
 	private int lineNumber;
 	private String functionality;
 	private String message;
+
+	/**
+	 * Usage: describe an unexpected failure of a service method, located at the
+	 * top frame of the failure, with the failure chained as the cause
+	 * 
+	 * @param e, functionality
+	 * @return StationException
+	 */
+	public static StationException of(Exception e, String functionality) {
+		StackTraceElement[] stackTrace = e.getStackTrace();
+		StackTraceElement origin = stackTrace.length > 0 ? stackTrace[0] : null;
+		StationException stationException = new StationException("STN001", "ManageStation",
+				origin == null ? null : origin.getClassName(), origin == null ? null : origin.getMethodName(),
+				origin == null ? 0 : origin.getLineNumber(), functionality, e.getLocalizedMessage());
+		stationException.initCause(e);
+		return stationException;
+	}
 	
 	
 
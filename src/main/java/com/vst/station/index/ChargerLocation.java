@@ -0,0 +1,27 @@
+package com.vst.station.index;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position of a charger inside the station document, used to address OCPP
+ * updates directly to "chargers.{chargerPosition}" without scanning the
+ * chargers list.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChargerLocation {
+
+	private String stationId;
+	private String chargerId;
+	private int chargerPosition;
+	private boolean chargerActive;
+	private Map<Integer, Integer> connectorPositions = new HashMap<>();
+	private Map<Integer, String> connectorIds = new HashMap<>();
+
+}
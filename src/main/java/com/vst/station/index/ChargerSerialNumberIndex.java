@@ -0,0 +1,185 @@
+package com.vst.station.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.vst.station.model.Charger;
+import com.vst.station.model.Connector;
+import com.vst.station.model.Station;
+
+/**
+ * Resident index from charger serial number to the position of the charger
+ * (and its connectors) inside the station document.
+ *
+ * Built when the application is ready and kept current by the charger and
+ * connector service methods that change the shape of the chargers list.
+ */
+@Component
+public class ChargerSerialNumberIndex {
+
+	public static final Logger logger = LogManager.getLogger(ChargerSerialNumberIndex.class);
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final Map<String, ChargerLocation> locations = new ConcurrentHashMap<>();
+
+	private final Map<String, Set<String>> serialNumbersByStation = new ConcurrentHashMap<>();
+
+	/**
+	 * Usage: get the location of a charger
+	 *
+	 * @param chargerSerialNumber
+	 * @return charger location or null if the serial number is not indexed
+	 */
+	public ChargerLocation get(String chargerSerialNumber) {
+		return locations.get(chargerSerialNumber);
+	}
+
+	public int size() {
+		return locations.size();
+	}
+
+	/**
+	 * Usage: load the index from all active stations
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		logger.info("ChargerSerialNumberIndex :: rebuild : execution Started");
+		Map<String, ChargerLocation> loaded = load();
+		locations.clear();
+		serialNumbersByStation.clear();
+		for (Map.Entry<String, ChargerLocation> entry : loaded.entrySet()) {
+			locations.put(entry.getKey(), entry.getValue());
+			serialNumbersByStation.computeIfAbsent(entry.getValue().getStationId(), k -> new HashSet<>())
+					.add(entry.getKey());
+		}
+		logger.info("ChargerSerialNumberIndex :: rebuild : " + locations.size() + " chargers indexed");
+	}
+
+	/**
+	 * Usage: replace the entries of one station with the chargers of the given
+	 * (saved) station
+	 *
+	 * @param station
+	 */
+	public synchronized void refreshStation(Station station) {
+		if (station == null || station.getStationId() == null)
+			return;
+		removeStation(station.getStationId());
+		if (!station.isActive())
+			return;
+
+		Set<String> serialNumbers = new HashSet<>();
+		for (Map.Entry<String, ChargerLocation> entry : locate(station).entrySet()) {
+			locations.put(entry.getKey(), entry.getValue());
+			serialNumbers.add(entry.getKey());
+		}
+		serialNumbersByStation.put(station.getStationId(), serialNumbers);
+	}
+
+	/**
+	 * Usage: drop every entry of a station
+	 *
+	 * @param stationId
+	 */
+	public synchronized void removeStation(String stationId) {
+		Set<String> serialNumbers = serialNumbersByStation.remove(stationId);
+		if (serialNumbers != null) {
+			for (String serialNumber : serialNumbers) {
+				ChargerLocation location = locations.get(serialNumber);
+				if (location != null && stationId.equals(location.getStationId()))
+					locations.remove(serialNumber);
+			}
+		}
+	}
+
+	/**
+	 * Usage: compare the resident index with the database
+	 *
+	 * @return report of missing, stale and mismatched serial numbers
+	 */
+	public Map<String, Object> checkConsistency() {
+		Map<String, ChargerLocation> expected = load();
+		List<String> missing = new ArrayList<>();
+		List<String> stale = new ArrayList<>();
+		List<String> mismatched = new ArrayList<>();
+
+		for (Map.Entry<String, ChargerLocation> entry : expected.entrySet()) {
+			ChargerLocation current = locations.get(entry.getKey());
+			if (current == null)
+				missing.add(entry.getKey());
+			else if (!current.equals(entry.getValue()))
+				mismatched.add(entry.getKey());
+		}
+		for (String serialNumber : locations.keySet()) {
+			if (!expected.containsKey(serialNumber))
+				stale.add(serialNumber);
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("consistent", missing.isEmpty() && stale.isEmpty() && mismatched.isEmpty());
+		report.put("indexed", locations.size());
+		report.put("expected", expected.size());
+		report.put("missing", missing);
+		report.put("stale", stale);
+		report.put("mismatched", mismatched);
+		return report;
+	}
+
+	private Map<String, ChargerLocation> load() {
+		Query query = Query.query(Criteria.where("isActive").is(true));
+		query.fields().include("chargers.chargerId", "chargers.chargerSerialNumber", "chargers.isActive",
+				"chargers.connectors.connectorId", "chargers.connectors.connectorNumber", "isActive");
+
+		Map<String, ChargerLocation> loaded = new HashMap<>();
+		try (CloseableIterator<Station> stations = mongoTemplate.stream(query, Station.class)) {
+			while (stations.hasNext()) {
+				Map<String, ChargerLocation> stationLocations = locate(stations.next());
+				for (Map.Entry<String, ChargerLocation> entry : stationLocations.entrySet())
+					loaded.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+		}
+		return loaded;
+	}
+
+	private Map<String, ChargerLocation> locate(Station station) {
+		Map<String, ChargerLocation> stationLocations = new HashMap<>();
+		List<Charger> chargers = station.getChargers();
+		for (int i = 0; i < chargers.size(); i++) {
+			Charger charger = chargers.get(i);
+			if (charger.getChargerSerialNumber() == null || stationLocations.containsKey(charger.getChargerSerialNumber()))
+				continue;
+
+			Map<Integer, Integer> connectorPositions = new HashMap<>();
+			Map<Integer, String> connectorIds = new HashMap<>();
+			List<Connector> connectors = charger.getConnectors();
+			for (int j = 0; j < connectors.size(); j++) {
+				if (connectors.get(j).getConnectorNumber() != null
+						&& connectorPositions.putIfAbsent(connectors.get(j).getConnectorNumber(), j) == null)
+					connectorIds.put(connectors.get(j).getConnectorNumber(), connectors.get(j).getConnectorId());
+			}
+			stationLocations.put(charger.getChargerSerialNumber(), new ChargerLocation(station.getStationId(),
+					charger.getChargerId(), i, charger.isActive(), connectorPositions, connectorIds));
+		}
+		return stationLocations;
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.vst.station.index;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for the charger serial number index.
+ *
+ * GET actuator/chargerindex runs the consistency check, POST
+ * actuator/chargerindex rebuilds the index from the database.
+ */
+@Component
+@Endpoint(id = "chargerindex")
+public class ChargerSerialNumberIndexEndpoint {
+
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@ReadOperation
+	public Map<String, Object> checkConsistency() {
+		return chargerSerialNumberIndex.checkConsistency();
+	}
+
+	@WriteOperation
+	public Map<String, Object> rebuild() {
+		chargerSerialNumberIndex.rebuild();
+		return chargerSerialNumberIndex.checkConsistency();
+	}
+
+}
@@ -0,0 +1,432 @@
+package com.vst.station.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.model.Station;
+
+/**
+ * Resident autocomplete index over the name, area and city of active stations.
+ *
+ * Every word of those fields and the whole field are stored as terms in a
+ * compact (radix) trie whose terminal nodes hold the station ids; removing a
+ * term merges a node left without stations and with a single child into that
+ * child, so the trie stays compact as stations change. A prefix is first
+ * matched exactly, shorter completions first; when that gives fewer than
+ * the requested suggestions the trie is walked again with a Levenshtein row per
+ * character, allowing one edit for prefixes of 3 to 5 characters and two edits
+ * for longer ones.
+ *
+ * Loaded when the application is ready and kept current by the station
+ * service; callers fall back to the keyword search while {@link #isWarm()} is
+ * false.
+ */
+@Component
+public class StationAutocompleteIndex {
+
+	public static final Logger logger = LogManager.getLogger(StationAutocompleteIndex.class);
+
+	private static final int MAX_TERM_LENGTH = 64;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Value("${station.autocomplete.enabled:true}")
+	private boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, StationDTO1> stations = new ConcurrentHashMap<>();
+
+	private final Map<String, List<String>> termsByStation = new ConcurrentHashMap<>();
+
+	private Node root = new Node("");
+
+	private volatile boolean warm;
+
+	public boolean isWarm() {
+		return enabled && warm;
+	}
+
+	public int size() {
+		return stations.size();
+	}
+
+	/**
+	 * Usage: load the index from all active stations
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled)
+			return;
+		logger.info("StationAutocompleteIndex :: rebuild : execution Started");
+		Query query = Query.query(Criteria.where("isActive").is(true));
+		query.fields().include("stationName", "stationArea", "stationCity", "stationLatitude", "stationLongitude",
+				"stationStatus");
+
+		lock.writeLock().lock();
+		try (CloseableIterator<StationDTO1> loaded = mongoTemplate.stream(query, StationDTO1.class, "station")) {
+			warm = false;
+			root = new Node("");
+			stations.clear();
+			termsByStation.clear();
+			while (loaded.hasNext())
+				add(loaded.next());
+			warm = true;
+			logger.info("StationAutocompleteIndex :: rebuild : " + stations.size() + " stations indexed");
+		} catch (Exception e) {
+			logger.error("StationAutocompleteIndex :: rebuild : index not loaded, " + e.getLocalizedMessage());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Usage: replace the terms of one station with the terms of the given (saved)
+	 * station
+	 *
+	 * @param station
+	 */
+	public void refreshStation(Station station) {
+		if (!enabled || station == null || station.getStationId() == null)
+			return;
+		lock.writeLock().lock();
+		try {
+			remove(station.getStationId());
+			if (station.isActive())
+				add(new StationDTO1(station.getStationId(), station.getStationName(), station.getStationArea(),
+						station.getStationCity(), station.getStationLatitude(), station.getStationLongitude(),
+						station.getStationStatus(), null));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Usage: drop the terms of a station
+	 *
+	 * @param stationId
+	 */
+	public void removeStation(String stationId) {
+		if (!enabled || stationId == null)
+			return;
+		lock.writeLock().lock();
+		try {
+			remove(stationId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Usage: suggest stations for what has been typed so far
+	 *
+	 * @param prefix, limit
+	 * @return exact prefix matches first, then matches within the allowed edits
+	 */
+	public List<StationDTO1> suggest(String prefix, int limit) {
+		String key = normalize(prefix);
+		Set<String> ids = new LinkedHashSet<>();
+		if (key.isEmpty())
+			return new ArrayList<>();
+
+		lock.readLock().lock();
+		try {
+			Node node = root;
+			int matched = 0;
+			while (node != null && matched < key.length()) {
+				Node child = node.child(key.charAt(matched));
+				if (child == null || !labelMatches(child.label, key, matched)) {
+					node = null;
+					break;
+				}
+				matched += child.label.length();
+				node = child;
+			}
+			if (node != null)
+				collect(node, ids, limit);
+
+			int maxEdits = key.length() < 3 ? 0 : key.length() <= 5 ? 1 : 2;
+			if (ids.size() < limit && maxEdits > 0) {
+				int[] row = new int[key.length() + 1];
+				for (int i = 0; i < row.length; i++)
+					row[i] = i;
+				List<List<Node>> byDistance = new ArrayList<>();
+				for (int i = 0; i <= maxEdits; i++)
+					byDistance.add(new ArrayList<>());
+				for (Node child : root.children)
+					fuzzy(child, key, row, maxEdits, byDistance);
+				for (List<Node> nodes : byDistance)
+					for (Node match : nodes)
+						collect(match, ids, limit);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		List<StationDTO1> suggestions = new ArrayList<>(ids.size());
+		for (String id : ids) {
+			StationDTO1 station = stations.get(id);
+			if (station != null)
+				suggestions.add(station);
+		}
+		return suggestions;
+	}
+
+	private static boolean labelMatches(String label, String key, int offset) {
+		int length = Math.min(label.length(), key.length() - offset);
+		return label.regionMatches(0, key, offset, length);
+	}
+
+	private void fuzzy(Node node, String key, int[] previous, int maxEdits, List<List<Node>> byDistance) {
+		int[] row = previous;
+		for (int i = 0; i < node.label.length(); i++) {
+			char c = node.label.charAt(i);
+			int[] next = new int[row.length];
+			next[0] = row[0] + 1;
+			int best = next[0];
+			for (int j = 1; j < row.length; j++) {
+				int cost = key.charAt(j - 1) == c ? 0 : 1;
+				next[j] = Math.min(Math.min(next[j - 1] + 1, row[j] + 1), row[j - 1] + cost);
+				best = Math.min(best, next[j]);
+			}
+			row = next;
+			if (row[row.length - 1] <= maxEdits) {
+				byDistance.get(row[row.length - 1]).add(node);
+				return;
+			}
+			if (best > maxEdits)
+				return;
+		}
+		for (Node child : node.children)
+			fuzzy(child, key, row, maxEdits, byDistance);
+	}
+
+	private void collect(Node start, Set<String> ids, int limit) {
+		// shortest terms first: nodes by the length of the term they end, then in key order
+		PriorityQueue<Pending> queue = new PriorityQueue<>();
+		long order = 0;
+		queue.add(new Pending(start, 0, order++));
+		while (!queue.isEmpty() && ids.size() < limit) {
+			Pending pending = queue.poll();
+			for (String id : pending.node.stationIds) {
+				ids.add(id);
+				if (ids.size() >= limit)
+					return;
+			}
+			for (Node child : pending.node.children)
+				queue.add(new Pending(child, pending.length + child.label.length(), order++));
+		}
+	}
+
+	private void add(StationDTO1 station) {
+		Set<String> terms = new LinkedHashSet<>();
+		for (String field : new String[] { station.getStationName(), station.getStationArea(),
+				station.getStationCity() }) {
+			String normalized = normalize(field);
+			if (normalized.isEmpty())
+				continue;
+			terms.add(truncate(normalized));
+			for (String word : normalized.split(" "))
+				terms.add(truncate(word));
+		}
+		for (String term : terms)
+			insert(root, term, station.getStationId());
+		stations.put(station.getStationId(), station);
+		termsByStation.put(station.getStationId(), new ArrayList<>(terms));
+	}
+
+	private void remove(String stationId) {
+		List<String> terms = termsByStation.remove(stationId);
+		stations.remove(stationId);
+		if (terms != null)
+			for (String term : terms)
+				delete(root, term, stationId);
+	}
+
+	private void insert(Node node, String term, String stationId) {
+		if (term.isEmpty()) {
+			node.addStation(stationId);
+			return;
+		}
+		Node child = node.child(term.charAt(0));
+		if (child == null) {
+			Node leaf = new Node(term);
+			leaf.addStation(stationId);
+			node.addChild(leaf);
+			return;
+		}
+		int common = 0;
+		while (common < child.label.length() && common < term.length()
+				&& child.label.charAt(common) == term.charAt(common))
+			common++;
+		if (common < child.label.length()) {
+			Node split = new Node(child.label.substring(0, common));
+			node.removeChild(child.label.charAt(0));
+			child.label = child.label.substring(common);
+			split.addChild(child);
+			node.addChild(split);
+			child = split;
+		}
+		insert(child, term.substring(common), stationId);
+	}
+
+	private boolean delete(Node node, String term, String stationId) {
+		if (term.isEmpty()) {
+			node.removeStation(stationId);
+		} else {
+			Node child = node.child(term.charAt(0));
+			if (child == null || !term.startsWith(child.label))
+				return false;
+			if (delete(child, term.substring(child.label.length()), stationId))
+				node.removeChild(child.label.charAt(0));
+			else if (child.stationIds.length == 0 && child.children.length == 1)
+				child.mergeOnlyChild();
+		}
+		return node != root && node.stationIds.length == 0 && node.children.length == 0;
+	}
+
+	private static String normalize(String text) {
+		if (text == null)
+			return "";
+		StringBuilder builder = new StringBuilder(text.length());
+		boolean space = true;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				builder.append(Character.toLowerCase(c));
+				space = false;
+			} else if (!space) {
+				builder.append(' ');
+				space = true;
+			}
+		}
+		int length = builder.length();
+		if (length > 0 && builder.charAt(length - 1) == ' ')
+			builder.setLength(length - 1);
+		return builder.toString();
+	}
+
+	private static String truncate(String term) {
+		return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+	}
+
+	private static final class Pending implements Comparable<Pending> {
+
+		private final Node node;
+		private final int length;
+		private final long order;
+
+		Pending(Node node, int length, long order) {
+			this.node = node;
+			this.length = length;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(Pending other) {
+			return length != other.length ? Integer.compare(length, other.length) : Long.compare(order, other.order);
+		}
+	}
+
+	private static final class Node {
+
+		private static final char[] NO_KEYS = new char[0];
+		private static final Node[] NO_CHILDREN = new Node[0];
+		private static final String[] NO_STATIONS = new String[0];
+
+		private String label;
+		private char[] keys = NO_KEYS;
+		private Node[] children = NO_CHILDREN;
+		private String[] stationIds = NO_STATIONS;
+
+		Node(String label) {
+			this.label = label;
+		}
+
+		Node child(char key) {
+			int index = Arrays.binarySearch(keys, key);
+			return index >= 0 ? children[index] : null;
+		}
+
+		void addChild(Node child) {
+			char key = child.label.charAt(0);
+			int index = -Arrays.binarySearch(keys, key) - 1;
+			char[] newKeys = new char[keys.length + 1];
+			Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(keys, 0, newKeys, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			newKeys[index] = key;
+			newChildren[index] = child;
+			System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+			System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+			keys = newKeys;
+			children = newChildren;
+		}
+
+		void removeChild(char key) {
+			int index = Arrays.binarySearch(keys, key);
+			if (index < 0)
+				return;
+			char[] newKeys = new char[keys.length - 1];
+			Node[] newChildren = new Node[children.length - 1];
+			System.arraycopy(keys, 0, newKeys, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+			System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+			keys = newKeys;
+			children = newChildren;
+		}
+
+		// keeps the trie compact: a node without stations and with one child becomes that child
+		void mergeOnlyChild() {
+			Node only = children[0];
+			label = label + only.label;
+			keys = only.keys;
+			children = only.children;
+			stationIds = only.stationIds;
+		}
+
+		void addStation(String stationId) {
+			for (String id : stationIds)
+				if (id.equals(stationId))
+					return;
+			stationIds = Arrays.copyOf(stationIds, stationIds.length + 1);
+			stationIds[stationIds.length - 1] = stationId;
+		}
+
+		void removeStation(String stationId) {
+			for (int i = 0; i < stationIds.length; i++) {
+				if (stationIds[i].equals(stationId)) {
+					String[] newIds = new String[stationIds.length - 1];
+					System.arraycopy(stationIds, 0, newIds, 0, i);
+					System.arraycopy(stationIds, i + 1, newIds, i, stationIds.length - i - 1);
+					stationIds = newIds;
+					return;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+package com.vst.station.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.model.Station;
+
+/**
+ * Optional resident grid index over the coordinates of active stations.
+ *
+ * Stations are bucketed into cells of cellSizeDegrees x cellSizeDegrees (the
+ * width narrowed so that whole columns wrap at the antimeridian). Radius
+ * queries scan the cells overlapping the bounding box of the circle, every
+ * column when the circle contains a pole; nearest queries scan rings of cells
+ * around the query point until no closer station can exist. Cell lists are
+ * copied on write so queries never lock.
+ *
+ * Loaded when the application is ready and kept current by the station
+ * service; callers fall back to Mongo while {@link #isWarm()} is false.
+ */
+@Component
+public class StationGeoIndex {
+
+	public static final Logger logger = LogManager.getLogger(StationGeoIndex.class);
+
+	private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Value("${station.geoIndex.enabled:false}")
+	private boolean enabled;
+
+	@Value("${station.geoIndex.cellSizeDegrees:0.1}")
+	private double cellSize;
+
+	private final Map<String, StationDTO1> stations = new ConcurrentHashMap<>();
+
+	private final Map<Long, List<StationDTO1>> cells = new ConcurrentHashMap<>();
+
+	private volatile boolean warm;
+
+	public boolean isWarm() {
+		return enabled && warm;
+	}
+
+	public int size() {
+		return stations.size();
+	}
+
+	/**
+	 * Usage: load the index from all active stations
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		if (!enabled)
+			return;
+		logger.info("StationGeoIndex :: rebuild : execution Started");
+		warm = false;
+		stations.clear();
+		cells.clear();
+
+		Query query = Query.query(Criteria.where("isActive").is(true));
+		query.fields().include("stationName", "stationArea", "stationCity", "stationLatitude", "stationLongitude",
+				"stationStatus");
+		try (CloseableIterator<StationDTO1> loaded = mongoTemplate.stream(query, StationDTO1.class, "station")) {
+			while (loaded.hasNext())
+				add(loaded.next());
+			warm = true;
+			logger.info("StationGeoIndex :: rebuild : " + stations.size() + " stations indexed in " + cells.size()
+					+ " cells");
+		} catch (Exception e) {
+			logger.error("StationGeoIndex :: rebuild : index not loaded, " + e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Usage: replace the entry of one station with the given (saved) station
+	 *
+	 * @param station
+	 */
+	public synchronized void refreshStation(Station station) {
+		if (!enabled || station == null || station.getStationId() == null)
+			return;
+		remove(station.getStationId());
+		if (station.isActive())
+			add(new StationDTO1(station.getStationId(), station.getStationName(), station.getStationArea(),
+					station.getStationCity(), station.getStationLatitude(), station.getStationLongitude(),
+					station.getStationStatus(), null));
+	}
+
+	/**
+	 * Usage: drop the entry of a station
+	 *
+	 * @param stationId
+	 */
+	public synchronized void removeStation(String stationId) {
+		if (enabled && stationId != null)
+			remove(stationId);
+	}
+
+	private void add(StationDTO1 station) {
+		stations.put(station.getStationId(), station);
+		cells.compute(cellKey(row(station.getStationLatitude()), column(station.getStationLongitude())),
+				(key, list) -> {
+					List<StationDTO1> copy = list == null ? new ArrayList<>(1) : new ArrayList<>(list);
+					copy.add(station);
+					return copy;
+				});
+	}
+
+	private void remove(String stationId) {
+		StationDTO1 old = stations.remove(stationId);
+		if (old == null)
+			return;
+		cells.computeIfPresent(cellKey(row(old.getStationLatitude()), column(old.getStationLongitude())),
+				(key, list) -> {
+					List<StationDTO1> copy = new ArrayList<>(list);
+					copy.removeIf(s -> stationId.equals(s.getStationId()));
+					return copy.isEmpty() ? null : copy;
+				});
+	}
+
+	/**
+	 * Usage: stations between minDistance and maxDistance (meters) of a point,
+	 * nearest first
+	 *
+	 * @param latitude, longitude, maxDistance, minDistance, limit
+	 * @return list of StationDTO1 with distance in meters
+	 */
+	public List<StationDTO1> radius(double latitude, double longitude, double maxDistance, double minDistance,
+			int limit) {
+		PriorityQueue<StationDTO1> nearest = new PriorityQueue<>(
+				Comparator.comparingDouble(StationDTO1::getDistance).reversed());
+
+		double angle = maxDistance / EARTH_RADIUS_METERS;
+		double latitudeSpan = Math.toDegrees(angle);
+		int firstRow = row(Math.max(-90, latitude - latitudeSpan));
+		int lastRow = row(Math.min(90, latitude + latitudeSpan));
+		// widest longitude offset of the circle; a circle containing a pole covers every longitude
+		double sinLongitudeSpan = Math.sin(Math.min(angle, Math.PI / 2)) / Math.cos(Math.toRadians(latitude));
+		int firstColumn = 0;
+		int columnCount = columns();
+		if (latitude + latitudeSpan < 90 && latitude - latitudeSpan > -90 && sinLongitudeSpan < 1) {
+			double longitudeSpan = Math.toDegrees(Math.asin(sinLongitudeSpan));
+			firstColumn = column(longitude - longitudeSpan);
+			columnCount = Math.min(columns(), column(longitude + longitudeSpan) - firstColumn + 1);
+		}
+
+		if ((long) (lastRow - firstRow + 1) * columnCount > cells.size()) {
+			for (List<StationDTO1> list : cells.values())
+				collect(list, latitude, longitude, minDistance, maxDistance, limit, nearest);
+		} else {
+			for (int r = firstRow; r <= lastRow; r++)
+				for (int c = 0; c < columnCount; c++)
+					collect(cells.get(cellKey(r, firstColumn + c)), latitude, longitude, minDistance, maxDistance,
+							limit, nearest);
+		}
+		return sorted(nearest);
+	}
+
+	/**
+	 * Usage: the count stations nearest to a point within maxDistance (meters),
+	 * nearest first
+	 *
+	 * @param latitude, longitude, count, maxDistance
+	 * @return list of StationDTO1 with distance in meters
+	 */
+	public List<StationDTO1> nearest(double latitude, double longitude, int count, double maxDistance) {
+		PriorityQueue<StationDTO1> nearest = new PriorityQueue<>(
+				Comparator.comparingDouble(StationDTO1::getDistance).reversed());
+		int centerRow = row(latitude);
+		int centerColumn = column(longitude);
+		double cosLatitude = Math.cos(Math.toRadians(latitude));
+
+		for (int ring = 0;; ring++) {
+			if ((long) (2 * ring + 1) * (2 * ring + 1) > cells.size() || 2 * ring + 1 > columns()) {
+				nearest.clear();
+				for (List<StationDTO1> list : cells.values())
+					collect(list, latitude, longitude, 0, maxDistance, count, nearest);
+				break;
+			}
+			for (int r = centerRow - ring; r <= centerRow + ring; r++) {
+				boolean edgeRow = r == centerRow - ring || r == centerRow + ring;
+				for (int c = centerColumn - ring; c <= centerColumn + ring; c += edgeRow || ring == 0 ? 1 : 2 * ring)
+					collect(cells.get(cellKey(r, c)), latitude, longitude, 0, maxDistance, count, nearest);
+			}
+
+			// any station outside this ring is at least ring rows away, or at least
+			// ring columns away, that is beyond the meridian ring columns off
+			double rowsOutside = Math.toRadians(ring * cellSize);
+			double columnsOutside = Math.asin(
+					Math.sin(Math.toRadians(Math.min(90, ring * columnWidth()))) * cosLatitude);
+			double outside = Math.min(rowsOutside, columnsOutside) * EARTH_RADIUS_METERS;
+			if (outside > maxDistance || (nearest.size() == count && nearest.peek().getDistance() <= outside))
+				break;
+		}
+		return sorted(nearest);
+	}
+
+	private void collect(List<StationDTO1> list, double latitude, double longitude, double minDistance,
+			double maxDistance, int limit, PriorityQueue<StationDTO1> nearest) {
+		if (list == null)
+			return;
+		for (StationDTO1 station : list) {
+			double distance = distance(latitude, longitude, station.getStationLatitude(),
+					station.getStationLongitude());
+			if (distance < minDistance || distance > maxDistance)
+				continue;
+			if (nearest.size() < limit)
+				nearest.add(withDistance(station, distance));
+			else if (distance < nearest.peek().getDistance()) {
+				nearest.poll();
+				nearest.add(withDistance(station, distance));
+			}
+		}
+	}
+
+	private List<StationDTO1> sorted(PriorityQueue<StationDTO1> nearest) {
+		List<StationDTO1> result = new ArrayList<>(nearest);
+		Collections.sort(result, Comparator.comparingDouble(StationDTO1::getDistance));
+		return result;
+	}
+
+	private StationDTO1 withDistance(StationDTO1 station, double distance) {
+		return new StationDTO1(station.getStationId(), station.getStationName(), station.getStationArea(),
+				station.getStationCity(), station.getStationLatitude(), station.getStationLongitude(),
+				station.getStationStatus(), distance);
+	}
+
+	private static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+		double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+		double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+				+ Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+						* Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+		return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	private int row(double latitude) {
+		return (int) Math.floor((latitude + 90) / cellSize);
+	}
+
+	private int column(double longitude) {
+		return (int) Math.floor((longitude + 180) / columnWidth());
+	}
+
+	// columns are narrowed to divide 360 degrees evenly, so they wrap at the antimeridian
+	private double columnWidth() {
+		return 360.0 / columns();
+	}
+
+	private int columns() {
+		return (int) Math.ceil(360 / cellSize);
+	}
+
+	private long cellKey(int row, int column) {
+		int wrapped = Math.floorMod(column, columns());
+		return ((long) row << 32) | (wrapped & 0xffffffffL);
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.vst.station.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.vst.station.model.Station;
+
+/**
+ * Keeps the "searchTokens" field of every station: the lower case words of
+ * its name, area, zip code, city and status. The field has a multikey index,
+ * so a keyword typed in the search bar is answered by anchored prefix matches
+ * ({@code ^word}) that scan only the index range of that prefix.
+ *
+ * The tokens are computed before every station is converted for a save,
+ * insert or bulk insert, which covers all writes of those fields. Stations
+ * stored before the field existed are filled when the application is ready.
+ */
+@Component
+public class StationSearchTokens extends AbstractMongoEventListener<Station> {
+
+	public static final Logger logger = LogManager.getLogger(StationSearchTokens.class);
+
+	private static final int BACKFILL_BATCH_SIZE = 500;
+
+	private static final int MAX_TOKEN_LENGTH = 64;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Override
+	public void onBeforeConvert(BeforeConvertEvent<Station> event) {
+		Station station = event.getSource();
+		station.setSearchTokens(tokens(station.getStationName(), station.getStationArea(),
+				station.getStationZipCode(), station.getStationCity(), station.getStationStatus()));
+	}
+
+	/**
+	 * Usage: split text into distinct lower case words of letters and digits
+	 *
+	 * @param texts (null values are skipped)
+	 * @return tokens in order of appearance
+	 */
+	public static List<String> tokens(String... texts) {
+		Set<String> tokens = new LinkedHashSet<>();
+		StringBuilder token = new StringBuilder();
+		for (String text : texts) {
+			if (text == null)
+				continue;
+			for (int i = 0; i <= text.length(); i++) {
+				char c = i < text.length() ? text.charAt(i) : ' ';
+				if (Character.isLetterOrDigit(c)) {
+					if (token.length() < MAX_TOKEN_LENGTH)
+						token.append(Character.toLowerCase(c));
+				} else if (token.length() > 0) {
+					tokens.add(token.toString());
+					token.setLength(0);
+				}
+			}
+		}
+		return new ArrayList<>(tokens);
+	}
+
+	/**
+	 * Usage: fill the tokens of stations stored without them
+	 *
+	 * @return number of stations updated
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public long backfill() {
+		long updated = 0;
+		try {
+			Query query = Query.query(Criteria.where("searchTokens").exists(false));
+			query.fields().include("stationName", "stationArea", "stationZipCode", "stationCity", "stationStatus");
+			try (CloseableIterator<Document> stations = mongoTemplate.stream(query, Document.class, "station")) {
+				BulkOperations bulkOperations = null;
+				int pending = 0;
+				while (stations.hasNext()) {
+					Document station = stations.next();
+					if (bulkOperations == null)
+						bulkOperations = mongoTemplate.bulkOps(BulkMode.UNORDERED, "station");
+					bulkOperations.updateOne(Query.query(Criteria.where("_id").is(station.get("_id"))),
+							new Update().set("searchTokens",
+									tokens(station.getString("stationName"), station.getString("stationArea"),
+											station.getString("stationZipCode"), station.getString("stationCity"),
+											station.getString("stationStatus"))));
+					updated++;
+					if (++pending >= BACKFILL_BATCH_SIZE) {
+						bulkOperations.execute();
+						bulkOperations = null;
+						pending = 0;
+					}
+				}
+				if (bulkOperations != null)
+					bulkOperations.execute();
+			}
+			if (updated > 0)
+				logger.info("StationSearchTokens :: backfill : search tokens of " + updated + " stations stored");
+		} catch (Exception e) {
+			logger.error("StationSearchTokens :: backfill : " + e.getLocalizedMessage());
+		}
+		return updated;
+	}
+
+}
@@ -5,6 +5,7 @@ import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -53,7 +54,8 @@ public class Charger {
 	private String chargeBoxSerialNumber;
 	private String meterType;
 	private String firmwareVersion;
-	private String chargerSerialNumber;	
+	@Indexed
+	private String chargerSerialNumber;
 	private Date createdDate;
 	private Date modifiedDate;
 	private String createdBy;
@@ -0,0 +1,39 @@
+package com.vst.station.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Live OCPP state of one connector, kept outside the station document when
+ * station.connectorState.split is enabled. Static connector metadata stays
+ * embedded in the station.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "connectorState")
+@CompoundIndex(name = "charger_connector", def = "{'chargerSerialNumber': 1, 'connectorNumber': 1}")
+public class ConnectorState {
+
+	@Id
+	private String connectorId;
+	@Indexed
+	private String stationId;
+	private String chargerSerialNumber;
+	private Integer connectorNumber;
+	private String connectorStatus;
+	private double connectorMeterValue;
+	private String connectorErrorCode;
+	private String connectorInfo;
+	private String connectorTimeStamp;
+	private String connectorMeterRequestTimeStamp;
+	private String connectorLastAvailableTimeStamp;
+	private String connectorLastUnavailableTimeStamp;
+
+}
@@ -0,0 +1,32 @@
+package com.vst.station.model;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One OCPP meter value as received, stored in an append-only time series
+ * collection bucketed by charger serial number and connector number.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "meterValueHistory")
+@TimeSeries(timeField = "timeStamp", metaField = "source", granularity = Granularity.SECONDS)
+public class MeterValueReading {
+
+	@Id
+	private String id;
+	private Date timeStamp;
+	private MeterValueSource source;
+	private double meterValue;
+	private String connectorUnitType;
+
+}
@@ -0,0 +1,36 @@
+package com.vst.station.model;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Meter values of one connector aggregated over one bucket of the given
+ * resolution ("1m", "15m" or "1h").
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "meterValueRollup")
+@CompoundIndex(name = "connector_resolution_bucket", def = "{'chargerSerialNumber': 1, 'connectorNumber': 1, 'resolution': 1, 'bucketStart': 1}")
+public class MeterValueRollup {
+
+	@Id
+	private String id;
+	private String chargerSerialNumber;
+	private Integer connectorNumber;
+	private String resolution;
+	private Date bucketStart;
+	private double minMeterValue;
+	private double maxMeterValue;
+	private double avgMeterValue;
+	private double lastMeterValue;
+	private long readings;
+
+}
@@ -0,0 +1,18 @@
+package com.vst.station.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Meta field of a meter value reading, identifies the connector that sent it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MeterValueSource {
+
+	private String chargerSerialNumber;
+	private Integer connectorNumber;
+
+}
@@ -9,6 +9,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 //import com.mongodb.internal.connection.Time;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -57,5 +58,7 @@ public class Station {
 	private String createdBy;
 	private String modifiedBy;
 	private boolean isActive;
-		
+	@JsonIgnore
+	private List<String> searchTokens;
+
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.vst.station.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import com.vst.station.model.MeterValueRollup;
+
+public interface MeterValueRollupRepository extends MongoRepository<MeterValueRollup, String> {
+
+	@Query("{'chargerSerialNumber': ?0, 'connectorNumber': ?1, 'resolution': ?2, 'bucketStart': {'$gte': ?3, '$lt': ?4}}")
+	List<MeterValueRollup> findRollups(String chargerSerialNumber, Integer connectorNumber, String resolution,
+			Date from, Date to, Sort sort);
+
+}
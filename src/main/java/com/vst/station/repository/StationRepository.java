@@ -5,6 +5,7 @@ import java.util.List;
 
 //import org.springframework.data.mongodb.core.mapping.Document;
 //import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
@@ -14,6 +15,9 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 //import com.fasterxml.jackson.annotation.JsonInclude;
 //import com.mongodb.BasicDBObject;
 //import com.mongodb.client.MongoCollection;
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.dto.StationFindDTO;
+import com.vst.station.dto.StationHostDTO;
 import com.vst.station.model.Station;
 
 public interface StationRepository extends MongoRepository<Station, String> {
@@ -99,6 +103,18 @@ public interface StationRepository extends MongoRepository<Station, String> {
 	@Query("{ 'location' : { '$nearSphere' : { '$geometry' : { 'type' : ?0, 'coordinates': [?1, ?2] }, '$maxDistance': ?3, '$minDistance': ?4 } } }")
 	List<Station> findByGeoLocation(String type, double longitude, double latitude, double maxDistance, double minDistance);
 
+	@Query(value = "{ 'isActive' : true }", fields = "{ '_id' : 1, 'stationName' : 1, 'stationArea' : 1, 'stationCity' : 1, 'stationLatitude' : 1, 'stationLongitude' : 1, 'stationStatus' : 1 }")
+	List<StationDTO1> findStationDTO1ByIsActiveTrue();
 
-}
+	@Query(fields = "{ '_id' : 1, 'stationName' : 1, 'stationArea' : 1, 'stationCity' : 1, 'stationLatitude' : 1, 'stationLongitude' : 1, 'stationStatus' : 1 }")
+	List<StationDTO1> findStationDTO1ByStationNameContainingIgnoreCaseAndIsActiveTrueOrStationAreaContainingIgnoreCaseAndIsActiveTrueOrStationZipCodeContainingIgnoreCaseAndIsActiveTrueOrStationCityContainingIgnoreCaseAndIsActiveTrueOrStationStatusContainingIgnoreCaseAndIsActiveTrue(
+			String stationName, String stationArea, String stationZipCode, String stationCity, String stationStatus,
+			Pageable pageable);
+
+	@Query(value = "{ '_id' : ?0 }", fields = "{ '_id' : 0, 'stationName' : 1, 'stationArea' : 1, 'stationAddressLineOne' : 1, 'stationAddressLineTwo' : 1, 'stationZipCode' : 1, 'stationCity' : 1 }")
+	StationFindDTO findStationFindDTOByStationId(String stationId);
 
+	@Query(value = "{ 'stationHostId' : ?0, 'isActive' : true }", fields = "{ '_id' : 1, 'stationLatitude' : 1, 'stationLongitude' : 1, 'stationName' : 1, 'stationStatus' : 1 }")
+	List<StationHostDTO> findStationHostDTOByStationHostId(String stationHostId);
+
+}
@@ -2,28 +2,43 @@ package com.vst.station.service;
 
 import java.sql.Date;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import javax.transaction.Transactional;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.vst.station.converter.ChargerConverter;
 import com.vst.station.converter.ConnectorConverter;
 import com.vst.station.dto.ChargerDTO;
+import com.vst.station.dto.ChargerStatusBatchDTO;
+import com.vst.station.dto.ChargerStatusOutcomeDTO;
 import com.vst.station.dto.ChargerUpdateDTO;
 import com.vst.station.dto.ConnectorDTO;
 import com.vst.station.dto.ConnectorUpdateDTO;
+import com.vst.station.dto.StationChargerIdsDTO;
 import com.vst.station.dto.connectorStatusNotificationDTO;
 import com.vst.station.dto.ocppVerificationDTO;
 import com.vst.station.exception.ChargerNotFoundException;
@@ -32,6 +47,8 @@ import com.vst.station.exception.InValidIdExcepetion;
 import com.vst.station.exception.StationException;
 import com.vst.station.exception.StationIdNotAcceptableException;
 import com.vst.station.exception.StationNotFoundException;
+import com.vst.station.index.ChargerLocation;
+import com.vst.station.index.ChargerSerialNumberIndex;
 import com.vst.station.model.Charger;
 import com.vst.station.model.Connector;
 import com.vst.station.model.Station;
@@ -67,12 +84,28 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 	@Autowired
 	private ConnectorConverter connectorConverter;
 
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@Autowired
+	private StationLookupCache stationLookupCache;
+
+	@Autowired
+	private ConnectorStateStore connectorStateStore;
+
 	IdAndDateGenerator idAndDateGenerator = new IdAndDateGenerator();
 
 	Utility utility = new Utility();
 
 	public static final Logger logger = LogManager.getLogger(ChargerServiceImpl.class);
 
+	private static final String CHARGER_PATH = "chargers.$.";
+
+	private static final String FILTERED_CHARGER_PATH = "chargers.$[c].";
+
 	/**
 	 * Usage: add Charger in the specific station using station id
 	 * 
@@ -106,7 +139,10 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 							chargerNumber++;
 						station.setChargerNumber(chargerNumber);
 
-						if (stationRepository.save(obj) != null) {
+						Station saved = stationRepository.save(obj);
+						if (saved != null) {
+							chargerSerialNumberIndex.refreshStation(saved);
+							stationLookupCache.evictStation(saved);
 							logger.info("StationServiceImpl :: addCharger : execution ended");
 							return true;
 						} else
@@ -120,25 +156,21 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
 
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(), "Add New Charger",
-					e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(), "Add New Charger",
-					e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "Add New Charger");
+			logger.error(stationException);
+			throw stationException;
 		}
 
 	}
@@ -157,203 +189,182 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 			if (!stationId.isBlank() && stationId != null) {
 				if (!chargerId.isBlank() && chargerId != null) {
 
-					Station station = stationRepository
-							.findByStationIdAndIsActiveTrue(utility.stringSanitization(stationId));
-					if (station != null) {
-						Charger obj = chargerConverter.dtoToEntity1(chargerDTO);
-						
-						System.out.println(obj);
+					Charger obj = chargerConverter.dtoToEntity1(chargerDTO);
+					Update update = new Update();
+					boolean flag = false;
 
-						List<Charger> chargers = station.getChargers();
-						if (!chargers.isEmpty()) {
-							Charger charger = null;
-							int index = 0;
-							for (int i = 0; i < chargers.size(); i++) {
-								if (chargers.get(i).getChargerId().equals(utility.stringSanitization(chargerId))) {
-									charger = chargers.get(i);
-									index = i;
-									break;
-								}
-							}
+					if (obj.getChargerName() != null && !obj.getChargerName().isBlank()) {
+						update.set(CHARGER_PATH + "chargerName", utility.toTitleCase(obj.getChargerName()));
+						flag = true;
+					}
+					if (obj.getChargerNumber() != 0) {
+						update.set(CHARGER_PATH + "chargerNumber", obj.getChargerNumber());
+						flag = true;
+					}
+					if (obj.getChargerInputVoltage() != null && !obj.getChargerInputVoltage().isBlank()) {
+						update.set(CHARGER_PATH + "chargerInputVoltage", obj.getChargerInputVoltage());
+						flag = true;
+					}
+					if (obj.getChargerOutputVoltage() != null && !obj.getChargerOutputVoltage().isBlank()) {
+						update.set(CHARGER_PATH + "chargerOutputVoltage", obj.getChargerOutputVoltage());
+						flag = true;
+					}
 
-							if (charger != null) {
-								boolean flag = false;
+					if (obj.getChargerMinInputAmpere() != null
+							&& !obj.getChargerMinInputAmpere().isBlank()) {
+						update.set(CHARGER_PATH + "chargerMinInputAmpere", obj.getChargerMinInputAmpere());
+						flag = true;
+					}
 
-								if (obj.getChargerName() != null && !obj.getChargerName().isBlank()) {
-									charger.setChargerName(utility.toTitleCase(obj.getChargerName()));
-									flag = true;
-								}
-								if (obj.getChargerNumber() != 0) {
-									charger.setChargerNumber(obj.getChargerNumber());
-									flag = true;
-								}
-								if (obj.getChargerInputVoltage() != null && !obj.getChargerInputVoltage().isBlank()) {
-									charger.setChargerInputVoltage(obj.getChargerInputVoltage());
-									flag = true;
-								}
-								if (obj.getChargerOutputVoltage() != null && !obj.getChargerOutputVoltage().isBlank()) {
-									charger.setChargerOutputVoltage(obj.getChargerOutputVoltage());
-									flag = true;
-								}
+					if (obj.getChargerMaxInputAmpere() != null
+							&& !obj.getChargerMaxInputAmpere().isBlank()) {
+						update.set(CHARGER_PATH + "chargerMaxInputAmpere", obj.getChargerMaxInputAmpere());
+						flag = true;
+					}
 
-								if (obj.getChargerMinInputAmpere() != null
-										&& !obj.getChargerMinInputAmpere().isBlank()) {
-									charger.setChargerMinInputAmpere(obj.getChargerMinInputAmpere());
-									flag = true;
-								}
+					if (obj.getChargerOutputAmpere() != null && !obj.getChargerOutputAmpere().isBlank()) {
+						update.set(CHARGER_PATH + "chargerOutputAmpere", obj.getChargerOutputAmpere());
+						flag = true;
+					}
 
-								if (obj.getChargerMaxInputAmpere() != null
-										&& !obj.getChargerMaxInputAmpere().isBlank()) {
-									charger.setChargerMaxInputAmpere(obj.getChargerMaxInputAmpere());
-									flag = true;
-								}
+					if (obj.getChargerInputFrequency() != null
+							&& !obj.getChargerInputFrequency().isBlank()) {
+						update.set(CHARGER_PATH + "chargerInputFrequency", obj.getChargerInputFrequency());
+						flag = true;
+					}
 
-								if (obj.getChargerOutputAmpere() != null && !obj.getChargerOutputAmpere().isBlank()) {
-									charger.setChargerOutputAmpere(obj.getChargerOutputAmpere());
-									flag = true;
-								}
+					if (obj.getChargerOutputFrequency() != null
+							&& !obj.getChargerOutputFrequency().isBlank()) {
+						update.set(CHARGER_PATH + "chargerOutputFrequency", obj.getChargerOutputFrequency());
+						flag = true;
+					}
 
-								if (obj.getChargerInputFrequency() != null
-										&& !obj.getChargerInputFrequency().isBlank()) {
-									charger.setChargerInputFrequency(obj.getChargerInputFrequency());
-									flag = true;
-								}
+					if (obj.getChargerIPRating() != null && !obj.getChargerIPRating().isBlank()) {
+						update.set(CHARGER_PATH + "chargerIPRating", obj.getChargerIPRating());
+						flag = true;
+					}
 
-								if (obj.getChargerOutputFrequency() != null
-										&& !obj.getChargerOutputFrequency().isBlank()) {
-									charger.setChargerOutputFrequency(obj.getChargerOutputFrequency());
-									flag = true;
-								}
+					if (obj.getChargerMountType() != null && !obj.getChargerMountType().isBlank()) {
+						update.set(CHARGER_PATH + "chargerMountType", obj.getChargerMountType());
+						flag = true;
+					}
 
-								if (obj.getChargerIPRating() != null && !obj.getChargerIPRating().isBlank()) {
-									charger.setChargerIPRating(obj.getChargerIPRating());
-									flag = true;
-								}
+					if (obj.getChargerNumberOfConnector() != 0) {
+						update.set(CHARGER_PATH + "chargerNumberOfConnector", obj.getChargerNumberOfConnector());
+						flag = true;
+					}
 
-								if (obj.getChargerMountType() != null && !obj.getChargerMountType().isBlank()) {
-									charger.setChargerMountType(obj.getChargerMountType());
-									flag = true;
-								}
+					if (obj.getIsRFID() != null && !obj.getIsRFID().isBlank()) {
+						update.set(CHARGER_PATH + "isRFID", obj.getIsRFID());
+						flag = true;
+					}
 
-								if (obj.getChargerNumberOfConnector() != 0) {
-									charger.setChargerNumberOfConnector(obj.getChargerNumberOfConnector());
-									flag = true;
-								}
+					if (obj.getChargerPointSerialNumber() != null
+							&& !obj.getChargerPointSerialNumber().isBlank()) {
+						update.set(CHARGER_PATH + "chargerPointSerialNumber", obj.getChargerPointSerialNumber());
+						flag = true;
+					}
 
-								if (obj.getIsRFID() != null && !obj.getIsRFID().isBlank()) {
-									charger.setIsRFID(obj.getIsRFID());
-									flag = true;
-								}
+					if (obj.getChargerOCPPProtocol() != null && !obj.getChargerOCPPProtocol().isBlank()) {
+						update.set(CHARGER_PATH + "chargerOCPPProtocol", obj.getChargerOCPPProtocol());
+						flag = true;
+					}
 
-								if (obj.getChargerPointSerialNumber() != null
-										&& !obj.getChargerPointSerialNumber().isBlank()) {
-									charger.setChargerPointSerialNumber(obj.getChargerPointSerialNumber());
-									flag = true;
-								}
+					if(obj.getChargerConnectorType() !=null && !obj.getChargerConnectorType().isBlank()) {
+						update.set(CHARGER_PATH + "chargerConnectorType", obj.getChargerConnectorType());
+						flag=true;
+					}
+					
+					
+					if (obj.getIsAppSupport() != null && !obj.getIsAppSupport().isBlank()) {
+						update.set(CHARGER_PATH + "isAppSupport", obj.getIsAppSupport());
+						flag = true;
+					}
 
-								if (obj.getChargerOCPPProtocol() != null && !obj.getChargerOCPPProtocol().isBlank()) {
-									charger.setChargerOCPPProtocol(obj.getChargerOCPPProtocol());
-									flag = true;
-								}
+					if (obj.getIsTBCutOff() != null && !obj.getIsTBCutOff().isBlank()) {
+						update.set(CHARGER_PATH + "isTBCutOff", obj.getIsTBCutOff());
+						flag = true;
+					}
 
-								if(obj.getChargerConnectorType() !=null && !obj.getChargerConnectorType().isBlank()) {
-									charger.setChargerConnectorType(obj.getChargerConnectorType());
-									flag=true;
-								}
-								
-								
-								if (obj.getIsAppSupport() != null && !obj.getIsAppSupport().isBlank()) {
-									charger.setIsAppSupport(obj.getIsAppSupport());
-									flag = true;
-								}
+					if (obj.getIsAntitheft() != null && !obj.getIsAntitheft().isBlank()) {
+						update.set(CHARGER_PATH + "isAntitheft", obj.getIsAntitheft());
+						flag = true;
+					}
 
-								if (obj.getIsTBCutOff() != null && !obj.getIsTBCutOff().isBlank()) {
-									charger.setIsTBCutOff(obj.getIsTBCutOff());
-									flag = true;
-								}
+					if (obj.getIsLEDDisplay() != null && !obj.getIsLEDDisplay().isBlank()) {
+						update.set(CHARGER_PATH + "isLEDDisplay", obj.getIsLEDDisplay());
+						flag = true;
+					}
 
-								if (obj.getIsAntitheft() != null && !obj.getIsAntitheft().isBlank()) {
-									charger.setIsAntitheft(obj.getIsAntitheft());
-									flag = true;
-								}
+					if (obj.getIsLEDIndications() != null && !obj.getIsLEDIndications().isBlank()) {
+						update.set(CHARGER_PATH + "isLEDIndications", obj.getIsLEDIndications());
+						flag = true;
+					}
 
-								if (obj.getIsLEDDisplay() != null && !obj.getIsLEDDisplay().isBlank()) {
-									charger.setIsLEDDisplay(obj.getIsLEDDisplay());
-									flag = true;
-								}
+					if (obj.getIsSmart() != null && !obj.getIsSmart().isBlank()) {
+						update.set(CHARGER_PATH + "isSmart", obj.getIsSmart());
+						flag = true;
+					}
+					
+					if (obj.getChargerStatus() != null && !obj.getChargerStatus().isBlank()) {
+						update.set(CHARGER_PATH + "chargerStatus", obj.getChargerStatus());
+						flag = true;
+					}
+					
+					if (obj.getChargePointVendor() != null && !obj.getChargePointVendor().isBlank()) {
+						update.set(CHARGER_PATH + "chargePointVendor", obj.getChargePointVendor());
+						flag = true;
+					}
+					
+					if(obj.getChargePointModel()!=null && !obj.getChargePointModel().isBlank()) {
+						update.set(CHARGER_PATH + "chargePointModel", obj.getChargePointModel());
+						flag=true;
+					}
+					
+					if(obj.getChargeBoxSerialNumber()!=null && !obj.getChargeBoxSerialNumber().isBlank()) {
+						update.set(CHARGER_PATH + "chargeBoxSerialNumber", obj.getChargeBoxSerialNumber());
+						flag=true;
+					}
+					
+					if(obj.getMeterType()!=null && !obj.getMeterType().isBlank()) {
+						update.set(CHARGER_PATH + "meterType", obj.getMeterType());
+						flag=true;
+					}
+					
+					if(obj.getFirmwareVersion()!=null && !obj.getFirmwareVersion().isBlank()) {
+						update.set(CHARGER_PATH + "firmwareVersion", obj.getFirmwareVersion());
+						flag=true;
+					}
+					
+					if(obj.getFirmwareVersion()!=null && !obj.getFirmwareVersion().isBlank()) {
+						update.set(CHARGER_PATH + "firmwareVersion", obj.getFirmwareVersion());
+						flag=true;
+					}
+					
+					if(obj.getChargerSerialNumber()!=null && !obj.getChargerSerialNumber().isBlank()) {
+						update.set(CHARGER_PATH + "chargerSerialNumber", obj.getChargerSerialNumber());
+						flag=true;
+					}
+					
+					update.set(CHARGER_PATH + "modifiedDate", idAndDateGenerator.dateSetter());
+					update.set(CHARGER_PATH + "modifiedBy", "Admin");
 
-								if (obj.getIsLEDIndications() != null && !obj.getIsLEDIndications().isBlank()) {
-									charger.setIsLEDIndications(obj.getIsLEDIndications());
-									flag = true;
-								}
+					if (!flag) {
+						checkChargerExists(utility.stringSanitization(stationId), utility.stringSanitization(chargerId));
+						throw new StationIdNotAcceptableException("1 Please Check Enter Data. And try Again");
+					}
 
-								if (obj.getIsSmart() != null && !obj.getIsSmart().isBlank()) {
-									charger.setIsSmart(obj.getIsSmart());
-									flag = true;
-								}
-								
-								if (obj.getChargerStatus() != null && !obj.getChargerStatus().isBlank()) {
-									charger.setChargerStatus(obj.getChargerStatus());
-									flag = true;
-								}
-								
-								if (obj.getChargePointVendor() != null && !obj.getChargePointVendor().isBlank()) {
-									charger.setChargePointVendor(obj.getChargePointVendor());
-									flag = true;
-								}
-								
-								if(obj.getChargePointModel()!=null && !obj.getChargePointModel().isBlank()) {
-									charger.setChargePointModel(obj.getChargePointModel());
-									flag=true;
-								}
-								
-								if(obj.getChargeBoxSerialNumber()!=null && !obj.getChargeBoxSerialNumber().isBlank()) {
-									charger.setChargeBoxSerialNumber(obj.getChargeBoxSerialNumber());
-									flag=true;
-								}
-								
-								if(obj.getMeterType()!=null && !obj.getMeterType().isBlank()) {
-									charger.setMeterType(obj.getMeterType());
-									flag=true;
-								}
-								
-								if(obj.getFirmwareVersion()!=null && !obj.getFirmwareVersion().isBlank()) {
-									charger.setFirmwareVersion(obj.getFirmwareVersion());
-									flag=true;
-								}
-								
-								if(obj.getFirmwareVersion()!=null && !obj.getFirmwareVersion().isBlank()) {
-									charger.setFirmwareVersion(obj.getFirmwareVersion());
-									flag=true;
-								}
-								
-								if(obj.getChargerSerialNumber()!=null && !obj.getChargerSerialNumber().isBlank()) {
-									charger.setChargerSerialNumber(obj.getChargerSerialNumber());
-									flag=true;
-								}
-								
-								charger.setModifiedDate(idAndDateGenerator.dateSetter());
-								charger.setModifiedBy("Admin");
-								chargers.set(index, charger);
-								station.setChargers(chargers);
-
-								if (flag) {
-									if (stationRepository.save(station) != null) {
-										logger.info("StationServiceImpl :: updateCharger : execution Ended");
-										return true;
-									} else
-										throw new InValidDataException(
-												"Charger Details Not Updated. Please Check and Try Again");
-								} else
-									throw new StationIdNotAcceptableException("1 Please Check Enter Data. And try Again");
-							} else
-								throw new ChargerNotFoundException("Charger Data Not Available");
-						} else
-							throw new ChargerNotFoundException(
-									"No Charger Data. There is no data available for chargers at the moment. Please check again");
-					} else
-						throw new StationNotFoundException(
-								"Station Not Found,Please verify the station ID and try again");
+					Station saved = setChargerFields(utility.stringSanitization(stationId),
+							utility.stringSanitization(chargerId), update);
+					if (saved != null) {
+						chargerSerialNumberIndex.refreshStation(saved);
+						stationLookupCache.evictStation(saved);
+						logger.info("StationServiceImpl :: updateCharger : execution Ended");
+						return true;
+					} else {
+						checkChargerExists(utility.stringSanitization(stationId), utility.stringSanitization(chargerId));
+						throw new InValidDataException("Charger Details Not Updated. Please Check and Try Again");
+					}
 				} else
 					throw new InValidIdExcepetion(
 							"Invalid charger ID. The ID provided is not valid. Please check and try again.");
@@ -362,34 +373,66 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (ChargerNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new ChargerNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
 
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"update charger using Station Id and charger id ", e.getLocalizedMessage()));
+			StationException stationException = StationException.of(e, "update charger using Station Id and charger id ");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
+
+	/**
+	 * Usage: set the given fields of one charger with a single atomic update, so
+	 * concurrent writes to other chargers or connectors of the station are not
+	 * overwritten. The positional operator updates the first charger with the
+	 * id only, as ids created before the sequence based generator may repeat
+	 * within a station.
+	 * 
+	 * @param stationId, chargerId, update (paths under CHARGER_PATH)
+	 * @return station with the index fields of its chargers after the update, or
+	 *         null if station or charger is not found
+	 */
+	private Station setChargerFields(String stationId, String chargerId, Update update) {
+		Query query = Query.query(Criteria.where("_id").is(stationId).and("isActive").is(true)
+				.and("chargers.chargerId").is(chargerId));
+		query.fields().include("isActive", "chargers.chargerId", "chargers.chargerSerialNumber", "chargers.isActive",
+				"chargers.connectors.connectorId", "chargers.connectors.connectorNumber");
+		return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+				Station.class);
+	}
 
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"update charger using Station Id and charger id ", e.getLocalizedMessage());
+	private void checkChargerExists(String stationId, String chargerId) {
+		Query query = Query.query(Criteria.where("_id").is(stationId).and("isActive").is(true));
+		query.fields().include("chargers.chargerId");
+		Station station = mongoTemplate.findOne(query, Station.class);
+		if (station == null)
+			throw new StationNotFoundException("Station Not Found,Please verify the station ID and try again");
+		if (station.getChargers().isEmpty())
+			throw new ChargerNotFoundException(
+					"No Charger Data. There is no data available for chargers at the moment. Please check again");
+		for (Charger charger : station.getChargers()) {
+			if (chargerId.equals(charger.getChargerId()))
+				return;
 		}
+		throw new ChargerNotFoundException("Charger Data Not Available");
 	}
 
 	/**
@@ -404,7 +447,7 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 		logger.info("StationServiceImpl :: getAllStationChargers : execution Started");
 		try {
 			if (!stationId.isBlank() && stationId != null) {
-				Station station = stationRepository
+				Station station = stationLookupCache
 						.findByStationIdAndIsActiveTrue(utility.stringSanitization(stationId));
 				if (station != null) {
 					List<Charger> charger = station.getChargers();
@@ -424,7 +467,7 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 							}
 						}
 						logger.info("StationServiceImpl :: getAllStationChargers : execution ended");
-						return finalList;
+						return connectorStateStore.overlayChargers(finalList);
 					} else
 						return null;
 				} else
@@ -434,20 +477,16 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get chargers of specific station by station id", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get chargers of specific station by station id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "get chargers of specific station by station id");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -464,7 +503,8 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 		try {
 			if (!chargerId.isBlank() && chargerId != null) {
 
-				Station station = stationRepository.findByChargerId(utility.stringSanitization(chargerId));
+				String sanitizedChargerId = utility.stringSanitization(chargerId);
+				Station station = stationLookupCache.findByChargerId(sanitizedChargerId);
 
 				if (station != null) {
 
@@ -475,7 +515,7 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 						Charger charger = null;
 
 						for (Charger c : chargers) {
-							if (c.getChargerId().equals(utility.stringSanitization(chargerId))) {
+							if (c.getChargerId().equals(sanitizedChargerId)) {
 								charger = c;
 								break;
 							}
@@ -483,7 +523,7 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 						if (charger != null) {
 							if (charger.isActive() == true) {
 								logger.info("StationServiceImpl :: getCharger : execution ended");
-								return charger;
+								return connectorStateStore.overlayCharger(charger);
 							} else
 								return null;
 						} else
@@ -505,20 +545,16 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (ChargerNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
 			throw new StationNotFoundException(e.getLocalizedMessage());
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get specific charger using charger id", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get specific charger using charger id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "get specific charger using charger id");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -546,10 +582,11 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 						List<Charger> chargers = station.getChargers();
 
 						if (!chargers.isEmpty()) {
+							String sanitizedChargerId = utility.stringSanitization(chargerId);
 							Charger c = new Charger();
 							int chargerIndex = 0;
 							for (int i = 0; i < chargers.size(); i++) {
-								if (chargers.get(i).getChargerId().equals(utility.stringSanitization(chargerId))) {
+								if (chargers.get(i).getChargerId().equals(sanitizedChargerId)) {
 									c = chargers.get(i);
 									if (c.isActive() == false) {
 										throw new StationNotFoundException("No Data found");
@@ -567,7 +604,10 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 							c.setModifiedDate(idAndDateGenerator.dateSetter());
 							chargers.set(chargerIndex, c);
 							station.setChargers(chargers);
-							if (stationRepository.save(station) != null) {
+							Station saved = stationRepository.save(station);
+							if (saved != null) {
+								chargerSerialNumberIndex.refreshStation(saved);
+								stationLookupCache.evictStation(saved);
 								logger.info("StationServiceImpl :: removeStationCharger : execution ended");
 								return true;
 							} else
@@ -586,32 +626,28 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (ChargerNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new ChargerNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"remove charger using Station Id, charger id", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"remove charger using Station Id, charger id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "remove charger using Station Id, charger id");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -645,14 +681,9 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"remove charger by charger id and call the remove station charger method",
-					e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"remove charger by charger id and call the remove station charger method", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "remove charger by charger id and call the remove station charger method");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -667,49 +698,29 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 	public boolean updateChargerStatus(String stationId, List<String> chargerIdList, String status) {
 		logger.info("StationServiceImpl :: updateChargerStatus : execution Started");
 		try {
-			if (stationId != null && !stationId.isBlank() && !chargerIdList.isEmpty()
-					&& status.equalsIgnoreCase("inactive") || status.equalsIgnoreCase("active")) {
-
-				Station station = stationRepository
-						.findByStationIdAndIsActiveTrue(utility.stringSanitization(stationId));
-				if (station != null) {
-					List<Charger> chargers = station.getChargers();
-
-					if (!chargers.isEmpty()) {
-						for (String chargerId : chargerIdList) {
-
-							for (int i = 0; i < chargers.size(); i++) {
-								Charger charger = chargers.get(i);
-								if (charger.isActive()
-										&& charger.getChargerId().equals(utility.stringSanitization(chargerId))) {
-
-									List<Connector> connectors = charger.getConnectors();
-									for (int j = 0; j < connectors.size(); j++) {
-										Connector connector = connectors.get(j);
-										if (status.equalsIgnoreCase("Active")) {
-											connector.setConnectorStatus("Available");
-										} else
-											connector.setConnectorStatus("OutOfOrder");
-										charger.setChargerStatus(utility.toTitleCase(status));
-
-										connectors.set(j, connector);
-										charger.setConnectors(connectors);
-										chargers.set(i, charger);
-										station.setChargers(chargers);
-									}
-								}
-							}
-						}
-						if (stationRepository.save(station) != null) {
-							logger.info("StationServiceImpl :: updateChargerStatus : execution ended");
-							return true;
-						} else
-							return false;
-					} else
-						throw new ChargerNotFoundException(
-								"Chargers Not Found. There are no Chargers available in the Station. Please Check and try again");
-				} else
+			if (stationId != null && !stationId.isBlank() && chargerIdList != null && !chargerIdList.isEmpty()
+					&& status != null && (status.equalsIgnoreCase("inactive") || status.equalsIgnoreCase("active"))) {
+
+				Map<String, Set<String>> chargerIdsByStation = new LinkedHashMap<>();
+				Set<String> chargerIds = new LinkedHashSet<>();
+				for (String chargerId : chargerIdList)
+					chargerIds.add(utility.stringSanitization(chargerId));
+				chargerIdsByStation.put(utility.stringSanitization(stationId), chargerIds);
+
+				List<ChargerStatusOutcomeDTO> outcomes = applyChargerStatus(chargerIdsByStation, status);
+				boolean updated = false;
+				boolean stationFound = false;
+				for (ChargerStatusOutcomeDTO outcome : outcomes) {
+					updated |= ChargerStatusOutcomeDTO.UPDATED.equals(outcome.getOutcome());
+					stationFound |= !ChargerStatusOutcomeDTO.STATION_NOT_FOUND.equals(outcome.getOutcome());
+				}
+				if (!stationFound)
 					throw new StationNotFoundException("Station Not Found, Please Check and try again");
+				if (!updated)
+					throw new ChargerNotFoundException(
+							"Chargers Not Found. There are no active Chargers with these ids in the Station. Please Check and try again");
+				logger.info("StationServiceImpl :: updateChargerStatus : execution ended");
+				return true;
 			} else
 				throw new InValidDataException("Invalid ID, please provide valid data and try again");
 
@@ -727,50 +738,160 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 
 		} catch (Exception e) {
 
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"change the charger status to active/ inactive", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"change the charger status to active/ inactive", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "change the charger status to active/ inactive");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
-	public boolean getChargerStatusByChargerSerialNumber(String chargerSerialNumber) {
+	/**
+	 * Usage: change the status of chargers of many stations to active/inactive
+	 * in one write, the connectors of every updated charger become
+	 * Available/OutOfOrder
+	 * 
+	 * @param chargerStatusBatchDTO
+	 * @return outcome per requested charger (Updated, StationNotFound,
+	 *         ChargerNotFound or ChargerInactive)
+	 */
+	@Override
+	public List<ChargerStatusOutcomeDTO> updateChargerStatusBatch(ChargerStatusBatchDTO chargerStatusBatchDTO) {
+		logger.info("StationServiceImpl :: updateChargerStatusBatch : execution Started");
 		try {
+			if (chargerStatusBatchDTO != null && chargerStatusBatchDTO.getStations() != null
+					&& !chargerStatusBatchDTO.getStations().isEmpty()) {
+
+				Map<String, Set<String>> chargerIdsByStation = new LinkedHashMap<>();
+				for (StationChargerIdsDTO stationChargerIds : chargerStatusBatchDTO.getStations()) {
+					Set<String> chargerIds = chargerIdsByStation.computeIfAbsent(
+							utility.stringSanitization(stationChargerIds.getStationId()), id -> new LinkedHashSet<>());
+					for (String chargerId : stationChargerIds.getChargerIds())
+						chargerIds.add(utility.stringSanitization(chargerId));
+				}
 
-//			String chargerPointSerialNumber = chargerSerialNumber;
+				List<ChargerStatusOutcomeDTO> outcomes = applyChargerStatus(chargerIdsByStation,
+						chargerStatusBatchDTO.getChargerStatus());
+				logger.info("StationServiceImpl :: updateChargerStatusBatch : execution ended");
+				return outcomes;
+			} else
+				throw new InValidDataException("Invalid data, please provide valid data and try again");
 
-			if (!chargerSerialNumber.isBlank() && chargerSerialNumber != null) {
-				Station station = stationRepository
-						.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
+		} catch (InValidDataException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
 
-				if (station != null) {
+		} catch (Exception e) {
 
-					List<Charger> chargers = station.getChargers();
+			StationException stationException = StationException.of(e, "change the charger status of many stations to active/ inactive");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
 
-					for (Charger charger : chargers) {
-						if (charger.getChargerSerialNumber().equals(chargerSerialNumber)) {
-							return charger.isActive();
+	/**
+	 * Resolves the outcome of every requested charger from one projected read
+	 * of the stations, then sets the charger and connector status of all
+	 * active requested chargers in one unordered bulk write with an updateOne
+	 * per station. Each update filters on the charger ids of its own station
+	 * only, as ids created before the sequence based generator may repeat in
+	 * other stations.
+	 */
+	private List<ChargerStatusOutcomeDTO> applyChargerStatus(Map<String, Set<String>> chargerIdsByStation,
+			String status) {
+		Query query = Query.query(Criteria.where("_id").in(chargerIdsByStation.keySet()).and("isActive").is(true));
+		query.fields().include("chargers._id", "chargers.isActive", "chargers.connectors._id");
+
+		Map<String, Map<String, Document>> chargersByStation = new HashMap<>();
+		for (Document station : mongoTemplate.find(query, Document.class, "station")) {
+			Map<String, Document> chargers = new HashMap<>();
+			List<Document> chargerDocuments = station.getList("chargers", Document.class);
+			if (chargerDocuments != null) {
+				for (Document charger : chargerDocuments)
+					chargers.put(String.valueOf(charger.get("_id")), charger);
+			}
+			chargersByStation.put(station.get("_id").toString(), chargers);
+		}
+
+		List<ChargerStatusOutcomeDTO> outcomes = new ArrayList<>();
+		Map<String, List<String>> updatedChargerIdsByStation = new LinkedHashMap<>();
+		List<String> updatedConnectorIds = new ArrayList<>();
+		for (Map.Entry<String, Set<String>> entry : chargerIdsByStation.entrySet()) {
+			String stationId = entry.getKey();
+			Map<String, Document> chargers = chargersByStation.get(stationId);
+			for (String chargerId : entry.getValue()) {
+				String outcome;
+				Document charger = chargers == null ? null : chargers.get(chargerId);
+				if (chargers == null)
+					outcome = ChargerStatusOutcomeDTO.STATION_NOT_FOUND;
+				else if (charger == null)
+					outcome = ChargerStatusOutcomeDTO.CHARGER_NOT_FOUND;
+				else if (!Boolean.TRUE.equals(charger.getBoolean("isActive")))
+					outcome = ChargerStatusOutcomeDTO.CHARGER_INACTIVE;
+				else {
+					outcome = ChargerStatusOutcomeDTO.UPDATED;
+					updatedChargerIdsByStation.computeIfAbsent(stationId, id -> new ArrayList<>()).add(chargerId);
+					List<Document> connectors = charger.getList("connectors", Document.class);
+					if (connectors != null) {
+						for (Document connector : connectors) {
+							if (connector.get("_id") != null)
+								updatedConnectorIds.add(String.valueOf(connector.get("_id")));
 						}
 					}
 				}
+				outcomes.add(new ChargerStatusOutcomeDTO(stationId, chargerId, outcome));
+			}
+		}
+
+		if (updatedChargerIdsByStation.isEmpty())
+			return outcomes;
+
+		String chargerStatus = utility.toTitleCase(status);
+		String connectorStatus = status.equalsIgnoreCase("Active") ? "Available" : "OutOfOrder";
+		BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Station.class);
+		for (Map.Entry<String, List<String>> entry : updatedChargerIdsByStation.entrySet()) {
+			Update update = new Update().set(FILTERED_CHARGER_PATH + "chargerStatus", chargerStatus)
+					.set(FILTERED_CHARGER_PATH + "connectors.$[].connectorStatus", connectorStatus)
+					.filterArray(Criteria.where("c._id").in(entry.getValue()).and("c.isActive").is(true));
+			bulkOperations.updateOne(Query.query(Criteria.where("_id").is(entry.getKey()).and("isActive").is(true)),
+					update);
+		}
+		bulkOperations.execute();
+
+		for (String stationId : updatedChargerIdsByStation.keySet())
+			stationLookupCache.evictStation(stationId);
+		if (connectorStateStore.isSplit())
+			connectorStateStore.updateStatus(updatedConnectorIds, connectorStatus);
+		return outcomes;
+	}
+
+	/**
+	 * Usage: get the active flag of a charger, answered from the serial number
+	 * index when the charger is indexed
+	 * 
+	 * @param chargerSerialNumber
+	 * @return boolean (true/false)
+	 */
+	public boolean getChargerStatusByChargerSerialNumber(String chargerSerialNumber) {
+		try {
+
+			if (!chargerSerialNumber.isBlank() && chargerSerialNumber != null) {
+				ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+				if (location != null)
+					return location.isChargerActive();
+
+				Charger charger = findChargerBySerialNumber(chargerSerialNumber);
+				if (charger != null)
+					return charger.isActive();
 			} else
 				throw new InValidIdExcepetion(
 						"Invalid ChargerSerialNumber. The chargerPointSerialNumberprovided is not valid. Please check and try again.");
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 		} catch (Exception e) {
 
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(), "Something went wrong",
-					e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(), "Something went wrong",
-					e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "Something went wrong");
+			logger.error(stationException);
+			throw stationException;
 		}
 		return false;
 	}
@@ -778,33 +899,12 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 	@Override
 	public Boolean initialVerification(String chargerSerialNumber, ocppVerificationDTO ocppVerificationDTO) {
 		if (!chargerSerialNumber.isBlank() && chargerSerialNumber != null) {
-			Station station = stationRepository.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
-
-			if (station != null) {
-
-				List<Charger> chargers = station.getChargers();
-
-				Charger object = new Charger();
+			Charger object = findChargerBySerialNumber(chargerSerialNumber);
 
-				for (Charger charger : chargers) {
-					if (charger.getChargerSerialNumber().equals(chargerSerialNumber)) {
-						object = charger;
-						break;
-					} else
-						return false;
-
-				}
+			if (object != null) {
 
 				boolean flag = false;
 
-//					if(object.getChargePointVendor().equals(ocppVerificationDTO.getChargePointVendor())) {
-//						if(object.getChargePointModel().equals(ocppVerificationDTO.getChargePointModel())) 
-//							if(object.getChargeBoxSerialNumber().equals(ocppVerificationDTO.getChargeBoxSerialNumber())) 
-//								if(object.getMeterType().equals(ocppVerificationDTO.getMeterType()))
-//									if(object.getFirmwareVersion().equals(ocppVerificationDTO.getFirmwareVersion()))
-//											flag=true;
-//					}
-
 				if (object.getChargePointVendor().equals(ocppVerificationDTO.getChargePointVendor())) {
 					if (object.getChargePointModel().equals(ocppVerificationDTO.getChargePointModel())) {
 						if (object.getChargeBoxSerialNumber()
@@ -819,7 +919,8 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 				if (flag == true)
 					return true;
 				else {
-					System.out.println("Service false Status");
+					logger.info("ChargerServiceImpl :: initialVerification : verification failed for "
+							+ chargerSerialNumber);
 					return flag;
 				}
 			} else
@@ -834,19 +935,10 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 	public String getChargerOCPPProtocol(String chargerSerialNumber) {
 		if (!chargerSerialNumber.isBlank() && chargerSerialNumber != null) {
 
-			Station station = stationRepository.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
-
-			if (station != null) {
-				List<Charger> chargers = station.getChargers();
+			Charger charger = findChargerBySerialNumber(chargerSerialNumber);
 
-				for (Charger charger : chargers) {
-					charger.getChargerSerialNumber().equals(chargerSerialNumber);
-					Charger obj = new Charger();
-					obj = charger;
-					return obj.getChargerOCPPProtocol();
-				}
-				throw new InValidIdExcepetion(
-						"Invalid ChargerSerialNumber. The chargerPointSerialNumberprovided is not valid. Please check and try again.");
+			if (charger != null) {
+				return charger.getChargerOCPPProtocol();
 			} else
 				throw new InValidIdExcepetion(
 						"Invalid ChargerSerialNumber. The chargerPointSerialNumberprovided is not valid. Please check and try again.");
@@ -854,6 +946,14 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 		return null;
 	}
 
+	/**
+	 * Usage: apply an OCPP status notification to a single connector. Indexed
+	 * chargers are updated by position, otherwise the connector is matched with
+	 * array filters on serial number and connector number.
+	 * 
+	 * @param chargerSerialNumber, connectorStatusNotificationDTO
+	 * @return boolean (true/false)
+	 */
 	@Override
 	public boolean statusNotification(String chargerSerialNumber,
 			connectorStatusNotificationDTO connectorStatusNotificationDTO) {
@@ -861,145 +961,180 @@ public class ChargerServiceImpl implements ChargerServiceInterface {
 
 		if (!chargerSerialNumber.isBlank() && chargerSerialNumber != null) {
 
-			Station station = stationRepository.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
-
-			if (station != null) {
-
-				List<Charger> chargers = station.getChargers();
+			int connectorNumber = connectorStatusNotificationDTO.getConnectorNumber();
+			if (connectorStateStore.isSplit())
+				return connectorStateStore.update(chargerSerialNumber, connectorNumber,
+						OcppUpdates.connectorStatusUpdate("", connectorStatusNotificationDTO), false);
 
-				if (!chargers.isEmpty()) {
+			ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
 
-					Charger chargerObject = new Charger();
+			if (location != null && location.getConnectorPositions().containsKey(connectorNumber)) {
+				String chargerPath = "chargers." + location.getChargerPosition();
+				String connectorPath = chargerPath + ".connectors."
+						+ location.getConnectorPositions().get(connectorNumber);
 
-					int chargerIndex = 0;
+				Query query = Query.query(Criteria.where("_id").is(location.getStationId()).and("isActive").is(true)
+						.and(chargerPath + ".chargerSerialNumber").is(chargerSerialNumber)
+						.and(connectorPath + ".connectorNumber").is(connectorNumber));
 
-					for (int i = 0; i < chargers.size(); i++) {
-						if (chargers.get(i).getChargerSerialNumber().equals(chargerSerialNumber)) {
-							chargerObject = chargers.get(i);
-							chargerIndex = i;
-							break;
-						}
-					}
-
-					List<Connector> connectors = chargerObject.getConnectors();
-
-					if (!connectors.isEmpty()) {
-
-						Connector newConnector = new Connector();
-						int connectorIndex = 0;
-
-						for (int i = 0; i < connectors.size(); i++) {
-							if (connectors.get(i).getConnectorNumber() == connectorStatusNotificationDTO
-									.getConnectorNumber()) {
-								newConnector = connectors.get(i);
-								connectorIndex = i;
-								break;
-							}
-						}
-
-						if (connectorStatusNotificationDTO.getConnectorErrorCode().isBlank()) {
-
-							newConnector.setConnectorStatus(connectorStatusNotificationDTO.getConnectorStatus());
-							newConnector.setConnectorTimeStamp(connectorStatusNotificationDTO.getConnectorTimeStamp());
-							if (connectorStatusNotificationDTO.getConnectorStatus().equals("Available"))
-								newConnector.setConnectorLastAvailableTimeStamp(
-										connectorStatusNotificationDTO.getConnectorTimeStamp());
-							else
-								newConnector.setConnectorLastAvailableTimeStamp(
-										connectorStatusNotificationDTO.getConnectorTimeStamp());
-							connectors.set(connectorIndex, newConnector);
-							chargerObject.setConnectors(connectors);
-							chargers.set(chargerIndex, chargerObject);
-							station.setChargers(chargers);
-							stationRepository.save(station);
-							System.out.println("Status Notification Method Done");
-							return true;
+				if (mongoTemplate.updateFirst(query,
+						OcppUpdates.connectorStatusUpdate(connectorPath, connectorStatusNotificationDTO), Station.class)
+						.getMatchedCount() > 0) {
+					stationLookupCache.evictStation(location.getStationId());
+					return true;
+				}
+			}
+
+			Query query = Query.query(Criteria.where("chargers")
+					.elemMatch(Criteria.where("chargerSerialNumber").is(chargerSerialNumber)
+							.and("connectors.connectorNumber").is(connectorNumber))
+					.and("isActive").is(true));
+
+			Update update = OcppUpdates
+					.connectorStatusUpdate("chargers.$[c].connectors.$[n]", connectorStatusNotificationDTO)
+					.filterArray(Criteria.where("c.chargerSerialNumber").is(chargerSerialNumber))
+					.filterArray(Criteria.where("n.connectorNumber").is(connectorNumber));
+
+			if (mongoTemplate.updateFirst(query, update, Station.class).getMatchedCount() > 0) {
+				stationLookupCache.evictChargerSerialNumber(chargerSerialNumber);
+				return true;
+			}
+		}
+		return false;
+	}
 
-						} else {
+	/**
+	 * Usage: find a charger by serial number. Indexed chargers are read with a
+	 * $slice projection of their position, others through the serial number
+	 * query (which also refreshes the index for that station).
+	 * 
+	 * @param chargerSerialNumber
+	 * @return charger object or null
+	 */
+	private Charger findChargerBySerialNumber(String chargerSerialNumber) {
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null) {
+			Query query = Query.query(Criteria.where("_id").is(location.getStationId()).and("isActive").is(true));
+			query.fields().include("isActive").slice("chargers", location.getChargerPosition(), 1);
+
+			Station station = mongoTemplate.findOne(query, Station.class);
+			if (station != null && !station.getChargers().isEmpty()
+					&& chargerSerialNumber.equals(station.getChargers().get(0).getChargerSerialNumber()))
+				return station.getChargers().get(0);
+		}
 
-							newConnector.setConnectorStatus(connectorStatusNotificationDTO.getConnectorStatus());
-							newConnector.setConnectorTimeStamp(connectorStatusNotificationDTO.getConnectorTimeStamp());
-							newConnector.setConnectorErrorCode(connectorStatusNotificationDTO.getConnectorErrorCode());
-							newConnector.setConnectorInfo(connectorStatusNotificationDTO.getConnectorInfo());
-							newConnector.setConnectorLastUnavailableTimeStamp(idAndDateGenerator.dateUpdate());
-							connectors.set(connectorIndex, newConnector);
-							chargerObject.setConnectors(connectors);
-							chargers.set(chargerIndex, chargerObject);
-							station.setChargers(chargers);
-							stationRepository.save(station);
-							return true;
-						}
-					} else
-						return false;
-				} else
-					return false;
-			} else
-				return false;
+		Station station = stationRepository.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
+		if (station != null) {
+			chargerSerialNumberIndex.refreshStation(station);
+			for (Charger charger : station.getChargers()) {
+				if (chargerSerialNumber.equals(charger.getChargerSerialNumber()))
+					return charger;
+			}
 		}
-		return false;
+		return null;
 	}
 
+	/**
+	 * Usage: record the OCPP heartbeat of a charger with a single atomic update
+	 * instead of rewriting the whole station document. The previous heartbeat
+	 * time stamp is returned by the same round trip and used for the 10 minute
+	 * deactivation check.
+	 * 
+	 * @param chargerSerialNumber, chargerTimeStamp
+	 * @return boolean (true/false)
+	 */
 	@Override
 	public boolean heartbeatNotification(String chargerSerialNumber, String chargerTimeStamp) {
 		if (!chargerSerialNumber.isBlank() && chargerSerialNumber != null) {
-			Station station = stationRepository.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
-			if (station != null) {
-				List<Charger> chargers = station.getChargers();
-				int chargerIndex = 0;
-				Charger charger = new Charger();
-				for (int i = 0; i < chargers.size(); i++) {
-					if (chargers.get(i).getChargerSerialNumber().equals(chargerSerialNumber)) {
-						charger = chargers.get(i);
-						chargerIndex = i;
-						break;
-					}
-				}
-
-				if (charger != null) {
-					DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
-//							.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSXXX'['VV']'");
-//					DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-//					DateTimeFormatter formatter = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSS VV",
-//							Locale.ROOT);
-					try {
-						ZonedDateTime dateTime = ZonedDateTime.parse(chargerTimeStamp, formatter);
-						LocalDateTime lastTimeStamp = LocalDateTime.parse(charger.getChargerLastHeartBeatTimeStamp(),
-								formatter);
-						LocalDateTime requestDateTime = dateTime.toLocalDateTime();
-
-						System.out.println(requestDateTime);
-
-						Duration duration = Duration.between(lastTimeStamp, requestDateTime);
-						if (duration.toMinutes() <= 10) {
-							System.out.println("1");
-							charger.setChargerLastHeartBeatTimeStamp(chargerTimeStamp);
-							chargers.set(chargerIndex, charger);
-							station.setChargers(chargers);
-							stationRepository.save(station);
-							System.out.println("heartbeat check");
-							return true;
-						} else {
-							charger.setChargerStatus("deactive");
-							charger.setChargerLastHeartBeatTimeStamp(chargerTimeStamp);
-							List<Connector> connectors = charger.getConnectors();
-							for (Connector connector : connectors) {
-								connector.setConnectorLastAvailableTimeStamp(chargerTimeStamp);
-							}
-							charger.setConnectors(connectors);
-							chargers.set(chargerIndex, charger);
-							station.setChargers(chargers);
-							stationRepository.save(station);
-							return false;
-						}
-					} catch (Exception exception) {
+			DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
+			LocalDateTime requestDateTime;
+			try {
+				requestDateTime = ZonedDateTime.parse(chargerTimeStamp, formatter).toLocalDateTime();
+			} catch (Exception exception) {
+				return false;
+			}
+
+			Charger previous = swapHeartBeatTimeStamp(chargerSerialNumber, chargerTimeStamp);
+			if (previous != null) {
+				try {
+					LocalDateTime lastTimeStamp = LocalDateTime.parse(previous.getChargerLastHeartBeatTimeStamp(),
+							formatter);
+					Duration duration = Duration.between(lastTimeStamp, requestDateTime);
+					if (duration.toMinutes() <= 10) {
+						return true;
+					} else {
+						deactivateCharger(chargerSerialNumber, chargerTimeStamp);
 						return false;
 					}
-				} else
+				} catch (Exception exception) {
 					return false;
+				}
 			} else
 				return false;
 		} else
 			return false;
 	}
 
+	/**
+	 * Usage: set the heartbeat time stamp of the charger (by position when it is
+	 * indexed, otherwise by array filter) and return the charger as it was
+	 * before the update
+	 * 
+	 * @param chargerSerialNumber, chargerTimeStamp
+	 * @return previous charger state (only the matched charger) or null
+	 */
+	private Charger swapHeartBeatTimeStamp(String chargerSerialNumber, String chargerTimeStamp) {
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null) {
+			String chargerPath = "chargers." + location.getChargerPosition();
+			Query query = Query.query(Criteria.where("_id").is(location.getStationId()).and("isActive").is(true)
+					.and(chargerPath + ".chargerSerialNumber").is(chargerSerialNumber));
+			query.fields().include("isActive").slice("chargers", location.getChargerPosition(), 1);
+
+			Station station = mongoTemplate.findAndModify(query,
+					new Update().set(chargerPath + ".chargerLastHeartBeatTimeStamp", chargerTimeStamp),
+					FindAndModifyOptions.options().returnNew(false), Station.class);
+			if (station != null)
+				stationLookupCache.evictStation(station.getStationId());
+			if (station != null && !station.getChargers().isEmpty())
+				return station.getChargers().get(0);
+		}
+
+		Query query = Query.query(
+				Criteria.where("chargers.chargerSerialNumber").is(chargerSerialNumber).and("isActive").is(true));
+		query.fields().position("chargers", 1);
+
+		Update update = new Update().set("chargers.$[c].chargerLastHeartBeatTimeStamp", chargerTimeStamp)
+				.filterArray(Criteria.where("c.chargerSerialNumber").is(chargerSerialNumber));
+
+		Station station = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false),
+				Station.class);
+		if (station != null)
+			stationLookupCache.evictStation(station.getStationId());
+		if (station != null && !station.getChargers().isEmpty())
+			return station.getChargers().get(0);
+		else
+			return null;
+	}
+
+	/**
+	 * Usage: mark the charger as deactive after a missed heartbeat window
+	 * 
+	 * @param chargerSerialNumber, chargerTimeStamp
+	 */
+	private void deactivateCharger(String chargerSerialNumber, String chargerTimeStamp) {
+		Query query = Query.query(
+				Criteria.where("chargers.chargerSerialNumber").is(chargerSerialNumber).and("isActive").is(true));
+
+		Update update = new Update().set("chargers.$[c].chargerStatus", "deactive")
+				.set("chargers.$[c].connectors.$[].connectorLastAvailableTimeStamp", chargerTimeStamp)
+				.filterArray(Criteria.where("c.chargerSerialNumber").is(chargerSerialNumber));
+
+		if (mongoTemplate.updateFirst(query, update, Station.class).getModifiedCount() > 0)
+			stationLookupCache.evictChargerSerialNumber(chargerSerialNumber);
+		if (connectorStateStore.isSplit())
+			connectorStateStore.updateCharger(chargerSerialNumber,
+					new Update().set("connectorLastAvailableTimeStamp", chargerTimeStamp));
+	}
+
 }
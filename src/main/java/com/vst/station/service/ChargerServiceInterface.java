@@ -3,6 +3,8 @@ package com.vst.station.service;
 import java.util.List;
 
 import com.vst.station.dto.ChargerDTO;
+import com.vst.station.dto.ChargerStatusBatchDTO;
+import com.vst.station.dto.ChargerStatusOutcomeDTO;
 import com.vst.station.dto.ChargerUpdateDTO;
 import com.vst.station.dto.connectorStatusNotificationDTO;
 import com.vst.station.dto.ocppVerificationDTO;
@@ -22,6 +24,8 @@ public interface ChargerServiceInterface {
 
 	public boolean updateChargerStatus(String stationId, List<String> chargerIdList, String status);
 
+	public List<ChargerStatusOutcomeDTO> updateChargerStatusBatch(ChargerStatusBatchDTO chargerStatusBatchDTO);
+
 	public boolean removeCharger(String chargerId);
 
 	public boolean getChargerStatusByChargerSerialNumber(String chargerSerialNumber);
@@ -8,6 +8,10 @@ import javax.transaction.Transactional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.vst.station.converter.ConnectorConverter;
@@ -20,6 +24,8 @@ import com.vst.station.exception.InValidIdExcepetion;
 import com.vst.station.exception.StationException;
 import com.vst.station.exception.StationIdNotAcceptableException;
 import com.vst.station.exception.StationNotFoundException;
+import com.vst.station.index.ChargerLocation;
+import com.vst.station.index.ChargerSerialNumberIndex;
 import com.vst.station.model.Charger;
 import com.vst.station.model.Connector;
 import com.vst.station.model.Station;
@@ -36,6 +42,24 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 	@Autowired
 	private ConnectorConverter connectorConverter;
 
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@Autowired
+	private MeterValueWriteBuffer meterValueWriteBuffer;
+
+	@Autowired
+	private StationLookupCache stationLookupCache;
+
+	@Autowired
+	private ConnectorStateStore connectorStateStore;
+
+	@Autowired
+	private MeterValueHistoryServiceImpl meterValueHistoryServiceImpl;
+
 	IdAndDateGenerator idAndDateGenerator = new IdAndDateGenerator();
 
 	Utility utility = new Utility();
@@ -60,9 +84,10 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 					Station station = stationRepository
 							.findByStationIdAndIsActiveTrue(utility.stringSanitization(stationId));
 					if (station != null) {
+						String sanitizedChargerId = utility.stringSanitization(chargerId);
 						Charger charger = null;
 						for (Charger c : station.getChargers()) {
-							if (c.getChargerId().equals(utility.stringSanitization(chargerId))) {
+							if (c.getChargerId().equals(sanitizedChargerId)) {
 								charger = c;
 								break;
 							}
@@ -94,6 +119,8 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 							charger.setChargerNumberOfConnector(connectorNumber);
 							Station obj = stationRepository.save(station);
 							if (obj != null) {
+								chargerSerialNumberIndex.refreshStation(obj);
+								stationLookupCache.evictStation(obj);
 
 								return true;
 							} else
@@ -111,29 +138,25 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 				throw new InValidIdExcepetion("Invalid ID. The ID provided is not valid. Please check and try again.");
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
 
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(), "Add New Connector",
-					e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(), "Add New Connector",
-					e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "Add New Connector");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -150,7 +173,8 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 		logger.info("StationServiceImpl :: updateConnectorById : execution Started");
 		try {
 			if (connectorId != null && !connectorId.isBlank()) {
-				Station station = stationRepository.findByConnectorId(utility.stringSanitization(connectorId));
+				String sanitizedConnectorId = utility.stringSanitization(connectorId);
+				Station station = stationRepository.findByConnectorId(sanitizedConnectorId);
 				if (station != null && station.isActive()) {
 
 					boolean foundFlag = false;
@@ -167,7 +191,7 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 									for (int j = 0; j < connectorList.size(); j++) {
 										Connector conn = connectorList.get(j);
 
-										if (conn.getConnectorId().equals(utility.stringSanitization(connectorId))) {
+										if (conn.getConnectorId().equals(sanitizedConnectorId)) {
 											if (conn.isActive() == true) {
 												Connector obj = connectorConverter.dtoToEntity1(connectorDTO);
 
@@ -217,7 +241,9 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 							}
 						}
 						if (foundFlag == true) {
-							stationRepository.save(station);
+							Station saved = stationRepository.save(station);
+							chargerSerialNumberIndex.refreshStation(saved);
+							stationLookupCache.evictStation(saved);
 							logger.info("StationServiceImpl :: updateConnectorById : execution ended");
 							return true;
 						} else
@@ -233,28 +259,24 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (ChargerNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new ChargerNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"update connector using connector id ", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"update connector using connector id ", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "update connector using connector id ");
+			logger.error(stationException);
+			throw stationException;
 		}
 
 	}
@@ -274,7 +296,7 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 		try {
 			if (!stationId.isBlank() && stationId != null) {
 				if (!chargerId.isBlank() && chargerId != null) {
-					Station station = stationRepository.findByStationIdAndIsActiveTrue(stationId);
+					Station station = stationLookupCache.findByStationIdAndIsActiveTrue(stationId);
 					if (station != null) {
 						List<Charger> chargers = station.getChargers();
 						if (!chargers.isEmpty()) {
@@ -300,7 +322,7 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 									}
 									if (!finalConnector.isEmpty()) {
 										logger.info("StationServiceImpl :: getAllStationConnector : execution ended");
-										return finalConnector;
+										return connectorStateStore.overlayConnectors(finalConnector);
 									} else
 										return null;
 								} else
@@ -322,29 +344,24 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 
 		} catch (ChargerNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new ChargerNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get all connector of specific station charger by station and charger id",
-					e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get all connector of specific station charger by station and charger id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "get all connector of specific station charger by station and charger id");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -360,7 +377,8 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 		logger.info("StationServiceImpl :: getConnector : execution Started");
 		try {
 			if (connectorId != null && !connectorId.isBlank()) {
-				Station station = stationRepository.findByConnectorId(utility.stringSanitization(connectorId));
+				String sanitizedConnectorId = utility.stringSanitization(connectorId);
+				Station station = stationRepository.findByConnectorId(sanitizedConnectorId);
 				if (station != null && station.isActive()) {
 
 					Connector connector = null;
@@ -376,7 +394,7 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 
 									for (Connector conn : connectorList) {
 
-										if (conn.getConnectorId().equals(utility.stringSanitization(connectorId))) {
+										if (conn.getConnectorId().equals(sanitizedConnectorId)) {
 											if (conn.isActive() == true) {
 												connector = conn;
 												;
@@ -394,7 +412,7 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 						}
 						if (foundFlag == true) {
 							logger.info("StationServiceImpl :: getConnector : execution ended");
-							return connector;
+							return connectorStateStore.overlayConnector(connector);
 						} else
 							throw new InValidDataException("Connector Not Found, please try again");
 					} else
@@ -409,28 +427,24 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 
 		} catch (ChargerNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new ChargerNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get connector of specific station charger by connector id", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get connector of specific station charger by connector id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "get connector of specific station charger by connector id");
+			logger.error(stationException);
+			throw stationException;
 		}
 
 	}
@@ -447,7 +461,8 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 		logger.info("StationServiceImpl :: removeConnector : execution Started");
 		try {
 			if (connectorId != null && !connectorId.isBlank()) {
-				Station station = stationRepository.findByConnectorId(utility.stringSanitization(connectorId));
+				String sanitizedConnectorId = utility.stringSanitization(connectorId);
+				Station station = stationRepository.findByConnectorId(sanitizedConnectorId);
 				if (station != null && station.isActive()) {
 
 					boolean foundFlag = false;
@@ -464,7 +479,7 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 									for (int j = 0; j < connectorList.size(); j++) {
 										Connector conn = connectorList.get(j);
 
-										if (conn.getConnectorId().equals(utility.stringSanitization(connectorId))) {
+										if (conn.getConnectorId().equals(sanitizedConnectorId)) {
 											if (conn.isActive() == true) {
 												conn.setActive(false);
 												conn.setModifiedDate(idAndDateGenerator.dateSetter());
@@ -490,7 +505,9 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 							}
 						}
 						if (foundFlag == true) {
-							stationRepository.save(station);
+							Station saved = stationRepository.save(station);
+							chargerSerialNumberIndex.refreshStation(saved);
+							stationLookupCache.evictStation(saved);
 							logger.info("StationServiceImpl :: removeConnector : execution ended");
 							return true;
 						} else
@@ -506,81 +523,90 @@ public class ConnectorServiceImpl implements ConnectorServiceInterface {
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (ChargerNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new ChargerNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"remove connector using connector id ", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"remove connector using connector id ", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "remove connector using connector id ");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
+	/**
+	 * Usage: store the latest OCPP meter value of a connector. Indexed chargers
+	 * go through the write-behind buffer when it is enabled, or are updated by
+	 * position, otherwise the connector is matched with array filters on serial
+	 * number and connector number. Stored readings are appended to the meter
+	 * value history.
+	 * 
+	 * @param chargerSerialNumber, meterValueDTO
+	 * @return boolean (true/false)
+	 */
 	@Override
 	public boolean initialRequest(String chargerSerialNumber, MeterValueDTO meterValueDTO) {
-		
+		boolean stored = storeMeterValue(chargerSerialNumber, meterValueDTO);
+		if (stored) {
+			if (!connectorStateStore.isSplit())
+				stationLookupCache.evictChargerSerialNumber(chargerSerialNumber);
+			meterValueHistoryServiceImpl.append(chargerSerialNumber, meterValueDTO);
+		}
+		return stored;
+	}
+
+	private boolean storeMeterValue(String chargerSerialNumber, MeterValueDTO meterValueDTO) {
 		if (chargerSerialNumber != null & !chargerSerialNumber.isBlank()) {
-			Station station = stationRepository.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
-			if (station != null) {
-				List<Charger> chargers = station.getChargers();
-				Charger charger = null;
-				int chargerIndex = 0;
-				if (!chargers.isEmpty()) {
-					for (int i = 0; i < chargers.size(); i++) {
-						if (chargers.get(i).getChargerSerialNumber().equals(chargerSerialNumber))
-							charger = chargers.get(i);
-						chargerIndex = i;
-						if (charger.isActive() == false) {
-							return false;
-						}
-					}
-				}
-				if (charger != null) {
-					List<Connector> connectors = charger.getConnectors();
-					int connectorIndex = 0;
-					Connector connector = null;
-					if (!connectors.isEmpty()) {
-						for (int i = 0; i < connectors.size(); i++) {
-							if (connectors.get(i).getConnectorNumber() == meterValueDTO.getConnectorNumber()) {
-								connector = connectors.get(i);
-								connectorIndex = i;
-								if (charger.isActive() == false) {
-									return false;
-								}
-							}
-						}
-					}
-					if (connector != null) {
-						connector.setConnectorMeterValue(meterValueDTO.getMeterValue());
-						connector.setConnectorMeterRequestTimeStamp(meterValueDTO.getTimeStamp());
-						connector.setConnectorLastUnavailableTimeStamp(meterValueDTO.getConnectorUnitType());
-						connectors.set(connectorIndex, connector);
-						charger.setConnectors(connectors);
-						chargers.set(chargerIndex, charger);
-						station.setChargers(chargers);
-						stationRepository.save(station);
-						return true;
-					} else
-						return false;
-				} else
+			Integer connectorNumber = meterValueDTO.getConnectorNumber();
+			if (connectorStateStore.isSplit())
+				return connectorStateStore.update(chargerSerialNumber, connectorNumber,
+						OcppUpdates.meterValueUpdate("", meterValueDTO), true);
+
+			ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+
+			if (location != null) {
+				if (location.isChargerActive() == false)
 					return false;
-			} else
-				return false;
+
+				Integer connectorPosition = location.getConnectorPositions().get(connectorNumber);
+				if (connectorPosition != null) {
+					if (meterValueWriteBuffer.offer(location.getStationId(), chargerSerialNumber, meterValueDTO))
+						return true;
+
+					String chargerPath = "chargers." + location.getChargerPosition();
+					String connectorPath = chargerPath + ".connectors." + connectorPosition;
+
+					Query query = Query.query(Criteria.where("_id").is(location.getStationId()).and("isActive")
+							.is(true).and(chargerPath + ".chargerSerialNumber").is(chargerSerialNumber)
+							.and(connectorPath + ".connectorNumber").is(connectorNumber));
+
+					if (mongoTemplate
+							.updateFirst(query, OcppUpdates.meterValueUpdate(connectorPath, meterValueDTO), Station.class)
+							.getMatchedCount() > 0)
+						return true;
+				}
+			}
+
+			Query query = Query.query(Criteria.where("chargers")
+					.elemMatch(Criteria.where("chargerSerialNumber").is(chargerSerialNumber).and("isActive").is(true)
+							.and("connectors.connectorNumber").is(connectorNumber))
+					.and("isActive").is(true));
+
+			Update update = OcppUpdates.meterValueUpdate("chargers.$[c].connectors.$[n]", meterValueDTO)
+					.filterArray(Criteria.where("c.chargerSerialNumber").is(chargerSerialNumber))
+					.filterArray(Criteria.where("n.connectorNumber").is(connectorNumber));
+
+			return mongoTemplate.updateFirst(query, update, Station.class).getMatchedCount() > 0;
 		}
 		return false;
 	}
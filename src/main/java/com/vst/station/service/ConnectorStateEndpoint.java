@@ -0,0 +1,35 @@
+package com.vst.station.service;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for the split connector state storage.
+ *
+ * GET actuator/connectorstate reports the storage mode and the number of
+ * stored states, POST actuator/connectorstate copies the embedded state of
+ * connectors without a state document into "connectorState".
+ */
+@Component
+@Endpoint(id = "connectorstate")
+public class ConnectorStateEndpoint {
+
+	@Autowired
+	private ConnectorStateStore connectorStateStore;
+
+	@ReadOperation
+	public Map<String, Object> status() {
+		return connectorStateStore.status();
+	}
+
+	@WriteOperation
+	public Map<String, Object> migrate() {
+		return connectorStateStore.migrate();
+	}
+
+}
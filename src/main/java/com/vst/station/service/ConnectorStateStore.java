@@ -0,0 +1,304 @@
+package com.vst.station.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.vst.station.index.ChargerLocation;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Connector;
+import com.vst.station.model.ConnectorState;
+import com.vst.station.model.Station;
+import com.vst.station.repository.StationRepository;
+
+/**
+ * Optional storage of the live OCPP connector state (status, meter value,
+ * time stamps, error code) in the "connectorState" collection, keyed by
+ * connector id, instead of inside the station document.
+ *
+ * With station.connectorState.split enabled, status notifications and meter
+ * values are written here only, so they no longer rewrite or contend with
+ * the station aggregate, and the read paths overlay the stored state on the
+ * connectors they return. Connectors without a state document keep the
+ * values embedded in the station. {@link #migrate()} copies the embedded
+ * state of every connector that has no state document yet.
+ */
+@Component
+public class ConnectorStateStore {
+
+	public static final Logger logger = LogManager.getLogger(ConnectorStateStore.class);
+
+	private static final int MIGRATION_BATCH_SIZE = 500;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private StationRepository stationRepository;
+
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@Value("${station.connectorState.split:false}")
+	private boolean split;
+
+	public boolean isSplit() {
+		return split;
+	}
+
+	/**
+	 * Usage: apply an update to the state of one connector of a charger. Field
+	 * names of the update are those of {@link ConnectorState}.
+	 *
+	 * @param chargerSerialNumber, connectorNumber, update, activeChargerOnly
+	 * @return true if the connector exists (and its charger is active when
+	 *         requested)
+	 */
+	public boolean update(String chargerSerialNumber, Integer connectorNumber, Update update,
+			boolean activeChargerOnly) {
+		ChargerLocation location = locate(chargerSerialNumber, connectorNumber);
+		if (location == null || (activeChargerOnly && !location.isChargerActive()))
+			return false;
+
+		String connectorId = location.getConnectorIds().get(connectorNumber);
+		if (connectorId == null)
+			return false;
+
+		update.setOnInsert("stationId", location.getStationId())
+				.setOnInsert("chargerSerialNumber", chargerSerialNumber)
+				.setOnInsert("connectorNumber", connectorNumber);
+		mongoTemplate.upsert(Query.query(Criteria.where("_id").is(connectorId)), update, ConnectorState.class);
+		return true;
+	}
+
+	/**
+	 * Usage: apply an update to the stored state of every connector of a
+	 * charger
+	 *
+	 * @param chargerSerialNumber, update
+	 */
+	public void updateCharger(String chargerSerialNumber, Update update) {
+		mongoTemplate.updateMulti(Query.query(Criteria.where("chargerSerialNumber").is(chargerSerialNumber)), update,
+				ConnectorState.class);
+	}
+
+	/**
+	 * Usage: set the status of connectors that already have a state document
+	 *
+	 * @param connectorIds, connectorStatus
+	 */
+	public void updateStatus(Collection<String> connectorIds, String connectorStatus) {
+		if (connectorIds.isEmpty())
+			return;
+		mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(connectorIds)),
+				new Update().set("connectorStatus", connectorStatus), ConnectorState.class);
+	}
+
+	private ChargerLocation locate(String chargerSerialNumber, Integer connectorNumber) {
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null && location.getConnectorIds().containsKey(connectorNumber))
+			return location;
+
+		Station station = stationRepository.findByChargersChargerSerialNumberAndIsActiveTrue(chargerSerialNumber);
+		if (station == null)
+			return null;
+		chargerSerialNumberIndex.refreshStation(station);
+		return chargerSerialNumberIndex.get(chargerSerialNumber);
+	}
+
+	/**
+	 * Usage: overlay the stored state on the connectors of stations
+	 *
+	 * @param stations
+	 * @return the same stations
+	 */
+	public <T extends Collection<Station>> T overlayStations(T stations) {
+		if (!split || stations == null)
+			return stations;
+		List<Connector> connectors = new ArrayList<>();
+		for (Station station : stations) {
+			if (station != null && station.getChargers() != null) {
+				for (Charger charger : station.getChargers())
+					addConnectors(charger, connectors);
+			}
+		}
+		overlay(connectors);
+		return stations;
+	}
+
+	public Station overlayStation(Station station) {
+		if (split && station != null)
+			overlayChargers(station.getChargers());
+		return station;
+	}
+
+	public List<Charger> overlayChargers(List<Charger> chargers) {
+		if (!split || chargers == null)
+			return chargers;
+		List<Connector> connectors = new ArrayList<>();
+		for (Charger charger : chargers)
+			addConnectors(charger, connectors);
+		overlay(connectors);
+		return chargers;
+	}
+
+	public Charger overlayCharger(Charger charger) {
+		if (split && charger != null)
+			overlay(charger.getConnectors());
+		return charger;
+	}
+
+	public List<Connector> overlayConnectors(List<Connector> connectors) {
+		if (split && connectors != null)
+			overlay(connectors);
+		return connectors;
+	}
+
+	public Connector overlayConnector(Connector connector) {
+		if (split && connector != null) {
+			List<Connector> connectors = new ArrayList<>(1);
+			connectors.add(connector);
+			overlay(connectors);
+		}
+		return connector;
+	}
+
+	private void addConnectors(Charger charger, List<Connector> connectors) {
+		if (charger != null && charger.getConnectors() != null)
+			connectors.addAll(charger.getConnectors());
+	}
+
+	private void overlay(List<Connector> connectors) {
+		if (connectors == null || connectors.isEmpty())
+			return;
+		List<String> connectorIds = new ArrayList<>(connectors.size());
+		for (Connector connector : connectors) {
+			if (connector.getConnectorId() != null)
+				connectorIds.add(connector.getConnectorId());
+		}
+		if (connectorIds.isEmpty())
+			return;
+
+		Map<String, ConnectorState> states = new HashMap<>();
+		for (ConnectorState state : mongoTemplate.find(Query.query(Criteria.where("_id").in(connectorIds)),
+				ConnectorState.class))
+			states.put(state.getConnectorId(), state);
+
+		for (Connector connector : connectors) {
+			ConnectorState state = states.get(connector.getConnectorId());
+			if (state == null)
+				continue;
+			connector.setConnectorStatus(state.getConnectorStatus());
+			connector.setConnectorMeterValue(state.getConnectorMeterValue());
+			connector.setConnectorErrorCode(state.getConnectorErrorCode());
+			connector.setConnectorInfo(state.getConnectorInfo());
+			connector.setConnectorTimeStamp(state.getConnectorTimeStamp());
+			connector.setConnectorMeterRequestTimeStamp(state.getConnectorMeterRequestTimeStamp());
+			connector.setConnectorLastAvailableTimeStamp(state.getConnectorLastAvailableTimeStamp());
+			connector.setConnectorLastUnavailableTimeStamp(state.getConnectorLastUnavailableTimeStamp());
+		}
+	}
+
+	/**
+	 * Usage: copy the embedded state of every connector without a state
+	 * document into "connectorState". Existing state documents are left as
+	 * they are, so the migration can be repeated while split mode is live.
+	 *
+	 * @return report with the number of stations, connectors and inserted
+	 *         state documents
+	 */
+	public Map<String, Object> migrate() {
+		logger.info("ConnectorStateStore :: migrate : execution Started");
+		long stations = 0;
+		long connectors = 0;
+		long inserted = 0;
+
+		Query query = new Query();
+		query.fields().include("chargers.chargerSerialNumber", "chargers.connectors");
+		try (CloseableIterator<Station> loaded = mongoTemplate.stream(query, Station.class)) {
+			BulkOperations bulkOperations = null;
+			int pending = 0;
+			while (loaded.hasNext()) {
+				Station station = loaded.next();
+				stations++;
+				for (Charger charger : station.getChargers()) {
+					for (Connector connector : charger.getConnectors()) {
+						if (connector.getConnectorId() == null)
+							continue;
+						if (bulkOperations == null)
+							bulkOperations = mongoTemplate.bulkOps(BulkMode.UNORDERED, ConnectorState.class);
+						bulkOperations.upsert(Query.query(Criteria.where("_id").is(connector.getConnectorId())),
+								initialState(station, charger, connector));
+						connectors++;
+						if (++pending >= MIGRATION_BATCH_SIZE) {
+							inserted += execute(bulkOperations);
+							bulkOperations = null;
+							pending = 0;
+						}
+					}
+				}
+			}
+			if (bulkOperations != null)
+				inserted += execute(bulkOperations);
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("split", split);
+		report.put("stations", stations);
+		report.put("connectors", connectors);
+		report.put("inserted", inserted);
+		report.put("stored", mongoTemplate.count(new Query(), ConnectorState.class));
+		logger.info("ConnectorStateStore :: migrate : execution ended, " + inserted + " state documents inserted");
+		return report;
+	}
+
+	private Update initialState(Station station, Charger charger, Connector connector) {
+		return new Update().setOnInsert("stationId", station.getStationId())
+				.setOnInsert("chargerSerialNumber", charger.getChargerSerialNumber())
+				.setOnInsert("connectorNumber", connector.getConnectorNumber())
+				.setOnInsert("connectorStatus", connector.getConnectorStatus())
+				.setOnInsert("connectorMeterValue", connector.getConnectorMeterValue())
+				.setOnInsert("connectorErrorCode", connector.getConnectorErrorCode())
+				.setOnInsert("connectorInfo", connector.getConnectorInfo())
+				.setOnInsert("connectorTimeStamp", connector.getConnectorTimeStamp())
+				.setOnInsert("connectorMeterRequestTimeStamp", connector.getConnectorMeterRequestTimeStamp())
+				.setOnInsert("connectorLastAvailableTimeStamp", connector.getConnectorLastAvailableTimeStamp())
+				.setOnInsert("connectorLastUnavailableTimeStamp", connector.getConnectorLastUnavailableTimeStamp());
+	}
+
+	private long execute(BulkOperations bulkOperations) {
+		BulkWriteResult result = bulkOperations.execute();
+		return result.getUpserts().size();
+	}
+
+	/**
+	 * Usage: number of stored connector states
+	 *
+	 * @return report with the storage mode and the number of state documents
+	 */
+	public Map<String, Object> status() {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("split", split);
+		report.put("stored", mongoTemplate.count(new Query(), ConnectorState.class));
+		return report;
+	}
+
+}
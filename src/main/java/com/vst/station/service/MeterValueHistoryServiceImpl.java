@@ -0,0 +1,395 @@
+package com.vst.station.service;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.dto.MeterValueHistoryDTO;
+import com.vst.station.exception.InValidDataException;
+import com.vst.station.model.MeterValueReading;
+import com.vst.station.model.MeterValueRollup;
+import com.vst.station.model.MeterValueSource;
+import com.vst.station.repository.MeterValueRollupRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Append-only history of OCPP meter values.
+ *
+ * Raw readings are queued and written to the "meterValueHistory" time series
+ * collection in batches, off the request thread; when the queue is full the
+ * reading is written synchronously. Every batch marks the hours its readings
+ * fall into in "meterValueRollupDirty", whatever the age of the readings.
+ *
+ * A scheduled job, run by one replica at a time under a lease, recomputes the
+ * 1 minute rollups of every dirty hour from the raw readings, then its 15
+ * minute and 1 hour rollups, and clears the mark. Late or replayed readings
+ * and readings received while the job was not running are therefore rolled
+ * up on the next run.
+ */
+@Service
+public class MeterValueHistoryServiceImpl implements MeterValueHistoryServiceInterface {
+
+	public static final Logger logger = LogManager.getLogger(MeterValueHistoryServiceImpl.class);
+
+	private static final String DIRTY_COLLECTION = "meterValueRollupDirty";
+
+	private static final String ROLLUP_JOB = "meterValueRollup";
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private MeterValueRollupRepository meterValueRollupRepository;
+
+	@Autowired
+	private ScheduledJobLock scheduledJobLock;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${meterValue.history.enabled:true}")
+	private boolean enabled;
+
+	@Value("${meterValue.history.maxPoints:1500}")
+	private long maxPoints;
+
+	@Value("${meterValue.history.batchSize:500}")
+	private int batchSize;
+
+	@Value("${meterValue.history.capacity:10000}")
+	private int capacity;
+
+	@Value("${meterValue.history.rollupLeaseMs:300000}")
+	private long rollupLeaseMs;
+
+	private BlockingQueue<MeterValueReading> queue;
+
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+	private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "meter-value-history-flusher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private Counter rejectedCounter;
+
+	private enum Resolution {
+
+		ONE_MINUTE("1m", 60_000L, "minute", 1, null),
+		FIFTEEN_MINUTES("15m", 900_000L, "minute", 15, ONE_MINUTE),
+		ONE_HOUR("1h", 3_600_000L, "hour", 1, FIFTEEN_MINUTES);
+
+		private final String label;
+		private final long millis;
+		private final String unit;
+		private final int binSize;
+		private final Resolution source;
+
+		Resolution(String label, long millis, String unit, int binSize, Resolution source) {
+			this.label = label;
+			this.millis = millis;
+			this.unit = unit;
+			this.binSize = binSize;
+			this.source = source;
+		}
+	}
+
+	@PostConstruct
+	public void init() {
+		queue = new ArrayBlockingQueue<>(capacity);
+		Gauge.builder("station.meterValue.history.pending", queue, BlockingQueue::size)
+				.description("Meter values waiting to be appended to the history").register(meterRegistry);
+		rejectedCounter = Counter.builder("station.meterValue.history.rejected")
+				.description("Meter values appended synchronously because the queue was full").register(meterRegistry);
+		if (!enabled)
+			return;
+		try {
+			if (!mongoTemplate.collectionExists(MeterValueReading.class))
+				mongoTemplate.createCollection(MeterValueReading.class);
+		} catch (Exception e) {
+			logger.error("MeterValueHistoryServiceImpl :: init : time series collection not created, "
+					+ e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Usage: queue one meter value for the history. Failures are logged and never
+	 * reach the charger.
+	 *
+	 * @param chargerSerialNumber, meterValueDTO
+	 */
+	@Override
+	public void append(String chargerSerialNumber, MeterValueDTO meterValueDTO) {
+		if (!enabled || meterValueDTO.getConnectorNumber() == null)
+			return;
+		MeterValueReading reading = new MeterValueReading(null, readingTime(meterValueDTO.getTimeStamp()),
+				new MeterValueSource(chargerSerialNumber, meterValueDTO.getConnectorNumber()),
+				meterValueDTO.getMeterValue(), meterValueDTO.getConnectorUnitType());
+		if (!queue.offer(reading)) {
+			rejectedCounter.increment();
+			requestFlush();
+			List<MeterValueReading> single = new ArrayList<>(1);
+			single.add(reading);
+			write(single);
+			return;
+		}
+		if (queue.size() >= batchSize)
+			requestFlush();
+	}
+
+	private void requestFlush() {
+		if (flushRequested.compareAndSet(false, true)) {
+			flusher.execute(() -> {
+				flushRequested.set(false);
+				flush();
+			});
+		}
+	}
+
+	/**
+	 * Usage: append every queued meter value in batches of batchSize
+	 */
+	@Scheduled(fixedDelayString = "${meterValue.history.flushIntervalMs:1000}")
+	public void flush() {
+		if (queue == null || queue.isEmpty())
+			return;
+
+		flushLock.lock();
+		try {
+			List<MeterValueReading> batch = new ArrayList<>(batchSize);
+			while (queue.drainTo(batch, batchSize) > 0) {
+				write(batch);
+				batch = new ArrayList<>(batchSize);
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private void write(List<MeterValueReading> batch) {
+		try {
+			mongoTemplate.insert(batch, MeterValueReading.class);
+		} catch (Exception e) {
+			logger.error("MeterValueHistoryServiceImpl :: write : " + batch.size() + " meter values not recorded, "
+					+ e.getLocalizedMessage());
+			return;
+		}
+		markDirty(batch);
+	}
+
+	private void markDirty(List<MeterValueReading> batch) {
+		Set<Long> hours = new TreeSet<>();
+		for (MeterValueReading reading : batch) {
+			long time = reading.getTimeStamp().getTime();
+			hours.add(time - Math.floorMod(time, Resolution.ONE_HOUR.millis));
+		}
+		try {
+			BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkMode.UNORDERED, DIRTY_COLLECTION);
+			for (Long hour : hours)
+				bulkOperations.upsert(Query.query(Criteria.where("_id").is(Instant.ofEpochMilli(hour).toString())),
+						new Update().inc("version", 1).setOnInsert("bucketStart", new Date(hour)));
+			bulkOperations.execute();
+		} catch (Exception e) {
+			logger.error("MeterValueHistoryServiceImpl :: markDirty : " + hours.size()
+					+ " hours not marked for rollup, " + e.getLocalizedMessage());
+		}
+	}
+
+	private Date readingTime(String timeStamp) {
+		if (timeStamp != null && !timeStamp.isBlank()) {
+			try {
+				return Date.from(ZonedDateTime.parse(timeStamp, DateTimeFormatter.ISO_DATE_TIME).toInstant());
+			} catch (DateTimeParseException e) {
+				logger.warn("MeterValueHistoryServiceImpl :: append : unparsable time stamp " + timeStamp
+						+ ", using the receive time");
+			}
+		}
+		return new Date();
+	}
+
+	/**
+	 * Usage: rebuild every rollup resolution of the hours marked dirty, oldest
+	 * first. Runs on the replica holding the rollup lease.
+	 */
+	@Scheduled(fixedDelayString = "${meterValue.history.rollupIntervalMs:60000}")
+	@Override
+	public void rollup() {
+		if (!enabled || !scheduledJobLock.tryLock(ROLLUP_JOB, rollupLeaseMs))
+			return;
+		try {
+			for (Document dirty : mongoTemplate.find(new Query().with(Sort.by("_id")), Document.class,
+					DIRTY_COLLECTION)) {
+				Date from = dirty.getDate("bucketStart");
+				Date to = new Date(from.getTime() + Resolution.ONE_HOUR.millis);
+				for (Resolution resolution : Resolution.values()) {
+					try {
+						mongoTemplate.aggregate(Aggregation.newAggregation(rollupPipeline(resolution, from, to)),
+								resolution.source == null ? "meterValueHistory" : "meterValueRollup", Document.class);
+					} catch (Exception e) {
+						logger.error("MeterValueHistoryServiceImpl :: rollup : " + resolution.label + " rollup of "
+								+ from + " failed, " + e.getLocalizedMessage());
+						return;
+					}
+				}
+				// readings appended meanwhile bumped the version and keep the hour dirty
+				mongoTemplate.remove(Query.query(
+						Criteria.where("_id").is(dirty.get("_id")).and("version").is(dirty.get("version"))),
+						DIRTY_COLLECTION);
+				if (!scheduledJobLock.tryLock(ROLLUP_JOB, rollupLeaseMs))
+					return;
+			}
+		} finally {
+			scheduledJobLock.unlock(ROLLUP_JOB);
+		}
+	}
+
+	private List<AggregationOperation> rollupPipeline(Resolution resolution, Date from, Date to) {
+		List<AggregationOperation> pipeline = new ArrayList<>();
+		Document bucket = new Document("$dateTrunc",
+				new Document("unit", resolution.unit).append("binSize", resolution.binSize));
+
+		if (resolution.source == null) {
+			bucket.get("$dateTrunc", Document.class).append("date", "$timeStamp");
+			pipeline.add(stage("$match", new Document("timeStamp", new Document("$gte", from).append("$lt", to))
+					.append("source.connectorNumber", new Document("$ne", null))));
+			pipeline.add(stage("$sort", new Document("timeStamp", 1)));
+			pipeline.add(stage("$group",
+					new Document("_id",
+							new Document("chargerSerialNumber", "$source.chargerSerialNumber")
+									.append("connectorNumber", "$source.connectorNumber").append("bucketStart", bucket))
+							.append("minMeterValue", new Document("$min", "$meterValue"))
+							.append("maxMeterValue", new Document("$max", "$meterValue"))
+							.append("avgMeterValue", new Document("$avg", "$meterValue"))
+							.append("lastMeterValue", new Document("$last", "$meterValue"))
+							.append("readings", new Document("$sum", 1))));
+		} else {
+			bucket.get("$dateTrunc", Document.class).append("date", "$bucketStart");
+			pipeline.add(stage("$match", new Document("resolution", resolution.source.label).append("bucketStart",
+					new Document("$gte", from).append("$lt", to))));
+			pipeline.add(stage("$sort", new Document("bucketStart", 1)));
+			pipeline.add(stage("$group", new Document("_id",
+					new Document("chargerSerialNumber", "$chargerSerialNumber")
+							.append("connectorNumber", "$connectorNumber").append("bucketStart", bucket))
+					.append("minMeterValue", new Document("$min", "$minMeterValue"))
+					.append("maxMeterValue", new Document("$max", "$maxMeterValue"))
+					.append("weightedSum",
+							new Document("$sum", new Document("$multiply", Arrays.asList("$avgMeterValue", "$readings"))))
+					.append("lastMeterValue", new Document("$last", "$lastMeterValue"))
+					.append("readings", new Document("$sum", "$readings"))));
+		}
+
+		Object avgMeterValue = resolution.source == null ? "$avgMeterValue"
+				: new Document("$cond", Arrays.asList(new Document("$gt", Arrays.asList("$readings", 0)),
+						new Document("$divide", Arrays.asList("$weightedSum", "$readings")), 0));
+
+		pipeline.add(stage("$project",
+				new Document("_id",
+						new Document("$concat", Arrays.asList("$_id.chargerSerialNumber", "#",
+								new Document("$toString", "$_id.connectorNumber"), "#", resolution.label, "#",
+								new Document("$toString", new Document("$toLong", "$_id.bucketStart")))))
+						.append("chargerSerialNumber", "$_id.chargerSerialNumber")
+						.append("connectorNumber", "$_id.connectorNumber")
+						.append("resolution", new Document("$literal", resolution.label))
+						.append("bucketStart", "$_id.bucketStart").append("minMeterValue", 1)
+						.append("maxMeterValue", 1).append("avgMeterValue", avgMeterValue)
+						.append("lastMeterValue", 1).append("readings", 1)));
+		pipeline.add(stage("$merge", new Document("into", "meterValueRollup").append("on", "_id")
+				.append("whenMatched", "replace").append("whenNotMatched", "insert")));
+		return pipeline;
+	}
+
+	private AggregationOperation stage(String operator, Document body) {
+		return context -> new Document(operator, body);
+	}
+
+	/**
+	 * Usage: get the meter value history of a connector from the finest rollup
+	 * that keeps the window within the configured number of points
+	 *
+	 * @param chargerSerialNumber, connectorNumber, from, to
+	 * @return list of rollup buckets ordered by bucket start
+	 */
+	@Override
+	public List<MeterValueHistoryDTO> getMeterHistory(String chargerSerialNumber, Integer connectorNumber, Date from,
+			Date to) {
+		logger.info("MeterValueHistoryServiceImpl :: getMeterHistory : execution Started");
+		if (chargerSerialNumber == null || chargerSerialNumber.isBlank() || connectorNumber == null)
+			throw new InValidDataException("Charger serial number and connector number are required");
+		if (from == null || to == null || !from.before(to))
+			throw new InValidDataException("Invalid time window. 'from' must be before 'to'");
+
+		long window = to.getTime() - from.getTime();
+		Resolution resolution = Resolution.ONE_HOUR;
+		for (Resolution candidate : Resolution.values()) {
+			if (window / candidate.millis <= maxPoints) {
+				resolution = candidate;
+				break;
+			}
+		}
+
+		Date bucketFrom = new Date(from.getTime() - from.getTime() % resolution.millis);
+		List<MeterValueHistoryDTO> history = new ArrayList<>();
+		for (MeterValueRollup rollup : meterValueRollupRepository.findRollups(chargerSerialNumber, connectorNumber,
+				resolution.label, bucketFrom, to, Sort.by("bucketStart"))) {
+			history.add(new MeterValueHistoryDTO(rollup.getResolution(), rollup.getBucketStart(),
+					rollup.getMinMeterValue(), rollup.getMaxMeterValue(), rollup.getAvgMeterValue(),
+					rollup.getLastMeterValue(), rollup.getReadings()));
+		}
+		logger.info("MeterValueHistoryServiceImpl :: getMeterHistory : execution ended");
+		return history;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flusher.shutdown();
+		try {
+			flusher.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+		logger.info("MeterValueHistoryServiceImpl :: shutdown : queued meter values appended");
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.vst.station.service;
+
+import java.util.Date;
+import java.util.List;
+
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.dto.MeterValueHistoryDTO;
+
+public interface MeterValueHistoryServiceInterface {
+
+	public void append(String chargerSerialNumber, MeterValueDTO meterValueDTO);
+
+	public void rollup();
+
+	List<MeterValueHistoryDTO> getMeterHistory(String chargerSerialNumber, Integer connectorNumber, Date from,
+			Date to);
+
+}
@@ -0,0 +1,261 @@
+package com.vst.station.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.model.Station;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Write-behind stage for OCPP meter values.
+ *
+ * Only the latest reading per (charger serial number, connector number) is
+ * kept; pending readings are written as one unordered bulk operation every
+ * flush interval or as soon as a batch is full. The number of pending
+ * connectors is bounded: when the buffer is full the caller waits up to the
+ * offer timeout and is then told to write synchronously.
+ */
+@Component
+public class MeterValueWriteBuffer {
+
+	public static final Logger logger = LogManager.getLogger(MeterValueWriteBuffer.class);
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private StationLookupCache stationLookupCache;
+
+	@Value("${meterValue.writeBehind.enabled:false}")
+	private boolean enabled;
+
+	@Value("${meterValue.writeBehind.batchSize:500}")
+	private int batchSize;
+
+	@Value("${meterValue.writeBehind.capacity:10000}")
+	private int capacity;
+
+	@Value("${meterValue.writeBehind.offerTimeoutMs:200}")
+	private long offerTimeoutMs;
+
+	private final Map<String, PendingMeterValue> pending = new ConcurrentHashMap<>();
+
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+	private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "meter-value-flusher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private Semaphore permits;
+
+	private volatile boolean closed;
+
+	private Timer flushTimer;
+
+	private Counter coalescedCounter;
+
+	private Counter rejectedCounter;
+
+	@PostConstruct
+	public void init() {
+		permits = new Semaphore(capacity);
+		Gauge.builder("station.meterValue.writeBehind.pending", pending, Map::size)
+				.description("Connectors with a meter value waiting to be written").register(meterRegistry);
+		flushTimer = Timer.builder("station.meterValue.writeBehind.flush")
+				.description("Time taken to write one batch of meter values").register(meterRegistry);
+		coalescedCounter = Counter.builder("station.meterValue.writeBehind.coalesced")
+				.description("Meter values replaced by a newer reading before being written").register(meterRegistry);
+		rejectedCounter = Counter.builder("station.meterValue.writeBehind.rejected")
+				.description("Meter values written synchronously because the buffer was full").register(meterRegistry);
+	}
+
+	public boolean isEnabled() {
+		return enabled && !closed;
+	}
+
+	/**
+	 * Usage: queue the meter value of a connector
+	 *
+	 * @param stationId (may be null), chargerSerialNumber, meterValueDTO
+	 * @return true if queued, false if the caller has to write it synchronously
+	 */
+	public boolean offer(String stationId, String chargerSerialNumber, MeterValueDTO meterValueDTO) {
+		if (!isEnabled())
+			return false;
+
+		String key = chargerSerialNumber + "#" + meterValueDTO.getConnectorNumber();
+		PendingMeterValue value = new PendingMeterValue(stationId, chargerSerialNumber, meterValueDTO);
+
+		if (pending.computeIfPresent(key, (k, v) -> value) != null) {
+			coalescedCounter.increment();
+			return true;
+		}
+
+		try {
+			if (!permits.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+				rejectedCounter.increment();
+				requestFlush();
+				return false;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+
+		if (pending.put(key, value) != null) {
+			coalescedCounter.increment();
+			permits.release();
+		}
+		if (pending.size() >= batchSize)
+			requestFlush();
+		return true;
+	}
+
+	private void requestFlush() {
+		if (flushRequested.compareAndSet(false, true)) {
+			flusher.execute(() -> {
+				flushRequested.set(false);
+				flush();
+			});
+		}
+	}
+
+	/**
+	 * Usage: write every pending meter value in batches of batchSize
+	 */
+	@Scheduled(fixedDelayString = "${meterValue.writeBehind.flushIntervalMs:2000}")
+	public void flush() {
+		if (pending.isEmpty())
+			return;
+
+		flushLock.lock();
+		try {
+			List<PendingMeterValue> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+			for (String key : pending.keySet()) {
+				PendingMeterValue value = pending.remove(key);
+				if (value == null)
+					continue;
+				permits.release();
+				batch.add(value);
+				if (batch.size() >= batchSize) {
+					write(batch);
+					batch = new ArrayList<>(batchSize);
+				}
+			}
+			if (!batch.isEmpty())
+				write(batch);
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private void write(List<PendingMeterValue> batch) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		try {
+			BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Station.class);
+			for (PendingMeterValue value : batch) {
+				Criteria criteria = Criteria.where("chargers.chargerSerialNumber").is(value.chargerSerialNumber)
+						.and("isActive").is(true);
+				if (value.stationId != null)
+					criteria = criteria.and("_id").is(value.stationId);
+
+				MeterValueDTO meterValueDTO = value.meterValueDTO;
+				String connectorPath = "chargers.$[c].connectors.$[n]";
+				Update update = new Update().set(connectorPath + ".connectorMeterValue", meterValueDTO.getMeterValue())
+						.set(connectorPath + ".connectorMeterRequestTimeStamp", meterValueDTO.getTimeStamp())
+						.set(connectorPath + ".connectorLastUnavailableTimeStamp", meterValueDTO.getConnectorUnitType())
+						.filterArray(Criteria.where("c.chargerSerialNumber").is(value.chargerSerialNumber))
+						.filterArray(Criteria.where("n.connectorNumber").is(meterValueDTO.getConnectorNumber()));
+
+				bulkOperations.updateOne(Query.query(criteria), update);
+			}
+			bulkOperations.execute();
+			for (PendingMeterValue value : batch) {
+				if (value.stationId != null)
+					stationLookupCache.evictStation(value.stationId);
+				else
+					stationLookupCache.evictChargerSerialNumber(value.chargerSerialNumber);
+			}
+		} catch (Exception e) {
+			logger.error("MeterValueWriteBuffer :: write : " + batch.size() + " meter values not written, "
+					+ e.getLocalizedMessage());
+			requeue(batch);
+		} finally {
+			sample.stop(flushTimer);
+		}
+	}
+
+	private void requeue(List<PendingMeterValue> batch) {
+		for (PendingMeterValue value : batch) {
+			String key = value.chargerSerialNumber + "#" + value.meterValueDTO.getConnectorNumber();
+			if (!closed && permits.tryAcquire()) {
+				if (pending.putIfAbsent(key, value) != null)
+					permits.release();
+			} else
+				logger.error("MeterValueWriteBuffer :: requeue : meter value dropped for " + key);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		closed = true;
+		flusher.shutdown();
+		try {
+			flusher.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+		logger.info("MeterValueWriteBuffer :: shutdown : pending meter values flushed");
+	}
+
+	private static class PendingMeterValue {
+
+		private final String stationId;
+		private final String chargerSerialNumber;
+		private final MeterValueDTO meterValueDTO;
+
+		PendingMeterValue(String stationId, String chargerSerialNumber, MeterValueDTO meterValueDTO) {
+			this.stationId = stationId;
+			this.chargerSerialNumber = chargerSerialNumber;
+			this.meterValueDTO = meterValueDTO;
+		}
+	}
+
+}
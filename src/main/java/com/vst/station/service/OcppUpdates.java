@@ -0,0 +1,48 @@
+package com.vst.station.service;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.dto.connectorStatusNotificationDTO;
+import com.vst.station.utils.IdAndDateGenerator;
+
+/**
+ * Connector updates of the OCPP calls, shared by the servlet and the reactive
+ * implementation. The connector path is the position or array filter path of
+ * the connector in the station document, or "" for a connector state
+ * document.
+ */
+public final class OcppUpdates {
+
+	private static final IdAndDateGenerator idAndDateGenerator = new IdAndDateGenerator();
+
+	private OcppUpdates() {
+	}
+
+	public static Update connectorStatusUpdate(String connectorPath,
+			connectorStatusNotificationDTO connectorStatusNotificationDTO) {
+		String prefix = connectorPath.isEmpty() ? "" : connectorPath + ".";
+		Update update = new Update()
+				.set(prefix + "connectorStatus", connectorStatusNotificationDTO.getConnectorStatus())
+				.set(prefix + "connectorTimeStamp", connectorStatusNotificationDTO.getConnectorTimeStamp());
+
+		if (connectorStatusNotificationDTO.getConnectorErrorCode() == null
+				|| connectorStatusNotificationDTO.getConnectorErrorCode().isBlank()) {
+			update.set(prefix + "connectorLastAvailableTimeStamp",
+					connectorStatusNotificationDTO.getConnectorTimeStamp());
+		} else {
+			update.set(prefix + "connectorErrorCode", connectorStatusNotificationDTO.getConnectorErrorCode())
+					.set(prefix + "connectorInfo", connectorStatusNotificationDTO.getConnectorInfo())
+					.set(prefix + "connectorLastUnavailableTimeStamp", idAndDateGenerator.dateUpdate());
+		}
+		return update;
+	}
+
+	public static Update meterValueUpdate(String connectorPath, MeterValueDTO meterValueDTO) {
+		String prefix = connectorPath.isEmpty() ? "" : connectorPath + ".";
+		return new Update().set(prefix + "connectorMeterValue", meterValueDTO.getMeterValue())
+				.set(prefix + "connectorMeterRequestTimeStamp", meterValueDTO.getTimeStamp())
+				.set(prefix + "connectorLastUnavailableTimeStamp", meterValueDTO.getConnectorUnitType());
+	}
+
+}
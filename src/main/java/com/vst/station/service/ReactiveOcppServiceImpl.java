@@ -0,0 +1,391 @@
+package com.vst.station.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.dto.connectorStatusNotificationDTO;
+import com.vst.station.dto.ocppVerificationDTO;
+import com.vst.station.exception.InValidIdExcepetion;
+import com.vst.station.exception.StationBusinessException;
+import com.vst.station.exception.StationException;
+import com.vst.station.index.ChargerLocation;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Station;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking implementation of the OCPP calls on ReactiveMongoTemplate,
+ * used by the reactive OCPP controllers (station.ocpp.reactive=true).
+ *
+ * The station writes are the same as in ChargerServiceImpl and
+ * ConnectorServiceImpl: updates by position for indexed chargers, array
+ * filters otherwise, and the same cache evictions. The connector state store
+ * (split mode), the meter value write-behind buffer and the meter value
+ * history are blocking and run on the bounded elastic scheduler.
+ */
+@Service
+@ConditionalOnProperty(name = "station.ocpp.reactive", havingValue = "true")
+public class ReactiveOcppServiceImpl implements ReactiveOcppServiceInterface {
+
+	public static final Logger logger = LogManager.getLogger(ReactiveOcppServiceImpl.class);
+
+	@Autowired
+	private ReactiveMongoTemplate reactiveMongoTemplate;
+
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@Autowired
+	private StationLookupCache stationLookupCache;
+
+	@Autowired
+	private ConnectorStateStore connectorStateStore;
+
+	@Autowired
+	private MeterValueWriteBuffer meterValueWriteBuffer;
+
+	@Autowired
+	private MeterValueHistoryServiceImpl meterValueHistoryServiceImpl;
+
+	/**
+	 * Usage: get the active flag of a charger, answered from the serial number
+	 * index when the charger is indexed
+	 * 
+	 * @param chargerSerialNumber
+	 * @return active flag, false for an unknown charger
+	 */
+	@Override
+	public Mono<Boolean> getChargerStatusByChargerSerialNumber(String chargerSerialNumber) {
+		if (chargerSerialNumber == null || chargerSerialNumber.isBlank())
+			return Mono.error(new InValidIdExcepetion(
+					"Invalid ChargerSerialNumber. The chargerPointSerialNumberprovided is not valid. Please check and try again."));
+
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null)
+			return Mono.just(location.isChargerActive());
+
+		return mapErrors(
+				Mono.defer(() -> findChargerBySerialNumber(chargerSerialNumber)).map(Charger::isActive)
+						.defaultIfEmpty(false),
+				"get the active flag of a charger by serial number");
+	}
+
+	@Override
+	public Mono<Boolean> initialVerification(String chargerSerialNumber, ocppVerificationDTO ocppVerificationDTO) {
+		if (chargerSerialNumber == null || chargerSerialNumber.isBlank())
+			return Mono.error(new InValidIdExcepetion(
+					"Invalid chargerPointSerialNumber2. The chargerPointSerialNumberprovided is not valid. Please check and try again."));
+
+		return mapErrors(Mono.defer(() -> findChargerBySerialNumber(chargerSerialNumber)).map(charger -> {
+			boolean flag = Objects.equals(charger.getChargePointVendor(), ocppVerificationDTO.getChargePointVendor())
+					&& Objects.equals(charger.getChargePointModel(), ocppVerificationDTO.getChargePointModel())
+					&& charger.getChargeBoxSerialNumber() != null && charger.getChargeBoxSerialNumber()
+							.equalsIgnoreCase(ocppVerificationDTO.getChargeBoxSerialNumber())
+					&& Objects.equals(charger.getFirmwareVersion(), ocppVerificationDTO.getFirmwareVersion());
+			if (!flag)
+				logger.info("ReactiveOcppServiceImpl :: initialVerification : verification failed for "
+						+ chargerSerialNumber);
+			return flag;
+		}).switchIfEmpty(Mono.error(() -> new InValidIdExcepetion(
+				"Invalid chargerPointSerialNumber1. The chargerPointSerialNumberprovided is not valid. Please check and try again."))),
+				"verify the boot notification of a charger");
+	}
+
+	@Override
+	public Mono<String> getChargerOCPPProtocol(String chargerSerialNumber) {
+		if (chargerSerialNumber == null || chargerSerialNumber.isBlank())
+			return Mono.empty();
+
+		return mapErrors(Mono.defer(() -> findChargerBySerialNumber(chargerSerialNumber)).map(Charger::getChargerOCPPProtocol)
+				.switchIfEmpty(Mono.error(() -> new InValidIdExcepetion(
+						"Invalid ChargerSerialNumber. The chargerPointSerialNumberprovided is not valid. Please check and try again."))),
+				"get the OCPP protocol of a charger");
+	}
+
+	/**
+	 * Usage: apply an OCPP status notification to a single connector
+	 * 
+	 * @param chargerSerialNumber, connectorStatusNotificationDTO
+	 * @return true if the connector was found
+	 */
+	@Override
+	public Mono<Boolean> statusNotification(String chargerSerialNumber,
+			connectorStatusNotificationDTO connectorStatusNotificationDTO) {
+		if (chargerSerialNumber == null || chargerSerialNumber.isBlank())
+			return Mono.just(false);
+
+		return mapErrors(Mono.defer(() -> applyStatusNotification(chargerSerialNumber, connectorStatusNotificationDTO)),
+				"apply the status notification of a connector");
+	}
+
+	private Mono<Boolean> applyStatusNotification(String chargerSerialNumber,
+			connectorStatusNotificationDTO connectorStatusNotificationDTO) {
+		int connectorNumber = connectorStatusNotificationDTO.getConnectorNumber();
+		if (connectorStateStore.isSplit())
+			return Mono.fromCallable(() -> connectorStateStore.update(chargerSerialNumber, connectorNumber,
+					OcppUpdates.connectorStatusUpdate("", connectorStatusNotificationDTO), false))
+					.subscribeOn(Schedulers.boundedElastic());
+
+		Mono<Boolean> byPosition = Mono.just(false);
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null && location.getConnectorPositions().containsKey(connectorNumber)) {
+			String chargerPath = "chargers." + location.getChargerPosition();
+			String connectorPath = chargerPath + ".connectors." + location.getConnectorPositions().get(connectorNumber);
+
+			Query query = Query.query(Criteria.where("_id").is(location.getStationId()).and("isActive").is(true)
+					.and(chargerPath + ".chargerSerialNumber").is(chargerSerialNumber)
+					.and(connectorPath + ".connectorNumber").is(connectorNumber));
+
+			byPosition = reactiveMongoTemplate
+					.updateFirst(query, OcppUpdates.connectorStatusUpdate(connectorPath, connectorStatusNotificationDTO),
+							Station.class)
+					.map(result -> result.getMatchedCount() > 0).doOnNext(matched -> {
+						if (matched)
+							stationLookupCache.evictStation(location.getStationId());
+					});
+		}
+
+		return byPosition.flatMap(matched -> {
+			if (matched)
+				return Mono.just(true);
+
+			Query query = Query.query(Criteria.where("chargers")
+					.elemMatch(Criteria.where("chargerSerialNumber").is(chargerSerialNumber)
+							.and("connectors.connectorNumber").is(connectorNumber))
+					.and("isActive").is(true));
+
+			Update update = OcppUpdates
+					.connectorStatusUpdate("chargers.$[c].connectors.$[n]", connectorStatusNotificationDTO)
+					.filterArray(Criteria.where("c.chargerSerialNumber").is(chargerSerialNumber))
+					.filterArray(Criteria.where("n.connectorNumber").is(connectorNumber));
+
+			return reactiveMongoTemplate.updateFirst(query, update, Station.class)
+					.map(result -> result.getMatchedCount() > 0).doOnNext(found -> {
+						if (found)
+							stationLookupCache.evictChargerSerialNumber(chargerSerialNumber);
+					});
+		});
+	}
+
+	/**
+	 * Usage: record the OCPP heartbeat of a charger, deactivating it when the
+	 * previous heartbeat is more than 10 minutes old
+	 * 
+	 * @param chargerSerialNumber, chargerTimeStamp
+	 * @return true if the heartbeat is within the window
+	 */
+	@Override
+	public Mono<Boolean> heartbeatNotification(String chargerSerialNumber, String chargerTimeStamp) {
+		if (chargerSerialNumber == null || chargerSerialNumber.isBlank())
+			return Mono.just(false);
+
+		DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
+		LocalDateTime requestDateTime;
+		try {
+			requestDateTime = ZonedDateTime.parse(chargerTimeStamp, formatter).toLocalDateTime();
+		} catch (Exception exception) {
+			return Mono.just(false);
+		}
+
+		return mapErrors(Mono.defer(() -> swapHeartBeatTimeStamp(chargerSerialNumber, chargerTimeStamp)).flatMap(previous -> {
+			Duration duration;
+			try {
+				duration = Duration.between(
+						LocalDateTime.parse(previous.getChargerLastHeartBeatTimeStamp(), formatter), requestDateTime);
+			} catch (Exception exception) {
+				return Mono.just(false);
+			}
+			if (duration.toMinutes() <= 10)
+				return Mono.just(true);
+			return deactivateCharger(chargerSerialNumber, chargerTimeStamp).thenReturn(false);
+		}).defaultIfEmpty(false), "record the heartbeat of a charger");
+	}
+
+	private Mono<Charger> swapHeartBeatTimeStamp(String chargerSerialNumber, String chargerTimeStamp) {
+		Mono<Station> byPosition = Mono.empty();
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null) {
+			String chargerPath = "chargers." + location.getChargerPosition();
+			Query query = Query.query(Criteria.where("_id").is(location.getStationId()).and("isActive").is(true)
+					.and(chargerPath + ".chargerSerialNumber").is(chargerSerialNumber));
+			query.fields().include("isActive").slice("chargers", location.getChargerPosition(), 1);
+
+			byPosition = reactiveMongoTemplate.findAndModify(query,
+					new Update().set(chargerPath + ".chargerLastHeartBeatTimeStamp", chargerTimeStamp),
+					FindAndModifyOptions.options().returnNew(false), Station.class);
+		}
+
+		return byPosition.switchIfEmpty(Mono.defer(() -> {
+			Query query = Query.query(
+					Criteria.where("chargers.chargerSerialNumber").is(chargerSerialNumber).and("isActive").is(true));
+			query.fields().position("chargers", 1);
+
+			Update update = new Update().set("chargers.$[c].chargerLastHeartBeatTimeStamp", chargerTimeStamp)
+					.filterArray(Criteria.where("c.chargerSerialNumber").is(chargerSerialNumber));
+
+			return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false),
+					Station.class);
+		})).flatMap(station -> {
+			stationLookupCache.evictStation(station.getStationId());
+			if (station.getChargers() == null || station.getChargers().isEmpty())
+				return Mono.empty();
+			return Mono.just(station.getChargers().get(0));
+		});
+	}
+
+	private Mono<Void> deactivateCharger(String chargerSerialNumber, String chargerTimeStamp) {
+		Query query = Query.query(
+				Criteria.where("chargers.chargerSerialNumber").is(chargerSerialNumber).and("isActive").is(true));
+
+		Update update = new Update().set("chargers.$[c].chargerStatus", "deactive")
+				.set("chargers.$[c].connectors.$[].connectorLastAvailableTimeStamp", chargerTimeStamp)
+				.filterArray(Criteria.where("c.chargerSerialNumber").is(chargerSerialNumber));
+
+		Mono<Void> deactivated = reactiveMongoTemplate.updateFirst(query, update, Station.class).doOnNext(result -> {
+			if (result.getModifiedCount() > 0)
+				stationLookupCache.evictChargerSerialNumber(chargerSerialNumber);
+		}).then();
+
+		if (!connectorStateStore.isSplit())
+			return deactivated;
+		return deactivated.then(Mono.fromRunnable(() -> connectorStateStore.updateCharger(chargerSerialNumber,
+				new Update().set("connectorLastAvailableTimeStamp", chargerTimeStamp)))
+				.subscribeOn(Schedulers.boundedElastic()).then());
+	}
+
+	/**
+	 * Usage: store the meter value of a connector and append it to the history
+	 * 
+	 * @param chargerSerialNumber, meterValueDTO
+	 * @return true if the connector of an active charger was found
+	 */
+	@Override
+	public Mono<Boolean> initialRequest(String chargerSerialNumber, MeterValueDTO meterValueDTO) {
+		return mapErrors(Mono.defer(() -> storeMeterValue(chargerSerialNumber, meterValueDTO)).flatMap(stored -> {
+			if (!stored)
+				return Mono.just(false);
+			if (!connectorStateStore.isSplit())
+				stationLookupCache.evictChargerSerialNumber(chargerSerialNumber);
+			return Mono.fromRunnable(() -> meterValueHistoryServiceImpl.append(chargerSerialNumber, meterValueDTO))
+					.subscribeOn(Schedulers.boundedElastic()).thenReturn(true);
+		}), "store the meter value of a connector");
+	}
+
+	private Mono<Boolean> storeMeterValue(String chargerSerialNumber, MeterValueDTO meterValueDTO) {
+		if (chargerSerialNumber == null || chargerSerialNumber.isBlank())
+			return Mono.just(false);
+
+		Integer connectorNumber = meterValueDTO.getConnectorNumber();
+		if (connectorStateStore.isSplit())
+			return Mono.fromCallable(() -> connectorStateStore.update(chargerSerialNumber, connectorNumber,
+					OcppUpdates.meterValueUpdate("", meterValueDTO), true)).subscribeOn(Schedulers.boundedElastic());
+
+		Mono<Boolean> byPosition = Mono.just(false);
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null) {
+			if (!location.isChargerActive())
+				return Mono.just(false);
+
+			Integer connectorPosition = location.getConnectorPositions().get(connectorNumber);
+			if (connectorPosition != null) {
+				String chargerPath = "chargers." + location.getChargerPosition();
+				String connectorPath = chargerPath + ".connectors." + connectorPosition;
+
+				Query query = Query.query(Criteria.where("_id").is(location.getStationId()).and("isActive").is(true)
+						.and(chargerPath + ".chargerSerialNumber").is(chargerSerialNumber)
+						.and(connectorPath + ".connectorNumber").is(connectorNumber));
+
+				Mono<Boolean> update = reactiveMongoTemplate
+						.updateFirst(query, OcppUpdates.meterValueUpdate(connectorPath, meterValueDTO), Station.class)
+						.map(result -> result.getMatchedCount() > 0);
+
+				byPosition = !meterValueWriteBuffer.isEnabled() ? update
+						: Mono.fromCallable(() -> meterValueWriteBuffer.offer(location.getStationId(),
+								chargerSerialNumber, meterValueDTO)).subscribeOn(Schedulers.boundedElastic())
+								.flatMap(queued -> queued ? Mono.just(true) : update);
+			}
+		}
+
+		return byPosition.flatMap(stored -> {
+			if (stored)
+				return Mono.just(true);
+
+			Query query = Query.query(Criteria.where("chargers")
+					.elemMatch(Criteria.where("chargerSerialNumber").is(chargerSerialNumber).and("isActive").is(true)
+							.and("connectors.connectorNumber").is(connectorNumber))
+					.and("isActive").is(true));
+
+			Update update = OcppUpdates.meterValueUpdate("chargers.$[c].connectors.$[n]", meterValueDTO)
+					.filterArray(Criteria.where("c.chargerSerialNumber").is(chargerSerialNumber))
+					.filterArray(Criteria.where("n.connectorNumber").is(connectorNumber));
+
+			return reactiveMongoTemplate.updateFirst(query, update, Station.class)
+					.map(result -> result.getMatchedCount() > 0);
+		});
+	}
+
+	/**
+	 * Usage: turn an unexpected failure into a StationException, as the
+	 * servlet services do; business exceptions (404/406) pass unchanged
+	 * 
+	 * @param mono, functionality
+	 * @return mono with mapped errors
+	 */
+	private <T> Mono<T> mapErrors(Mono<T> mono, String functionality) {
+		return mono.onErrorMap(e -> !(e instanceof StationBusinessException) && !(e instanceof StationException)
+				&& e instanceof Exception, e -> StationException.of((Exception) e, functionality));
+	}
+
+	/**
+	 * Usage: find a charger by serial number, by $slice of its position when
+	 * it is indexed, otherwise through the serial number query (which also
+	 * refreshes the index for that station)
+	 * 
+	 * @param chargerSerialNumber
+	 * @return charger or empty
+	 */
+	private Mono<Charger> findChargerBySerialNumber(String chargerSerialNumber) {
+		Mono<Charger> byPosition = Mono.empty();
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null) {
+			Query query = Query.query(Criteria.where("_id").is(location.getStationId()).and("isActive").is(true));
+			query.fields().include("isActive").slice("chargers", location.getChargerPosition(), 1);
+
+			byPosition = reactiveMongoTemplate.findOne(query, Station.class)
+					.filter(station -> station.getChargers() != null && !station.getChargers().isEmpty()
+							&& chargerSerialNumber.equals(station.getChargers().get(0).getChargerSerialNumber()))
+					.map(station -> station.getChargers().get(0));
+		}
+
+		return byPosition.switchIfEmpty(Mono.defer(() -> reactiveMongoTemplate
+				.findOne(Query.query(Criteria.where("chargers.chargerSerialNumber").is(chargerSerialNumber)
+						.and("isActive").is(true)), Station.class)
+				.flatMap(station -> {
+					chargerSerialNumberIndex.refreshStation(station);
+					for (Charger charger : station.getChargers()) {
+						if (chargerSerialNumber.equals(charger.getChargerSerialNumber()))
+							return Mono.just(charger);
+					}
+					return Mono.empty();
+				})));
+	}
+
+}
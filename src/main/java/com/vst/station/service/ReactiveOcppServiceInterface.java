@@ -0,0 +1,24 @@
+package com.vst.station.service;
+
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.dto.connectorStatusNotificationDTO;
+import com.vst.station.dto.ocppVerificationDTO;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOcppServiceInterface {
+
+	public Mono<Boolean> getChargerStatusByChargerSerialNumber(String chargerSerialNumber);
+
+	public Mono<Boolean> initialVerification(String chargerSerialNumber, ocppVerificationDTO ocppVerificationDTO);
+
+	public Mono<String> getChargerOCPPProtocol(String chargerSerialNumber);
+
+	public Mono<Boolean> statusNotification(String chargerSerialNumber,
+			connectorStatusNotificationDTO connectorStatusNotificationDTO);
+
+	public Mono<Boolean> heartbeatNotification(String chargerSerialNumber, String chargerTimeStamp);
+
+	public Mono<Boolean> initialRequest(String chargerSerialNumber, MeterValueDTO meterValueDTO);
+
+}
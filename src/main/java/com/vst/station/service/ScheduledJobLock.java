@@ -0,0 +1,89 @@
+package com.vst.station.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lease locks in the "scheduledJobLock" collection, so that a scheduled job
+ * runs on one replica at a time.
+ *
+ * A lock is one document per job. It is taken by an upsert that only matches
+ * an expired lease (or one already held by this node); when another node
+ * holds it the upsert fails on the unique _id and the job is skipped. A lease
+ * that is not released (the node died) expires on its own.
+ */
+@Component
+public class ScheduledJobLock {
+
+	public static final Logger logger = LogManager.getLogger(ScheduledJobLock.class);
+
+	private static final String LOCK_COLLECTION = "scheduledJobLock";
+
+	private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	/**
+	 * Usage: take or extend the lease of a job
+	 *
+	 * @param job, leaseMillis
+	 * @return true if this node holds the lease
+	 */
+	public boolean tryLock(String job, long leaseMillis) {
+		try {
+			return lock(job, leaseMillis);
+		} catch (Exception e) {
+			logger.error("ScheduledJobLock :: tryLock : " + job + " not locked, " + e.getLocalizedMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Usage: take or extend the lease of a job, telling a lease held by another
+	 * node apart from a failed attempt
+	 *
+	 * @param job, leaseMillis
+	 * @return true if this node holds the lease, false if another node holds it
+	 * @throws DataAccessException when the lease could not be read or written
+	 */
+	public boolean lock(String job, long leaseMillis) {
+		Date now = new Date();
+		Query query = Query.query(Criteria.where("_id").is(job)
+				.orOperator(Criteria.where("lockedUntil").lt(now), Criteria.where("lockedBy").is(owner)));
+		Update update = new Update().set("lockedUntil", new Date(now.getTime() + leaseMillis))
+				.set("lockedBy", owner).set("lockedAt", now);
+		try {
+			mongoTemplate.upsert(query, update, LOCK_COLLECTION);
+			return true;
+		} catch (DuplicateKeyException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Usage: give up the lease of a job held by this node
+	 *
+	 * @param job
+	 */
+	public void unlock(String job) {
+		try {
+			mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job).and("lockedBy").is(owner)),
+					new Update().set("lockedUntil", new Date(0)), LOCK_COLLECTION);
+		} catch (Exception e) {
+			logger.error("ScheduledJobLock :: unlock : " + job + " not released, " + e.getLocalizedMessage());
+		}
+	}
+
+}
@@ -0,0 +1,376 @@
+package com.vst.station.service;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoInterruptedException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.index.StationAutocompleteIndex;
+import com.vst.station.index.StationGeoIndex;
+import com.vst.station.model.Station;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Follows the change stream of the "station" collection so that writes made
+ * by any replica reach the lookup cache and the resident indexes of this one.
+ *
+ * Updates that only touch OCPP status, meter value or heartbeat fields evict
+ * the station from the lookup cache. Any other insert, update or replace
+ * re-reads the station and refreshes the charger serial number, geo and
+ * autocomplete indexes; deletes drop it everywhere. Drops, renames, invalidate
+ * events and a lost resume point clear the cache and rebuild the indexes.
+ *
+ * The resume token is stored per node in "changeStreamResumeToken" so a
+ * restarted or reconnected listener continues where it stopped. An event that
+ * cannot be applied is replayed from the last applied event; after
+ * MAX_REPLAYS failed replays (or without a resume token) the stream restarts
+ * from the current time and the cache and indexes are reloaded instead. Change
+ * streams require a replica set (a single node replica set is enough).
+ */
+@Component
+public class StationChangeStreamListener {
+
+	public static final Logger logger = LogManager.getLogger(StationChangeStreamListener.class);
+
+	private static final String TOKEN_COLLECTION = "changeStreamResumeToken";
+
+	private static final Set<String> OCPP_FIELDS = new HashSet<>(Arrays.asList("connectorStatus",
+			"connectorTimeStamp", "connectorLastAvailableTimeStamp", "connectorLastUnavailableTimeStamp",
+			"connectorErrorCode", "connectorInfo", "connectorMeterValue", "connectorMeterRequestTimeStamp",
+			"chargerLastHeartBeatTimeStamp", "chargerStatus"));
+
+	// ChangeStreamHistoryLost, ChangeStreamFatalError
+	private static final Set<Integer> RESUME_LOST_CODES = new HashSet<>(Arrays.asList(286, 280));
+
+	// $changeStream on a standalone server
+	private static final int NOT_A_REPLICA_SET = 40573;
+
+	private static final long MAX_BACKOFF_MS = 30_000;
+
+	private static final int MAX_REPLAYS = 3;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private StationLookupCache stationLookupCache;
+
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@Autowired
+	private StationGeoIndex stationGeoIndex;
+
+	@Autowired
+	private StationAutocompleteIndex stationAutocompleteIndex;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${station.changeStream.enabled:false}")
+	private boolean enabled;
+
+	@Value("${station.changeStream.nodeId:}")
+	private String nodeId;
+
+	@Value("${station.changeStream.tokenSaveIntervalMs:1000}")
+	private long tokenSaveIntervalMs;
+
+	private volatile boolean running;
+
+	private Thread worker;
+
+	private volatile BsonDocument resumeToken;
+
+	private BsonDocument savedToken;
+
+	private long tokenSavedAt;
+
+	private Counter eventCounter;
+
+	/**
+	 * Usage: open the change stream before the resident indexes are rebuilt, so
+	 * no write falls between their snapshot and the first event
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void start() {
+		if (!enabled)
+			return;
+		if (nodeId == null || nodeId.isBlank())
+			nodeId = hostName();
+		eventCounter = Counter.builder("station.changeStream.events")
+				.description("Station change events applied to the local cache and indexes").register(meterRegistry);
+
+		resumeToken = loadResumeToken();
+		MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+		try {
+			cursor = open();
+		} catch (MongoCommandException e) {
+			if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+				logger.error("StationChangeStreamListener :: start : change streams need a replica set, "
+						+ "cross-node invalidation is disabled");
+				return;
+			}
+			logger.error("StationChangeStreamListener :: start : " + e.getLocalizedMessage());
+			cursor = null;
+		}
+
+		running = true;
+		MongoChangeStreamCursor<ChangeStreamDocument<Document>> first = cursor;
+		worker = new Thread(() -> follow(first), "station-change-stream");
+		worker.setDaemon(true);
+		worker.start();
+		logger.info("StationChangeStreamListener :: start : following station changes as node " + nodeId);
+	}
+
+	private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+		ChangeStreamIterable<Document> stream = mongoTemplate.getCollection("station").watch();
+		if (resumeToken != null)
+			stream = stream.resumeAfter(resumeToken);
+		return stream.maxAwaitTime(1, TimeUnit.SECONDS).cursor();
+	}
+
+	private void follow(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+		long backoff = 1000;
+		int failedReplays = 0;
+		boolean reloadPending = false;
+		while (running) {
+			try {
+				if (cursor == null) {
+					cursor = open();
+					// the stream is open before the reload, so no write falls between them
+					if (reloadPending) {
+						reload();
+						reloadPending = false;
+					}
+				}
+				ChangeStreamDocument<Document> event = cursor.tryNext();
+				if (event != null && event.getOperationType() == OperationType.INVALIDATE) {
+					close(cursor);
+					cursor = null;
+					resumeToken = null;
+					saveResumeToken(true);
+					reload();
+					continue;
+				}
+				if (event != null) {
+					apply(event);
+					failedReplays = 0;
+				}
+				if (cursor.getResumeToken() != null)
+					resumeToken = cursor.getResumeToken();
+				saveResumeToken(false);
+				backoff = 1000;
+			} catch (MongoInterruptedException e) {
+				break;
+			} catch (MongoException e) {
+				close(cursor);
+				cursor = null;
+				if (e instanceof MongoCommandException
+						&& RESUME_LOST_CODES.contains(((MongoCommandException) e).getErrorCode())) {
+					logger.error("StationChangeStreamListener :: follow : resume point lost, reloading");
+					resumeToken = null;
+					saveResumeToken(true);
+					reload();
+					continue;
+				}
+				logger.error("StationChangeStreamListener :: follow : " + e.getLocalizedMessage() + ", retrying in "
+						+ backoff + " ms");
+				if (!pause(backoff))
+					break;
+				backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+			} catch (Exception e) {
+				// the cursor has moved past the failed event: reopen it after the last applied one
+				close(cursor);
+				cursor = null;
+				boolean replay = resumeToken != null && ++failedReplays <= MAX_REPLAYS;
+				if (!replay) {
+					failedReplays = 0;
+					resumeToken = null;
+					saveResumeToken(true);
+					reloadPending = true;
+				}
+				logger.error("StationChangeStreamListener :: follow : event not applied, " + e.getLocalizedMessage()
+						+ (replay ? ", replaying it in " : ", reloading in ") + backoff + " ms");
+				if (!pause(backoff))
+					break;
+				backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+			}
+		}
+		close(cursor);
+	}
+
+	private void apply(ChangeStreamDocument<Document> event) {
+		eventCounter.increment();
+		switch (event.getOperationType()) {
+		case INSERT:
+		case REPLACE:
+			refresh(stationId(event));
+			break;
+		case UPDATE:
+			if (ocppOnly(event.getUpdateDescription()))
+				stationLookupCache.evictStation(stationId(event));
+			else
+				refresh(stationId(event));
+			break;
+		case DELETE:
+			String stationId = stationId(event);
+			stationLookupCache.evictStation(stationId);
+			chargerSerialNumberIndex.removeStation(stationId);
+			stationGeoIndex.removeStation(stationId);
+			stationAutocompleteIndex.removeStation(stationId);
+			break;
+		default:
+			reload();
+		}
+	}
+
+	private boolean ocppOnly(UpdateDescription description) {
+		if (description == null || description.getUpdatedFields() == null)
+			return false;
+		if (description.getRemovedFields() != null && !description.getRemovedFields().isEmpty())
+			return false;
+		for (String path : description.getUpdatedFields().keySet()) {
+			if (!path.startsWith("chargers.") || !OCPP_FIELDS.contains(path.substring(path.lastIndexOf('.') + 1)))
+				return false;
+		}
+		return true;
+	}
+
+	private void refresh(String stationId) {
+		if (stationId == null)
+			return;
+		stationLookupCache.evictStation(stationId);
+		Station station = mongoTemplate.findById(stationId, Station.class);
+		if (station == null) {
+			chargerSerialNumberIndex.removeStation(stationId);
+			stationGeoIndex.removeStation(stationId);
+			stationAutocompleteIndex.removeStation(stationId);
+			return;
+		}
+		chargerSerialNumberIndex.refreshStation(station);
+		stationGeoIndex.refreshStation(station);
+		stationAutocompleteIndex.refreshStation(station);
+	}
+
+	private void reload() {
+		stationLookupCache.evictAll();
+		chargerSerialNumberIndex.rebuild();
+		stationGeoIndex.rebuild();
+		stationAutocompleteIndex.rebuild();
+	}
+
+	private String stationId(ChangeStreamDocument<Document> event) {
+		BsonDocument key = event.getDocumentKey();
+		BsonValue id = key == null ? null : key.get("_id");
+		if (id == null)
+			return null;
+		return id.isString() ? id.asString().getValue() : id.isObjectId() ? id.asObjectId().getValue().toHexString()
+				: id.toString();
+	}
+
+	private BsonDocument loadResumeToken() {
+		try {
+			Document stored = mongoTemplate.findById(nodeId, Document.class, TOKEN_COLLECTION);
+			if (stored != null && stored.get("resumeToken") instanceof Document)
+				return BsonDocument.parse(stored.get("resumeToken", Document.class).toJson());
+		} catch (Exception e) {
+			logger.error("StationChangeStreamListener :: loadResumeToken : " + e.getLocalizedMessage());
+		}
+		return null;
+	}
+
+	private void saveResumeToken(boolean force) {
+		long now = System.currentTimeMillis();
+		if (!force && (resumeToken == null || resumeToken.equals(savedToken) || now - tokenSavedAt < tokenSaveIntervalMs))
+			return;
+		tokenSavedAt = now;
+		savedToken = resumeToken;
+		try {
+			Update update = new Update().set("modifiedDate", new Date());
+			if (resumeToken == null)
+				update.unset("resumeToken");
+			else
+				update.set("resumeToken", Document.parse(resumeToken.toJson()));
+			mongoTemplate.upsert(Query.query(Criteria.where("_id").is(nodeId)), update, TOKEN_COLLECTION);
+		} catch (Exception e) {
+			logger.error("StationChangeStreamListener :: saveResumeToken : " + e.getLocalizedMessage());
+		}
+	}
+
+	private boolean pause(long millis) {
+		try {
+			Thread.sleep(millis);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void close(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+		if (cursor == null)
+			return;
+		try {
+			cursor.close();
+		} catch (Exception e) {
+			logger.warn("StationChangeStreamListener :: close : " + e.getLocalizedMessage());
+		}
+	}
+
+	private String hostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (Exception e) {
+			return "station-service";
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (!running)
+			return;
+		running = false;
+		try {
+			worker.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		saveResumeToken(true);
+		logger.info("StationChangeStreamListener :: shutdown : resume token saved");
+	}
+
+}
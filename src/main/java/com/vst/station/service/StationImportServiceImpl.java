@@ -0,0 +1,428 @@
+package com.vst.station.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.vst.station.converter.ChargerConverter;
+import com.vst.station.converter.ConnectorConverter;
+import com.vst.station.converter.StationConveter;
+import com.vst.station.dto.ChargerDTO;
+import com.vst.station.dto.ConnectorDTO;
+import com.vst.station.dto.StationDTO;
+import com.vst.station.dto.StationImportErrorDTO;
+import com.vst.station.dto.StationImportReportDTO;
+import com.vst.station.exception.InValidDataException;
+import com.vst.station.exception.StationException;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.index.StationAutocompleteIndex;
+import com.vst.station.index.StationGeoIndex;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Connector;
+import com.vst.station.model.Location;
+import com.vst.station.model.Station;
+import com.vst.station.utils.IdAndDateGenerator;
+import com.vst.station.utils.Utility;
+
+/**
+ * Bulk import of new stations together with their chargers and connectors.
+ *
+ * NDJSON: one StationDTO per line, chargers and connectors nested as in
+ * addStation, addCharger and addConnector.
+ *
+ * CSV: a header with DTO field names and an optional "type" column. Rows of
+ * type STATION (the default) start a station, CHARGER rows belong to the
+ * last station and CONNECTOR rows to the last charger. List fields
+ * (stationAmenity, userAccessList) are separated by '|'.
+ *
+ * Every station is validated with the DTO constraints and built like the
+ * single add endpoints; a station with any invalid row is skipped and
+ * reported. Valid stations are inserted in unordered bulk operations of
+ * chunkSize stations.
+ */
+@Service
+public class StationImportServiceImpl implements StationImportServiceInterface {
+
+	public static final Logger logger = LogManager.getLogger(StationImportServiceImpl.class);
+
+	private static final Set<String> LIST_FIELDS = new HashSet<>(Arrays.asList("stationAmenity", "userAccessList"));
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private StationConveter stationConveter;
+
+	@Autowired
+	private ChargerConverter chargerConverter;
+
+	@Autowired
+	private ConnectorConverter connectorConverter;
+
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@Autowired
+	private StationGeoIndex stationGeoIndex;
+
+	@Autowired
+	private StationAutocompleteIndex stationAutocompleteIndex;
+
+	@Value("${station.import.chunkSize:1000}")
+	private int chunkSize;
+
+	@Value("${station.import.maxErrors:1000}")
+	private int maxErrors;
+
+	IdAndDateGenerator idAndDateGenerator = new IdAndDateGenerator();
+
+	Utility utility = new Utility();
+
+	/**
+	 * Usage: import stations from an NDJSON or CSV stream
+	 *
+	 * @param inputStream, contentType
+	 * @return report with the number of imported and failed stations and the
+	 *         errors per line
+	 */
+	@Override
+	public StationImportReportDTO bulkImport(InputStream inputStream, String contentType) throws IOException {
+		logger.info("StationImportServiceImpl :: bulkImport : execution Started");
+		long started = System.currentTimeMillis();
+		try {
+			if (contentType == null)
+				throw new InValidDataException("Content type is required, use application/x-ndjson or text/csv");
+
+			StationImportReportDTO report = new StationImportReportDTO();
+			BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+			if (contentType.contains("csv"))
+				importCsv(reader, report);
+			else if (contentType.contains("json"))
+				importNdjson(reader, report);
+			else
+				throw new InValidDataException(
+						"Unsupported content type " + contentType + ", use application/x-ndjson or text/csv");
+
+			report.setElapsedMillis(System.currentTimeMillis() - started);
+			logger.info("StationImportServiceImpl :: bulkImport : execution ended, " + report.getImported() + " of "
+					+ report.getStations() + " stations imported in " + report.getElapsedMillis() + " ms");
+			return report;
+
+		} catch (InValidDataException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
+
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
+
+		} catch (Exception e) {
+			StationException stationException = StationException.of(e, "bulk import of stations");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
+
+	private void importNdjson(BufferedReader reader, StationImportReportDTO report) throws IOException {
+		List<PendingStation> chunk = new ArrayList<>(chunkSize);
+		String line;
+		long lineNumber = 0;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank())
+				continue;
+			PendingStation pending = new PendingStation(lineNumber);
+			try {
+				pending.stationDTO = objectMapper.readValue(line, StationDTO.class);
+			} catch (JsonProcessingException e) {
+				pending.messages.add("invalid JSON: " + e.getOriginalMessage());
+			}
+			add(pending, chunk, report);
+		}
+		write(chunk, report);
+	}
+
+	private void importCsv(BufferedReader reader, StationImportReportDTO report) throws IOException {
+		String headerLine = reader.readLine();
+		if (headerLine == null)
+			return;
+		List<String> header = parseCsvLine(headerLine);
+
+		List<PendingStation> chunk = new ArrayList<>(chunkSize);
+		PendingStation pending = null;
+		ChargerDTO chargerDTO = null;
+		String line;
+		long lineNumber = 1;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank())
+				continue;
+
+			Map<String, Object> row = new LinkedHashMap<>();
+			List<String> cells = parseCsvLine(line);
+			String type = "STATION";
+			for (int i = 0; i < header.size() && i < cells.size(); i++) {
+				String column = header.get(i).trim();
+				String cell = cells.get(i);
+				if (column.equalsIgnoreCase("type")) {
+					if (!cell.isBlank())
+						type = cell.trim().toUpperCase();
+				} else if (!cell.isEmpty())
+					row.put(column, LIST_FIELDS.contains(column) ? Arrays.asList(cell.split("\\|")) : cell);
+			}
+
+			try {
+				switch (type) {
+				case "STATION":
+					if (pending != null)
+						add(pending, chunk, report);
+					pending = new PendingStation(lineNumber);
+					chargerDTO = null;
+					pending.stationDTO = objectMapper.convertValue(row, StationDTO.class);
+					break;
+				case "CHARGER":
+					if (pending == null) {
+						addError(report, lineNumber, null, List.of("charger row before the first station row"));
+						break;
+					}
+					chargerDTO = objectMapper.convertValue(row, ChargerDTO.class);
+					if (pending.stationDTO != null)
+						pending.stationDTO.getChargers().add(chargerDTO);
+					break;
+				case "CONNECTOR":
+					if (chargerDTO == null) {
+						if (pending != null)
+							pending.messages.add("line " + lineNumber + ": connector row without a charger row");
+						else
+							addError(report, lineNumber, null, List.of("connector row before the first station row"));
+						break;
+					}
+					chargerDTO.getConnectors().add(objectMapper.convertValue(row, ConnectorDTO.class));
+					break;
+				default:
+					if (pending != null)
+						pending.messages.add("line " + lineNumber + ": unknown row type " + type);
+					else
+						addError(report, lineNumber, null, List.of("unknown row type " + type));
+				}
+			} catch (IllegalArgumentException e) {
+				if (pending != null)
+					pending.messages.add("line " + lineNumber + ": " + e.getLocalizedMessage());
+				else
+					addError(report, lineNumber, null, List.of(e.getLocalizedMessage()));
+			}
+		}
+		if (pending != null)
+			add(pending, chunk, report);
+		write(chunk, report);
+	}
+
+	private List<String> parseCsvLine(String line) {
+		List<String> cells = new ArrayList<>();
+		StringBuilder cell = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					cell.append('"');
+					i++;
+				} else if (c == '"')
+					quoted = false;
+				else
+					cell.append(c);
+			} else if (c == '"')
+				quoted = true;
+			else if (c == ',') {
+				cells.add(cell.toString());
+				cell.setLength(0);
+			} else
+				cell.append(c);
+		}
+		cells.add(cell.toString());
+		return cells;
+	}
+
+	private void add(PendingStation pending, List<PendingStation> chunk, StationImportReportDTO report) {
+		report.setStations(report.getStations() + 1);
+		if (pending.stationDTO != null)
+			validate(pending);
+		if (!pending.messages.isEmpty() || pending.stationDTO == null) {
+			report.setFailed(report.getFailed() + 1);
+			addError(report, pending.line, pending.stationDTO == null ? null : pending.stationDTO.getStationName(),
+					pending.messages);
+			return;
+		}
+		pending.station = toEntity(pending.stationDTO);
+		chunk.add(pending);
+		if (chunk.size() >= chunkSize)
+			write(chunk, report);
+	}
+
+	private void validate(PendingStation pending) {
+		StationDTO stationDTO = pending.stationDTO;
+		if (stationDTO.getChargers() == null)
+			stationDTO.setChargers(new ArrayList<>());
+		if (stationDTO.getStationAmenity() == null)
+			stationDTO.setStationAmenity(new ArrayList<>());
+		for (ChargerDTO chargerDTO : stationDTO.getChargers()) {
+			if (chargerDTO.getConnectors() == null)
+				chargerDTO.setConnectors(new ArrayList<>());
+		}
+		for (ConstraintViolation<StationDTO> violation : validator.validate(stationDTO))
+			pending.messages.add(violation.getPropertyPath() + ": " + violation.getMessage());
+		for (int i = 0; i < stationDTO.getChargers().size(); i++) {
+			ChargerDTO chargerDTO = stationDTO.getChargers().get(i);
+			for (ConstraintViolation<ChargerDTO> violation : validator.validate(chargerDTO))
+				pending.messages
+						.add("chargers[" + i + "]." + violation.getPropertyPath() + ": " + violation.getMessage());
+			for (int j = 0; j < chargerDTO.getConnectors().size(); j++) {
+				for (ConstraintViolation<ConnectorDTO> violation : validator.validate(chargerDTO.getConnectors().get(j)))
+					pending.messages.add("chargers[" + i + "].connectors[" + j + "]." + violation.getPropertyPath()
+							+ ": " + violation.getMessage());
+			}
+		}
+	}
+
+	private Station toEntity(StationDTO stationDTO) {
+		Station station = stationConveter.dtoToEntity(stationDTO);
+		station.setStationId("STN" + idAndDateGenerator.idGenerator());
+		station.setStationName(utility.toTitleCase(station.getStationName()));
+		station.setStationCity(utility.toTitleCase(station.getStationCity()));
+		station.setActive(true);
+		station.setCreatedBy("Admin");
+		station.setCreatedDate(idAndDateGenerator.dateSetter());
+		station.setModifiedBy("New Account");
+		station.setModifiedDate(idAndDateGenerator.dateSetter());
+		List<String> amenities = new ArrayList<>(station.getStationAmenity().size());
+		for (String amenity : station.getStationAmenity())
+			amenities.add(utility.toTitleCase(amenity));
+		station.setStationAmenity(amenities);
+
+		Location location = new Location();
+		double coordinates[] = location.getCoordinates();
+		coordinates[0] = station.getStationLongitude();
+		coordinates[1] = station.getStationLatitude();
+		location.setCoordinates(coordinates);
+		station.setLocation(location);
+
+		List<Charger> chargers = new ArrayList<>(stationDTO.getChargers().size());
+		for (ChargerDTO chargerDTO : stationDTO.getChargers()) {
+			Charger charger = chargerConverter.dtoToEntity(chargerDTO);
+			charger.setChargerId("CHG" + idAndDateGenerator.idGenerator());
+			charger.setActive(true);
+			charger.setCreatedBy("Admin");
+			charger.setModifiedBy("Admin");
+			charger.setCreatedDate(idAndDateGenerator.dateSetter());
+			charger.setModifiedDate(idAndDateGenerator.dateSetter());
+
+			List<Connector> connectors = new ArrayList<>(chargerDTO.getConnectors().size());
+			for (ConnectorDTO connectorDTO : chargerDTO.getConnectors()) {
+				Connector connector = connectorConverter.dtoToEntity(connectorDTO);
+				connector.setConnectorId("CONN" + idAndDateGenerator.idGenerator());
+				connector.setConnectorLastAvailableTimeStamp(idAndDateGenerator.dateUpdate());
+				connector.setConnectorLastUnavailableTimeStamp(idAndDateGenerator.dateUpdate());
+				connector.setConnectorMeterValue(0);
+				connector.setConnectorErrorCode(" ");
+				connector.setConnectorInfo(" ");
+				connector.setConnectorTimeStamp(" ");
+				connector.setConnectorMeterRequestTimeStamp(" ");
+				connector.setCreatedBy("Admin");
+				connector.setCreatedDate(idAndDateGenerator.dateSetter());
+				connector.setModifiedBy("Admin");
+				connector.setModifiedDate(idAndDateGenerator.dateSetter());
+				connector.setActive(true);
+				connectors.add(connector);
+			}
+			charger.setConnectors(connectors);
+			charger.setChargerNumberOfConnector(connectors.size());
+			chargers.add(charger);
+		}
+		station.setChargers(chargers);
+		station.setChargerNumber(chargers.size());
+		return station;
+	}
+
+	private void write(List<PendingStation> chunk, StationImportReportDTO report) {
+		if (chunk.isEmpty())
+			return;
+		List<Station> stations = new ArrayList<>(chunk.size());
+		for (PendingStation pending : chunk)
+			stations.add(pending.station);
+
+		Set<Integer> failed = new HashSet<>();
+		BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Station.class);
+		bulkOperations.insert(stations);
+		try {
+			bulkOperations.execute();
+		} catch (BulkOperationException e) {
+			for (BulkWriteError error : e.getErrors()) {
+				failed.add(error.getIndex());
+				PendingStation pending = chunk.get(error.getIndex());
+				addError(report, pending.line, pending.station.getStationName(),
+						List.of("not written: " + error.getMessage()));
+			}
+		}
+
+		for (int i = 0; i < chunk.size(); i++) {
+			if (failed.contains(i))
+				continue;
+			Station station = chunk.get(i).station;
+			chargerSerialNumberIndex.refreshStation(station);
+			stationGeoIndex.refreshStation(station);
+			stationAutocompleteIndex.refreshStation(station);
+		}
+		report.setImported(report.getImported() + chunk.size() - failed.size());
+		report.setFailed(report.getFailed() + failed.size());
+		chunk.clear();
+	}
+
+	private void addError(StationImportReportDTO report, long line, String stationName, List<String> messages) {
+		if (report.getErrors().size() < maxErrors)
+			report.getErrors().add(new StationImportErrorDTO(line, stationName, new ArrayList<>(messages)));
+	}
+
+	private static class PendingStation {
+
+		private final long line;
+		private final List<String> messages = new ArrayList<>();
+		private StationDTO stationDTO;
+		private Station station;
+
+		PendingStation(long line) {
+			this.line = line;
+		}
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.vst.station.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.vst.station.dto.StationImportReportDTO;
+
+public interface StationImportServiceInterface {
+
+	public StationImportReportDTO bulkImport(InputStream inputStream, String contentType) throws IOException;
+
+}
@@ -0,0 +1,278 @@
+package com.vst.station.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.vst.station.index.ChargerLocation;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Station;
+import com.vst.station.repository.StationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache in front of the station lookups used by the read
+ * endpoints (findByStationIdAndIsActiveTrue, findStationByStationId and
+ * findByChargerId).
+ *
+ * The raw station document is cached by station id and a new Station is
+ * materialized on every hit, so callers may filter or modify the result
+ * without touching the cached copy. Charger ids are mapped to their station
+ * id, so one cached document serves all three lookups.
+ *
+ * Entries are bounded by size and time to live, and every service method that
+ * writes a station evicts it after the write. The charger serial numbers of a
+ * cached station are mapped to its id so writes by serial number can evict
+ * it; the mapping lives as long as the cached station. Hit, miss and eviction counts
+ * are published as the "cache.*" meters tagged cache=station and
+ * cache=chargerStation.
+ */
+@Component
+public class StationLookupCache {
+
+	public static final Logger logger = LogManager.getLogger(StationLookupCache.class);
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private StationRepository stationRepository;
+
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${station.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${station.cache.maximumSize:10000}")
+	private long maximumSize;
+
+	@Value("${station.cache.expireAfterWriteSeconds:300}")
+	private long expireAfterWriteSeconds;
+
+	private Cache<String, Document> stations;
+
+	private Cache<String, String> chargerStations;
+
+	private final Map<String, String> stationIdsBySerialNumber = new ConcurrentHashMap<>();
+
+	private Counter invalidationCounter;
+
+	@PostConstruct
+	public void init() {
+		stations = Caffeine.newBuilder().maximumSize(maximumSize)
+				.expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+				.executor(Runnable::run)
+				.removalListener((String stationId, Document document, RemovalCause cause) -> forgetSerialNumbers(
+						stationId, document))
+				.recordStats().build();
+		chargerStations = Caffeine.newBuilder().maximumSize(maximumSize * 4)
+				.expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS).recordStats().build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, stations, "station");
+		CaffeineCacheMetrics.monitor(meterRegistry, chargerStations, "chargerStation");
+		invalidationCounter = Counter.builder("station.cache.invalidations")
+				.description("Stations evicted from the lookup cache after a write").register(meterRegistry);
+	}
+
+	/**
+	 * Usage: cached equivalent of findByStationIdAndIsActiveTrue
+	 *
+	 * @param stationId
+	 * @return station or null
+	 */
+	public Station findByStationIdAndIsActiveTrue(String stationId) {
+		if (!enabled)
+			return stationRepository.findByStationIdAndIsActiveTrue(stationId);
+
+		Document document = load(stationId);
+		if (document == null || !Boolean.TRUE.equals(document.getBoolean("isActive")))
+			return null;
+		return mongoTemplate.getConverter().read(Station.class, document);
+	}
+
+	/**
+	 * Usage: cached equivalent of findStationByStationId (active station without
+	 * its chargers)
+	 *
+	 * @param stationId
+	 * @return station or null
+	 */
+	public Station findStationByStationId(String stationId) {
+		if (!enabled)
+			return stationRepository.findStationByStationId(stationId);
+
+		Document document = load(stationId);
+		if (document == null || !Boolean.TRUE.equals(document.getBoolean("isActive")))
+			return null;
+		Document withoutChargers = new Document(document);
+		withoutChargers.remove("chargers");
+		return mongoTemplate.getConverter().read(Station.class, withoutChargers);
+	}
+
+	/**
+	 * Usage: cached equivalent of findByChargerId (station id and the matching
+	 * charger only)
+	 *
+	 * @param chargerId
+	 * @return station or null
+	 */
+	public Station findByChargerId(String chargerId) {
+		if (!enabled)
+			return stationRepository.findByChargerId(chargerId);
+
+		String stationId = chargerStations.get(chargerId, this::stationIdOfCharger);
+		if (stationId == null)
+			return null;
+
+		Document document = load(stationId);
+		Document charger = document == null ? null : chargerDocument(document, chargerId);
+		if (charger == null) {
+			// the mapping is stale, let the repository answer
+			chargerStations.invalidate(chargerId);
+			return stationRepository.findByChargerId(chargerId);
+		}
+
+		Station station = new Station();
+		station.setStationId(stationId);
+		List<Charger> chargers = new ArrayList<>(1);
+		chargers.add(mongoTemplate.getConverter().read(Charger.class, charger));
+		station.setChargers(chargers);
+		return station;
+	}
+
+	private Document load(String stationId) {
+		if (stationId == null)
+			return null;
+		return stations.get(stationId, id -> {
+			Document document = mongoTemplate.findById(id, Document.class, "station");
+			if (document != null)
+				rememberSerialNumbers(id, document);
+			return document;
+		});
+	}
+
+	private String stationIdOfCharger(String chargerId) {
+		Query query = Query.query(Criteria.where("chargers._id").is(chargerId));
+		query.fields().include("_id");
+		Document document = mongoTemplate.findOne(query, Document.class, "station");
+		return document == null ? null : document.get("_id").toString();
+	}
+
+	private Document chargerDocument(Document station, String chargerId) {
+		List<Document> chargers = station.getList("chargers", Document.class);
+		if (chargers == null)
+			return null;
+		for (Document charger : chargers) {
+			if (chargerId.equals(String.valueOf(charger.get("_id"))))
+				return charger;
+		}
+		return null;
+	}
+
+	private List<String> serialNumbers(Document document) {
+		List<String> serialNumbers = new ArrayList<>();
+		List<Document> chargers = document == null ? null : document.getList("chargers", Document.class);
+		if (chargers != null) {
+			for (Document charger : chargers) {
+				String serialNumber = charger.getString("chargerSerialNumber");
+				if (serialNumber != null)
+					serialNumbers.add(serialNumber);
+			}
+		}
+		return serialNumbers;
+	}
+
+	private void rememberSerialNumbers(String stationId, Document document) {
+		for (String serialNumber : serialNumbers(document))
+			stationIdsBySerialNumber.put(serialNumber, stationId);
+	}
+
+	private void forgetSerialNumbers(String stationId, Document document) {
+		if (stationId == null || stations.asMap().containsKey(stationId))
+			return;
+		for (String serialNumber : serialNumbers(document))
+			stationIdsBySerialNumber.remove(serialNumber, stationId);
+	}
+
+	/**
+	 * Usage: evict a station after it was written
+	 *
+	 * @param stationId
+	 */
+	public void evictStation(String stationId) {
+		if (stationId == null)
+			return;
+		invalidationCounter.increment();
+		stations.invalidate(stationId);
+	}
+
+	/**
+	 * Usage: evict a station after it was written, together with the charger id
+	 * mappings of the given (saved) station
+	 *
+	 * @param station
+	 */
+	public void evictStation(Station station) {
+		if (station == null)
+			return;
+		if (station.getChargers() != null) {
+			for (Charger charger : station.getChargers()) {
+				if (charger.getChargerId() != null)
+					chargerStations.invalidate(charger.getChargerId());
+			}
+		}
+		evictStation(station.getStationId());
+	}
+
+	/**
+	 * Usage: evict the station of a charger after one of its chargers or
+	 * connectors was written by serial number
+	 *
+	 * @param chargerSerialNumber
+	 */
+	public void evictChargerSerialNumber(String chargerSerialNumber) {
+		if (chargerSerialNumber == null)
+			return;
+		ChargerLocation location = chargerSerialNumberIndex.get(chargerSerialNumber);
+		if (location != null)
+			evictStation(location.getStationId());
+		String stationId = stationIdsBySerialNumber.get(chargerSerialNumber);
+		if (stationId != null && (location == null || !stationId.equals(location.getStationId())))
+			evictStation(stationId);
+	}
+
+	/**
+	 * Usage: drop every entry
+	 */
+	public void evictAll() {
+		invalidationCounter.increment();
+		stations.invalidateAll();
+		chargerStations.invalidateAll();
+	}
+
+}
@@ -1,9 +1,7 @@
 package com.vst.station.service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 
@@ -18,8 +16,12 @@ import java.nio.charset.StandardCharsets;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import javax.transaction.Transactional;
 import javax.validation.constraints.Pattern.Flag;
@@ -27,12 +29,24 @@ import javax.validation.constraints.Pattern.Flag;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.annotations.NotFound;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vst.station.converter.ChargerConverter;
 import com.vst.station.converter.ConnectorConverter;
 import com.vst.station.converter.StationConveter;
@@ -43,12 +57,18 @@ import com.vst.station.dto.StationDTO1;
 import com.vst.station.dto.StationFindDTO;
 import com.vst.station.dto.StationHostDTO;
 import com.vst.station.dto.StationUpdateDTO;
+import com.vst.station.dto.StationClusterDTO;
+import com.vst.station.dto.StationViewportDTO;
 import com.vst.station.exception.ChargerNotFoundException;
 import com.vst.station.exception.InValidDataException;
 import com.vst.station.exception.InValidIdExcepetion;
 import com.vst.station.exception.StationException;
 import com.vst.station.exception.StationIdNotAcceptableException;
 import com.vst.station.exception.StationNotFoundException;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.index.StationAutocompleteIndex;
+import com.vst.station.index.StationGeoIndex;
+import com.vst.station.index.StationSearchTokens;
 import com.vst.station.model.Charger;
 import com.vst.station.model.Connector;
 import com.vst.station.model.Coordinate;
@@ -85,6 +105,27 @@ public class StationServiceImpl implements StationServiceInterface {
 	@Autowired
 	MongoTemplate mongoTemplate;
 
+	@Autowired
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	@Autowired
+	private StationGeoIndex stationGeoIndex;
+
+	@Autowired
+	private StationAutocompleteIndex stationAutocompleteIndex;
+
+	@Autowired
+	private StationLookupCache stationLookupCache;
+
+	@Autowired
+	private ConnectorStateStore connectorStateStore;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserServiceClient userServiceClient;
+
 	IdAndDateGenerator idAndDateGenerator = new IdAndDateGenerator();
 
 	Utility utility = new Utility();
@@ -95,8 +136,34 @@ public class StationServiceImpl implements StationServiceInterface {
 
 	public static final Logger logger = LogManager.getLogger(StationServiceImpl.class);
 
-	@Value("${userServiceLink}")
-	private String userServiceLink;
+	private static final int STREAM_BATCH_SIZE = 100;
+
+	@Value("${station.page.defaultLimit:100}")
+	private int defaultPageLimit;
+
+	@Value("${station.page.maxLimit:500}")
+	private int maxPageLimit;
+
+	@Value("${station.geo.maxResults:200}")
+	private int geoMaxResults;
+
+	@Value("${station.search.defaultLimit:20}")
+	private int searchDefaultLimit;
+
+	@Value("${station.search.maxLimit:100}")
+	private int searchMaxLimit;
+
+	@Value("${station.search.containsFallback:false}")
+	private boolean containsFallback;
+
+	@Value("${station.viewport.clusterMaxZoom:13}")
+	private int clusterMaxZoom;
+
+	@Value("${station.viewport.cellsPerTile:4}")
+	private int cellsPerTile;
+
+	@Value("${station.viewport.maxStations:500}")
+	private int viewportMaxStations;
 
 	/**
 	 * Usage: Add new Station
@@ -135,12 +202,11 @@ public class StationServiceImpl implements StationServiceInterface {
 				location.setCoordinates(a);
 				station.setLocation(location);
 
-				Station existingStation = stationRepository.findByStationId(station.getStationId());
-
-				if (existingStation != null) {
-					station.setStationId("STN" + idAndDateGenerator.idGenerator());
-				}
-				if (stationRepository.save(station) != null) {
+				Station saved = stationRepository.insert(station);
+				if (saved != null) {
+					stationGeoIndex.refreshStation(saved);
+					stationAutocompleteIndex.refreshStation(saved);
+					stationLookupCache.evictStation(saved);
 					logger.info("StationServiceImpl :: addStation : execution Ended");
 
 					return true;
@@ -152,17 +218,13 @@ public class StationServiceImpl implements StationServiceInterface {
 			}
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
 
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(), "Add New Station",
-					e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(), "Add New Station",
-					e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "Add New Station");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -232,11 +294,13 @@ public class StationServiceImpl implements StationServiceInterface {
 
 						if (stationObj.getStationLatitude() != 0) {
 							obj.setStationLatitude(utility.sanitizeCoordinate(stationObj.getStationLatitude()));
+							obj.getLocation().getCoordinates()[1] = obj.getStationLatitude();
 							flag = true;
 						}
 
 						if (stationObj.getStationLongitude() != 0) {
 							obj.setStationLongitude(utility.sanitizeCoordinate(stationObj.getStationLongitude()));
+							obj.getLocation().getCoordinates()[0] = obj.getStationLongitude();
 							flag = true;
 						}
 
@@ -293,7 +357,11 @@ public class StationServiceImpl implements StationServiceInterface {
 						obj.setModifiedBy("Admin");
 						obj.setModifiedDate(idAndDateGenerator.dateSetter());
 						if (flag) {
-							if (stationRepository.save(obj) != null) {
+							Station saved = stationRepository.save(obj);
+							if (saved != null) {
+								stationGeoIndex.refreshStation(saved);
+								stationAutocompleteIndex.refreshStation(saved);
+								stationLookupCache.evictStation(saved);
 								logger.info("StationServiceImpl :: UpdateStation : execution Ended");
 								return true;
 							} else
@@ -313,29 +381,25 @@ public class StationServiceImpl implements StationServiceInterface {
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
 
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"update station using Station Id", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"update station using Station Id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "update station using Station Id");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -356,6 +420,10 @@ public class StationServiceImpl implements StationServiceInterface {
 				if (obj != null) {
 					obj.setActive(false);
 					if (stationRepository.save(obj) != null) {
+						chargerSerialNumberIndex.removeStation(obj.getStationId());
+						stationGeoIndex.removeStation(obj.getStationId());
+						stationAutocompleteIndex.removeStation(obj.getStationId());
+						stationLookupCache.evictStation(obj);
 						logger.info("StationServiceImpl :: removeStation : execution ended");
 						return true;
 					} else
@@ -370,24 +438,20 @@ public class StationServiceImpl implements StationServiceInterface {
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"remove station using station id", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"remove station using station id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "remove station using station id");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -404,23 +468,93 @@ public class StationServiceImpl implements StationServiceInterface {
 			List<Station> list = stationRepository.findAllByIsActiveTrue();
 			if (!list.isEmpty()) {
 				logger.info("StationServiceImpl :: showAll : execution ended");
-				return list;
+				return connectorStateStore.overlayStations(list);
 			} else
 				throw new StationNotFoundException("There is no stations. Please check and try agian");
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"show all the active station", e.getLocalizedMessage()));
+			StationException stationException = StationException.of(e, "show all the active station");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
+
+	/**
+	 * Usage: show one page of active stations ordered by station id
+	 * 
+	 * @param after (station id of the last station of the previous page, may be
+	 *              null), limit (may be null)
+	 * @return list of station object, empty after the last page
+	 */
+	@Override
+	public List<Station> showAll(String after, Integer limit) {
+		logger.info("StationServiceImpl :: showAll : page execution Started");
+		try {
+			List<Station> list = mongoTemplate.find(activeStationsPage(after, limit), Station.class);
+			logger.info("StationServiceImpl :: showAll : page execution ended");
+			return connectorStateStore.overlayStations(list);
+
+		} catch (InValidDataException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
+
+		} catch (Exception e) {
+			StationException stationException = StationException.of(e, "show one page of the active station");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
+
+	/**
+	 * Usage: write every active station to the output stream as newline
+	 * delimited JSON, reading them through a cursor
+	 * 
+	 * @param outputStream
+	 */
+	@Override
+	public void streamStations(OutputStream outputStream) throws IOException {
+		logger.info("StationServiceImpl :: streamStations : execution Started");
+		Query query = Query.query(Criteria.where("isActive").is(true)).with(Sort.by("_id"));
+		try (CloseableIterator<Station> stations = mongoTemplate.stream(query, Station.class)) {
+			List<Station> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+			while (stations.hasNext()) {
+				batch.add(stations.next());
+				if (batch.size() == STREAM_BATCH_SIZE || !stations.hasNext()) {
+					writeNdjson(connectorStateStore.overlayStations(batch).iterator(), outputStream);
+					batch.clear();
+				}
+			}
+		}
+		logger.info("StationServiceImpl :: streamStations : execution ended");
+	}
+
+	private Query activeStationsPage(String after, Integer limit) {
+		int pageLimit = limit == null ? defaultPageLimit : limit;
+		if (pageLimit < 1 || pageLimit > maxPageLimit)
+			throw new InValidDataException("Invalid limit. The limit must be between 1 and " + maxPageLimit);
+
+		Criteria criteria = Criteria.where("isActive").is(true);
+		if (after != null && !after.isBlank())
+			criteria = criteria.and("_id").gt(utility.stringSanitization(after));
+		return Query.query(criteria).with(Sort.by("_id")).limit(pageLimit);
+	}
+
+	private Query includeStationDTO1Fields(Query query) {
+		query.fields().include("stationName", "stationArea", "stationCity", "stationLatitude", "stationLongitude",
+				"stationStatus");
+		return query;
+	}
 
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"show all the active station", e.getLocalizedMessage());
+	private void writeNdjson(Iterator<?> documents, OutputStream outputStream) throws IOException {
+		while (documents.hasNext()) {
+			outputStream.write(objectMapper.writeValueAsBytes(documents.next()));
+			outputStream.write('\n');
 		}
+		outputStream.flush();
 	}
 
 	/**
@@ -435,7 +569,7 @@ public class StationServiceImpl implements StationServiceInterface {
 		logger.info("StationServiceImpl :: show : execution Started");
 		try {
 			if (!stationId.trim().isBlank() && stationId != null) {
-				Station station = stationRepository
+				Station station = stationLookupCache
 						.findByStationIdAndIsActiveTrue(utility.stringSanitization(stationId));
 				if (station != null) {
 					Station finalStation = station;
@@ -458,7 +592,7 @@ public class StationServiceImpl implements StationServiceInterface {
 						finalStation.setChargers(finalList);
 					}
 					logger.info("StationServiceImpl :: show : execution ended");
-					return finalStation;
+					return connectorStateStore.overlayStation(finalStation);
 				} else
 					throw new StationNotFoundException("Station Not Aavailable. Please Check and Try Again");
 			} else
@@ -467,20 +601,16 @@ public class StationServiceImpl implements StationServiceInterface {
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"show station using station id", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"show station using station id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "show station using station id");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -500,7 +630,7 @@ public class StationServiceImpl implements StationServiceInterface {
 						.findByStationHostIdAndIsActiveTrue(utility.stringSanitization(stationHostId));
 				if (!list.isEmpty()) {
 					logger.info("StationServiceImpl :: getByHostId : execution ended");
-					return list;
+					return connectorStateStore.overlayStations(list);
 				} else
 					throw new StationNotFoundException("station not avavilable, please check and try again ");
 			} else
@@ -508,20 +638,16 @@ public class StationServiceImpl implements StationServiceInterface {
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"Get List Of Station By Host Id", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"Get List Of Station By Host Id", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "Get List Of Station By Host Id");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -531,7 +657,7 @@ public class StationServiceImpl implements StationServiceInterface {
 			List<Station> list = stationRepository
 					.findByStationVendorIdAndIsActiveTrue(utility.stringSanitization(stationVendorId));
 			if (!list.isEmpty()) {
-				return list;
+				return connectorStateStore.overlayStations(list);
 			} else {
 				return list;
 			}
@@ -550,27 +676,60 @@ public class StationServiceImpl implements StationServiceInterface {
 	public List<StationDTO1> getRequiredStationData() {
 		logger.info("StationServiceImpl :: getRequiredStationData : execution Started");
 		try {
-			List<Station> stations = stationRepository.findAllByIsActiveTrue();
-			List<StationDTO1> dto1 = new ArrayList<>();
-			if (!stations.isEmpty()) {
+			List<StationDTO1> dto1 = stationRepository.findStationDTO1ByIsActiveTrue();
+			logger.info("StationServiceImpl :: getRequiredStationData : execution ended");
+			return dto1;
 
-				for (Station s : stations) {
-					dto1.add(stationConveter.entitytoStationDTO1(s));
-				}
-				logger.info("StationServiceImpl :: getRequiredStationData : execution ended");
-				return dto1;
-			} else
-				return dto1;
+		} catch (Exception e) {
+			StationException stationException = StationException.of(e, "get required details of station");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
+
+	/**
+	 * Usage: get one page of the required details of active stations ordered by
+	 * station id
+	 * 
+	 * @param after (station id of the last station of the previous page, may be
+	 *              null), limit (may be null)
+	 * @return list of StationDTO1, empty after the last page
+	 */
+	@Override
+	public List<StationDTO1> getRequiredStationData(String after, Integer limit) {
+		logger.info("StationServiceImpl :: getRequiredStationData : page execution Started");
+		try {
+			List<StationDTO1> list = mongoTemplate.find(includeStationDTO1Fields(activeStationsPage(after, limit)),
+					StationDTO1.class, "station");
+			logger.info("StationServiceImpl :: getRequiredStationData : page execution ended");
+			return list;
+
+		} catch (InValidDataException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get required details of station", e.getLocalizedMessage()));
+			StationException stationException = StationException.of(e, "get one page of required details of station");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
 
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get required details of station", e.getLocalizedMessage());
+	/**
+	 * Usage: write the required details of every active station to the output
+	 * stream as newline delimited JSON, reading only the StationDTO1 fields
+	 * through a cursor
+	 * 
+	 * @param outputStream
+	 */
+	@Override
+	public void streamRequiredStationData(OutputStream outputStream) throws IOException {
+		logger.info("StationServiceImpl :: streamRequiredStationData : execution Started");
+		Query query = includeStationDTO1Fields(Query.query(Criteria.where("isActive").is(true)).with(Sort.by("_id")));
+		try (CloseableIterator<StationDTO1> stations = mongoTemplate.stream(query, StationDTO1.class, "station")) {
+			writeNdjson(stations, outputStream);
 		}
+		logger.info("StationServiceImpl :: streamRequiredStationData : execution ended");
 	}
 
 	/**
@@ -579,38 +738,91 @@ public class StationServiceImpl implements StationServiceInterface {
 	 * @param query (keyword)
 	 * @return List of stations
 	 */
-	@Transactional
 	@Override
 	public List<StationDTO1> stationforApplication(String query) {
+		return stationforApplication(query, null);
+	}
+
+	/**
+	 * Usage: get stations by keyword fron search bar, most relevant first. Whole
+	 * words are matched through the station text index (name, area, zip code,
+	 * city and status); when no word matches, every word of the keyword is
+	 * matched as the start of a word of those fields through the search token
+	 * index, so partly typed words are found without a collection scan. The
+	 * unindexed substring match is only used behind
+	 * station.search.containsFallback.
+	 * 
+	 * @param query (keyword), limit (may be null)
+	 * @return List of stations
+	 */
+	@Override
+	public List<StationDTO1> stationforApplication(String query, Integer limit) {
 		logger.info("StationServiceImpl :: stationforApplication : execution Started");
 		try {
 			List<StationDTO1> dtos = new ArrayList<>();
 			if (!query.isBlank()) {
-
-				List<Station> list = stationRepository
-						.findByStationNameContainingIgnoreCaseAndIsActiveTrueOrStationAreaContainingIgnoreCaseAndIsActiveTrueOrStationZipCodeContainingIgnoreCaseAndIsActiveTrueOrStationCityContainingIgnoreCaseAndIsActiveTrueOrStationStatusContainingIgnoreCaseAndIsActiveTrue(
-								query, query, query, query, query);
-
-				if (!list.isEmpty()) {
-
-					for (Station station : list) {
-						dtos.add(stationConveter.entitytoStationDTO1(station));
-					}
-					logger.info("StationServiceImpl :: stationforApplication : execution ended");
-					return dtos;
-				} else
-					return dtos;
+				int resultLimit = limit == null ? searchDefaultLimit : limit;
+				if (resultLimit < 1 || resultLimit > searchMaxLimit)
+					throw new InValidDataException("Invalid limit. The limit must be between 1 and " + searchMaxLimit);
+
+				Query textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(query))
+						.sortByScore().addCriteria(Criteria.where("isActive").is(true)).limit(resultLimit);
+				dtos = mongoTemplate.find(includeStationDTO1Fields(textQuery), StationDTO1.class, "station");
+
+				if (dtos.isEmpty())
+					dtos = prefixSearch(query, resultLimit);
+				if (dtos.isEmpty() && containsFallback) {
+					dtos = stationRepository
+							.findStationDTO1ByStationNameContainingIgnoreCaseAndIsActiveTrueOrStationAreaContainingIgnoreCaseAndIsActiveTrueOrStationZipCodeContainingIgnoreCaseAndIsActiveTrueOrStationCityContainingIgnoreCaseAndIsActiveTrueOrStationStatusContainingIgnoreCaseAndIsActiveTrue(
+									query, query, query, query, query, PageRequest.of(0, resultLimit));
+				}
+				logger.info("StationServiceImpl :: stationforApplication : execution ended");
+				return dtos;
 			} else
 				return dtos;
+		} catch (InValidDataException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
+
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get station by keyword from serch bar", e.getLocalizedMessage()));
+			StationException stationException = StationException.of(e, "get station by keyword from serch bar");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
+
+	private List<StationDTO1> prefixSearch(String keyword, int limit) {
+		List<String> words = StationSearchTokens.tokens(keyword);
+		if (words.isEmpty())
+			return new ArrayList<>();
+		List<Pattern> prefixes = new ArrayList<>(words.size());
+		for (String word : words)
+			prefixes.add(Pattern.compile("^" + word)); // tokens hold letters and digits only
+		Query prefixQuery = Query.query(Criteria.where("searchTokens").all(prefixes).and("isActive").is(true))
+				.limit(limit);
+		return mongoTemplate.find(includeStationDTO1Fields(prefixQuery), StationDTO1.class, "station");
+	}
 
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get station by keyword from serch bar", e.getLocalizedMessage());
+	/**
+	 * Usage: suggest stations while the keyword is typed in the search bar.
+	 * Answered by the resident autocomplete index when it is warm, otherwise by
+	 * the keyword search.
+	 * 
+	 * @param prefix, limit (may be null)
+	 * @return List of stations, closest matches first
+	 */
+	@Override
+	public List<StationDTO1> autocomplete(String prefix, Integer limit) {
+		if (prefix == null || prefix.isBlank())
+			return new ArrayList<>();
+		int resultLimit = limit == null ? searchDefaultLimit : limit;
+		if (resultLimit < 1 || resultLimit > searchMaxLimit) {
+			logger.error("Invalid limit. The limit must be between 1 and " + searchMaxLimit);
+			throw new InValidDataException("Invalid limit. The limit must be between 1 and " + searchMaxLimit);
 		}
+		if (stationAutocompleteIndex.isWarm())
+			return stationAutocompleteIndex.suggest(prefix, resultLimit);
+		return stationforApplication(prefix, resultLimit);
 	}
 
 	/**
@@ -625,10 +837,10 @@ public class StationServiceImpl implements StationServiceInterface {
 		logger.info("StationServiceImpl :: getStation : execution Started");
 		try {
 			if (!stationId.isBlank() && stationId != null) {
-				Station station = stationRepository.findStationByStationId(utility.stringSanitization(stationId));
+				Station station = stationLookupCache.findStationByStationId(utility.stringSanitization(stationId));
 				if (station != null) {
 					logger.info("StationServiceImpl :: getStation : execution ended");
-					return station;
+					return connectorStateStore.overlayStation(station);
 				} else
 					throw new StationNotFoundException("Station Not Found");
 			} else
@@ -641,16 +853,12 @@ public class StationServiceImpl implements StationServiceInterface {
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"update station using station id ", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"update station using station id ", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "update station using station id ");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -660,30 +868,40 @@ public class StationServiceImpl implements StationServiceInterface {
 	 * @param latitute, longitute, max distance
 	 * @return station list
 	 */
-	@Transactional
 	@Override
 	public List<StationDTO1> getAllStationforRadius(double longitude, double latitude, double maxDistance) {
+		return getAllStationforRadius(longitude, latitude, maxDistance, null);
+	}
+
+	/**
+	 * Usage: get the nearest active stations in specific radius of map, nearest
+	 * first, with their distance in meters. Answered by the resident geo index
+	 * when it is warm, otherwise by one $geoNear aggregation that filters and
+	 * projects in Mongo.
+	 * 
+	 * @param latitute, longitute, max distance, limit (may be null)
+	 * @return station list
+	 */
+	@Override
+	public List<StationDTO1> getAllStationforRadius(double longitude, double latitude, double maxDistance,
+			Integer limit) {
 		logger.info("StationServiceImpl :: getAllStationforRadius : execution Started");
 		try {
 			if (latitude != 0 && longitude != 0 && maxDistance != 0) {
 				double longt = utility.sanitizeCoordinate(longitude);
 				double lat = utility.sanitizeCoordinate(latitude);
 				double minDistance = 10;
-				String type = "Point";
-				List<Station> stations = stationRepository.findByGeoLocation(type, longt, lat, maxDistance,
-						minDistance);
-				List<StationDTO1> finalList = new ArrayList<>();
-				if (!stations.isEmpty()) {
-
-					for (Station s : stations) {
-						if (s.isActive() == true) {
-							finalList.add(stationConveter.entitytoStationDTO1(s));
-						}
-					}
-					logger.info("StationServiceImpl :: getAllStationforRadius : execution ended");
-					return finalList;
-				} else
-					return finalList;
+				int resultLimit = limit == null ? geoMaxResults : Math.min(limit, geoMaxResults);
+				if (resultLimit < 1)
+					throw new InValidDataException("Invalid limit. The limit must be between 1 and " + geoMaxResults);
+
+				List<StationDTO1> finalList;
+				if (stationGeoIndex.isWarm())
+					finalList = stationGeoIndex.radius(lat, longt, maxDistance, minDistance, resultLimit);
+				else
+					finalList = geoNearStations(longt, lat, maxDistance, minDistance, resultLimit);
+				logger.info("StationServiceImpl :: getAllStationforRadius : execution ended");
+				return finalList;
 			} else
 				throw new InValidIdExcepetion("Provided Correct Longitude, Latitude Please check and try again.");
 
@@ -691,14 +909,198 @@ public class StationServiceImpl implements StationServiceInterface {
 			logger.error(e.getLocalizedMessage());
 			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
 
+		} catch (InValidDataException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
+
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get stations of specific radius in map ", e.getLocalizedMessage()));
+			StationException stationException = StationException.of(e, "get stations of specific radius in map ");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
+
+	/**
+	 * Usage: get the nearest active stations to a point of map, nearest first,
+	 * with their distance in meters
+	 * 
+	 * @param longitude, latitude, count, maxDistance (may be null)
+	 * @return station list
+	 */
+	@Override
+	public List<StationDTO1> getNearestStations(double longitude, double latitude, int count, Double maxDistance) {
+		logger.info("StationServiceImpl :: getNearestStations : execution Started");
+		try {
+			if (latitude != 0 && longitude != 0) {
+				double longt = utility.sanitizeCoordinate(longitude);
+				double lat = utility.sanitizeCoordinate(latitude);
+				if (count < 1 || count > geoMaxResults)
+					throw new InValidDataException("Invalid count. The count must be between 1 and " + geoMaxResults);
+				// half the earth's circumference when no maximum is given
+				double distance = maxDistance == null || maxDistance <= 0 ? 20_015_087 : maxDistance;
+
+				List<StationDTO1> finalList;
+				if (stationGeoIndex.isWarm())
+					finalList = stationGeoIndex.nearest(lat, longt, count, distance);
+				else
+					finalList = geoNearStations(longt, lat, distance, 0, count);
+				logger.info("StationServiceImpl :: getNearestStations : execution ended");
+				return finalList;
+			} else
+				throw new InValidIdExcepetion("Provided Correct Longitude, Latitude Please check and try again.");
+
+		} catch (InValidIdExcepetion e) {
+			logger.error(e.getLocalizedMessage());
+			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+
+		} catch (InValidDataException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
+
+		} catch (Exception e) {
+			StationException stationException = StationException.of(e, "get nearest stations in map ");
+			logger.error(stationException);
+			throw stationException;
+		}
+	}
+
+	private List<StationDTO1> geoNearStations(double longitude, double latitude, double maxDistance,
+			double minDistance, int limit) {
+		Document geoNear = new Document("near",
+				new Document("type", "Point").append("coordinates", Arrays.asList(longitude, latitude)))
+				.append("key", "location").append("distanceField", "distance").append("spherical", true)
+				.append("maxDistance", maxDistance).append("minDistance", minDistance)
+				.append("query", new Document("isActive", true));
+		Document projection = new Document("stationName", 1).append("stationArea", 1).append("stationCity", 1)
+				.append("stationLatitude", 1).append("stationLongitude", 1).append("stationStatus", 1)
+				.append("distance", 1);
+
+		Aggregation aggregation = Aggregation.newAggregation(context -> new Document("$geoNear", geoNear),
+				Aggregation.limit(limit), context -> new Document("$project", projection));
+		return mongoTemplate.aggregate(aggregation, "station", StationDTO1.class).getMappedResults();
+	}
+
+	/**
+	 * Usage: get the active stations inside a map viewport. Up to
+	 * clusterMaxZoom the stations are grouped in Mongo into grid cells of
+	 * cellsPerTile cells per map tile (count, centroid and available connectors
+	 * per cell), above it the stations are returned individually. At most
+	 * maxStations stations or cells are returned; when the viewport holds more,
+	 * truncated is set and totalStations gives the number of stations in it.
+	 * 
+	 * @param minLatitude, minLongitude, maxLatitude, maxLongitude, zoom
+	 * @return clusters or stations of the viewport
+	 */
+	@Override
+	public StationViewportDTO getStationsInViewport(double minLatitude, double minLongitude, double maxLatitude,
+			double maxLongitude, int zoom) {
+		logger.info("StationServiceImpl :: getStationsInViewport : execution Started");
+		try {
+			if (minLatitude < -90 || maxLatitude > 90 || minLatitude > maxLatitude || minLongitude < -180
+					|| minLongitude > 180 || maxLongitude < -180 || maxLongitude > 180)
+				throw new InValidDataException("Invalid viewport. Please check the corner coordinates and try again");
+			if (zoom < 0 || zoom > 22)
+				throw new InValidDataException("Invalid zoom. The zoom must be between 0 and 22");
+
+			Criteria criteria = Criteria.where("isActive").is(true).and("stationLatitude").gte(minLatitude)
+					.lte(maxLatitude);
+			if (minLongitude <= maxLongitude)
+				criteria = criteria.and("stationLongitude").gte(minLongitude).lte(maxLongitude);
+			else // viewport crosses the antimeridian
+				criteria = criteria.orOperator(Criteria.where("stationLongitude").gte(minLongitude),
+						Criteria.where("stationLongitude").lte(maxLongitude));
+
+			StationViewportDTO viewport = new StationViewportDTO();
+			viewport.setZoom(zoom);
+			if (zoom > clusterMaxZoom) {
+				List<StationDTO1> stations = mongoTemplate.find(
+						includeStationDTO1Fields(Query.query(criteria).limit(viewportMaxStations + 1)),
+						StationDTO1.class, "station");
+				if (stations.size() > viewportMaxStations) {
+					stations = new ArrayList<>(stations.subList(0, viewportMaxStations));
+					viewport.setTruncated(true);
+				}
+				viewport.setStations(stations);
+			} else {
+				double cell = 360 / (Math.pow(2, zoom) * cellsPerTile);
+				Document matched = Query.query(criteria).getQueryObject();
+
+				Object connectorStatus = "$$connector.connectorStatus";
+				if (connectorStateStore.isSplit()) {
+					// a stored connector state replaces the embedded one, as in the overlay of the read paths
+					Document storedStatus = new Document("$map", new Document("input",
+							new Document("$filter", new Document("input", "$connectorStates").append("as", "state")
+									.append("cond", new Document("$eq", Arrays.asList("$$state._id", "$$connector._id")))))
+							.append("as", "state").append("in", "$$state.connectorStatus"));
+					connectorStatus = new Document("$ifNull", Arrays.asList(
+							new Document("$arrayElemAt", Arrays.asList(storedStatus, 0)), "$$connector.connectorStatus"));
+				}
+				Document connectorsAvailable = new Document("$size", new Document("$filter", new Document("input",
+						new Document("$ifNull", Arrays.asList("$$charger.connectors", Arrays.asList()))).append("as",
+								"connector")
+						.append("cond", new Document("$and", Arrays.asList(
+								new Document("$eq", Arrays.asList("$$connector.isActive", true)),
+								new Document("$eq", Arrays.asList(
+										new Document("$toLower", connectorStatus), "available")))))));
+				Document availableConnectors = new Document("$sum", new Document("$map",
+						new Document("input", new Document("$ifNull", Arrays.asList("$chargers", Arrays.asList())))
+								.append("as", "charger")
+								.append("in", new Document("$cond",
+										Arrays.asList(new Document("$eq", Arrays.asList("$$charger.isActive", true)),
+												connectorsAvailable, 0)))));
+
+				Document group = new Document("_id", new Document("row",
+						new Document("$floor", new Document("$divide",
+								Arrays.asList(new Document("$add", Arrays.asList("$stationLatitude", 90)), cell))))
+						.append("column", new Document("$floor", new Document("$divide",
+								Arrays.asList(new Document("$add", Arrays.asList("$stationLongitude", 180)), cell)))))
+						.append("count", new Document("$sum", 1))
+						.append("latitude", new Document("$avg", "$stationLatitude"))
+						.append("longitude", new Document("$avg", "$stationLongitude"))
+						.append("availableConnectors", new Document("$sum", "$availableConnectors"))
+						.append("stationId", new Document("$first", "$_id"));
+
+				List<AggregationOperation> pipeline = new ArrayList<>();
+				pipeline.add(context -> new Document("$match", matched));
+				if (connectorStateStore.isSplit())
+					pipeline.add(context -> new Document("$lookup",
+							new Document("from", "connectorState").append("localField", "_id")
+									.append("foreignField", "stationId").append("as", "connectorStates")));
+				pipeline.add(context -> new Document("$project", new Document("stationLatitude", 1)
+						.append("stationLongitude", 1).append("availableConnectors", availableConnectors)));
+				pipeline.add(context -> new Document("$group", group));
+				pipeline.add(Aggregation.limit(viewportMaxStations + 1));
+				Aggregation aggregation = Aggregation.newAggregation(pipeline);
+
+				List<Document> cells = mongoTemplate.aggregate(aggregation, "station", Document.class)
+						.getMappedResults();
+				if (cells.size() > viewportMaxStations) {
+					cells = cells.subList(0, viewportMaxStations);
+					viewport.setTruncated(true);
+				}
+				List<StationClusterDTO> clusters = new ArrayList<>();
+				for (Document document : cells) {
+					long count = ((Number) document.get("count")).longValue();
+					clusters.add(new StationClusterDTO(count, ((Number) document.get("latitude")).doubleValue(),
+							((Number) document.get("longitude")).doubleValue(),
+							((Number) document.get("availableConnectors")).longValue(),
+							count == 1 ? document.getString("stationId") : null));
+				}
+				viewport.setClusters(clusters);
+			}
+			if (viewport.isTruncated())
+				viewport.setTotalStations(mongoTemplate.count(Query.query(criteria), "station"));
+			logger.info("StationServiceImpl :: getStationsInViewport : execution ended");
+			return viewport;
 
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get stations of specific radius in map ", e.getLocalizedMessage());
+		} catch (InValidDataException e) {
+			logger.error(e.getLocalizedMessage());
+			throw e;
+
+		} catch (Exception e) {
+			StationException stationException = StationException.of(e, "get stations in map viewport");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
@@ -713,125 +1115,47 @@ public class StationServiceImpl implements StationServiceInterface {
 	public StationFindDTO getNameAndAddressStation(String stationId) {
 		logger.info("StationServiceImpl :: getNameAndAddressStation : execution Started");
 		try {
-			Station station = stationRepository.findByStationId(utility.stringSanitization(stationId));
+			StationFindDTO station = stationRepository
+					.findStationFindDTOByStationId(utility.stringSanitization(stationId));
+			if (station == null)
+				throw new StationNotFoundException("Station not Available Please Check and try again");
 			logger.info("StationServiceImpl :: getNameAndAddressStation : execution ended");
-			return stationConveter.entitytoStationFind(station);
+			return station;
 
 		} catch (Exception e) {
-			logger.error(new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get name and address of a specific station", e.getLocalizedMessage()));
-
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get name and address of specific station", e.getLocalizedMessage());
+			StationException stationException = StationException.of(e, "get name and address of specific station");
+			logger.error(stationException);
+			throw stationException;
 		}
 	}
 
+	/**
+	 * Usage: add users to the access list of a station by contact number or
+	 * email id, resolved to user ids by the user service in parallel
+	 * 
+	 * @param stationId, type (contactNo or emailId), list
+	 * @return boolean (true/false)
+	 */
 	@Override
 	public boolean addUserAccess(String stationId, String type, List<String> list) {
 
-		if (!type.isBlank() && type != null && !list.isEmpty()) {
+		if (type != null && !type.isBlank() && list != null && !list.isEmpty()) {
 
 			Station station = stationRepository.findByStationIdAndIsActiveTrue(utility.stringSanitization(stationId));
 			if (station != null) {
 
-				List<String> accessList = station.getUserAccessList();
-				switch (type.toLowerCase()) {
-				case "contactno":
-
-					for (String id : list) {
-						boolean flag = false;
-						String userId = null;
-						try {
-							URL url = new URL(userServiceLink + "/manageUser/getByContactNo?userContactNo=" + id);
-							HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-							connection.setRequestMethod("GET");
-							System.out.println(connection);
-							int responseCode = connection.getResponseCode();
-							if (responseCode == HttpURLConnection.HTTP_OK) {
-								BufferedReader reader = new BufferedReader(
-										new InputStreamReader(connection.getInputStream()));
-								userId = reader.readLine();
-								reader.close();
-							} else
-								logger.error(id + "Not Found ");
-
-						} catch (Exception e) {
-							throw new InValidDataException(e.getLocalizedMessage());
-						}
-
-						if (userId != null) {
-							if (!accessList.isEmpty()) {
-
-								for (String access : accessList) {
-									if (access.equals(userId)) {
-										flag = true;
-										break;
-									}
-								}
-								if (flag == false) {
-									accessList.add(userId);
-									station.setUserAccessList(accessList);
-								}
-							} else {
-								accessList.add(userId);
-								station.setUserAccessList(accessList);
-							}
-						}
-					}
-					stationRepository.save(station);
-					return true;
-
-				case "emailid":
-
-					for (String id : list) {
-						boolean flag = false;
-						String userId = null;
-						;
-						try {
-							URL url = new URL(userServiceLink + "/manageUser/getByEmail?userEmail=" + id);
-							HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-							connection.setRequestMethod("GET");
-							System.out.println(connection);
-							int responseCode = connection.getResponseCode();
-							if (responseCode == HttpURLConnection.HTTP_OK) {
-								BufferedReader reader = new BufferedReader(
-										new InputStreamReader(connection.getInputStream()));
-								userId = reader.readLine();
-								reader.close();
-							} else
-								logger.error(id + "Not Found ");
-
-						} catch (Exception e) {
-							throw new InValidDataException(e.getLocalizedMessage());
-						}
-
-						if (userId != null) {
-							if (!accessList.isEmpty()) {
-								for (String access : accessList) {
-									if (access.equals(userId)) {
-										flag = true;
-										break;
-									}
-								}
-								if (flag == false) {
-									accessList.add(userId);
-									station.setUserAccessList(accessList);
-								}
-							} else {
-								accessList.add(userId);
-								station.setUserAccessList(accessList);
-							}
-						}
-					}
-					System.out.println(station.getUserAccessList());
-					stationRepository.save(station);
-					return true;
+				Set<String> userIds = new LinkedHashSet<>();
+				for (String userId : userServiceClient.findUserIds(type, list).values()) {
+					if (userId != null && !station.getUserAccessList().contains(userId))
+						userIds.add(userId);
+				}
 
-				default:
-					throw new InValidDataException("please provide correct details and try again");
+				if (!userIds.isEmpty()) {
+					mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(station.getStationId())),
+							new Update().addToSet("userAccessList").each(userIds.toArray()), Station.class);
+					stationLookupCache.evictStation(station.getStationId());
 				}
+				return true;
 
 			} else
 				throw new StationNotFoundException("user not found, please check the details and try again");
@@ -844,7 +1168,7 @@ public class StationServiceImpl implements StationServiceInterface {
 		try {
 			logger.info("StationServiceImpl :: GetUserAccessList : execution started");
 			if (stationId != null && !stationId.isBlank()) {
-				Station station = stationRepository
+				Station station = stationLookupCache
 						.findByStationIdAndIsActiveTrue(utility.stringSanitization(stationId));
 				if (station != null) {
 
@@ -863,16 +1187,14 @@ public class StationServiceImpl implements StationServiceInterface {
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get user access list of specific station ", e.getLocalizedMessage());
+			throw StationException.of(e, "get user access list of specific station ");
 		}
 	}
 
@@ -910,6 +1232,7 @@ public class StationServiceImpl implements StationServiceInterface {
 							}
 						}
 						if (stationRepository.save(station) != null) {
+							stationLookupCache.evictStation(station.getStationId());
 							logger.info("StationServiceImpl :: addUserAccessList : execution ended");
 							return true;
 						} else {
@@ -925,20 +1248,18 @@ public class StationServiceImpl implements StationServiceInterface {
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidDataException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidDataException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"add user access list in specific station ", e.getLocalizedMessage());
+			throw StationException.of(e, "add user access list in specific station ");
 		}
 
 	}
@@ -950,7 +1271,7 @@ public class StationServiceImpl implements StationServiceInterface {
 			if (stationId != null && !stationId.isBlank()) {
 				if (userId != null && !userId.isBlank()) {
 
-					Station station = stationRepository.findByStationIdAndIsActiveTrue(stationId);
+					Station station = stationLookupCache.findByStationIdAndIsActiveTrue(stationId);
 					if (station != null) {
 
 						List<String> userAccessList = station.getUserAccessList();
@@ -984,20 +1305,18 @@ public class StationServiceImpl implements StationServiceInterface {
 
 		} catch (StationIdNotAcceptableException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationIdNotAcceptableException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (StationNotFoundException e) {
 			logger.error(e.getLocalizedMessage());
-			throw new StationNotFoundException(e.getLocalizedMessage());
+			throw e;
 
 		} catch (InValidIdExcepetion e) {
 			logger.error(e.getLocalizedMessage());
-			throw new InValidIdExcepetion(e.getLocalizedMessage());
+			throw e;
 
 		} catch (Exception e) {
-			throw new StationException("STN001", "ManageStation", e.getStackTrace()[0].getClassName(),
-					e.getStackTrace()[0].getMethodName(), e.getStackTrace()[0].getLineNumber(),
-					"get user access of specific station ", e.getLocalizedMessage());
+			throw StationException.of(e, "get user access of specific station ");
 		}
 	}
 
@@ -1024,6 +1343,7 @@ public class StationServiceImpl implements StationServiceInterface {
 						return false;
 					} else if (flag == true) {
 						stationRepository.save(station);
+						stationLookupCache.evictStation(station.getStationId());
 						return true;
 					} else
 						return false;
@@ -1042,18 +1362,8 @@ public class StationServiceImpl implements StationServiceInterface {
 
 			if (stationHostId != null && !stationHostId.isBlank()) {
 
-				List<Station> stations = stationRepository.findByStationHostIdAndIsActiveTrue(stationHostId);
-
-				List<StationHostDTO> dto = new ArrayList<>();
-				if (!stations.isEmpty()) {
-					 
-					for (Station station : stations) {
-						dto.add(stationConveter.stationEntitytoHostDTO(station));
-					}
-					logger.info("StationServiceImpl :: getStationByHostId : execution ended");
-					return dto;
-				} else
-					logger.info("StationServiceImpl :: getStationByHostId : execution ended");
+				List<StationHostDTO> dto = stationRepository.findStationHostDTOByStationHostId(stationHostId);
+				logger.info("StationServiceImpl :: getStationByHostId : execution ended");
 				return dto;
 			} else
 				throw new StationIdNotAcceptableException("Invalid Id, Please Check Details and Try Again");
@@ -1,5 +1,7 @@
 package com.vst.station.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import com.vst.station.dto.StationDTO;
@@ -7,6 +9,7 @@ import com.vst.station.dto.StationDTO1;
 import com.vst.station.dto.StationFindDTO;
 import com.vst.station.dto.StationHostDTO;
 import com.vst.station.dto.StationUpdateDTO;
+import com.vst.station.dto.StationViewportDTO;
 import com.vst.station.model.Station;
 
 public interface StationServiceInterface {
@@ -21,6 +24,10 @@ public interface StationServiceInterface {
 
 	public List<Station> showAll();
 
+	public List<Station> showAll(String after, Integer limit);
+
+	public void streamStations(OutputStream outputStream) throws IOException;
+
 	public Station show(String stationId);
 
 	public List<Station> getByHostId(String stationHostId);
@@ -29,10 +36,25 @@ public interface StationServiceInterface {
 
 	List<StationDTO1> getRequiredStationData();
 
+	List<StationDTO1> getRequiredStationData(String after, Integer limit);
+
+	void streamRequiredStationData(OutputStream outputStream) throws IOException;
+
 	List<StationDTO1> stationforApplication(String query);
 
+	List<StationDTO1> stationforApplication(String query, Integer limit);
+
+	List<StationDTO1> autocomplete(String prefix, Integer limit);
+
 	List<StationDTO1> getAllStationforRadius(double longitude, double latitude, double maxDistance);
 
+	List<StationDTO1> getAllStationforRadius(double longitude, double latitude, double maxDistance, Integer limit);
+
+	List<StationDTO1> getNearestStations(double longitude, double latitude, int count, Double maxDistance);
+
+	StationViewportDTO getStationsInViewport(double minLatitude, double minLongitude, double maxLatitude,
+			double maxLongitude, int zoom);
+
 //	public boolean removeStationConnector(String stationId, String chargerId, String connectorId);
 
 //	public List<Station> getInactiveStation();
@@ -0,0 +1,282 @@
+package com.vst.station.service;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vst.station.exception.InValidDataException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Resolves user contact numbers and email ids to user ids through the user
+ * service.
+ *
+ * One HttpClient is shared by all lookups, so connections are kept alive and
+ * reused. Every request has a connect and a response timeout. The lookups of
+ * one call are sent in parallel, and all calls together keep at most
+ * maxConcurrency requests in flight; responses are handled on a pool of
+ * maxConcurrency threads.
+ *
+ * Resolved ids are cached by identifier for expireAfterWriteSeconds, unknown
+ * identifiers (any 4xx answer) for negativeExpireAfterWriteSeconds. After
+ * failureThreshold consecutive failures (timeouts, connection errors, 5xx)
+ * the circuit opens: for openMs lookups that are not cached fail at once
+ * instead of waiting on the user service, then a single probe request
+ * decides whether it closes again. The call that sends the probe waits for
+ * its answer before it sends the rest of its lookups.
+ */
+@Component
+public class UserServiceClient {
+
+	public static final Logger logger = LogManager.getLogger(UserServiceClient.class);
+
+	@Value("${userServiceLink}")
+	private String userServiceLink;
+
+	@Value("${userService.connectTimeoutMs:2000}")
+	private long connectTimeoutMs;
+
+	@Value("${userService.requestTimeoutMs:5000}")
+	private long requestTimeoutMs;
+
+	@Value("${userService.maxConcurrency:16}")
+	private int maxConcurrency;
+
+	@Value("${userService.cache.maximumSize:10000}")
+	private long cacheMaximumSize;
+
+	@Value("${userService.cache.expireAfterWriteSeconds:600}")
+	private long expireAfterWriteSeconds;
+
+	@Value("${userService.cache.negativeExpireAfterWriteSeconds:60}")
+	private long negativeExpireAfterWriteSeconds;
+
+	@Value("${userService.circuit.failureThreshold:5}")
+	private int failureThreshold;
+
+	@Value("${userService.circuit.openMs:30000}")
+	private long openMs;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private ExecutorService executor;
+
+	private HttpClient httpClient;
+
+	// shared by all calls, so concurrent requests together stay within maxConcurrency
+	private Semaphore permits;
+
+	private Cache<String, Optional<String>> userIds;
+
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+	private final AtomicBoolean probing = new AtomicBoolean();
+
+	// 0 while the circuit is closed
+	private volatile long openUntil;
+
+	@PostConstruct
+	public void init() {
+		AtomicInteger threads = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+			Thread thread = new Thread(runnable, "userServiceClient-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor)
+				.connectTimeout(Duration.ofMillis(connectTimeoutMs)).build();
+		permits = new Semaphore(maxConcurrency);
+
+		long positiveNanos = TimeUnit.SECONDS.toNanos(expireAfterWriteSeconds);
+		long negativeNanos = TimeUnit.SECONDS.toNanos(negativeExpireAfterWriteSeconds);
+		userIds = Caffeine.newBuilder().maximumSize(cacheMaximumSize)
+				.expireAfter(new Expiry<String, Optional<String>>() {
+					@Override
+					public long expireAfterCreate(String key, Optional<String> userId, long currentTime) {
+						return userId.isPresent() ? positiveNanos : negativeNanos;
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, Optional<String> userId, long currentTime,
+							long currentDuration) {
+						return expireAfterCreate(key, userId, currentTime);
+					}
+
+					@Override
+					public long expireAfterRead(String key, Optional<String> userId, long currentTime,
+							long currentDuration) {
+						return currentDuration;
+					}
+				}).recordStats().build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, userIds, "userId");
+		Gauge.builder("userService.circuit.open", () -> openUntil == 0 ? 0 : 1)
+				.description("1 while lookups to the user service are short-circuited").register(meterRegistry);
+	}
+
+	@PreDestroy
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Usage: resolve contact numbers or email ids to user ids
+	 *
+	 * @param type (contactno or emailid), identifiers
+	 * @return user id per identifier in request order, null for unknown users
+	 */
+	public Map<String, String> findUserIds(String type, List<String> identifiers) {
+		String path;
+		switch (type.toLowerCase()) {
+		case "contactno":
+			path = "/manageUser/getByContactNo?userContactNo=";
+			break;
+		case "emailid":
+			path = "/manageUser/getByEmail?userEmail=";
+			break;
+		default:
+			throw new InValidDataException("please provide correct details and try again");
+		}
+
+		Map<String, String> resolved = new LinkedHashMap<>();
+		Map<String, CompletableFuture<String>> lookups = new LinkedHashMap<>();
+		try {
+			for (String identifier : identifiers) {
+				if (resolved.containsKey(identifier) || lookups.containsKey(identifier))
+					continue;
+				Optional<String> cached = userIds.getIfPresent(path + identifier);
+				if (cached != null) {
+					resolved.put(identifier, cached.orElse(null));
+					continue;
+				}
+				permits.acquire();
+				boolean halfOpen = openUntil != 0;
+				if (!allowRequest()) {
+					permits.release();
+					throw new InValidDataException("User service unavailable, please try again later");
+				}
+				CompletableFuture<String> lookup = lookup(path, identifier)
+						.whenComplete((userId, e) -> permits.release());
+				lookups.put(identifier, lookup);
+				// the probe decides alone whether the circuit closes, the other lookups follow it
+				if (halfOpen)
+					lookup.join();
+			}
+			CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0])).join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			lookups.values().forEach(lookup -> lookup.cancel(true));
+			throw new InValidDataException("user lookup interrupted");
+		} catch (InValidDataException e) {
+			lookups.values().forEach(lookup -> lookup.cancel(true));
+			throw e;
+		} catch (CompletionException e) {
+			lookups.values().forEach(lookup -> lookup.cancel(true));
+			Throwable cause = e.getCause() == null ? e : e.getCause();
+			throw new InValidDataException(cause.getLocalizedMessage() == null ? cause.toString()
+					: cause.getLocalizedMessage());
+		}
+
+		Map<String, String> userIdsByIdentifier = new LinkedHashMap<>();
+		for (String identifier : identifiers) {
+			CompletableFuture<String> lookup = lookups.get(identifier);
+			userIdsByIdentifier.put(identifier, lookup != null ? lookup.join() : resolved.get(identifier));
+		}
+		return userIdsByIdentifier;
+	}
+
+	private CompletableFuture<String> lookup(String path, String identifier) {
+		HttpRequest request = HttpRequest
+				.newBuilder(URI.create(userServiceLink + path + URLEncoder.encode(identifier, StandardCharsets.UTF_8)))
+				.timeout(Duration.ofMillis(requestTimeoutMs)).GET().build();
+
+		return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).handle((response, e) -> {
+			if (e != null) {
+				recordFailure();
+				throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+			}
+			if (response.statusCode() >= 500) {
+				recordFailure();
+				logger.error(identifier + " Not Found, user service answered " + response.statusCode());
+				return null;
+			}
+			recordSuccess();
+			String userId = response.statusCode() == 200 ? firstLine(response.body()) : null;
+			if (userId == null)
+				logger.error(identifier + " Not Found ");
+			userIds.put(path + identifier, Optional.ofNullable(userId));
+			return userId;
+		});
+	}
+
+	private boolean allowRequest() {
+		long until = openUntil;
+		if (until == 0)
+			return true;
+		if (System.currentTimeMillis() < until)
+			return false;
+		// half open: one probe at a time
+		return probing.compareAndSet(false, true);
+	}
+
+	private synchronized void recordSuccess() {
+		consecutiveFailures.set(0);
+		if (openUntil != 0) {
+			openUntil = 0;
+			logger.info("UserServiceClient :: recordSuccess : user service reachable again, circuit closed");
+		}
+		probing.set(false);
+	}
+
+	private synchronized void recordFailure() {
+		if (probing.get() || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+			if (openUntil == 0)
+				logger.error("UserServiceClient :: recordFailure : " + consecutiveFailures.get()
+						+ " failed lookups, circuit open for " + openMs + " ms");
+			openUntil = System.currentTimeMillis() + openMs;
+			probing.set(false);
+		}
+	}
+
+	private String firstLine(String body) {
+		if (body == null || body.isEmpty())
+			return null;
+		int end = 0;
+		while (end < body.length() && body.charAt(end) != '\n' && body.charAt(end) != '\r')
+			end++;
+		return body.substring(0, end);
+	}
+
+}
@@ -1,31 +1,112 @@
 package com.vst.station.utils;
 
-import java.text.SimpleDateFormat;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Generates ids and time stamps from the current time.
+ *
+ * Ids are "yyyyMMddHHmmssSSS" (UTC) followed by a three digit node id and a
+ * four digit sequence. The time and the sequence share one atomic counter
+ * (milliseconds * 10000 + sequence) that only moves forward, so ids are
+ * unique and increasing within the process without locking; if more than
+ * 10000 ids are asked for in one millisecond the counter borrows the next
+ * millisecond. Replicas get distinct node ids from IdGeneratorInitializer;
+ * the id derived from the host name and process id is only used outside the
+ * application context. A leased node id is only valid until its lease ends:
+ * past that time no id is issued, since another replica may hold the node id.
+ */
 public class IdAndDateGenerator {
-	
-	Date dNow = new Date();
-	
-	SimpleDateFormat dateFormat1 = new SimpleDateFormat("yyyyMMddHHmmssSSS");
-	
+
+	private static final long SEQUENCE_RANGE = 10_000L;
+
+	private static final int NODE_RANGE = 1000;
+
+	private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")
+			.withZone(ZoneOffset.UTC);
+
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")
+			.withZone(ZoneId.systemDefault());
+
+	private static final AtomicLong LAST = new AtomicLong();
+
+	private static volatile String node = format(derivedNodeId());
+
+	// epoch millis after which node may belong to another replica
+	private static volatile long nodeValidUntil = Long.MAX_VALUE;
+
+	/**
+	 * Usage: set the node id of this replica
+	 *
+	 * @param nodeId (0 - 999)
+	 */
+	public static void setNodeId(int nodeId) {
+		setNodeId(nodeId, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Usage: set a leased node id of this replica
+	 *
+	 * @param nodeId (0 - 999), validUntil (epoch millis the lease ends)
+	 */
+	public static void setNodeId(int nodeId, long validUntil) {
+		if (nodeId < 0 || nodeId >= NODE_RANGE)
+			throw new IllegalArgumentException("Node id must be between 0 and " + (NODE_RANGE - 1));
+		// node before validity: a reader never pairs a new validity with the old node
+		node = format(nodeId);
+		nodeValidUntil = validUntil;
+	}
+
+	/**
+	 * Usage: stop issuing ids until a node id is set again
+	 */
+	public static void expireNodeId() {
+		nodeValidUntil = 0;
+	}
+
 	public String idGenerator() {
-		
-		String idGen = dateFormat1.format(dNow);
-				
-		return idGen;
+		long millis = System.currentTimeMillis();
+		if (millis >= nodeValidUntil)
+			throw new IllegalStateException("The node id lease has ended, no id is issued until it is renewed");
+		long now = millis * SEQUENCE_RANGE;
+		long next = LAST.updateAndGet(last -> last < now ? now : last + 1);
+
+		StringBuilder id = new StringBuilder(24);
+		id.append(ID_FORMAT.format(Instant.ofEpochMilli(next / SEQUENCE_RANGE))).append(node);
+		String sequence = Long.toString(next % SEQUENCE_RANGE);
+		for (int i = sequence.length(); i < 4; i++)
+			id.append('0');
+		return id.append(sequence).toString();
 	}
 
 	public Date dateSetter() {
-		
-		return dNow;
+
+		return new Date();
 	}
-	
+
 	public String dateUpdate() {
-		
-		String dateSetter = dateFormat1.format(dNow);
-		
-		return dateSetter;
+
+		return DATE_FORMAT.format(Instant.now());
+	}
+
+	private static String format(int nodeId) {
+		return nodeId < 10 ? "00" + nodeId : nodeId < 100 ? "0" + nodeId : Integer.toString(nodeId);
+	}
+
+	private static int derivedNodeId() {
+		String name;
+		try {
+			name = InetAddress.getLocalHost().getHostName() + "/" + ManagementFactory.getRuntimeMXBean().getName();
+		} catch (Exception e) {
+			name = ManagementFactory.getRuntimeMXBean().getName();
+		}
+		return Math.floorMod(name.hashCode(), NODE_RANGE);
 	}
 
 }
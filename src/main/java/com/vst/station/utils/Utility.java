@@ -2,15 +2,62 @@ package com.vst.station.utils;
 
 public class Utility {
 
+	/**
+	 * Usage: remove every character that is not an ASCII letter or digit, the
+	 * same as replaceAll("[^a-zA-Z0-9]", "") without the regex
+	 *
+	 * @param inputId
+	 * @return the same instance when nothing is removed
+	 */
 	public String stringSanitization(String inputId) {
-		String sanitizedId = inputId.replaceAll("[^a-zA-Z0-9]", "");
-		return sanitizedId;
+		int length = inputId.length();
+		int i = 0;
+		while (i < length && isAsciiLetterOrDigit(inputId.charAt(i)))
+			i++;
+		if (i == length)
+			return inputId;
+
+		StringBuilder sanitizedId = new StringBuilder(length - 1);
+		sanitizedId.append(inputId, 0, i);
+		for (i++; i < length; i++) {
+			char c = inputId.charAt(i);
+			if (isAsciiLetterOrDigit(c))
+				sanitizedId.append(c);
+		}
+		return sanitizedId.toString();
+	}
+
+	private static boolean isAsciiLetterOrDigit(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
 	}
 
+	/**
+	 * Usage: title case the first character of every word
+	 *
+	 * @param input
+	 * @return the same instance when it is already title cased
+	 */
 	public String toTitleCase(String input) {
-		StringBuilder titleCase = new StringBuilder(input.length());
+		int length = input.length();
 		boolean nextTitleCase = true;
-		for (char c : input.toCharArray()) {
+		int i = 0;
+		for (; i < length; i++) {
+			char c = input.charAt(i);
+			if (Character.isSpaceChar(c)) {
+				nextTitleCase = true;
+			} else if (nextTitleCase) {
+				if (Character.toTitleCase(c) != c)
+					break;
+				nextTitleCase = false;
+			}
+		}
+		if (i == length)
+			return input;
+
+		StringBuilder titleCase = new StringBuilder(length);
+		titleCase.append(input, 0, i);
+		for (; i < length; i++) {
+			char c = input.charAt(i);
 			if (Character.isSpaceChar(c)) {
 				nextTitleCase = true;
 			} else if (nextTitleCase) {
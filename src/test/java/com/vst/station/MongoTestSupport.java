@@ -0,0 +1,50 @@
+package com.vst.station;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * In-memory MongoDB server (mongo-java-server) and a MongoTemplate on it, for
+ * tests that exercise the real queries and updates without a database. The
+ * given command listeners see every command sent to it.
+ */
+public class MongoTestSupport implements AutoCloseable {
+
+	private final MongoServer server;
+
+	private final MongoClient client;
+
+	private final MongoTemplate mongoTemplate;
+
+	public MongoTestSupport(CommandListener... commandListeners) {
+		server = new MongoServer(new MemoryBackend());
+		InetSocketAddress address = server.bind();
+		MongoClientSettings.Builder settings = MongoClientSettings.builder().applyConnectionString(
+				new ConnectionString("mongodb://" + address.getHostString() + ":" + address.getPort()));
+		for (CommandListener commandListener : commandListeners)
+			settings.addCommandListener(commandListener);
+		client = MongoClients.create(settings.build());
+		mongoTemplate = new MongoTemplate(client, "vChargeTest");
+	}
+
+	public MongoTemplate getMongoTemplate() {
+		return mongoTemplate;
+	}
+
+	@Override
+	public void close() {
+		client.close();
+		server.shutdown();
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.vst.station.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.MongoTestSupport;
+import com.vst.station.service.ScheduledJobLock;
+import com.vst.station.utils.IdAndDateGenerator;
+
+class IdGeneratorInitializerTest {
+
+	private MongoTestSupport mongo;
+
+	@BeforeEach
+	void start() {
+		mongo = new MongoTestSupport();
+	}
+
+	@AfterEach
+	void stop() {
+		IdAndDateGenerator.setNodeId(0);
+		mongo.close();
+	}
+
+	private IdGeneratorInitializer initializer(String owner, int nodeId) {
+		return initializer(owner, nodeId, 60_000L);
+	}
+
+	private IdGeneratorInitializer initializer(String owner, int nodeId, long leaseMs) {
+		ScheduledJobLock lock = new ScheduledJobLock();
+		ReflectionTestUtils.setField(lock, "mongoTemplate", mongo.getMongoTemplate());
+		ReflectionTestUtils.setField(lock, "owner", owner);
+		IdGeneratorInitializer initializer = new IdGeneratorInitializer();
+		ReflectionTestUtils.setField(initializer, "scheduledJobLock", lock);
+		ReflectionTestUtils.setField(initializer, "nodeId", nodeId);
+		ReflectionTestUtils.setField(initializer, "leaseMs", leaseMs);
+		return initializer;
+	}
+
+	@Test
+	void replicasWithoutNodeIdLeaseDistinctIds() {
+		IdGeneratorInitializer first = initializer("replica-1", -1);
+		IdGeneratorInitializer second = initializer("replica-2", -1);
+		IdGeneratorInitializer third = initializer("replica-3", -1);
+
+		first.init();
+		second.init();
+		assertEquals(0, first.getLeasedNodeId());
+		assertEquals(1, second.getLeasedNodeId());
+		assertTrue(new IdAndDateGenerator().idGenerator().startsWith("001", 17));
+
+		first.release();
+		third.init();
+		assertEquals(0, third.getLeasedNodeId(), "a released node id is leased again");
+		second.renew();
+		assertEquals(1, second.getLeasedNodeId(), "renewing keeps the node id");
+	}
+
+	@Test
+	void configuredNodeIdIsUsedWithoutLease() {
+		IdGeneratorInitializer initializer = initializer("replica-1", 7);
+
+		initializer.init();
+
+		assertEquals(-1, initializer.getLeasedNodeId());
+		assertTrue(new IdAndDateGenerator().idGenerator().startsWith("007", 17));
+	}
+
+	@Test
+	void startupFailsWhenNoNodeIdIsFree() {
+		List<Document> leases = new ArrayList<>();
+		for (int n = 0; n < 1000; n++)
+			leases.add(new Document("_id", "idGeneratorNode-" + n).append("lockedBy", "replica-1")
+					.append("lockedUntil", new Date(System.currentTimeMillis() + 60_000)));
+		mongo.getMongoTemplate().insert(leases, "scheduledJobLock");
+
+		assertThrows(IllegalStateException.class, () -> initializer("replica-2", -1).init());
+	}
+
+	@Test
+	void renewalFailingOnMongoKeepsTheNodeIdUntilTheLeaseEnds() throws InterruptedException {
+		IdGeneratorInitializer initializer = initializer("replica-1", -1, 1000L);
+		initializer.init();
+		ScheduledJobLock lock = (ScheduledJobLock) ReflectionTestUtils.getField(initializer, "scheduledJobLock");
+		MongoTemplate failing = mock(MongoTemplate.class);
+		when(failing.upsert(any(Query.class), any(Update.class), anyString()))
+				.thenThrow(new DataAccessResourceFailureException("timed out"));
+
+		ReflectionTestUtils.setField(lock, "mongoTemplate", failing);
+		initializer.renew();
+		assertEquals(0, initializer.getLeasedNodeId(), "a failed renewal keeps the node id");
+		assertTrue(new IdAndDateGenerator().idGenerator().startsWith("000", 17));
+
+		Thread.sleep(1200);
+		initializer.renew();
+		assertEquals(0, initializer.getLeasedNodeId());
+		assertThrows(IllegalStateException.class, () -> new IdAndDateGenerator().idGenerator(),
+				"no id is issued once the lease has ended");
+
+		ReflectionTestUtils.setField(lock, "mongoTemplate", mongo.getMongoTemplate());
+		initializer.renew();
+		assertEquals(0, initializer.getLeasedNodeId(), "the same node id is leased again");
+		assertTrue(new IdAndDateGenerator().idGenerator().startsWith("000", 17));
+	}
+
+	@Test
+	void leaseTakenOverDuringAnOutageMovesToAFreeNodeId() throws InterruptedException {
+		IdGeneratorInitializer first = initializer("replica-1", -1, 100L);
+		first.init();
+		ScheduledJobLock lock = (ScheduledJobLock) ReflectionTestUtils.getField(first, "scheduledJobLock");
+		MongoTemplate failing = mock(MongoTemplate.class);
+		when(failing.upsert(any(Query.class), any(Update.class), anyString()))
+				.thenThrow(new DataAccessResourceFailureException("timed out"));
+		ReflectionTestUtils.setField(lock, "mongoTemplate", failing);
+
+		Thread.sleep(200);
+		first.renew();
+		IdGeneratorInitializer second = initializer("replica-2", -1);
+		second.init();
+		assertEquals(0, second.getLeasedNodeId(), "the ended lease is taken over");
+
+		ReflectionTestUtils.setField(lock, "mongoTemplate", mongo.getMongoTemplate());
+		ReflectionTestUtils.setField(first, "leaseMs", 60_000L);
+		first.renew();
+		assertEquals(1, first.getLeasedNodeId());
+		assertTrue(new IdAndDateGenerator().idGenerator().startsWith("001", 17));
+	}
+
+}
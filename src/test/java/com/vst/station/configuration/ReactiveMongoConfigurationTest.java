@@ -0,0 +1,35 @@
+package com.vst.station.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+
+class ReactiveMongoConfigurationTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withUserConfiguration(ReactiveMongoConfiguration.class)
+			.withPropertyValues("spring.data.mongodb.uri=mongodb://127.0.0.1:1/vChargeTest");
+
+	@Test
+	void noReactiveClientByDefault() {
+		contextRunner.run(context -> {
+			assertThat(context).doesNotHaveBean(MongoClient.class);
+			assertThat(context).doesNotHaveBean(ReactiveMongoTemplate.class);
+		});
+		contextRunner.withPropertyValues("station.ocpp.reactive=false")
+				.run(context -> assertThat(context).doesNotHaveBean(MongoClient.class));
+	}
+
+	@Test
+	void reactiveClientAndTemplateWhenEnabled() {
+		contextRunner.withPropertyValues("station.ocpp.reactive=true").run(context -> {
+			assertThat(context).hasSingleBean(MongoClient.class);
+			assertThat(context).hasSingleBean(ReactiveMongoTemplate.class);
+		});
+	}
+
+}
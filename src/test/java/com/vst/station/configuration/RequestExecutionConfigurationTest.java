@@ -0,0 +1,117 @@
+package com.vst.station.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.vst.station.error.StationApiError;
+import com.vst.station.exception.InValidDataException;
+
+class RequestExecutionConfigurationTest {
+
+	@RestController
+	static class ThreadController {
+
+		@GetMapping("/thread")
+		public ResponseEntity<?> thread(@RequestParam("name") String name) {
+			return ResponseEntity.ok(name + ":" + Thread.currentThread().getName());
+		}
+
+		@PostMapping("/echo")
+		public ResponseEntity<String> echo(@RequestBody String body) {
+			return ResponseEntity.ok(body);
+		}
+
+		@GetMapping("/missing")
+		public ResponseEntity<?> missing() {
+			throw new InValidDataException("no such charger");
+		}
+
+	}
+
+	@Configuration
+	@ImportAutoConfiguration({ ServletWebServerFactoryAutoConfiguration.class,
+			DispatcherServletAutoConfiguration.class, WebMvcAutoConfiguration.class,
+			HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class })
+	@Import({ RequestExecutionConfiguration.class, ThreadController.class, StationApiError.class })
+	static class WebApplication {
+
+	}
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private ConfigurableApplicationContext start(String mode) {
+		// arguments, so that application.properties does not override them
+		return new SpringApplicationBuilder(WebApplication.class).run("--server.port=0",
+				"--station.requestExecution.mode=" + mode, "--station.requestExecution.async.threads=2");
+	}
+
+	private HttpResponse<String> get(ConfigurableApplicationContext context, String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(uri(context, path)).build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private URI uri(ConfigurableApplicationContext context, String path) {
+		int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	@Test
+	void asyncModeRunsControllersOnTheRequestPool() throws Exception {
+		try (ConfigurableApplicationContext context = start("async")) {
+			HttpResponse<String> response = get(context, "/thread?name=CHG1");
+
+			assertEquals(200, response.statusCode());
+			assertTrue(response.body().startsWith("CHG1:request-"), response.body());
+
+			HttpResponse<String> echoed = client.send(HttpRequest.newBuilder(uri(context, "/echo"))
+					.header("Content-Type", "text/plain").POST(HttpRequest.BodyPublishers.ofString("meter value"))
+					.build(), HttpResponse.BodyHandlers.ofString());
+			assertEquals("meter value", echoed.body());
+		}
+	}
+
+	@Test
+	void asyncModeKeepsTheErrorMapping() throws Exception {
+		try (ConfigurableApplicationContext context = start("async")) {
+			HttpResponse<String> notFound = get(context, "/missing");
+			assertEquals(404, notFound.statusCode());
+			assertTrue(notFound.body().contains("no such charger"), notFound.body());
+
+			assertEquals(400, get(context, "/thread").statusCode(), "a missing parameter is still a bad request");
+		}
+	}
+
+	@Test
+	void platformModeRunsControllersOnTomcatThreads() throws Exception {
+		try (ConfigurableApplicationContext context = start("platform")) {
+			HttpResponse<String> response = get(context, "/thread?name=CHG1");
+
+			assertEquals(200, response.statusCode());
+			assertTrue(response.body().startsWith("CHG1:http-nio-"), response.body());
+		}
+	}
+
+}
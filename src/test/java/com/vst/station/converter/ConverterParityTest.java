@@ -0,0 +1,130 @@
+package com.vst.station.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.vst.station.dto.ChargerDTO;
+import com.vst.station.dto.ChargerGetDTO;
+import com.vst.station.dto.ChargerUpdateDTO;
+import com.vst.station.dto.ConnectorDTO;
+import com.vst.station.dto.ConnectorUpdateDTO;
+import com.vst.station.dto.StationDTO;
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.dto.StationFindDTO;
+import com.vst.station.dto.StationHostDTO;
+import com.vst.station.dto.StationUpdateDTO;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Connector;
+import com.vst.station.model.Station;
+
+/**
+ * Every converter mapping against BeanUtils.copyProperties on a source with
+ * all properties set, so a property added to a DTO or entity later and not to
+ * the converter fails here.
+ */
+class ConverterParityTest {
+
+	private final ConnectorConverter connectorConverter = new ConnectorConverter();
+
+	private final ChargerConverter chargerConverter = new ChargerConverter();
+
+	private final StationConveter stationConveter = new StationConveter();
+
+	ConverterParityTest() {
+		ReflectionTestUtils.setField(chargerConverter, "connectorConverter", connectorConverter);
+		ReflectionTestUtils.setField(stationConveter, "chargerConverter", chargerConverter);
+	}
+
+	@Test
+	void stationMappingsMatchCopyProperties() {
+		assertParity(StationDTO.class, Station::new, stationConveter::dtoToEntity);
+		assertParity(Station.class, StationDTO::new, stationConveter::entityToDto);
+		assertParity(Station.class, StationDTO1::new, stationConveter::entitytoStationDTO1);
+		assertParity(StationUpdateDTO.class, Station::new, stationConveter::updateDtoToEntity);
+		assertParity(Station.class, StationFindDTO::new, stationConveter::entitytoStationFind);
+		assertParity(Station.class, StationHostDTO::new, stationConveter::stationEntitytoHostDTO);
+	}
+
+	@Test
+	void chargerMappingsMatchCopyProperties() {
+		assertParity(ChargerDTO.class, Charger::new, chargerConverter::dtoToEntity);
+		assertParity(Charger.class, ChargerDTO::new, chargerConverter::entityToDto);
+		assertParity(Charger.class, ChargerGetDTO::new, chargerConverter::entityToDto1);
+		assertParity(ChargerUpdateDTO.class, Charger::new, chargerConverter::dtoToEntity1);
+	}
+
+	@Test
+	void connectorMappingsMatchCopyProperties() {
+		assertParity(ConnectorDTO.class, Connector::new, connectorConverter::dtoToEntity);
+		assertParity(Connector.class, ConnectorDTO::new, connectorConverter::entityToDto);
+		assertParity(ConnectorUpdateDTO.class, Connector::new, connectorConverter::dtoToEntity1);
+	}
+
+	private static <S, T> void assertParity(Class<S> sourceType, Supplier<T> target, Function<S, T> converter) {
+		S source = BeanUtils.instantiateClass(sourceType);
+		populate(source);
+		T expected = target.get();
+		BeanUtils.copyProperties(source, expected);
+
+		T actual = converter.apply(source);
+
+		int copied = 0;
+		for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(actual.getClass())) {
+			if (property.getReadMethod() == null || "class".equals(property.getName()))
+				continue;
+			Object expectedValue = ReflectionUtils.invokeMethod(property.getReadMethod(), expected);
+			assertEquals(expectedValue,
+					ReflectionUtils.invokeMethod(property.getReadMethod(), actual),
+					sourceType.getSimpleName() + " to " + actual.getClass().getSimpleName() + ": "
+							+ property.getName());
+			if (expectedValue != null && !Boolean.FALSE.equals(expectedValue))
+				copied++;
+		}
+		assertTrue(copied > 0, sourceType.getSimpleName() + " to " + actual.getClass().getSimpleName());
+	}
+
+	// a distinct non-default value in every writable property
+	private static void populate(Object bean) {
+		for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(bean.getClass())) {
+			if (property.getWriteMethod() == null)
+				continue;
+			Object value = value(property.getPropertyType(), property.getName());
+			if (value != null)
+				ReflectionUtils.invokeMethod(property.getWriteMethod(), bean, value);
+		}
+	}
+
+	private static Object value(Class<?> type, String name) {
+		int seed = (name.hashCode() & 0xffff) + 1;
+		if (type == String.class)
+			return name + "Value";
+		if (type == int.class || type == Integer.class)
+			return seed;
+		if (type == long.class || type == Long.class)
+			return (long) seed;
+		if (type == double.class || type == Double.class)
+			return seed + 0.5;
+		if (type == boolean.class || type == Boolean.class)
+			return true;
+		if (type == Date.class)
+			return new Date(1672531200000L + seed);
+		if (type == List.class)
+			return new ArrayList<>();
+		if (type.isEnum())
+			return type.getEnumConstants()[0];
+		return null;
+	}
+
+}
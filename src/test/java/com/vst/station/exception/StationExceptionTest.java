@@ -0,0 +1,51 @@
+package com.vst.station.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class StationExceptionTest {
+
+	private static void fail() {
+		throw new IllegalStateException("connection reset");
+	}
+
+	@Test
+	void ofKeepsTheStackTraceAndChainsTheCause() {
+		IllegalStateException failure = null;
+		try {
+			fail();
+		} catch (IllegalStateException e) {
+			failure = e;
+		}
+
+		StationException stationException = StationException.of(failure, "get station");
+
+		assertSame(failure, stationException.getCause());
+		assertTrue(stationException.getStackTrace().length > 0);
+		assertEquals(StationExceptionTest.class.getName(), stationException.getClassName());
+		assertEquals("fail", stationException.getMethodName());
+		assertEquals("connection reset", stationException.getMessage());
+		assertEquals("get station", stationException.getFunctionality());
+	}
+
+	@Test
+	void ofAcceptsACauseWithoutStackTrace() {
+		StationNotFoundException notFound = new StationNotFoundException("Station Not Found");
+
+		StationException stationException = StationException.of(notFound, "get station");
+
+		assertSame(notFound, stationException.getCause());
+		assertEquals(0, stationException.getLineNumber());
+	}
+
+	@Test
+	void businessExceptionsStayStackless() {
+		assertEquals(0, new StationNotFoundException("missing").getStackTrace().length);
+		assertEquals(0, new InValidIdExcepetion("invalid").getStackTrace().length);
+		assertEquals(0, new StationIdNotAcceptableException("invalid").getStackTrace().length);
+	}
+
+}
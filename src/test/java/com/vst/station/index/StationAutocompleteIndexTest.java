@@ -0,0 +1,123 @@
+package com.vst.station.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.model.Station;
+
+class StationAutocompleteIndexTest {
+
+	private StationAutocompleteIndex index;
+
+	@BeforeEach
+	void start() {
+		index = new StationAutocompleteIndex();
+		ReflectionTestUtils.setField(index, "enabled", true);
+		index.refreshStation(station("STN3", "Koramangala"));
+		index.refreshStation(station("STN2", "Korba"));
+		index.refreshStation(station("STN1", "Kor"));
+	}
+
+	private static Station station(String stationId, String stationName) {
+		Station station = new Station();
+		station.setStationId(stationId);
+		station.setStationName(stationName);
+		station.setActive(true);
+		return station;
+	}
+
+	private List<String> suggest(String prefix) {
+		return index.suggest(prefix, 10).stream().map(StationDTO1::getStationId).collect(Collectors.toList());
+	}
+
+	@Test
+	void exactPrefixMatchesShortestTermsFirst() {
+		assertEquals(List.of("STN1", "STN2", "STN3"), suggest("kor"));
+		assertEquals(List.of("STN1", "STN2", "STN3"), suggest("KO"));
+		assertEquals("STN3", suggest("kora").get(0), "a prefix ending inside a label matches that label");
+		assertEquals(List.of("STN3"), suggest("koramangala"));
+		assertEquals(List.of("STN1", "STN2"), index.suggest("kor", 2).stream().map(StationDTO1::getStationId)
+				.collect(Collectors.toList()));
+	}
+
+	@Test
+	void typosWithinTheAllowedEditsMatch() {
+		assertEquals(List.of("STN2"), suggest("korbs"), "one edit for 3 to 5 characters");
+		assertEquals(List.of("STN3"), suggest("kuramangla"), "two edits from 6 characters");
+		assertEquals(List.of(), suggest("kuranangla"), "not three");
+		assertEquals(List.of(), suggest("kxrna"), "not two edits for 5 characters");
+	}
+
+	@Test
+	void noFuzzyMatchBelowThreeCharacters() {
+		assertEquals(List.of(), suggest("kb"));
+		assertEquals(List.of(), suggest("x"));
+		assertEquals(List.of(), suggest(" "));
+	}
+
+	@Test
+	void renamedAndRemovedStationsLeaveNoStaleIds() {
+		index.refreshStation(station("STN3", "Indiranagar"));
+		assertFalse(suggest("koramangala").contains("STN3"));
+		assertEquals(List.of("STN3"), suggest("indira"));
+
+		index.removeStation("STN2");
+		assertEquals(List.of("STN1"), suggest("kor"));
+
+		Station inactive = station("STN1", "Kor");
+		inactive.setActive(false);
+		index.refreshStation(inactive);
+		assertEquals(List.of(), suggest("kor"));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void trieStaysCompactAsStationsChange() {
+		Random random = new Random(7);
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			StringBuilder name = new StringBuilder();
+			for (int c = 0; c < 3 + random.nextInt(6); c++)
+				name.append((char) ('a' + random.nextInt(4)));
+			ids.add("CHURN" + i);
+			index.refreshStation(station("CHURN" + i, name + " " + (char) ('a' + random.nextInt(4)) + "hub"));
+		}
+		for (int i = 0; i < ids.size(); i += 2)
+			index.removeStation(ids.get(i));
+		assertEquals(0, uncompactedNodes(ReflectionTestUtils.getField(index, "root"), true));
+
+		for (int i = 1; i < ids.size(); i += 2)
+			index.removeStation(ids.get(i));
+		assertEquals(0, uncompactedNodes(ReflectionTestUtils.getField(index, "root"), true));
+		assertEquals(List.of("STN1", "STN2", "STN3"), suggest("kor"));
+
+		index.removeStation("STN1");
+		index.removeStation("STN2");
+		index.removeStation("STN3");
+		assertEquals(0, ((Object[]) ReflectionTestUtils.getField(ReflectionTestUtils.getField(index, "root"),
+				"children")).length);
+		assertTrue(suggest("kor").isEmpty());
+	}
+
+	// nodes other than the root without stations and with a single child
+	private static int uncompactedNodes(Object node, boolean root) {
+		Object[] children = (Object[]) ReflectionTestUtils.getField(node, "children");
+		String[] stationIds = (String[]) ReflectionTestUtils.getField(node, "stationIds");
+		int count = !root && stationIds.length == 0 && children.length == 1 ? 1 : 0;
+		for (Object child : children)
+			count += uncompactedNodes(child, false);
+		return count;
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.vst.station.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.model.Station;
+
+class StationGeoIndexTest {
+
+	private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+	private final Random random = new Random(11);
+
+	private final List<Station> stations = new ArrayList<>();
+
+	private StationGeoIndex index(double cellSize) {
+		StationGeoIndex index = new StationGeoIndex();
+		ReflectionTestUtils.setField(index, "enabled", true);
+		ReflectionTestUtils.setField(index, "cellSize", cellSize);
+		// spread over the globe, packed along the antimeridian and around both poles
+		for (int i = 0; i < 3000; i++) {
+			double latitude;
+			double longitude;
+			switch (i % 3) {
+			case 0:
+				latitude = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+				longitude = -180 + 360 * random.nextDouble();
+				break;
+			case 1:
+				latitude = -60 + 120 * random.nextDouble();
+				longitude = random.nextBoolean() ? 180 - random.nextDouble() : -180 + random.nextDouble();
+				break;
+			default:
+				latitude = (random.nextBoolean() ? 1 : -1) * (85 + 5 * random.nextDouble());
+				longitude = -180 + 360 * random.nextDouble();
+			}
+			Station station = new Station();
+			station.setStationId("STN" + i);
+			station.setStationLatitude(latitude);
+			station.setStationLongitude(longitude);
+			station.setActive(true);
+			stations.add(station);
+			index.refreshStation(station);
+		}
+		return index;
+	}
+
+	private double[] queryPoint(int i) {
+		switch (i % 4) {
+		case 0:
+			return new double[] { -80 + 160 * random.nextDouble(), -180 + 360 * random.nextDouble() };
+		case 1:
+			double longitude = 179.5 + random.nextDouble();
+			return new double[] { -60 + 120 * random.nextDouble(), longitude > 180 ? longitude - 360 : longitude };
+		case 2:
+			return new double[] { (i % 8 == 2 ? 1 : -1) * (84 + 6 * random.nextDouble()),
+					-180 + 360 * random.nextDouble() };
+		default:
+			return new double[] { i % 8 == 3 ? 90 : -90, -180 + 360 * random.nextDouble() };
+		}
+	}
+
+	private double queryDistance() {
+		// from a neighbourhood to a continent
+		return Math.pow(10, 3 + 3.5 * random.nextDouble());
+	}
+
+	@ParameterizedTest
+	@ValueSource(doubles = { 0.1, 0.7, 5 })
+	void radiusMatchesBruteForce(double cellSize) {
+		StationGeoIndex index = index(cellSize);
+		for (int i = 0; i < 400; i++) {
+			double[] point = queryPoint(i);
+			double maxDistance = queryDistance();
+			double minDistance = i % 5 == 0 ? maxDistance / 3 : 0;
+			int limit = i % 2 == 0 ? 20 : Integer.MAX_VALUE;
+
+			assertEquals(bruteForce(point, minDistance, maxDistance, limit),
+					ids(index.radius(point[0], point[1], maxDistance, minDistance, limit)),
+					"radius " + maxDistance + " m around " + point[0] + ", " + point[1]);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(doubles = { 0.1, 0.7, 5 })
+	void nearestMatchesBruteForce(double cellSize) {
+		StationGeoIndex index = index(cellSize);
+		for (int i = 0; i < 400; i++) {
+			double[] point = queryPoint(i);
+			double maxDistance = i % 3 == 0 ? Double.MAX_VALUE : queryDistance();
+			int count = 1 + random.nextInt(20);
+
+			assertEquals(bruteForce(point, 0, maxDistance, count),
+					ids(index.nearest(point[0], point[1], count, maxDistance)),
+					count + " nearest within " + maxDistance + " m of " + point[0] + ", " + point[1]);
+		}
+	}
+
+	private List<String> bruteForce(double[] point, double minDistance, double maxDistance, int limit) {
+		Map<String, Double> distances = new HashMap<>();
+		for (Station station : stations) {
+			double distance = distance(point, station);
+			if (distance >= minDistance && distance <= maxDistance)
+				distances.put(station.getStationId(), distance);
+		}
+		return distances.keySet().stream().sorted(Comparator.comparingDouble(distances::get)).limit(limit)
+				.collect(Collectors.toList());
+	}
+
+	private static List<String> ids(List<StationDTO1> result) {
+		return result.stream().map(StationDTO1::getStationId).collect(Collectors.toList());
+	}
+
+	private static double distance(double[] point, Station station) {
+		double deltaLatitude = Math.toRadians(station.getStationLatitude() - point[0]);
+		double deltaLongitude = Math.toRadians(station.getStationLongitude() - point[1]);
+		double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+				+ Math.cos(Math.toRadians(point[0])) * Math.cos(Math.toRadians(station.getStationLatitude()))
+						* Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+		return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+}
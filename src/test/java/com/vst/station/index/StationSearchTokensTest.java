@@ -0,0 +1,108 @@
+package com.vst.station.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.MongoTestSupport;
+import com.vst.station.dto.StationDTO1;
+import com.vst.station.model.Station;
+import com.vst.station.service.StationServiceImpl;
+
+class StationSearchTokensTest {
+
+	private MongoTestSupport mongo;
+
+	private MongoTemplate mongoTemplate;
+
+	private GenericApplicationContext context;
+
+	private StationSearchTokens searchTokens;
+
+	@BeforeEach
+	void start() {
+		mongo = new MongoTestSupport();
+		mongoTemplate = mongo.getMongoTemplate();
+		context = new GenericApplicationContext();
+		context.registerBean(StationSearchTokens.class);
+		context.refresh();
+		searchTokens = context.getBean(StationSearchTokens.class);
+		ReflectionTestUtils.setField(searchTokens, "mongoTemplate", mongoTemplate);
+		mongoTemplate.setApplicationContext(context);
+	}
+
+	@AfterEach
+	void stop() {
+		context.close();
+		mongo.close();
+	}
+
+	@Test
+	void tokensAreDistinctLowerCaseWords() {
+		assertEquals(Arrays.asList("mg", "road", "ev", "hub", "bengaluru", "560001", "available"), StationSearchTokens
+				.tokens("MG Road EV-Hub", null, "Bengaluru", "560001", "  road ", "Available"));
+		assertEquals(Arrays.asList("münchen", "straße"), StationSearchTokens.tokens("München, Straße!"));
+	}
+
+	@Test
+	void tokensAreStoredOnSave() {
+		mongoTemplate.save(station("STN1", "Central Station", "Indiranagar", "Bengaluru", true));
+
+		Document stored = mongoTemplate.findById("STN1", Document.class, "station");
+		assertEquals(Arrays.asList("central", "station", "indiranagar", "bengaluru"),
+				stored.getList("searchTokens", String.class));
+	}
+
+	@Test
+	void backfillFillsStationsStoredWithoutTokens() {
+		mongoTemplate.insert(new Document("_id", "STN1").append("stationName", "Old Depot").append("isActive", true),
+				"station");
+
+		assertEquals(1, searchTokens.backfill());
+		assertEquals(Arrays.asList("old", "depot"),
+				mongoTemplate.findById("STN1", Document.class, "station").getList("searchTokens", String.class));
+		assertEquals(0, searchTokens.backfill());
+	}
+
+	@Test
+	void partialWordsMatchTheStartOfAnyWord() {
+		mongoTemplate.save(station("STN1", "Central Station", "Indiranagar", "Bengaluru", true));
+		mongoTemplate.save(station("STN2", "Airport Stand", "Devanahalli", "Bengaluru", true));
+		mongoTemplate.save(station("STN3", "Station Road", "Whitefield", "Bengaluru", false));
+		mongoTemplate.save(station("STN4", "Upstation", "Koramangala", "Bengaluru", true));
+
+		assertEquals(Arrays.asList("STN1", "STN2"), prefixSearch("sta"));
+		assertEquals(Arrays.asList("STN1"), prefixSearch("STAT ind"));
+		assertEquals(Arrays.asList("STN2"), prefixSearch("bengaluru, airp"));
+		assertEquals(Arrays.asList(), prefixSearch("tion"));
+		assertEquals(Arrays.asList(), prefixSearch("--"));
+	}
+
+	private List<String> prefixSearch(String keyword) {
+		StationServiceImpl stationService = new StationServiceImpl();
+		ReflectionTestUtils.setField(stationService, "mongoTemplate", mongoTemplate);
+		List<StationDTO1> stations = ReflectionTestUtils.invokeMethod(stationService, "prefixSearch", keyword, 10);
+		return stations.stream().map(StationDTO1::getStationId).sorted().collect(Collectors.toList());
+	}
+
+	private Station station(String stationId, String name, String area, String city, boolean active) {
+		Station station = new Station();
+		station.setStationId(stationId);
+		station.setStationName(name);
+		station.setStationArea(area);
+		station.setStationCity(city);
+		station.setActive(active);
+		return station;
+	}
+
+}
@@ -0,0 +1,231 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.MongoTestSupport;
+import com.vst.station.converter.ChargerConverter;
+import com.vst.station.dto.ChargerStatusBatchDTO;
+import com.vst.station.dto.ChargerStatusOutcomeDTO;
+import com.vst.station.dto.ChargerUpdateDTO;
+import com.vst.station.dto.StationChargerIdsDTO;
+import com.vst.station.dto.connectorStatusNotificationDTO;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Connector;
+import com.vst.station.model.Station;
+import com.vst.station.repository.StationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChargerServiceImplTest {
+
+	private static final Instant START = Instant.parse("2024-03-01T10:00:00Z");
+
+	private MongoTestSupport mongo;
+
+	private MongoTemplate mongoTemplate;
+
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	private ChargerServiceImpl chargerService;
+
+	@BeforeEach
+	void start() {
+		mongo = new MongoTestSupport();
+		mongoTemplate = mongo.getMongoTemplate();
+		StationRepository stationRepository = new MongoRepositoryFactory(mongoTemplate)
+				.getRepository(StationRepository.class);
+
+		chargerSerialNumberIndex = new ChargerSerialNumberIndex();
+		ReflectionTestUtils.setField(chargerSerialNumberIndex, "mongoTemplate", mongoTemplate);
+
+		StationLookupCache stationLookupCache = new StationLookupCache();
+		ReflectionTestUtils.setField(stationLookupCache, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(stationLookupCache, "stationRepository", stationRepository);
+		ReflectionTestUtils.setField(stationLookupCache, "chargerSerialNumberIndex", chargerSerialNumberIndex);
+		ReflectionTestUtils.setField(stationLookupCache, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(stationLookupCache, "maximumSize", 100L);
+		ReflectionTestUtils.setField(stationLookupCache, "expireAfterWriteSeconds", 300L);
+		stationLookupCache.init();
+
+		chargerService = new ChargerServiceImpl();
+		ReflectionTestUtils.setField(chargerService, "stationRepository", stationRepository);
+		ReflectionTestUtils.setField(chargerService, "chargerConverter", new ChargerConverter());
+		ReflectionTestUtils.setField(chargerService, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(chargerService, "chargerSerialNumberIndex", chargerSerialNumberIndex);
+		ReflectionTestUtils.setField(chargerService, "stationLookupCache", stationLookupCache);
+		ReflectionTestUtils.setField(chargerService, "connectorStateStore", new ConnectorStateStore());
+	}
+
+	@AfterEach
+	void stop() {
+		mongo.close();
+	}
+
+	private Charger charger(String chargerId, String serialNumber) {
+		Charger charger = new Charger();
+		charger.setChargerId(chargerId);
+		charger.setChargerSerialNumber(serialNumber);
+		charger.setChargerName("Charger " + serialNumber);
+		charger.setActive(true);
+		charger.setChargerLastHeartBeatTimeStamp(START.toString());
+		List<Connector> connectors = new ArrayList<>();
+		for (int number = 1; number <= 2; number++) {
+			Connector connector = new Connector();
+			connector.setConnectorId(chargerId + "-CON" + number);
+			connector.setConnectorNumber(number);
+			connector.setConnectorStatus("Available");
+			connector.setActive(true);
+			connectors.add(connector);
+		}
+		charger.setConnectors(connectors);
+		return charger;
+	}
+
+	private void station(Charger... chargers) {
+		station("STN1", chargers);
+	}
+
+	private void station(String stationId, Charger... chargers) {
+		Station station = new Station();
+		station.setStationId(stationId);
+		station.setActive(true);
+		for (Charger charger : chargers)
+			station.getChargers().add(charger);
+		mongoTemplate.save(station);
+		chargerSerialNumberIndex.rebuild();
+	}
+
+	private Station stored() {
+		return mongoTemplate.findById("STN1", Station.class);
+	}
+
+	@Test
+	void updateChargerChangesOnlyTheFirstChargerWithARepeatedId() {
+		station(charger("CHG20230101000000000", "SN-A"), charger("CHG20230101000000000", "SN-B"));
+		ChargerUpdateDTO update = new ChargerUpdateDTO();
+		update.setChargerSerialNumber("SN-NEW");
+
+		assertTrue(chargerService.updateCharger("STN1", "CHG20230101000000000", update));
+
+		List<Charger> chargers = stored().getChargers();
+		assertEquals("SN-NEW", chargers.get(0).getChargerSerialNumber());
+		assertEquals("SN-B", chargers.get(1).getChargerSerialNumber());
+	}
+
+	@Test
+	void concurrentOcppAndAdminWritesAreNotLost() throws Exception {
+		station(charger("CHG1", "SN1"), charger("CHG2", "SN2"), charger("CHG3", "SN3"));
+		int rounds = 40;
+		CountDownLatch go = new CountDownLatch(1);
+		List<Runnable> writers = new ArrayList<>();
+		writers.add(() -> {
+			for (int i = 0; i < rounds; i++)
+				chargerService.statusNotification("SN1", status(1, "Status1-" + i));
+		});
+		writers.add(() -> {
+			for (int i = 0; i < rounds; i++)
+				chargerService.statusNotification("SN2", status(2, "Status2-" + i));
+		});
+		writers.add(() -> {
+			for (int i = 0; i < rounds; i++)
+				chargerService.heartbeatNotification("SN1", START.plusSeconds(i + 1).toString());
+		});
+		writers.add(() -> {
+			for (int i = 0; i < rounds; i++)
+				chargerService.heartbeatNotification("SN3", START.plusSeconds(i + 1).toString());
+		});
+		writers.add(() -> {
+			for (int i = 0; i < rounds; i++) {
+				ChargerUpdateDTO update = new ChargerUpdateDTO();
+				update.setChargerName("Name " + i);
+				chargerService.updateCharger("STN1", "CHG1", update);
+			}
+		});
+		writers.add(() -> {
+			for (int i = 0; i < rounds; i++) {
+				ChargerUpdateDTO update = new ChargerUpdateDTO();
+				update.setChargerIPRating("IP" + i);
+				chargerService.updateCharger("STN1", "CHG2", update);
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(writers.size());
+		List<Future<?>> futures = new ArrayList<>();
+		for (Runnable writer : writers)
+			futures.add(executor.submit(() -> {
+				go.await();
+				writer.run();
+				return null;
+			}));
+		go.countDown();
+		for (Future<?> future : futures)
+			future.get();
+		executor.shutdown();
+
+		int last = rounds - 1;
+		List<Charger> chargers = stored().getChargers();
+		assertEquals("Status1-" + last, chargers.get(0).getConnectors().get(0).getConnectorStatus());
+		assertEquals("Available", chargers.get(0).getConnectors().get(1).getConnectorStatus());
+		assertEquals(START.plusSeconds(rounds).toString(), chargers.get(0).getChargerLastHeartBeatTimeStamp());
+		assertEquals("Name " + last, chargers.get(0).getChargerName());
+		assertEquals("Status2-" + last, chargers.get(1).getConnectors().get(1).getConnectorStatus());
+		assertEquals("IP" + last, chargers.get(1).getChargerIPRating());
+		assertEquals(START.toString(), chargers.get(1).getChargerLastHeartBeatTimeStamp());
+		assertEquals(START.plusSeconds(rounds).toString(), chargers.get(2).getChargerLastHeartBeatTimeStamp());
+		assertEquals("Charger SN3", chargers.get(2).getChargerName());
+	}
+
+	@Test
+	void batchStatusUpdatesOnlyTheChargersOfEachStation() {
+		station("STN1", charger("CHG20230101000000000", "SN1"), charger("CHGA", "SN2"));
+		station("STN2", charger("CHG20230101000000000", "SN3"), charger("CHGB", "SN4"));
+		ChargerStatusBatchDTO batch = new ChargerStatusBatchDTO();
+		batch.setChargerStatus("inactive");
+		batch.getStations().add(new StationChargerIdsDTO("STN1", List.of("CHG20230101000000000")));
+		batch.getStations().add(new StationChargerIdsDTO("STN2", List.of("CHGB", "CHGMISSING")));
+		batch.getStations().add(new StationChargerIdsDTO("STNMISSING", List.of("CHGB")));
+
+		List<ChargerStatusOutcomeDTO> outcomes = chargerService.updateChargerStatusBatch(batch);
+
+		assertEquals(List.of(ChargerStatusOutcomeDTO.UPDATED, ChargerStatusOutcomeDTO.UPDATED,
+				ChargerStatusOutcomeDTO.CHARGER_NOT_FOUND, ChargerStatusOutcomeDTO.STATION_NOT_FOUND),
+				outcomes.stream().map(ChargerStatusOutcomeDTO::getOutcome).collect(Collectors.toList()));
+		List<Charger> first = mongoTemplate.findById("STN1", Station.class).getChargers();
+		assertEquals("Inactive", first.get(0).getChargerStatus());
+		assertEquals("OutOfOrder", first.get(0).getConnectors().get(1).getConnectorStatus());
+		assertNull(first.get(1).getChargerStatus());
+		List<Charger> second = mongoTemplate.findById("STN2", Station.class).getChargers();
+		assertNull(second.get(0).getChargerStatus(), "the repeated id of the other station is untouched");
+		assertEquals("Available", second.get(0).getConnectors().get(0).getConnectorStatus());
+		assertEquals("Inactive", second.get(1).getChargerStatus());
+		assertEquals("OutOfOrder", second.get(1).getConnectors().get(0).getConnectorStatus());
+	}
+
+	private connectorStatusNotificationDTO status(int connectorNumber, String status) {
+		connectorStatusNotificationDTO dto = new connectorStatusNotificationDTO();
+		dto.setConnectorNumber(connectorNumber);
+		dto.setConnectorStatus(status);
+		dto.setConnectorTimeStamp(START.toString());
+		return dto;
+	}
+
+}
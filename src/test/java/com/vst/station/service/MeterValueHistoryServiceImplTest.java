@@ -0,0 +1,119 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.MongoTestSupport;
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.model.MeterValueReading;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MeterValueHistoryServiceImplTest {
+
+	private MongoTestSupport mongo;
+
+	private MongoTemplate mongoTemplate;
+
+	private MeterValueHistoryServiceImpl history;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void start() {
+		mongo = new MongoTestSupport();
+		mongoTemplate = mongo.getMongoTemplate();
+		meterRegistry = new SimpleMeterRegistry();
+		history = new MeterValueHistoryServiceImpl();
+		ReflectionTestUtils.setField(history, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(history, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(history, "enabled", false);
+		ReflectionTestUtils.setField(history, "batchSize", 100);
+		ReflectionTestUtils.setField(history, "capacity", 3);
+		history.init();
+		ReflectionTestUtils.setField(history, "enabled", true);
+	}
+
+	@AfterEach
+	void stop() {
+		history.shutdown();
+		mongo.close();
+	}
+
+	private Set<Date> dirtyHours() {
+		Set<Date> hours = new HashSet<>();
+		for (Document dirty : mongoTemplate.findAll(Document.class, "meterValueRollupDirty"))
+			hours.add(dirty.getDate("bucketStart"));
+		return hours;
+	}
+
+	@Test
+	void appendIsQueuedAndWrittenInOneBatch() {
+		history.append("SN-1", new MeterValueDTO(1, 10.5, "kWh", "2024-03-01T10:15:00Z"));
+		history.append("SN-1", new MeterValueDTO(2, 11.5, "kWh", "2024-03-01T10:45:00Z"));
+		assertEquals(0, mongoTemplate.count(new Query(), MeterValueReading.class),
+				"nothing is written on the request thread");
+
+		history.flush();
+
+		assertEquals(2, mongoTemplate.findAll(MeterValueReading.class).size());
+		assertEquals(Set.of(Date.from(Instant.parse("2024-03-01T10:00:00Z"))), dirtyHours());
+	}
+
+	@Test
+	void lateReadingsMarkTheirOwnHour() {
+		history.append("SN-1", new MeterValueDTO(1, 10.5, "kWh", "2024-03-01T10:15:00Z"));
+		history.flush();
+		history.append("SN-1", new MeterValueDTO(1, 9.5, "kWh", "2024-02-27T23:59:59Z"));
+		history.flush();
+
+		assertEquals(Set.of(Date.from(Instant.parse("2024-03-01T10:00:00Z")),
+				Date.from(Instant.parse("2024-02-27T23:00:00Z"))), dirtyHours());
+	}
+
+	@Test
+	void fullQueueFallsBackToASynchronousWrite() {
+		// the 4th reading finds the queue full; the flusher it wakes may drain the queue at any time after
+		for (int i = 0; i < 4; i++)
+			history.append("SN-1", new MeterValueDTO(1, i, "kWh", "2024-03-01T10:15:0" + i + "Z"));
+
+		assertEquals(1.0, meterRegistry.get("station.meterValue.history.rejected").counter().count());
+		assertTrue(mongoTemplate.findAll(MeterValueReading.class).size() >= 1);
+		history.flush();
+		assertEquals(4, mongoTemplate.findAll(MeterValueReading.class).size());
+	}
+
+	@Test
+	void rollupIsSkippedWhileAnotherReplicaHoldsTheLease() {
+		ScheduledJobLock other = new ScheduledJobLock();
+		ReflectionTestUtils.setField(other, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(other, "owner", "other-replica");
+		ScheduledJobLock local = new ScheduledJobLock();
+		ReflectionTestUtils.setField(local, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(history, "scheduledJobLock", local);
+		ReflectionTestUtils.setField(history, "rollupLeaseMs", 60_000L);
+
+		history.append("SN-1", new MeterValueDTO(1, 10.5, "kWh", "2024-03-01T10:15:00Z"));
+		history.flush();
+		other.tryLock("meterValueRollup", 60_000);
+		history.rollup();
+
+		assertEquals(1, dirtyHours().size());
+		assertEquals("other-replica",
+				mongoTemplate.findById("meterValueRollup", Document.class, "scheduledJobLock").get("lockedBy"));
+	}
+
+}
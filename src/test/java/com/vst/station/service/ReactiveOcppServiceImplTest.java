@@ -0,0 +1,98 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.dto.MeterValueDTO;
+import com.vst.station.dto.connectorStatusNotificationDTO;
+import com.vst.station.dto.ocppVerificationDTO;
+import com.vst.station.exception.InValidIdExcepetion;
+import com.vst.station.exception.StationException;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.model.Station;
+
+import reactor.core.publisher.Mono;
+
+class ReactiveOcppServiceImplTest {
+
+	private final DataAccessResourceFailureException failure = new DataAccessResourceFailureException(
+			"Timed out while waiting for a server");
+
+	private ReactiveMongoTemplate reactiveMongoTemplate;
+
+	private ReactiveOcppServiceImpl reactiveOcppService;
+
+	@BeforeEach
+	void start() {
+		reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+		reactiveOcppService = new ReactiveOcppServiceImpl();
+		ReflectionTestUtils.setField(reactiveOcppService, "reactiveMongoTemplate", reactiveMongoTemplate);
+		ReflectionTestUtils.setField(reactiveOcppService, "chargerSerialNumberIndex",
+				mock(ChargerSerialNumberIndex.class));
+		ReflectionTestUtils.setField(reactiveOcppService, "stationLookupCache", mock(StationLookupCache.class));
+		ReflectionTestUtils.setField(reactiveOcppService, "connectorStateStore", new ConnectorStateStore());
+		ReflectionTestUtils.setField(reactiveOcppService, "meterValueWriteBuffer", mock(MeterValueWriteBuffer.class));
+		ReflectionTestUtils.setField(reactiveOcppService, "meterValueHistoryServiceImpl",
+				mock(MeterValueHistoryServiceImpl.class));
+	}
+
+	private void assertStationException(Mono<?> mono, String functionality) {
+		StationException stationException = assertThrows(StationException.class, mono::block);
+		assertSame(failure, stationException.getCause());
+		assertEquals(functionality, stationException.getFunctionality());
+		assertEquals("STN001", stationException.getServiceCode());
+	}
+
+	@Test
+	void mongoFailuresOfEveryEndpointBecomeStationExceptions() {
+		when(reactiveMongoTemplate.findOne(any(Query.class), eq(Station.class))).thenReturn(Mono.error(failure));
+		when(reactiveMongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Station.class)))
+				.thenReturn(Mono.error(failure));
+		when(reactiveMongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(Station.class))).thenReturn(Mono.error(failure));
+
+		assertStationException(reactiveOcppService.getChargerStatusByChargerSerialNumber("SN1"),
+				"get the active flag of a charger by serial number");
+		assertStationException(reactiveOcppService.initialVerification("SN1", new ocppVerificationDTO()),
+				"verify the boot notification of a charger");
+		assertStationException(reactiveOcppService.getChargerOCPPProtocol("SN1"),
+				"get the OCPP protocol of a charger");
+		connectorStatusNotificationDTO status = new connectorStatusNotificationDTO();
+		status.setConnectorNumber(1);
+		status.setConnectorStatus("Available");
+		assertStationException(reactiveOcppService.statusNotification("SN1", status),
+				"apply the status notification of a connector");
+		assertStationException(reactiveOcppService.heartbeatNotification("SN1", "2024-03-01T10:00:00Z"),
+				"record the heartbeat of a charger");
+		MeterValueDTO meterValue = new MeterValueDTO();
+		meterValue.setConnectorNumber(1);
+		meterValue.setMeterValue(12.5);
+		assertStationException(reactiveOcppService.initialRequest("SN1", meterValue),
+				"store the meter value of a connector");
+	}
+
+	@Test
+	void businessExceptionsPassUnchanged() {
+		when(reactiveMongoTemplate.findOne(any(Query.class), eq(Station.class))).thenReturn(Mono.empty());
+
+		assertThrows(InValidIdExcepetion.class, () -> reactiveOcppService.getChargerOCPPProtocol("SN1").block());
+		assertThrows(InValidIdExcepetion.class,
+				() -> reactiveOcppService.initialVerification("SN1", new ocppVerificationDTO()).block());
+		assertEquals(false, reactiveOcppService.getChargerStatusByChargerSerialNumber("SN1").block());
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.MongoTestSupport;
+
+class ScheduledJobLockTest {
+
+	private MongoTestSupport mongo;
+
+	@BeforeEach
+	void start() {
+		mongo = new MongoTestSupport();
+	}
+
+	@AfterEach
+	void stop() {
+		mongo.close();
+	}
+
+	private ScheduledJobLock lock(String owner) {
+		ScheduledJobLock lock = new ScheduledJobLock();
+		ReflectionTestUtils.setField(lock, "mongoTemplate", mongo.getMongoTemplate());
+		ReflectionTestUtils.setField(lock, "owner", owner);
+		return lock;
+	}
+
+	@Test
+	void onlyOneNodeHoldsTheLease() {
+		ScheduledJobLock first = lock("node-1");
+		ScheduledJobLock second = lock("node-2");
+
+		assertTrue(first.tryLock("job", 60_000));
+		assertFalse(second.tryLock("job", 60_000));
+		assertTrue(first.tryLock("job", 60_000), "the holder extends its own lease");
+		assertTrue(second.tryLock("other", 60_000), "leases are per job");
+
+		first.unlock("job");
+		assertTrue(second.tryLock("job", 60_000));
+		assertFalse(first.tryLock("job", 60_000));
+	}
+
+	@Test
+	void expiredLeaseIsTakenOver() throws InterruptedException {
+		ScheduledJobLock first = lock("node-1");
+		ScheduledJobLock second = lock("node-2");
+
+		assertTrue(first.tryLock("job", 1));
+		Thread.sleep(20);
+		assertTrue(second.tryLock("job", 60_000));
+	}
+
+}
@@ -0,0 +1,195 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.index.StationAutocompleteIndex;
+import com.vst.station.index.StationGeoIndex;
+import com.vst.station.model.Station;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StationChangeStreamListenerTest {
+
+	private MongoTemplate mongoTemplate;
+
+	private StationLookupCache stationLookupCache;
+
+	private ChargerSerialNumberIndex chargerSerialNumberIndex;
+
+	private StationGeoIndex stationGeoIndex;
+
+	private StationAutocompleteIndex stationAutocompleteIndex;
+
+	private StationChangeStreamListener listener;
+
+	private final Station station = new Station();
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		stationLookupCache = mock(StationLookupCache.class);
+		chargerSerialNumberIndex = mock(ChargerSerialNumberIndex.class);
+		stationGeoIndex = mock(StationGeoIndex.class);
+		stationAutocompleteIndex = mock(StationAutocompleteIndex.class);
+		station.setStationId("STN1");
+		when(mongoTemplate.findById("STN1", Station.class)).thenReturn(station);
+
+		listener = new StationChangeStreamListener();
+		ReflectionTestUtils.setField(listener, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(listener, "stationLookupCache", stationLookupCache);
+		ReflectionTestUtils.setField(listener, "chargerSerialNumberIndex", chargerSerialNumberIndex);
+		ReflectionTestUtils.setField(listener, "stationGeoIndex", stationGeoIndex);
+		ReflectionTestUtils.setField(listener, "stationAutocompleteIndex", stationAutocompleteIndex);
+		ReflectionTestUtils.setField(listener, "nodeId", "node-1");
+		ReflectionTestUtils.setField(listener, "eventCounter",
+				Counter.builder("events").register(new SimpleMeterRegistry()));
+	}
+
+	private static ChangeStreamDocument<Document> event(OperationType type, String token,
+			UpdateDescription updateDescription) {
+		return new ChangeStreamDocument<>(type, token(token), null, null, null,
+				new BsonDocument("_id", new BsonString("STN1")), null, updateDescription, null, null);
+	}
+
+	private static BsonDocument token(String token) {
+		return new BsonDocument("_data", new BsonString(token));
+	}
+
+	private static UpdateDescription updated(String... paths) {
+		BsonDocument fields = new BsonDocument();
+		for (String path : paths)
+			fields.append(path, new BsonString("value"));
+		return new UpdateDescription(List.of(), fields);
+	}
+
+	@Test
+	void ocppOnlyUpdateEvictsWithoutRereading() {
+		ReflectionTestUtils.invokeMethod(listener, "apply", event(OperationType.UPDATE, "1",
+				updated("chargers.0.connectors.1.connectorStatus", "chargers.0.chargerLastHeartBeatTimeStamp")));
+
+		verify(stationLookupCache).evictStation("STN1");
+		verify(mongoTemplate, never()).findById(anyString(), eq(Station.class));
+		verify(chargerSerialNumberIndex, never()).refreshStation(any());
+		verify(stationGeoIndex, never()).refreshStation(any());
+		verify(stationAutocompleteIndex, never()).refreshStation(any());
+	}
+
+	@Test
+	void metadataUpdateRefreshesTheIndexes() {
+		ReflectionTestUtils.invokeMethod(listener, "apply", event(OperationType.UPDATE, "1",
+				updated("chargers.0.connectors.1.connectorStatus", "stationName")));
+		ReflectionTestUtils.invokeMethod(listener, "apply",
+				event(OperationType.UPDATE, "2", updated("chargers.0.chargerSerialNumber")));
+
+		verify(stationLookupCache, times(2)).evictStation("STN1");
+		verify(chargerSerialNumberIndex, times(2)).refreshStation(station);
+		verify(stationGeoIndex, times(2)).refreshStation(station);
+		verify(stationAutocompleteIndex, times(2)).refreshStation(station);
+	}
+
+	@Test
+	void removedFieldIsNotOcppOnly() {
+		ReflectionTestUtils.invokeMethod(listener, "apply", event(OperationType.UPDATE, "1",
+				new UpdateDescription(List.of("chargers.0.connectors.1.connectorInfo"), new BsonDocument())));
+
+		verify(chargerSerialNumberIndex).refreshStation(station);
+	}
+
+	@Test
+	void deleteRemovesTheStationEverywhere() {
+		ReflectionTestUtils.invokeMethod(listener, "apply", event(OperationType.DELETE, "1", null));
+
+		verify(stationLookupCache).evictStation("STN1");
+		verify(chargerSerialNumberIndex).removeStation("STN1");
+		verify(stationGeoIndex).removeStation("STN1");
+		verify(stationAutocompleteIndex).removeStation("STN1");
+		verify(mongoTemplate, never()).findById(anyString(), eq(Station.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedEventIsReplayedFromTheLastAppliedOne() throws InterruptedException {
+		ChangeStreamDocument<Document> applied = event(OperationType.UPDATE, "1", updated("stationName"));
+		ChangeStreamDocument<Document> failing = event(OperationType.UPDATE, "2", updated("stationCity"));
+		MongoChangeStreamCursor<ChangeStreamDocument<Document>> first = mock(MongoChangeStreamCursor.class);
+		when(first.tryNext()).thenReturn(applied, failing, null);
+		when(first.getResumeToken()).thenReturn(token("1"));
+		MongoChangeStreamCursor<ChangeStreamDocument<Document>> reopened = mock(MongoChangeStreamCursor.class);
+		when(reopened.tryNext()).thenReturn(failing, (ChangeStreamDocument<Document>) null);
+		when(reopened.getResumeToken()).thenReturn(token("2"));
+
+		MongoCollection<Document> collection = mock(MongoCollection.class);
+		ChangeStreamIterable<Document> stream = mock(ChangeStreamIterable.class);
+		when(mongoTemplate.getCollection("station")).thenReturn(collection);
+		when(collection.watch()).thenReturn(stream);
+		when(stream.resumeAfter(any())).thenReturn(stream);
+		when(stream.maxAwaitTime(anyLong(), any())).thenReturn(stream);
+		when(stream.cursor()).thenReturn(reopened);
+		// the city update fails to convert once, as a mapping error would
+		doNothing().doThrow(new IllegalArgumentException("conversion failed")).doNothing()
+				.when(stationGeoIndex).refreshStation(station);
+
+		ReflectionTestUtils.setField(listener, "running", true);
+		Thread worker = new Thread(() -> ReflectionTestUtils.invokeMethod(listener, "follow", first));
+		worker.start();
+		verify(stationGeoIndex, timeout(5000).times(3)).refreshStation(station);
+		ReflectionTestUtils.setField(listener, "running", false);
+		worker.join(5000);
+
+		verify(first).close();
+		verify(stream).resumeAfter(token("1"));
+		verify(stationAutocompleteIndex, times(2)).refreshStation(station);
+		verify(stationAutocompleteIndex, never()).rebuild();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void persistentFailureBacksOff() throws InterruptedException {
+		MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+		when(cursor.tryNext()).thenThrow(new IllegalStateException("codec failure"));
+
+		ReflectionTestUtils.setField(listener, "running", true);
+
+		Thread worker = new Thread(() -> ReflectionTestUtils.invokeMethod(listener, "follow", cursor));
+		worker.start();
+		Thread.sleep(2500);
+		ReflectionTestUtils.setField(listener, "running", false);
+		worker.interrupt();
+		worker.join(5000);
+
+		assertFalse(worker.isAlive());
+		// 1 s, then 2 s: at most two attempts in 2.5 s instead of a hot loop
+		verify(cursor, atMost(2)).tryNext();
+	}
+
+}
@@ -0,0 +1,329 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.Validation;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vst.station.MongoTestSupport;
+import com.vst.station.converter.ChargerConverter;
+import com.vst.station.converter.ConnectorConverter;
+import com.vst.station.converter.StationConveter;
+import com.vst.station.dto.StationImportErrorDTO;
+import com.vst.station.dto.StationImportReportDTO;
+import com.vst.station.exception.InValidDataException;
+import com.vst.station.index.ChargerSerialNumberIndex;
+import com.vst.station.index.StationAutocompleteIndex;
+import com.vst.station.index.StationGeoIndex;
+import com.vst.station.model.Charger;
+import com.vst.station.model.Station;
+
+class StationImportServiceImplTest {
+
+	private static final List<String> STATION_COLUMNS = List.of("stationName", "stationHostId", "stationVendorId",
+			"stationArea", "stationAddressLineOne", "stationAddressLineTwo", "stationZipCode", "stationCity",
+			"stationLatitude", "stationLongitude", "stationLocationURL", "stationParkingArea", "stationContactNumber",
+			"stationOpeningTime", "stationClosingTime", "stationParkingType", "stationStatus", "stationPowerStandard",
+			"stationAmenity");
+
+	private static final List<String> CHARGER_COLUMNS = List.of("chargerName", "chargerInputVoltage",
+			"chargerOutputVoltage", "chargerMinInputAmpere", "chargerMaxInputAmpere", "chargerOutputAmpere",
+			"chargerInputFrequency", "chargerOutputFrequency", "chargerIPRating", "chargerMountType", "isRFID",
+			"chargerPointSerialNumber", "chargerOCPPProtocol", "chargerConnectorType", "isAppSupport", "isTBCutOff",
+			"isAntitheft", "isLEDDisplay", "isLEDIndications", "isSmart", "chargerSerialNumber");
+
+	private static final List<String> CONNECTOR_COLUMNS = List.of("connectorNumber", "connectorType");
+
+	private MongoTestSupport mongo;
+
+	private MongoTemplate mongoTemplate;
+
+	private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private StationImportServiceImpl importService;
+
+	@BeforeEach
+	void start() {
+		mongo = new MongoTestSupport();
+		mongoTemplate = mongo.getMongoTemplate();
+
+		ConnectorConverter connectorConverter = new ConnectorConverter();
+		ChargerConverter chargerConverter = new ChargerConverter();
+		ReflectionTestUtils.setField(chargerConverter, "connectorConverter", connectorConverter);
+		StationConveter stationConveter = new StationConveter();
+		ReflectionTestUtils.setField(stationConveter, "chargerConverter", chargerConverter);
+		ChargerSerialNumberIndex chargerSerialNumberIndex = new ChargerSerialNumberIndex();
+		ReflectionTestUtils.setField(chargerSerialNumberIndex, "mongoTemplate", mongoTemplate);
+
+		importService = new StationImportServiceImpl();
+		ReflectionTestUtils.setField(importService, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(importService, "validator",
+				Validation.buildDefaultValidatorFactory().getValidator());
+		ReflectionTestUtils.setField(importService, "objectMapper", objectMapper);
+		ReflectionTestUtils.setField(importService, "stationConveter", stationConveter);
+		ReflectionTestUtils.setField(importService, "chargerConverter", chargerConverter);
+		ReflectionTestUtils.setField(importService, "connectorConverter", connectorConverter);
+		ReflectionTestUtils.setField(importService, "chargerSerialNumberIndex", chargerSerialNumberIndex);
+		ReflectionTestUtils.setField(importService, "stationGeoIndex", mock(StationGeoIndex.class));
+		ReflectionTestUtils.setField(importService, "stationAutocompleteIndex", mock(StationAutocompleteIndex.class));
+		ReflectionTestUtils.setField(importService, "chunkSize", 2);
+		ReflectionTestUtils.setField(importService, "maxErrors", 10);
+	}
+
+	@AfterEach
+	void stop() {
+		mongo.close();
+	}
+
+	private Map<String, String> station(String name) {
+		Map<String, String> row = new LinkedHashMap<>();
+		row.put("type", "STATION");
+		row.put("stationName", name);
+		row.put("stationHostId", "HOST1");
+		row.put("stationVendorId", "VENDOR1");
+		row.put("stationArea", "Baner");
+		row.put("stationAddressLineOne", "Road 1");
+		row.put("stationAddressLineTwo", "Near \"Square\", Baner");
+		row.put("stationZipCode", "411045");
+		row.put("stationCity", "pune");
+		row.put("stationLatitude", "18.55");
+		row.put("stationLongitude", "73.78");
+		row.put("stationLocationURL", "https://maps.example.com/baner");
+		row.put("stationParkingArea", "120");
+		row.put("stationContactNumber", "9876543210");
+		row.put("stationOpeningTime", "06:00");
+		row.put("stationClosingTime", "22:00");
+		row.put("stationParkingType", "Open");
+		row.put("stationStatus", "Active");
+		row.put("stationPowerStandard", "AC");
+		row.put("stationAmenity", "wifi|cafe");
+		return row;
+	}
+
+	private Map<String, String> charger(String serialNumber) {
+		Map<String, String> row = new LinkedHashMap<>();
+		row.put("type", "CHARGER");
+		for (String column : CHARGER_COLUMNS)
+			row.put(column, "1");
+		row.put("chargerName", "Charger " + serialNumber);
+		row.put("chargerIPRating", "IP65");
+		row.put("chargerSerialNumber", serialNumber);
+		return row;
+	}
+
+	private Map<String, String> connector(int number) {
+		Map<String, String> row = new LinkedHashMap<>();
+		row.put("type", "CONNECTOR");
+		row.put("connectorNumber", Integer.toString(number));
+		row.put("connectorType", "CCS2");
+		return row;
+	}
+
+	private String csv(List<Map<String, String>> rows) {
+		List<String> header = new ArrayList<>();
+		header.add("type");
+		header.addAll(STATION_COLUMNS);
+		header.addAll(CHARGER_COLUMNS);
+		header.addAll(CONNECTOR_COLUMNS);
+		StringBuilder csv = new StringBuilder(String.join(",", header)).append('\n');
+		for (Map<String, String> row : rows) {
+			for (int i = 0; i < header.size(); i++) {
+				String cell = row.getOrDefault(header.get(i), "");
+				if (i > 0)
+					csv.append(',');
+				csv.append(cell.contains(",") || cell.contains("\"") ? '"' + cell.replace("\"", "\"\"") + '"' : cell);
+			}
+			csv.append('\n');
+		}
+		return csv.toString();
+	}
+
+	private StationImportReportDTO run(String body, String contentType) throws Exception {
+		return importService.bulkImport(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType);
+	}
+
+	private Station stored(String name) {
+		return mongoTemplate.findOne(Query.query(Criteria.where("stationName").is(name)), Station.class);
+	}
+
+	@Test
+	void csvRowsBuildStationsWithChargersAndConnectors() throws Exception {
+		List<Map<String, String>> rows = new ArrayList<>();
+		rows.add(station("baner hub"));
+		rows.add(charger("SN-1"));
+		rows.add(connector(1));
+		rows.add(connector(2));
+		rows.add(charger("SN-2"));
+		rows.add(station("aundh hub"));
+		rows.add(station("wakad hub"));
+
+		StationImportReportDTO report = run(csv(rows), "text/csv");
+
+		assertEquals(3, report.getStations());
+		assertEquals(3, report.getImported());
+		assertEquals(0, report.getFailed());
+		assertTrue(report.getErrors().isEmpty());
+		Station station = stored("Baner Hub");
+		assertNotNull(station);
+		assertEquals("Near \"Square\", Baner", station.getStationAddressLineTwo());
+		assertEquals(List.of("Wifi", "Cafe"), station.getStationAmenity());
+		assertEquals(73.78, station.getLocation().getCoordinates()[0]);
+		assertEquals(2, station.getChargerNumber());
+		Charger charger = station.getChargers().get(0);
+		assertEquals("SN-1", charger.getChargerSerialNumber());
+		assertEquals(2, charger.getChargerNumberOfConnector());
+		assertEquals(2, charger.getConnectors().get(1).getConnectorNumber());
+		assertTrue(charger.getConnectors().get(0).getConnectorId().startsWith("CONN"));
+		assertEquals(0, station.getChargers().get(1).getConnectors().size());
+		assertEquals(3, mongoTemplate.count(new Query(), Station.class));
+	}
+
+	@Test
+	void invalidCsvRowsRejectOnlyTheirStation() throws Exception {
+		List<Map<String, String>> rows = new ArrayList<>();
+		rows.add(charger("SN-0"));
+		Map<String, String> badContact = station("bad contact");
+		badContact.put("stationContactNumber", "12345");
+		rows.add(badContact);
+		rows.add(station("good hub"));
+		rows.add(station("bad charger hub"));
+		Map<String, String> badCharger = charger("SN-3");
+		badCharger.put("chargerInputVoltage", "high");
+		rows.add(badCharger);
+		rows.add(station("orphan connector hub"));
+		rows.add(connector(1));
+		rows.add(station("unknown row hub"));
+		Map<String, String> unknown = connector(1);
+		unknown.put("type", "METER");
+		rows.add(unknown);
+
+		StationImportReportDTO report = run(csv(rows), "text/csv");
+
+		assertEquals(5, report.getStations());
+		assertEquals(1, report.getImported());
+		assertEquals(4, report.getFailed());
+		List<StationImportErrorDTO> errors = report.getErrors();
+		assertEquals(5, errors.size());
+		assertEquals(2, errors.get(0).getLine());
+		assertEquals(List.of("charger row before the first station row"), errors.get(0).getMessages());
+		assertEquals(3, errors.get(1).getLine());
+		assertEquals("bad contact", errors.get(1).getStationName());
+		assertTrue(errors.get(1).getMessages().get(0).startsWith("stationContactNumber"));
+		assertEquals(5, errors.get(2).getLine());
+		assertTrue(errors.get(2).getMessages().get(0).startsWith("chargers[0].chargerInputVoltage"));
+		assertEquals(7, errors.get(3).getLine());
+		assertEquals(List.of("line 8: connector row without a charger row"), errors.get(3).getMessages());
+		assertEquals(9, errors.get(4).getLine());
+		assertEquals(List.of("line 10: unknown row type METER"), errors.get(4).getMessages());
+		assertNotNull(stored("Good Hub"));
+		assertEquals(1, mongoTemplate.count(new Query(), Station.class));
+	}
+
+	@Test
+	void ndjsonLinesAreValidatedOneByOne() throws Exception {
+		Map<String, Object> good = new LinkedHashMap<>(station("json hub"));
+		good.remove("type");
+		good.put("stationAmenity", List.of("parking"));
+		Map<String, Object> chargerFields = new LinkedHashMap<>(charger("SN-J"));
+		chargerFields.remove("type");
+		chargerFields.put("connectors", List.of(Map.of("connectorNumber", 1, "connectorType", "Type2")));
+		good.put("chargers", List.of(chargerFields));
+		Map<String, Object> missing = new LinkedHashMap<>(good);
+		missing.remove("stationCity");
+
+		String body = objectMapper.writeValueAsString(good) + "\n\n{\"stationName\": \n"
+				+ objectMapper.writeValueAsString(missing) + "\n";
+		StationImportReportDTO report = run(body, "application/x-ndjson");
+
+		assertEquals(3, report.getStations());
+		assertEquals(1, report.getImported());
+		assertEquals(2, report.getFailed());
+		assertEquals(3, report.getErrors().get(0).getLine());
+		assertTrue(report.getErrors().get(0).getMessages().get(0).startsWith("invalid JSON"));
+		assertEquals(4, report.getErrors().get(1).getLine());
+		assertTrue(report.getErrors().get(1).getMessages().stream().anyMatch(m -> m.startsWith("stationCity")));
+		Station station = stored("Json Hub");
+		assertEquals("Type2", station.getChargers().get(0).getConnectors().get(0).getConnectorType());
+	}
+
+	@Test
+	void failedBulkWritesAreReportedAndTheRestOfTheChunkIsKept() throws Exception {
+		mongoTemplate.indexOps(Station.class).ensureIndex(new Index("stationName", Direction.ASC).unique());
+		mongoTemplate.insert(new Document("_id", "STN-EXISTING").append("stationName", "Taken Hub"), "station");
+		List<Map<String, String>> rows = List.of(station("first hub"), station("taken hub"), station("third hub"));
+
+		StationImportReportDTO report = run(csv(rows), "text/csv");
+
+		assertEquals(3, report.getStations());
+		assertEquals(2, report.getImported());
+		assertEquals(1, report.getFailed());
+		assertEquals(1, report.getErrors().size());
+		assertEquals(3, report.getErrors().get(0).getLine());
+		assertEquals("Taken Hub", report.getErrors().get(0).getStationName());
+		assertTrue(report.getErrors().get(0).getMessages().get(0).startsWith("not written"));
+		assertNotNull(stored("First Hub"));
+		assertNotNull(stored("Third Hub"));
+	}
+
+	@Test
+	void errorsAreCappedAndUnknownContentTypesRejected() throws Exception {
+		List<Map<String, String>> rows = new ArrayList<>();
+		for (int i = 0; i < 15; i++) {
+			Map<String, String> row = station("hub " + i);
+			row.remove("stationArea");
+			rows.add(row);
+		}
+
+		StationImportReportDTO report = run(csv(rows), "text/csv");
+
+		assertEquals(15, report.getFailed());
+		assertEquals(10, report.getErrors().size());
+		assertThrows(InValidDataException.class, () -> run("a,b", "application/xml"));
+		assertThrows(InValidDataException.class, () -> run("a,b", null));
+	}
+
+	@Test
+	void manyStationsAreImportedAcrossChunks() throws Exception {
+		ReflectionTestUtils.setField(importService, "chunkSize", 1000);
+		List<Map<String, String>> rows = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			rows.add(station("hub " + i));
+			rows.add(charger("SN-T" + i));
+			rows.add(connector(1));
+			rows.add(connector(2));
+		}
+
+		StationImportReportDTO report = run(csv(rows), "text/csv");
+
+		assertEquals(2000, report.getImported());
+		assertEquals(0, report.getFailed());
+		assertEquals(2000, mongoTemplate.count(new Query(), Station.class));
+		Station last = stored("Hub 1999");
+		assertEquals("SN-T1999", last.getChargers().get(0).getChargerSerialNumber());
+		assertEquals(2, last.getChargers().get(0).getConnectors().size());
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.vst.station.MongoTestSupport;
+import com.vst.station.index.ChargerSerialNumberIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StationLookupCacheTest {
+
+	private MongoTestSupport mongo;
+
+	private MongoTemplate mongoTemplate;
+
+	private StationLookupCache cache;
+
+	@BeforeEach
+	void start() {
+		mongo = new MongoTestSupport();
+		mongoTemplate = mongo.getMongoTemplate();
+		cache = new StationLookupCache();
+		ReflectionTestUtils.setField(cache, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(cache, "chargerSerialNumberIndex", new ChargerSerialNumberIndex());
+		ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "maximumSize", 2L);
+		ReflectionTestUtils.setField(cache, "expireAfterWriteSeconds", 300L);
+		cache.init();
+	}
+
+	@AfterEach
+	void stop() {
+		mongo.close();
+	}
+
+	private void station(String stationId, String... serialNumbers) {
+		Document[] chargers = new Document[serialNumbers.length];
+		for (int i = 0; i < serialNumbers.length; i++)
+			chargers[i] = new Document("_id", stationId + "-CHG" + i).append("chargerSerialNumber", serialNumbers[i]);
+		mongoTemplate.save(new Document("_id", stationId).append("isActive", true).append("chargers",
+				Arrays.asList(chargers)), "station");
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, String> serialNumbers() {
+		return (Map<String, String>) ReflectionTestUtils.getField(cache, "stationIdsBySerialNumber");
+	}
+
+	@Test
+	void serialNumbersAreForgottenWithTheStation() {
+		station("STN1", "SN1", "SN2");
+		assertNotNull(cache.findByStationIdAndIsActiveTrue("STN1"));
+		assertEquals(Map.of("SN1", "STN1", "SN2", "STN1"), serialNumbers());
+
+		cache.evictStation("STN1");
+		assertTrue(serialNumbers().isEmpty());
+	}
+
+	@Test
+	void movedChargerKeepsItsNewStation() {
+		station("STN1", "SN1");
+		cache.findByStationIdAndIsActiveTrue("STN1");
+		station("STN1");
+		station("STN2", "SN1");
+		cache.findByStationIdAndIsActiveTrue("STN2");
+
+		cache.evictStation("STN1");
+		assertEquals(Map.of("SN1", "STN2"), serialNumbers());
+	}
+
+	@Test
+	void mappingIsBoundedByTheCachedStations() {
+		for (int i = 0; i < 50; i++) {
+			station("STN" + i, "SN" + i);
+			cache.findByStationIdAndIsActiveTrue("STN" + i);
+		}
+		((Cache<?, ?>) ReflectionTestUtils.getField(cache, "stations")).cleanUp();
+
+		assertTrue(serialNumbers().size() <= 2, serialNumbers().toString());
+	}
+
+}
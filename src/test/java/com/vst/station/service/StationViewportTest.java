@@ -0,0 +1,104 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vst.station.MongoTestSupport;
+import com.vst.station.dto.StationViewportDTO;
+
+class StationViewportTest {
+
+	private MongoTestSupport mongo;
+
+	private StationServiceImpl stationService;
+
+	private ConnectorStateStore connectorStateStore = new ConnectorStateStore();
+
+	@BeforeEach
+	void start() {
+		mongo = new MongoTestSupport();
+		stationService = new StationServiceImpl();
+		ReflectionTestUtils.setField(stationService, "mongoTemplate", mongo.getMongoTemplate());
+		ReflectionTestUtils.setField(stationService, "clusterMaxZoom", 13);
+		ReflectionTestUtils.setField(stationService, "cellsPerTile", 4);
+		ReflectionTestUtils.setField(stationService, "viewportMaxStations", 2);
+		ReflectionTestUtils.setField(stationService, "connectorStateStore", connectorStateStore);
+		for (int i = 0; i < 3; i++)
+			mongo.getMongoTemplate().insert(new Document("_id", "STN" + i).append("stationName", "Station " + i)
+					.append("stationLatitude", 12.9 + i * 0.01).append("stationLongitude", 77.5 + i * 0.01)
+					.append("isActive", true), "station");
+	}
+
+	@AfterEach
+	void stop() {
+		mongo.close();
+	}
+
+	@Test
+	void cappedStationListIsFlagged() {
+		StationViewportDTO viewport = stationService.getStationsInViewport(12.0, 77.0, 14.0, 78.0, 16);
+
+		assertEquals(2, viewport.getStations().size());
+		assertTrue(viewport.isTruncated());
+		assertEquals(3L, viewport.getTotalStations());
+	}
+
+	@Test
+	void completeStationListIsNotFlagged() {
+		ReflectionTestUtils.setField(stationService, "viewportMaxStations", 3);
+		StationViewportDTO viewport = stationService.getStationsInViewport(12.0, 77.0, 14.0, 78.0, 16);
+
+		assertEquals(3, viewport.getStations().size());
+		assertFalse(viewport.isTruncated());
+		assertNull(viewport.getTotalStations());
+	}
+
+	@Test
+	void cappedClusterListIsFlagged() {
+		ReflectionTestUtils.setField(stationService, "cellsPerTile", 1000);
+		StationViewportDTO viewport = stationService.getStationsInViewport(12.0, 77.0, 14.0, 78.0, 10);
+
+		assertEquals(2, viewport.getClusters().size());
+		assertTrue(viewport.isTruncated());
+		assertEquals(3L, viewport.getTotalStations());
+	}
+
+	@Test
+	void clustersCountStoredConnectorStatesInSplitMode() {
+		ReflectionTestUtils.setField(connectorStateStore, "split", true);
+		mongo.getMongoTemplate().save(new Document("_id", "STN9").append("stationLatitude", -33.9)
+				.append("stationLongitude", 18.4).append("isActive", true)
+				.append("chargers", Arrays.asList(new Document("_id", "CHG9").append("isActive", true).append(
+						"connectors",
+						Arrays.asList(connector("CON1", "Available"), connector("CON2", "Available"),
+								connector("CON3", "Unavailable"), connector("CON4", "Unavailable"))))),
+				"station");
+		mongo.getMongoTemplate().save(new Document("_id", "CON1").append("stationId", "STN9")
+				.append("connectorStatus", "Charging"), "connectorState");
+		mongo.getMongoTemplate().save(new Document("_id", "CON3").append("stationId", "STN9")
+				.append("connectorStatus", "Available"), "connectorState");
+		mongo.getMongoTemplate().save(new Document("_id", "CON4").append("stationId", "STN9")
+				.append("connectorStatus", "available"), "connectorState");
+
+		StationViewportDTO viewport = stationService.getStationsInViewport(-34.0, 18.0, -33.0, 19.0, 8);
+
+		assertEquals(1, viewport.getClusters().size());
+		// CON1 is charging according to its stored state, CON2 has none and keeps its embedded status
+		assertEquals(3, viewport.getClusters().get(0).getAvailableConnectors());
+	}
+
+	private Document connector(String connectorId, String status) {
+		return new Document("_id", connectorId).append("isActive", true).append("connectorStatus", status);
+	}
+
+}
@@ -0,0 +1,250 @@
+package com.vst.station.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.vst.station.exception.InValidDataException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserServiceClientTest {
+
+	private static final int MAX_CONCURRENCY = 4;
+
+	private HttpServer server;
+
+	private ExecutorService serverExecutor;
+
+	private UserServiceClient client;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final Queue<String> rawQueries = new ConcurrentLinkedQueue<>();
+
+	private volatile long delayMs;
+
+	private volatile int status = 200;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		serverExecutor = Executors.newCachedThreadPool();
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/manageUser/getByContactNo", this::answer);
+		server.setExecutor(serverExecutor);
+		server.start();
+
+		client = client(1000, MAX_CONCURRENCY);
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.close();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@Test
+	void lookupsOfOneCallRunInParallelUpToTheLimit() {
+		delayMs = 100;
+
+		long start = System.nanoTime();
+		Map<String, String> userIds = client.findUserIds("contactNo", identifiers("9100000", 20));
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertEquals(20, userIds.size());
+		assertEquals("user9100000", userIds.get("9100000"));
+		assertEquals(MAX_CONCURRENCY, maxInFlight.get());
+		// 20 lookups of 100 ms, 4 at a time: about 500 ms, not the 2 s of a sequential loop
+		assertTrue(elapsedMs < 1500, "lookups took " + elapsedMs + " ms");
+	}
+
+	@Test
+	void concurrentCallsShareTheLimit() throws Exception {
+		delayMs = 50;
+		ExecutorService callers = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<Map<String, String>>> calls = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				String prefix = "92" + i + "0000";
+				calls.add(callers.submit(() -> client.findUserIds("contactNo", identifiers(prefix, 10))));
+			}
+			for (Future<Map<String, String>> call : calls)
+				assertEquals(10, call.get().size());
+		} finally {
+			callers.shutdownNow();
+		}
+
+		assertEquals(30, requests.get());
+		assertTrue(maxInFlight.get() <= MAX_CONCURRENCY, maxInFlight.get() + " requests in flight");
+	}
+
+	@Test
+	void slowLookupTimesOut() {
+		client.close();
+		client = client(200, MAX_CONCURRENCY);
+		delayMs = 2000;
+
+		long start = System.nanoTime();
+		assertThrows(InValidDataException.class, () -> client.findUserIds("contactNo", List.of("9300000")));
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertTrue(elapsedMs < 1500, "timed out after " + elapsedMs + " ms");
+	}
+
+	@Test
+	void plusOfInternationalNumbersIsEncoded() {
+		Map<String, String> userIds = client.findUserIds("contactNo", List.of("+919876543210"));
+
+		assertEquals("user+919876543210", userIds.get("+919876543210"));
+		assertEquals("userContactNo=%2B919876543210", rawQueries.peek());
+	}
+
+	@Test
+	void unknownUserIsNullAndCached() {
+		status = 404;
+
+		assertNull(client.findUserIds("contactNo", List.of("9400000")).get("9400000"));
+		assertNull(client.findUserIds("contactNo", List.of("9400000")).get("9400000"));
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	void circuitOpensProbesAndCloses() throws InterruptedException {
+		ReflectionTestUtils.setField(client, "openMs", 200L);
+		status = 500;
+
+		// open: 5 failed lookups, then calls fail without a request
+		assertTrue(client.findUserIds("contactNo", identifiers("9600000", 5)).values().stream()
+				.allMatch(userId -> userId == null));
+		assertEquals(1.0, circuitOpen());
+		assertThrows(InValidDataException.class, () -> client.findUserIds("contactNo", List.of("9610000")));
+		assertEquals(5, requests.get());
+
+		// half open: a failed probe opens the circuit again before the rest of the call is sent
+		Thread.sleep(300);
+		assertThrows(InValidDataException.class,
+				() -> client.findUserIds("contactNo", identifiers("9620000", 3)));
+		assertEquals(6, requests.get());
+		assertEquals(1.0, circuitOpen());
+
+		// half open: the prober's probe succeeds, the rest of its lookups follow in parallel
+		Thread.sleep(300);
+		status = 200;
+		delayMs = 50;
+		Map<String, String> userIds = client.findUserIds("contactNo", identifiers("9630000", 9));
+
+		assertEquals(9, userIds.size());
+		assertEquals("user9630008", userIds.get("9630008"));
+		assertEquals(15, requests.get());
+		assertEquals(0.0, circuitOpen());
+		assertEquals(MAX_CONCURRENCY, maxInFlight.get());
+	}
+
+	@Test
+	void thousandLookupsOverlapAndAreThenCached() {
+		client.close();
+		client = client(5000, 16);
+		delayMs = 40;
+		List<String> identifiers = identifiers("9500000", 1000);
+
+		long start = System.nanoTime();
+		Map<String, String> userIds = client.findUserIds("contactNo", identifiers);
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertEquals(1000, userIds.size());
+		assertTrue(userIds.values().stream().allMatch(userId -> userId != null));
+		assertTrue(maxInFlight.get() <= 16, maxInFlight.get() + " requests in flight");
+		// one at a time the 40 ms stub needs 40 s; 16 at a time 2.5 s plus the client overhead
+		assertTrue(elapsedMs < 20_000, "1000 lookups took " + elapsedMs + " ms");
+
+		start = System.nanoTime();
+		client.findUserIds("contactNo", identifiers);
+		long cachedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertEquals(1000, requests.get());
+		assertTrue(cachedMs < 1000, "1000 cached lookups took " + cachedMs + " ms");
+	}
+
+	private double circuitOpen() {
+		MeterRegistry meterRegistry = (MeterRegistry) ReflectionTestUtils.getField(client, "meterRegistry");
+		return meterRegistry.get("userService.circuit.open").gauge().value();
+	}
+
+	private UserServiceClient client(long requestTimeoutMs, int maxConcurrency) {
+		UserServiceClient userServiceClient = new UserServiceClient();
+		ReflectionTestUtils.setField(userServiceClient, "userServiceLink",
+				"http://127.0.0.1:" + server.getAddress().getPort());
+		ReflectionTestUtils.setField(userServiceClient, "connectTimeoutMs", 1000L);
+		ReflectionTestUtils.setField(userServiceClient, "requestTimeoutMs", requestTimeoutMs);
+		ReflectionTestUtils.setField(userServiceClient, "maxConcurrency", maxConcurrency);
+		ReflectionTestUtils.setField(userServiceClient, "cacheMaximumSize", 10000L);
+		ReflectionTestUtils.setField(userServiceClient, "expireAfterWriteSeconds", 600L);
+		ReflectionTestUtils.setField(userServiceClient, "negativeExpireAfterWriteSeconds", 60L);
+		ReflectionTestUtils.setField(userServiceClient, "failureThreshold", 5);
+		ReflectionTestUtils.setField(userServiceClient, "openMs", 30000L);
+		ReflectionTestUtils.setField(userServiceClient, "meterRegistry", new SimpleMeterRegistry());
+		userServiceClient.init();
+		return userServiceClient;
+	}
+
+	private void answer(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try {
+			rawQueries.add(exchange.getRequestURI().getRawQuery());
+			if (delayMs > 0)
+				Thread.sleep(delayMs);
+			String contactNo = exchange.getRequestURI().getQuery().substring("userContactNo=".length());
+			byte[] body = ("user" + contactNo).getBytes(StandardCharsets.UTF_8);
+			if (status != 200) {
+				exchange.sendResponseHeaders(status, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			inFlight.decrementAndGet();
+			exchange.close();
+		}
+	}
+
+	private static List<String> identifiers(String prefix, int count) {
+		List<String> identifiers = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+			identifiers.add(String.valueOf(Long.parseLong(prefix) + i));
+		return identifiers;
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.vst.station.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class IdAndDateGeneratorTest {
+
+	private static final int THREADS = 16;
+
+	private static final int IDS = 10_000_000;
+
+	/**
+	 * Ids are kept as longs (yyMMddHHmmssSSS followed by the four digit
+	 * sequence) to fit 10M of them in memory; the node id is checked apart.
+	 */
+	@Test
+	void tenMillionIdsFromManyThreadsAreUniqueAndIncreasingPerThread() throws Exception {
+		IdAndDateGenerator.setNodeId(42);
+		IdAndDateGenerator generator = new IdAndDateGenerator();
+		int perThread = IDS / THREADS;
+		CountDownLatch go = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<long[]>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++)
+			futures.add(executor.submit(() -> {
+				long[] keys = new long[perThread];
+				go.await();
+				for (int i = 0; i < perThread; i++) {
+					String id = generator.idGenerator();
+					if (id.length() != 24 || !id.startsWith("042", 17))
+						throw new AssertionError("Malformed id " + id);
+					keys[i] = Long.parseLong(id.substring(2, 17)) * 10_000 + Long.parseLong(id.substring(20));
+					if (i > 0 && keys[i] <= keys[i - 1])
+						throw new AssertionError("Id " + id + " is not increasing");
+				}
+				return keys;
+			}));
+		go.countDown();
+
+		long[] all = new long[perThread * THREADS];
+		int offset = 0;
+		for (Future<long[]> future : futures) {
+			long[] keys = future.get();
+			System.arraycopy(keys, 0, all, offset, keys.length);
+			offset += keys.length;
+		}
+		executor.shutdown();
+
+		assertEquals(IDS, all.length);
+		Arrays.sort(all);
+		for (int i = 1; i < all.length; i++)
+			assertTrue(all[i] > all[i - 1], "duplicate id key " + all[i]);
+	}
+
+}
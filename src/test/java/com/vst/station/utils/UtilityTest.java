@@ -0,0 +1,79 @@
+package com.vst.station.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class UtilityTest {
+
+	private static final String ALPHABET = "aZ09-_ .:/éßǆωİ٠   \t\n"
+			+ "😀𐐨\ud800";
+
+	private final Utility utility = new Utility();
+
+	/** The implementation before the character scan. */
+	private static String legacySanitization(String inputId) {
+		return inputId.replaceAll("[^a-zA-Z0-9]", "");
+	}
+
+	/** The implementation before the character scan. */
+	private static String legacyTitleCase(String input) {
+		StringBuilder titleCase = new StringBuilder(input.length());
+		boolean nextTitleCase = true;
+		for (char c : input.toCharArray()) {
+			if (Character.isSpaceChar(c)) {
+				nextTitleCase = true;
+			} else if (nextTitleCase) {
+				c = Character.toTitleCase(c);
+				nextTitleCase = false;
+			}
+			titleCase.append(c);
+		}
+		return titleCase.toString();
+	}
+
+	private static void assertEquivalent(Utility utility, String input) {
+		assertEquals(legacySanitization(input), utility.stringSanitization(input), () -> "sanitization of " + input);
+		assertEquals(legacyTitleCase(input), utility.toTitleCase(input), () -> "title case of " + input);
+	}
+
+	@Test
+	void matchesTheLegacyImplementationsOnSelectedInput() {
+		String[] inputs = { "", " ", "STN20240101120000000", "stn-2024_01/01", "  leading and trailing  ",
+				"école ßtraße", "ǆemal İstanbul", "tab\tseparated\nlines",
+				"non breaking em line", "😀 smile 𐐨deseret", "lone \ud800 high",
+				"٠١ arabic digits", "Already Title Cased", "a", "Z" };
+		for (String input : inputs)
+			assertEquivalent(utility, input);
+	}
+
+	@Test
+	void matchesTheLegacyImplementationsOnRandomInput() {
+		Random random = new Random(20240301L);
+		StringBuilder input = new StringBuilder();
+		for (int n = 0; n < 200_000; n++) {
+			input.setLength(0);
+			int length = random.nextInt(24);
+			for (int i = 0; i < length; i++)
+				input.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			assertEquivalent(utility, input.toString());
+		}
+	}
+
+	@Test
+	void returnsTheSameInstanceForCleanInput() {
+		String id = "STN20240301120000000042";
+		String name = "Baner Charging Hub";
+		String lowerCaseName = "baner charging hub";
+
+		assertSame(id, utility.stringSanitization(id));
+		assertSame(name, utility.toTitleCase(name));
+		assertNotSame(lowerCaseName, utility.toTitleCase(lowerCaseName));
+		assertNotSame(name, utility.stringSanitization(name));
+	}
+
+}